@@ -0,0 +1,156 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.data.binder.BeanPropertySet;
+import com.vaadin.flow.data.binder.PropertySet;
+import com.vaadin.flow.data.binder.Setter;
+import com.vaadin.flow.function.ValueProvider;
+
+/**
+ * Benchmarks for reading and writing bean properties through
+ * {@link BeanPropertySet}, compared to invoking the accessor methods through
+ * reflection.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanPropertySetBenchmark {
+
+    /**
+     * Bean used in the benchmark.
+     */
+    public static class Person {
+        private String name = "Jon";
+        private int age = 42;
+        private Person parent;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public Person getParent() {
+            return parent;
+        }
+
+        public void setParent(Person parent) {
+            this.parent = parent;
+        }
+    }
+
+    private final Person person = new Person();
+
+    private ValueProvider<Person, String> nameGetter;
+    private Setter<Person, String> nameSetter;
+    private ValueProvider<Person, Integer> ageGetter;
+    private ValueProvider<Person, String> parentNameGetter;
+
+    private Method nameReadMethod;
+    private Method nameWriteMethod;
+    private Method ageReadMethod;
+
+    private int counter;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        person.setParent(new Person());
+
+        PropertySet<Person> propertySet = BeanPropertySet.get(Person.class);
+        nameGetter = (ValueProvider<Person, String>) propertySet
+                .getProperty("name").get().getGetter();
+        nameSetter = (Setter<Person, String>) propertySet.getProperty("name")
+                .get().getSetter().get();
+        ageGetter = (ValueProvider<Person, Integer>) propertySet
+                .getProperty("age").get().getGetter();
+        parentNameGetter = (ValueProvider<Person, String>) propertySet
+                .getProperty("parent.name").get().getGetter();
+
+        PropertyDescriptor name = new PropertyDescriptor("name", Person.class);
+        nameReadMethod = name.getReadMethod();
+        nameWriteMethod = name.getWriteMethod();
+        ageReadMethod = new PropertyDescriptor("age", Person.class)
+                .getReadMethod();
+    }
+
+    @Benchmark
+    public Object getReflective() throws Exception {
+        return nameReadMethod.invoke(person);
+    }
+
+    @Benchmark
+    public Object getProperty() {
+        return nameGetter.apply(person);
+    }
+
+    @Benchmark
+    public Object getPrimitiveReflective() throws Exception {
+        return ageReadMethod.invoke(person);
+    }
+
+    @Benchmark
+    public Object getPrimitiveProperty() {
+        return ageGetter.apply(person);
+    }
+
+    @Benchmark
+    public Object getNestedProperty() {
+        return parentNameGetter.apply(person);
+    }
+
+    @Benchmark
+    public void setReflective() throws Exception {
+        nameWriteMethod.invoke(person, counter++ % 2 == 0 ? "Jon" : "Jane");
+    }
+
+    @Benchmark
+    public void setProperty() {
+        nameSetter.accept(person, counter++ % 2 == 0 ? "Jon" : "Jane");
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.Properties;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+
+/**
+ * A UI attached to a locked session of a {@link BenchmarkVaadinService}, so
+ * that the full server-side round trip can be run without a servlet container.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class BenchmarkUI extends UI {
+
+    /**
+     * A session that is locked by the thread that created it.
+     */
+    private static class BenchmarkSession extends VaadinSession {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private BenchmarkSession(VaadinService service) {
+            super(service);
+            lock();
+        }
+
+        @Override
+        public Lock getLockInstance() {
+            return lock;
+        }
+    }
+
+    /**
+     * Creates a new UI using the default deployment configuration.
+     */
+    public BenchmarkUI() {
+        this(new Properties());
+    }
+
+    /**
+     * Creates a new UI using a deployment configuration with the given init
+     * parameters.
+     *
+     * @param initParameters
+     *            the init parameters of the deployment configuration
+     */
+    public BenchmarkUI(Properties initParameters) {
+        VaadinService service = new BenchmarkVaadinService(initParameters);
+        VaadinSession session = new BenchmarkSession(service);
+        session.setConfiguration(service.getDeploymentConfiguration());
+        getInternals().setSession(session);
+    }
+
+    @Override
+    protected void init(VaadinRequest request) {
+        // Nothing to initialize
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+import com.vaadin.flow.server.DefaultDeploymentConfiguration;
+import com.vaadin.flow.server.DependencyFilter;
+import com.vaadin.flow.server.PwaRegistry;
+import com.vaadin.flow.server.RouteRegistry;
+import com.vaadin.flow.server.VaadinContext;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.startup.ApplicationRouteRegistry;
+
+/**
+ * A minimal {@link VaadinService} that is not connected to any servlet
+ * container, used for running benchmarks against real UI and session
+ * instances.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class BenchmarkVaadinService extends VaadinService {
+
+    private final VaadinContext context = new BenchmarkVaadinContext();
+
+    private final ApplicationRouteRegistry routeRegistry = ApplicationRouteRegistry
+            .getInstance(context);
+
+    /**
+     * Creates a new service with the given init parameters.
+     *
+     * @param initParameters
+     *            the init parameters of the deployment configuration
+     */
+    public BenchmarkVaadinService(Properties initParameters) {
+        super(new DefaultDeploymentConfiguration(BenchmarkVaadinService.class,
+                initParameters));
+    }
+
+    /**
+     * Creates a new service with the default deployment configuration.
+     */
+    public BenchmarkVaadinService() {
+        this(new Properties());
+    }
+
+    @Override
+    public Iterable<DependencyFilter> getDependencyFilters() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    protected RouteRegistry getRouteRegistry() {
+        return routeRegistry;
+    }
+
+    @Override
+    protected PwaRegistry getPwaRegistry() {
+        return null;
+    }
+
+    @Override
+    public String getContextRootRelativePath(VaadinRequest request) {
+        return "./";
+    }
+
+    @Override
+    public String getMimeType(String resourceName) {
+        return null;
+    }
+
+    @Override
+    protected boolean requestCanCreateSession(VaadinRequest request) {
+        return true;
+    }
+
+    @Override
+    public String getServiceName() {
+        return "benchmark";
+    }
+
+    @Override
+    public String getMainDivId(VaadinSession session, VaadinRequest request) {
+        return "benchmark";
+    }
+
+    @Override
+    public URL getStaticResource(String url) {
+        return null;
+    }
+
+    @Override
+    public URL getResource(String url) {
+        return null;
+    }
+
+    @Override
+    public InputStream getResourceAsStream(String url) {
+        return null;
+    }
+
+    @Override
+    public String resolveResource(String url) {
+        return url;
+    }
+
+    @Override
+    protected VaadinContext constructVaadinContext() {
+        return context;
+    }
+
+    /**
+     * In-memory context without any context parameters.
+     */
+    private static class BenchmarkVaadinContext implements VaadinContext {
+        private final Map<Class<?>, Object> attributes = new HashMap<>();
+
+        @Override
+        public synchronized <T> T getAttribute(Class<T> type,
+                Supplier<T> defaultValueSupplier) {
+            Object value = attributes.get(type);
+            if (value == null && defaultValueSupplier != null) {
+                value = defaultValueSupplier.get();
+                attributes.put(type, value);
+            }
+            return type.cast(value);
+        }
+
+        @Override
+        public synchronized <T> void setAttribute(Class<T> clazz, T value) {
+            attributes.put(clazz, value);
+        }
+
+        @Override
+        public synchronized void removeAttribute(Class<?> clazz) {
+            attributes.remove(clazz);
+        }
+
+        @Override
+        public Enumeration<String> getContextParameterNames() {
+            return Collections.emptyEnumeration();
+        }
+
+        @Override
+        public String getContextParameter(String name) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.internal.change.NodeChange;
+
+/**
+ * Benchmarks for collecting changes from dirty state nodes and for visiting
+ * the state tree, without encoding the changes.
+ * <p>
+ * The results are normalized to one collected change or one visited node, so
+ * that running with {@code -prof gc} gives the bytes allocated by the
+ * framework for each of them as {@code gc.alloc.rate.norm}.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChangeCollectionBenchmark {
+
+    private static final int NODES = 1000;
+
+    private static final int NODES_PER_LEVEL = 100;
+
+    private BenchmarkUI ui;
+
+    private Element[] elements;
+
+    private int counter;
+
+    private Blackhole blackhole;
+
+    private Consumer<NodeChange> collector;
+
+    private Consumer<StateNode> visitor;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        collector = this.blackhole::consume;
+        visitor = this.blackhole::consume;
+
+        ui = new BenchmarkUI();
+        elements = new Element[NODES];
+        Element parent = ui.getElement();
+        for (int i = 0; i < NODES; i++) {
+            Element element = new Element("div");
+            parent.appendChild(element);
+            elements[i] = element;
+            if (i % NODES_PER_LEVEL == NODES_PER_LEVEL - 1) {
+                parent = element;
+            }
+        }
+        collectChanges();
+    }
+
+    /**
+     * Changes one property of each node and collects the resulting changes.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NODES)
+    public void collectPropertyChanges() {
+        counter++;
+        for (Element element : elements) {
+            element.setProperty("value", counter);
+        }
+        collectChanges();
+    }
+
+    /**
+     * Marks each node as dirty without changing it and collects the (empty)
+     * changes.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NODES)
+    public void collectUnchangedDirtyNodes() {
+        for (Element element : elements) {
+            element.getNode().markAsDirty();
+        }
+        collectChanges();
+    }
+
+    /**
+     * Visits the whole state tree top-down.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NODES)
+    public void visitNodeTree() {
+        ui.getElement().getNode().visitNodeTree(visitor);
+    }
+
+    private void collectChanges() {
+        StateTree stateTree = ui.getInternals().getStateTree();
+        stateTree.collectChanges(collector);
+    }
+}
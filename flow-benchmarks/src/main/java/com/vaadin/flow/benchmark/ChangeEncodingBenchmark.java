@@ -0,0 +1,117 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.ConstantPool;
+import com.vaadin.flow.internal.change.CompactChangeEncoder;
+import com.vaadin.flow.internal.change.NodeChange;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+
+/**
+ * Compares the size and encoding time of state changes in the regular JSON
+ * format and in the compact format enabled by the
+ * {@code compactStateChanges} parameter.
+ * <p>
+ * The number of bytes of one encoded message is reported as the
+ * {@code messageBytes} secondary result.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChangeEncodingBenchmark {
+
+    /**
+     * Reports the size of the last encoded message.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class MessageSize {
+        public long messageBytes;
+    }
+
+    @Param({ "100", "1000" })
+    private int size;
+
+    private final List<NodeChange> changes = new ArrayList<>();
+
+    private final ConstantPool constantPool = new ConstantPool();
+
+    @Setup
+    public void setup() {
+        BenchmarkUI ui = new BenchmarkUI();
+        for (int i = 0; i < size; i++) {
+            Element element = new Element("vaadin-text-field");
+            element.setAttribute("theme", "small");
+            element.setProperty("label", "Field " + i);
+            element.setProperty("value", i);
+            element.addEventListener("change", event -> {
+            });
+            ui.getElement().appendChild(element);
+        }
+        ui.getInternals().getStateTree().collectChanges(changes::add);
+    }
+
+    @Benchmark
+    public String json(MessageSize messageSize) {
+        JsonArray array = Json.createArray();
+        for (NodeChange change : changes) {
+            array.set(array.length(), change.toJson(constantPool));
+        }
+        return measure(array, messageSize);
+    }
+
+    @Benchmark
+    public String compact(MessageSize messageSize) {
+        CompactChangeEncoder encoder = new CompactChangeEncoder();
+        JsonArray array = Json.createArray();
+        for (NodeChange change : changes) {
+            array.set(array.length(), encoder.encode(change, constantPool));
+        }
+        return measure(array, messageSize);
+    }
+
+    private static String measure(JsonArray array, MessageSize messageSize) {
+        String json = array.toJson();
+        messageSize.messageBytes = json.length();
+        return json;
+    }
+}
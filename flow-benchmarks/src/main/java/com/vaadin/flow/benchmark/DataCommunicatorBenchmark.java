@@ -0,0 +1,144 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.data.provider.ArrayUpdater;
+import com.vaadin.flow.data.provider.DataCommunicator;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.ConstantPool;
+
+import elemental.json.JsonValue;
+
+/**
+ * Benchmarks flushing data to the client through a {@link DataCommunicator}
+ * while scrolling through an in-memory data provider.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataCommunicatorBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({ "10000" })
+    private int itemCount;
+
+    private BenchmarkUI ui;
+
+    private DataCommunicator<Integer> dataCommunicator;
+
+    private final ConstantPool constantPool = new ConstantPool();
+
+    private Blackhole blackhole;
+
+    private int start;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        ui = new BenchmarkUI();
+        Element element = new Element("vaadin-grid");
+        ui.getElement().appendChild(element);
+
+        List<Integer> items = IntStream.range(0, itemCount).boxed()
+                .collect(Collectors.toList());
+
+        dataCommunicator = new DataCommunicator<>((item, json) -> {
+            json.put("name", "Item " + item);
+            json.put("value", item.doubleValue());
+        }, new ConsumingArrayUpdater(), blackhole::consume, element.getNode());
+        dataCommunicator.setDataProvider(DataProvider.ofCollection(items),
+                null);
+        dataCommunicator.setRequestedRange(0, PAGE_SIZE);
+        StateTreeBenchmark.collectChanges(ui, constantPool, blackhole);
+    }
+
+    /**
+     * Moves the requested range by half a page and flushes the changes.
+     */
+    @Benchmark
+    public void scroll() {
+        start += PAGE_SIZE / 2;
+        if (start + PAGE_SIZE > itemCount) {
+            start = 0;
+        }
+        dataCommunicator.setRequestedRange(start, PAGE_SIZE);
+        StateTreeBenchmark.collectChanges(ui, constantPool, blackhole);
+    }
+
+    /**
+     * Resets the data communicator so that the whole active range is sent
+     * again.
+     */
+    @Benchmark
+    public void reset() {
+        dataCommunicator.reset();
+        StateTreeBenchmark.collectChanges(ui, constantPool, blackhole);
+    }
+
+    private class ConsumingArrayUpdater implements ArrayUpdater {
+
+        @Override
+        public Update startUpdate(int sizeChange) {
+            return new Update() {
+                @Override
+                public void clear(int start, int length) {
+                    blackhole.consume(length);
+                }
+
+                @Override
+                public void set(int start, List<JsonValue> items) {
+                    blackhole.consume(items);
+                }
+
+                @Override
+                public void commit(int updateId) {
+                    blackhole.consume(updateId);
+                }
+            };
+        }
+
+        @Override
+        public void initialize() {
+            // Nothing to initialize
+        }
+    }
+}
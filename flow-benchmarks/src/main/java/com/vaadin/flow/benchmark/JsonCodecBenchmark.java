@@ -0,0 +1,105 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.JsonCodec;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
+/**
+ * Benchmarks for encoding and decoding values with {@link JsonCodec}.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    private Element element;
+
+    private JsonObject object;
+
+    private JsonValue encodedString;
+
+    private JsonValue encodedNumber;
+
+    @Setup
+    public void setup() {
+        BenchmarkUI ui = new BenchmarkUI();
+        element = new Element("div");
+        ui.getElement().appendChild(element);
+
+        object = Json.createObject();
+        object.put("name", "value");
+        JsonArray array = Json.createArray();
+        for (int i = 0; i < 10; i++) {
+            array.set(i, i);
+        }
+        object.put("array", array);
+
+        encodedString = Json.create("value");
+        encodedNumber = Json.create(42);
+    }
+
+    @Benchmark
+    public void encodePrimitives(Blackhole blackhole) {
+        blackhole.consume(JsonCodec.encodeWithTypeInfo("value"));
+        blackhole.consume(JsonCodec.encodeWithTypeInfo(Integer.valueOf(42)));
+        blackhole.consume(JsonCodec.encodeWithTypeInfo(Boolean.TRUE));
+        blackhole.consume(JsonCodec.encodeWithTypeInfo(null));
+    }
+
+    @Benchmark
+    public JsonValue encodeJson() {
+        return JsonCodec.encodeWithTypeInfo(object);
+    }
+
+    @Benchmark
+    public JsonValue encodeElement() {
+        return JsonCodec.encodeWithTypeInfo(element);
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) {
+        blackhole.consume(JsonCodec.decodeAs(encodedString, String.class));
+        blackhole.consume(JsonCodec.decodeAs(encodedNumber, int.class));
+        blackhole.consume(JsonCodec.decodeAs(encodedNumber, Double.class));
+        blackhole.consume(JsonCodec.decodeWithoutTypeInfo(object));
+    }
+}
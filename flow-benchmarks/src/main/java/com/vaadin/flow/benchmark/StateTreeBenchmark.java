@@ -0,0 +1,159 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.ConstantPool;
+import com.vaadin.flow.internal.StateTree;
+
+import elemental.json.JsonObject;
+
+/**
+ * Benchmarks for building, modifying and collecting changes from the state
+ * tree of a UI.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateTreeBenchmark {
+
+    @Param({ "100", "1000" })
+    private int size;
+
+    private BenchmarkUI ui;
+
+    private ConstantPool constantPool;
+
+    private Element container;
+
+    private int counter;
+
+    @Setup
+    public void setup() {
+        ui = new BenchmarkUI();
+        constantPool = new ConstantPool();
+        container = new Element("div");
+        for (int i = 0; i < size; i++) {
+            container.appendChild(new Element("span").setText("Item " + i));
+        }
+        ui.getElement().appendChild(container);
+        collectChanges(ui, constantPool, null);
+    }
+
+    /**
+     * Attaches and detaches a tree of {@code size} elements, ten levels deep,
+     * collecting the changes after each operation.
+     */
+    @Benchmark
+    public void attachDeepTree(Blackhole blackhole) {
+        Element root = new Element("div");
+        Element parent = root;
+        int perLevel = Math.max(1, size / 10);
+        for (int i = 0; i < size; i++) {
+            Element child = new Element("div");
+            child.setAttribute("class", "level");
+            child.setProperty("index", i);
+            parent.appendChild(child);
+            if (i % perLevel == perLevel - 1) {
+                parent = child;
+            }
+        }
+
+        ui.getElement().appendChild(root);
+        collectChanges(ui, constantPool, blackhole);
+        root.removeFromParent();
+        collectChanges(ui, constantPool, blackhole);
+    }
+
+    /**
+     * Changes a property of every attached element and collects the changes.
+     */
+    @Benchmark
+    public void propertyChanges(Blackhole blackhole) {
+        counter++;
+        int childCount = container.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            container.getChild(i).setProperty("value", counter);
+        }
+        collectChanges(ui, constantPool, blackhole);
+    }
+
+    /**
+     * Replaces a tenth of the children of a large element and collects the
+     * changes.
+     */
+    @Benchmark
+    public void nodeListUpdates(Blackhole blackhole) {
+        counter++;
+        int count = Math.max(1, size / 10);
+        for (int i = 0; i < count; i++) {
+            container.removeChild(0);
+            container.appendChild(
+                    new Element("span").setText("Item " + counter + i));
+        }
+        collectChanges(ui, constantPool, blackhole);
+    }
+
+    /**
+     * Collects and encodes all pending changes of the given UI in the same way
+     * as when writing a response.
+     *
+     * @param ui
+     *            the UI to collect changes from
+     * @param constantPool
+     *            the constant pool to use for encoding
+     * @param blackhole
+     *            the blackhole to consume the encoded changes, or
+     *            <code>null</code> to discard them
+     */
+    static void collectChanges(BenchmarkUI ui, ConstantPool constantPool,
+            Blackhole blackhole) {
+        StateTree stateTree = ui.getInternals().getStateTree();
+        stateTree.runExecutionsBeforeClientResponse();
+        stateTree.collectChanges(change -> {
+            if (blackhole != null) {
+                blackhole.consume(change.toJson(constantPool));
+            }
+        });
+        if (constantPool.hasNewConstants()) {
+            JsonObject constants = constantPool.dumpConstants();
+            if (blackhole != null) {
+                blackhole.consume(constants);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.communication.ServerRpcHandler;
+import com.vaadin.flow.server.communication.ServerRpcHandler.InvalidUIDLSecurityKeyException;
+import com.vaadin.flow.server.communication.UidlWriter;
+import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+/**
+ * Benchmarks a full UIDL round trip: parsing and handling an RPC message with
+ * a number of DOM events and writing the response with the resulting changes.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UidlRoundTripBenchmark {
+
+    @Param({ "10", "100" })
+    private int events;
+
+    private BenchmarkUI ui;
+
+    private VaadinRequest request;
+
+    private JsonArray invocations;
+
+    private final ServerRpcHandler rpcHandler = new ServerRpcHandler();
+
+    private final UidlWriter uidlWriter = new UidlWriter();
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    @Setup
+    public void setup() throws IOException, InvalidUIDLSecurityKeyException {
+        ui = new BenchmarkUI();
+        request = (VaadinRequest) Proxy.newProxyInstance(
+                VaadinRequest.class.getClassLoader(),
+                new Class<?>[] { VaadinRequest.class },
+                (proxy, method, args) -> "getService".equals(method.getName())
+                        ? ui.getSession().getService()
+                        : null);
+
+        invocations = Json.createArray();
+        for (int i = 0; i < events; i++) {
+            Element button = new Element("button");
+            Element label = new Element("span");
+            button.addEventListener("click",
+                    event -> label.setText(String.valueOf(System.nanoTime())));
+            ui.getElement().appendChild(button, label);
+
+            JsonObject invocation = Json.createObject();
+            invocation.put(JsonConstants.RPC_TYPE, JsonConstants.RPC_TYPE_EVENT);
+            invocation.put(JsonConstants.RPC_NODE, button.getNode().getId());
+            invocation.put(JsonConstants.RPC_EVENT_TYPE, "click");
+            invocations.set(i, invocation);
+        }
+        roundTrip();
+    }
+
+    @Benchmark
+    public int roundTrip()
+            throws IOException, InvalidUIDLSecurityKeyException {
+        JsonObject message = Json.createObject();
+        message.put(ApplicationConstants.CSRF_TOKEN, ui.getCsrfToken());
+        message.put(ApplicationConstants.SERVER_SYNC_ID,
+                ui.getInternals().getServerSyncId());
+        message.put(ApplicationConstants.CLIENT_TO_SERVER_ID,
+                ui.getInternals().getLastProcessedClientToServerId() + 1);
+        message.put(ApplicationConstants.RPC_INVOCATIONS, invocations);
+
+        rpcHandler.handleRpc(ui, new StringReader(message.toJson()), request);
+
+        buffer.reset();
+        Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+        uidlWriter.writeUidl(ui, false, false, writer);
+        writer.flush();
+        return buffer.size();
+    }
+}
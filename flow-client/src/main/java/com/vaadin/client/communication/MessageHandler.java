@@ -132,6 +132,13 @@ public class MessageHandler {
 
     private boolean initialMessageHandled;
 
+    /**
+     * The map keys received in compact state changes, kept for all messages
+     * until the UI is resynchronized.
+     */
+    private final JsArray<String> compactChangeMapKeys = JsCollections
+            .array();
+
     /**
      * Timer used to make sure that no misbehaving components can delay response
      * handling forever.
@@ -383,7 +390,15 @@ public class MessageHandler {
             }
 
             if (json.hasKey("changes")) {
-                processChanges(json);
+                processChanges(json.getArray("changes"));
+            } else if (json.hasKey(JsonConstants.UIDL_KEY_COMPACT_CHANGES)) {
+                if (isResynchronize(valueMap)) {
+                    // The server starts over with an empty table of map keys
+                    compactChangeMapKeys.clear();
+                }
+                processChanges(TreeChangeProcessor.expandCompactChanges(
+                        json.getArray(JsonConstants.UIDL_KEY_COMPACT_CHANGES),
+                        compactChangeMapKeys));
             }
 
             if (json.hasKey(JsonConstants.UIDL_KEY_EXECUTE)) {
@@ -467,10 +482,10 @@ public class MessageHandler {
 
     }
 
-    private void processChanges(JsonObject json) {
+    private void processChanges(JsonArray changes) {
         StateTree tree = registry.getStateTree();
         JsSet<StateNode> updatedNodes = TreeChangeProcessor.processChanges(tree,
-                json.getArray("changes"));
+                changes);
 
         if (!registry.getApplicationConfiguration().isProductionMode()) {
             try {
@@ -42,6 +42,13 @@ public class MessageSender {
     private int clientToServerMessageId = 0;
     private PushConnection push;
 
+    /**
+     * Whether the server has been told that compact state changes are
+     * supported. Only the first message carries the flag, the server
+     * remembers it for the UI.
+     */
+    private boolean compactChangesAnnounced;
+
     private final Registry registry;
     private final PushConnectionFactory pushConnectionFactory;
 
@@ -132,6 +139,10 @@ public class MessageSender {
                 registry.getMessageHandler().getLastSeenServerSyncId());
         payload.put(ApplicationConstants.CLIENT_TO_SERVER_ID,
                 clientToServerMessageId++);
+        if (!compactChangesAnnounced) {
+            payload.put(ApplicationConstants.COMPACT_CHANGES_SUPPORTED, true);
+            compactChangesAnnounced = true;
+        }
 
         if (extraJson != null) {
             for (String key : extraJson.keys()) {
@@ -25,8 +25,10 @@ import com.vaadin.client.flow.nodefeature.NodeMap;
 import com.vaadin.client.flow.util.ClientJsonCodec;
 import com.vaadin.flow.shared.JsonConstants;
 
+import elemental.json.Json;
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
+import elemental.json.JsonType;
 import elemental.json.JsonValue;
 
 /**
@@ -73,6 +75,60 @@ public class TreeChangeProcessor {
         }
     }
 
+    /**
+     * Converts a JSON array of changes in the compact format into a JSON array
+     * of changes in the regular object format that can be passed to
+     * {@link #processChanges(StateTree, JsonArray)}.
+     *
+     * <p>
+     * Map keys are sent as strings only the first time they occur on a
+     * connection, after which they are referred to by their index. The given
+     * table of map keys is updated with the new keys, and the same table
+     * should be passed for all messages.
+     *
+     * @param compactChanges
+     *            the JSON array of changes in the compact format
+     * @param mapKeys
+     *            the map keys received so far, not <code>null</code>
+     * @return a JSON array of changes as JSON objects
+     * @see JsonConstants#COMPACT_CHANGE_KEYS
+     */
+    public static JsonArray expandCompactChanges(JsonArray compactChanges,
+            JsArray<String> mapKeys) {
+        JsonArray changes = Json.createArray();
+
+        int length = compactChanges.length();
+        for (int i = 0; i < length; i++) {
+            JsonArray compact = compactChanges.getArray(i);
+            int mask = (int) compact.getNumber(0);
+
+            JsonObject change = Json.createObject();
+            int valueIndex = 1;
+            for (int k = 0; k < JsonConstants.COMPACT_CHANGE_KEYS.size(); k++) {
+                if ((mask & (1 << k)) == 0) {
+                    continue;
+                }
+                String key = JsonConstants.COMPACT_CHANGE_KEYS.get(k);
+                JsonValue value = compact.get(valueIndex++);
+                if (JsonConstants.CHANGE_TYPE.equals(key)) {
+                    change.put(key, JsonConstants.COMPACT_CHANGE_TYPES
+                            .get((int) value.asNumber()));
+                } else if (JsonConstants.CHANGE_MAP_KEY.equals(key)) {
+                    if (value.getType() == JsonType.STRING) {
+                        mapKeys.push(value.asString());
+                        change.put(key, value);
+                    } else {
+                        change.put(key, mapKeys.get((int) value.asNumber()));
+                    }
+                } else {
+                    change.put(key, value);
+                }
+            }
+            changes.set(i, change);
+        }
+        return changes;
+    }
+
     private static JsSet<StateNode> processAttachChanges(StateTree tree,
             JsonArray changes) {
         JsSet<StateNode> nodes = JsCollections.set();
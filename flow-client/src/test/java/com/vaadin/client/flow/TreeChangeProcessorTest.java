@@ -23,16 +23,20 @@ import org.junit.Test;
 
 import com.vaadin.client.InitialPropertiesHandler;
 import com.vaadin.client.Registry;
+import com.vaadin.client.flow.collection.JsArray;
+import com.vaadin.client.flow.collection.JsCollections;
 import com.vaadin.client.flow.collection.JsSet;
 import com.vaadin.client.flow.nodefeature.MapProperty;
 import com.vaadin.client.flow.nodefeature.NodeList;
 import com.vaadin.flow.internal.JsonUtils;
+import com.vaadin.flow.internal.change.CompactChangeEncoder;
 import com.vaadin.flow.internal.nodefeature.NodeFeatures;
 import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.json.Json;
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
+import elemental.json.JsonType;
 import elemental.json.JsonValue;
 
 public class TreeChangeProcessorTest {
@@ -316,6 +320,44 @@ public class TreeChangeProcessorTest {
         Assert.assertNull(child.getParent());
     }
 
+    @Test
+    public void testExpandCompactChanges() {
+        JsonArray changes = toArray(attachChange(2),
+                putChange(rootId, ns, myKey, Json.create(myValue)),
+                putNodeChange(rootId, ns + 1, myKey, 2),
+                removeChange(2, ns, myKey),
+                spliceChange(rootId, ns, 1, 0, Json.create("foo")),
+                populateChange(2, true, ns), detachChange(2));
+
+        CompactChangeEncoder encoder = new CompactChangeEncoder();
+        JsonArray compactChanges = JsonUtils.<JsonObject> stream(changes)
+                .map(encoder::encode).collect(JsonUtils.asArray());
+
+        JsonArray expanded = TreeChangeProcessor
+                .expandCompactChanges(compactChanges, JsCollections.array());
+
+        Assert.assertTrue(JsonUtils.jsonEquals(changes, expanded));
+    }
+
+    @Test
+    public void testExpandCompactChanges_mapKeysKeptBetweenMessages() {
+        CompactChangeEncoder encoder = new CompactChangeEncoder();
+        JsArray<String> mapKeys = JsCollections.array();
+        JsonObject first = putChange(rootId, ns, myKey, Json.create(myValue));
+        JsonObject second = removeChange(2, ns, myKey);
+
+        TreeChangeProcessor.expandCompactChanges(
+                toArray(encoder.encode(first)), mapKeys);
+        JsonArray compact = encoder.encode(second);
+        Assert.assertEquals("Map key should be sent as an index",
+                JsonType.NUMBER, compact.get(4).getType());
+        JsonArray expanded = TreeChangeProcessor
+                .expandCompactChanges(toArray(compact), mapKeys);
+
+        Assert.assertTrue(
+                JsonUtils.jsonEquals(toArray(second), expanded));
+    }
+
     private static JsonArray toArray(JsonValue... changes) {
         return Arrays.stream(changes).collect(JsonUtils.asArray());
     }
@@ -19,8 +19,13 @@ import java.beans.IntrospectionException;
 import java.beans.PropertyDescriptor;
 import java.io.IOException;
 import java.io.Serializable;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,10 +33,14 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.vaadin.flow.function.ValueProvider;
 import com.vaadin.flow.internal.BeanUtil;
 
@@ -113,13 +122,11 @@ public class BeanPropertySet<T> implements PropertySet<T> {
             super(propertySet, propertyHolderType, descriptor);
         }
 
+        private transient volatile PropertyAccessor accessor;
+
         @Override
         public ValueProvider<T, V> getGetter() {
-            return bean -> {
-                Method readMethod = getDescriptor().getReadMethod();
-                Object value = invokeWrapExceptions(readMethod, bean);
-                return getType().cast(value);
-            };
+            return bean -> getType().cast(getAccessor().read(bean));
         }
 
         @Override
@@ -128,17 +135,24 @@ public class BeanPropertySet<T> implements PropertySet<T> {
                 return Optional.empty();
             }
 
-            Setter<T, V> setter = (bean, value) -> {
-                // Do not "optimize" this getter call,
-                // if its done outside the code block, that will produce
-                // NotSerializableException because of some lambda compilation
-                // magic
-                Method innerSetter = getDescriptor().getWriteMethod();
-                invokeWrapExceptions(innerSetter, bean, value);
-            };
+            Setter<T, V> setter = (bean, value) -> getAccessor().write(bean,
+                    value);
             return Optional.of(setter);
         }
 
+        private PropertyAccessor getAccessor() {
+            /*
+             * Accessors are not serializable, so they are created lazily and
+             * only referenced from the lambdas through this definition.
+             */
+            PropertyAccessor result = accessor;
+            if (result == null) {
+                result = new PropertyAccessor(getDescriptor());
+                accessor = result;
+            }
+            return result;
+        }
+
         private Object writeReplace() {
             /*
              * Instead of serializing this actual property definition, only
@@ -176,6 +190,8 @@ public class BeanPropertySet<T> implements PropertySet<T> {
 
         private final PropertyDefinition<T, ?> parent;
 
+        private transient volatile PropertyAccessor accessor;
+
         /**
          * Creates a new instance of a nested property definition.
          *
@@ -195,12 +211,8 @@ public class BeanPropertySet<T> implements PropertySet<T> {
 
         @Override
         public ValueProvider<T, V> getGetter() {
-            return bean -> {
-                Method readMethod = getDescriptor().getReadMethod();
-                Object value = invokeWrapExceptions(readMethod,
-                        parent.getGetter().apply(bean));
-                return getType().cast(value);
-            };
+            return bean -> getType().cast(
+                    getAccessor().read(parent.getGetter().apply(bean)));
         }
 
         @Override
@@ -209,18 +221,20 @@ public class BeanPropertySet<T> implements PropertySet<T> {
                 return Optional.empty();
             }
 
-            Setter<T, V> setter = (bean, value) -> {
-                // Do not "optimize" this getter call,
-                // if its done outside the code block, that will produce
-                // NotSerializableException because of some lambda compilation
-                // magic
-                Method innerSetter = getDescriptor().getWriteMethod();
-                invokeWrapExceptions(innerSetter,
-                        parent.getGetter().apply(bean), value);
-            };
+            Setter<T, V> setter = (bean, value) -> getAccessor()
+                    .write(parent.getGetter().apply(bean), value);
             return Optional.of(setter);
         }
 
+        private PropertyAccessor getAccessor() {
+            PropertyAccessor result = accessor;
+            if (result == null) {
+                result = new PropertyAccessor(getDescriptor());
+                accessor = result;
+            }
+            return result;
+        }
+
         @Override
         public String getName() {
             return parent.getName() + "." + super.getName();
@@ -248,6 +262,142 @@ public class BeanPropertySet<T> implements PropertySet<T> {
         }
     }
 
+    /**
+     * Reads and writes the value of a bean property. The accessor methods are
+     * invoked through classes generated with {@link LambdaMetafactory} when
+     * possible, so that the JIT compiler can inline them like any direct call.
+     * Methods that cannot be linked that way, e.g. because they are not
+     * accessible or the bean type is not visible to the class loader of this
+     * class, are invoked through reflection.
+     * <p>
+     * The accessors are created once for each property definition, which in
+     * turn are cached together with their property set.
+     */
+    private static class PropertyAccessor {
+        private final Function<Object, Object> reader;
+        private final BiConsumer<Object, Object> writer;
+
+        private PropertyAccessor(PropertyDescriptor descriptor) {
+            reader = createReader(descriptor.getReadMethod());
+            Method writeMethod = descriptor.getWriteMethod();
+            writer = writeMethod == null ? null : createWriter(writeMethod);
+        }
+
+        private Object read(Object bean) {
+            return reader.apply(bean);
+        }
+
+        private void write(Object bean, Object value) {
+            writer.accept(bean, value);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Function<Object, Object> createReader(Method method) {
+            if (canGenerate(method)) {
+                try {
+                    MethodHandle handle = LOOKUP.unreflect(method);
+                    Function<Object, Object> generated = (Function<Object, Object>) LambdaMetafactory
+                            .metafactory(LOOKUP, "apply",
+                                    MethodType.methodType(Function.class),
+                                    MethodType.methodType(Object.class,
+                                            Object.class),
+                                    handle, handle.type().wrap())
+                            .getTarget().invokeExact();
+                    return bean -> {
+                        Objects.requireNonNull(bean);
+                        try {
+                            return generated.apply(bean);
+                        } catch (Throwable e) { // NOSONAR
+                            throw wrapException(e);
+                        }
+                    };
+                } catch (Throwable e) { // NOSONAR
+                    getLogger().debug(
+                            "Using reflection for invoking {} since an accessor cannot be generated",
+                            method, e);
+                }
+            }
+            return bean -> invokeWrapExceptions(method, bean);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static BiConsumer<Object, Object> createWriter(Method method) {
+            if (canGenerate(method)) {
+                try {
+                    MethodHandle handle = LOOKUP.unreflect(method);
+                    BiConsumer<Object, Object> generated = (BiConsumer<Object, Object>) LambdaMetafactory
+                            .metafactory(LOOKUP, "accept",
+                                    MethodType.methodType(BiConsumer.class),
+                                    MethodType.methodType(void.class,
+                                            Object.class, Object.class),
+                                    handle,
+                                    handle.type().wrap()
+                                            .changeReturnType(void.class))
+                            .getTarget().invokeExact();
+                    return (bean, value) -> {
+                        Objects.requireNonNull(bean);
+                        try {
+                            generated.accept(bean, value);
+                        } catch (Throwable e) { // NOSONAR
+                            throw wrapException(e);
+                        }
+                    };
+                } catch (Throwable e) { // NOSONAR
+                    getLogger().debug(
+                            "Using reflection for invoking {} since an accessor cannot be generated",
+                            method, e);
+                }
+            }
+            return (bean, value) -> invokeWrapExceptions(method, bean, value);
+        }
+
+        private static RuntimeException wrapException(Throwable exception) {
+            /*
+             * Same as what invokeWrapExceptions produces for exceptions thrown
+             * by the method. A null bean is rejected before the call just like
+             * Method.invoke does.
+             */
+            return new RuntimeException(
+                    new InvocationTargetException(exception));
+        }
+
+        private static boolean canGenerate(Method method) {
+            if (!Modifier.isPublic(method.getModifiers())
+                    || !Modifier.isPublic(
+                            method.getDeclaringClass().getModifiers())) {
+                return false;
+            }
+            /*
+             * The generated class is defined in the context of this class, so
+             * all the types in the method signature must resolve to the same
+             * classes from here.
+             */
+            if (!isVisible(method.getDeclaringClass())
+                    || !isVisible(method.getReturnType())) {
+                return false;
+            }
+            return Stream.of(method.getParameterTypes())
+                    .allMatch(PropertyAccessor::isVisible);
+        }
+
+        private static boolean isVisible(Class<?> type) {
+            Class<?> componentType = type;
+            while (componentType.isArray()) {
+                componentType = componentType.getComponentType();
+            }
+            if (componentType.isPrimitive()) {
+                return true;
+            }
+            try {
+                return Class.forName(componentType.getName(), false,
+                        BeanPropertySet.class.getClassLoader()) == componentType;
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+
+    }
+
     /**
      * Key for identifying cached BeanPropertySet instances.
      *
@@ -310,6 +460,8 @@ public class BeanPropertySet<T> implements PropertySet<T> {
 
     private static final ConcurrentMap<InstanceKey<?>, BeanPropertySet<?>> INSTANCES = new ConcurrentHashMap<>();
 
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
     private final InstanceKey<T> instanceKey;
 
     private final Map<String, PropertyDefinition<T, ?>> definitions;
@@ -510,6 +662,10 @@ public class BeanPropertySet<T> implements PropertySet<T> {
                 && readMethod.getDeclaringClass() != Object.class;
     }
 
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(BeanPropertySet.class);
+    }
+
     private static Object invokeWrapExceptions(Method method, Object target,
             Object... parameters) {
         try {
@@ -36,7 +36,17 @@ public abstract class AbstractBackEndDataProvider<T, F> extends
 
     private List<QuerySortOrder> sortOrders = new ArrayList<>();
 
-    private Query<T, F> mixInSortOrders(Query<T, F> query) {
+    /**
+     * Combines the sort orders of the given query with the default sort orders
+     * of this data provider.
+     *
+     * @param query
+     *            the query to combine the sort orders into
+     * @return a query with the combined sort orders, or the given query if no
+     *         default sort orders are set
+     * @since
+     */
+    protected Query<T, F> mixInSortOrders(Query<T, F> query) {
         if (sortOrders.isEmpty()) {
             return query;
         }
@@ -15,6 +15,8 @@
  */
 package com.vaadin.flow.data.provider;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -37,6 +39,9 @@ public abstract class AbstractComponentDataGenerator<T>
 
     private final Map<String, Component> renderedComponents = new HashMap<>();
 
+    private final Deque<Component> recycledComponents = new ArrayDeque<>();
+    private int recycledComponentPoolSize;
+
     @Override
     public void refreshData(T item) {
         String itemKey = getItemKey(item);
@@ -57,7 +62,17 @@ public abstract class AbstractComponentDataGenerator<T>
     public void destroyData(T item) {
         String itemKey = getItemKey(item);
         Component renderedComponent = renderedComponents.remove(itemKey);
-        if (renderedComponent != null) {
+        if (renderedComponent == null) {
+            return;
+        }
+        if (recycledComponents.size() < recycledComponentPoolSize) {
+            /*
+             * The component stays attached to the container so that its state
+             * node is not detached and the client side doesn't have to
+             * recreate the DOM when it is used again.
+             */
+            recycledComponents.push(renderedComponent);
+        } else {
             renderedComponent.getElement().removeFromParent();
         }
     }
@@ -67,6 +82,46 @@ public abstract class AbstractComponentDataGenerator<T>
         renderedComponents.values().forEach(
                 component -> component.getElement().removeFromParent());
         renderedComponents.clear();
+        recycledComponents.forEach(
+                component -> component.getElement().removeFromParent());
+        recycledComponents.clear();
+    }
+
+    /**
+     * Sets the maximum number of components that are kept for reuse when the
+     * items they represent are destroyed, e.g. when the rows of a grid are
+     * scrolled out of view. The default is <code>0</code>, which means that
+     * components are never reused.
+     * <p>
+     * A recycled component is bound to a new item through
+     * {@link #updateComponent(Component, Object)}, so recycling only avoids
+     * creating new components if that method updates and returns the given
+     * component instance. Recycled components stay attached to the container,
+     * so their state is not sent to the client again when they are reused.
+     *
+     * @param poolSize
+     *            the maximum number of recycled components, not negative
+     */
+    public void setRecycledComponentPoolSize(int poolSize) {
+        if (poolSize < 0) {
+            throw new IllegalArgumentException(
+                    "The pool size cannot be negative");
+        }
+        recycledComponentPoolSize = poolSize;
+        while (recycledComponents.size() > poolSize) {
+            recycledComponents.pop().getElement().removeFromParent();
+        }
+    }
+
+    /**
+     * Gets the maximum number of components that are kept for reuse when the
+     * items they represent are destroyed.
+     *
+     * @return the maximum number of recycled components
+     * @see #setRecycledComponentPoolSize(int)
+     */
+    public int getRecycledComponentPoolSize() {
+        return recycledComponentPoolSize;
     }
 
     /**
@@ -129,6 +184,38 @@ public abstract class AbstractComponentDataGenerator<T>
         renderedComponents.put(itemKey, component);
     }
 
+    /**
+     * Gets a component for the given item and registers it for future use
+     * during the lifecycle of the generator. A recycled component is updated
+     * for the item if there is one, otherwise a new component is created and
+     * appended to the container.
+     *
+     * @param itemKey
+     *            the key of the model item
+     * @param item
+     *            the data item, possibly <code>null</code>
+     * @return the registered component representing the item
+     * @see #setRecycledComponentPoolSize(int)
+     */
+    protected Component createAndRegisterComponent(String itemKey, T item) {
+        Component recycledComponent = recycledComponents.poll();
+        if (recycledComponent == null) {
+            Component component = createComponent(item);
+            registerRenderedComponent(itemKey, component);
+            return component;
+        }
+
+        Component component = updateComponent(recycledComponent, item);
+        if (component == recycledComponent) {
+            // Already a child of the container
+            renderedComponents.put(itemKey, component);
+        } else {
+            recycledComponent.getElement().removeFromParent();
+            registerRenderedComponent(itemKey, component);
+        }
+        return component;
+    }
+
     protected Component getRenderedComponent(String itemKey) {
         return renderedComponents.get(itemKey);
     }
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.concurrent.TimeUnit;
+
+import com.vaadin.flow.internal.Range;
+
+/**
+ * A {@link PrefetchStrategy} which fetches items in the direction the client
+ * is scrolling.
+ * <p>
+ * The number of prefetched items is adapted to the scrolling speed and the
+ * measured duration of the queries to the data provider: at least one page is
+ * prefetched, and more when scrolling fast or when the data provider is slow,
+ * so that the items have been fetched by the time the client requests them.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class AdaptivePrefetchStrategy implements PrefetchStrategy {
+
+    /**
+     * The default maximum number of pages to prefetch.
+     */
+    public static final int DEFAULT_MAX_PREFETCH_PAGES = 8;
+
+    // Scrolling pauses longer than this reset the measured velocity
+    private static final long VELOCITY_TIMEOUT_NANOS = TimeUnit.SECONDS
+            .toNanos(1);
+
+    private final int maxPrefetchPages;
+
+    private Range lastRequestedRange;
+    private long lastRequestNanos;
+    private boolean scrollingBackwards;
+
+    // Smoothed scrolling velocity in rows per second
+    private double velocity;
+
+    // Smoothed query duration in nanoseconds
+    private double queryNanos;
+
+    /**
+     * Creates a new strategy prefetching at most
+     * {@value #DEFAULT_MAX_PREFETCH_PAGES} pages.
+     */
+    public AdaptivePrefetchStrategy() {
+        this(DEFAULT_MAX_PREFETCH_PAGES);
+    }
+
+    /**
+     * Creates a new strategy prefetching at most the given number of pages.
+     *
+     * @param maxPrefetchPages
+     *            the maximum number of pages to prefetch, at least 1
+     */
+    public AdaptivePrefetchStrategy(int maxPrefetchPages) {
+        if (maxPrefetchPages < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Maximum prefetch page count cannot be less than 1, got %d",
+                    maxPrefetchPages));
+        }
+        this.maxPrefetchPages = maxPrefetchPages;
+    }
+
+    @Override
+    public Range getPrefetchRange(Range requestedRange, int pageSize) {
+        long now = getCurrentNanoTime();
+        updateVelocity(requestedRange, now);
+        lastRequestedRange = requestedRange;
+        lastRequestNanos = now;
+
+        if (requestedRange.isEmpty()) {
+            return Range.withLength(0, 0);
+        }
+        int page = Math.max(pageSize, 1);
+        int count = getPrefetchCount(page);
+        if (scrollingBackwards) {
+            int start = Math.max(0, requestedRange.getStart() - count);
+            return Range.between(start, requestedRange.getStart());
+        }
+        return Range.withLength(requestedRange.getEnd(), count);
+    }
+
+    @Override
+    public void queryCompleted(int itemCount, long durationNanos) {
+        queryNanos = queryNanos == 0 ? durationNanos
+                : (queryNanos + durationNanos) / 2;
+    }
+
+    /**
+     * Gets the current smoothed scrolling velocity.
+     *
+     * @return the velocity in rows per second
+     */
+    public double getVelocity() {
+        return velocity;
+    }
+
+    /**
+     * Gets the current smoothed query duration.
+     *
+     * @return the query duration in nanoseconds
+     */
+    public long getQueryDurationNanos() {
+        return (long) queryNanos;
+    }
+
+    /**
+     * Gets the current time used for measuring the scrolling velocity. May be
+     * overridden e.g. for testing.
+     *
+     * @return the current time in nanoseconds
+     */
+    protected long getCurrentNanoTime() {
+        return System.nanoTime();
+    }
+
+    private void updateVelocity(Range requestedRange, long now) {
+        if (lastRequestedRange == null) {
+            return;
+        }
+        int delta = requestedRange.getStart() - lastRequestedRange.getStart();
+        long elapsed = now - lastRequestNanos;
+        if (delta == 0) {
+            return;
+        }
+        scrollingBackwards = delta < 0;
+        if (elapsed <= 0 || elapsed > VELOCITY_TIMEOUT_NANOS) {
+            velocity = 0;
+            return;
+        }
+        double current = Math.abs(delta)
+                / (elapsed / (double) TimeUnit.SECONDS.toNanos(1));
+        velocity = velocity == 0 ? current : (velocity + current) / 2;
+    }
+
+    private int getPrefetchCount(int pageSize) {
+        // Rows scrolled past while a query runs, with a margin of one query
+        double rowsDuringQuery = velocity * 2 * queryNanos
+                / TimeUnit.SECONDS.toNanos(1);
+        long pages = 1 + (long) Math.ceil(rowsDuringQuery / pageSize);
+        return (int) Math.min(pages, maxPrefetchPages) * pageSize;
+    }
+}
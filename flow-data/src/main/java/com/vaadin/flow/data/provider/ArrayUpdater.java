@@ -18,6 +18,8 @@ package com.vaadin.flow.data.provider;
 import java.io.Serializable;
 import java.util.List;
 
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
 import elemental.json.JsonValue;
 
 /**
@@ -64,6 +66,33 @@ public interface ArrayUpdater extends Serializable {
         void commit(int updateId);
     }
 
+    /**
+     * Array updater strategy which receives the items in a columnar format.
+     * <p>
+     * Instead of one JSON object per item, the items are given as an array of
+     * item keys and one array of values for each generated property, so that
+     * the property names are sent only once for all the items.
+     *
+     * @since
+     */
+    public interface ColumnarUpdate extends Update {
+        /**
+         * Sets the items at the {@code start} position. The value of each
+         * property for an item is at the same index in the property's values
+         * array as the key of the item in {@code keys}. Properties that have
+         * not been generated for an item have a <code>null</code> value.
+         *
+         * @param start
+         *            the start index
+         * @param keys
+         *            the keys of the items to set
+         * @param columns
+         *            the values of the items, as an array of values for each
+         *            property name
+         */
+        void set(int start, JsonArray keys, JsonObject columns);
+    }
+
     /**
      * Starts update of an array.
      *
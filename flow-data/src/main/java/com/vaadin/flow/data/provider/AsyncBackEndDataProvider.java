@@ -0,0 +1,93 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
+
+/**
+ * A back end data provider which fetches and counts items asynchronously.
+ * <p>
+ * A {@link DataCommunicator} using this data provider does not hold the
+ * session lock while waiting for the queries to complete. The fetched items are
+ * sent to the client once the returned stages complete, in the next round trip
+ * or immediately if server push is enabled. The returned stages may complete in
+ * any thread, and the queries given to the provider must not be used for
+ * accessing the UI.
+ * <p>
+ * The synchronous {@link #fetch(Query)} and {@link #size(Query)} methods, which
+ * are used e.g. by {@link DataCommunicator#getItem(int)}, wait for the
+ * asynchronous results by default.
+ *
+ * @param <T>
+ *            data provider data type
+ * @param <F>
+ *            data provider filter type
+ *
+ * @author Vaadin Ltd
+ * @since
+ *
+ * @see AsyncCallbackDataProvider
+ */
+public interface AsyncBackEndDataProvider<T, F>
+        extends BackEndDataProvider<T, F> {
+
+    /**
+     * Fetches data asynchronously using the given query. The query defines the
+     * paging of the items to fetch through {@link Query#getOffset()} and
+     * {@link Query#getLimit()}, the sorting through
+     * {@link Query#getSortOrders()} and optionally also any filtering to use
+     * through {@link Query#getFilter()}.
+     *
+     * @param query
+     *            given query to request data with
+     * @return a stage completing with the stream of data objects, not
+     *         <code>null</code>
+     */
+    CompletionStage<Stream<T>> fetchAsync(Query<T, F> query);
+
+    /**
+     * Gets the amount of data asynchronously using the given query.
+     *
+     * @param query
+     *            query with sorting and filtering
+     * @return a stage completing with the size of the data provider, not
+     *         <code>null</code>
+     */
+    CompletionStage<Integer> sizeAsync(Query<T, F> query);
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The default implementation blocks until the stage returned by
+     * {@link #fetchAsync(Query)} completes.
+     */
+    @Override
+    default Stream<T> fetch(Query<T, F> query) {
+        return fetchAsync(query).toCompletableFuture().join();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The default implementation blocks until the stage returned by
+     * {@link #sizeAsync(Query)} completes.
+     */
+    @Override
+    default int size(Query<T, F> query) {
+        return sizeAsync(query).toCompletableFuture().join().intValue();
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.vaadin.flow.function.ValueProvider;
+
+/**
+ * Asynchronous data provider that uses one callback for fetching items from a
+ * back end and another callback for counting the number of available items.
+ *
+ * @author Vaadin Ltd
+ * @since
+ *
+ * @param <T>
+ *            data provider data type
+ * @param <F>
+ *            data provider filter type
+ */
+public class AsyncCallbackDataProvider<T, F>
+        extends AbstractBackEndDataProvider<T, F>
+        implements AsyncBackEndDataProvider<T, F> {
+    /**
+     * Callback interface for asynchronously fetching a stream of items from a
+     * backend based on a query.
+     *
+     * @param <T>
+     *            the type of the items to fetch
+     * @param <F>
+     *            the type of the optional filter in the query,
+     *            <code>Void</code> if filtering is not supported
+     */
+    @FunctionalInterface
+    public interface AsyncFetchCallback<T, F> extends Serializable {
+        /**
+         * Fetches a stream of items based on a query. The query defines the
+         * paging of the items to fetch through {@link Query#getOffset()} and
+         * {@link Query#getLimit()}, the sorting through
+         * {@link Query#getSortOrders()} and optionally also any filtering to
+         * use through {@link Query#getFilter()}.
+         *
+         * @param query
+         *            the query that defines which items to fetch
+         * @return a stage completing with the stream of items
+         */
+        CompletionStage<Stream<T>> fetch(Query<T, F> query);
+    }
+
+    /**
+     * Callback interface for asynchronously counting the number of items in a
+     * backend based on a query.
+     *
+     * @param <T>
+     *            the type of the items to count
+     * @param <F>
+     *            the type of the optional filter in the query,
+     *            <code>Void</code> if filtering is not supported
+     */
+    @FunctionalInterface
+    public interface AsyncCountCallback<T, F> extends Serializable {
+        /**
+         * Counts the number of available items based on a query. The query
+         * optionally defines any filtering to use through
+         * {@link Query#getFilter()}.
+         *
+         * @param query
+         *            the query that defines which items to count
+         * @return a stage completing with the number of available items
+         */
+        CompletionStage<Integer> count(Query<T, F> query);
+    }
+
+    private final AsyncFetchCallback<T, F> fetchCallback;
+    private final AsyncCountCallback<T, F> countCallback;
+    private final ValueProvider<T, Object> idGetter;
+
+    /**
+     * Constructs a new DataProvider to request data asynchronously using
+     * callbacks for fetching and counting items in the back end.
+     *
+     * @param fetchCallback
+     *            function that returns a stage completing with a stream of
+     *            items from the back end for a query
+     * @param countCallback
+     *            function that returns a stage completing with the number of
+     *            items in the back end for a query
+     *
+     * @see #AsyncCallbackDataProvider(AsyncFetchCallback, AsyncCountCallback,
+     *      ValueProvider)
+     */
+    public AsyncCallbackDataProvider(AsyncFetchCallback<T, F> fetchCallback,
+            AsyncCountCallback<T, F> countCallback) {
+        this(fetchCallback, countCallback, t -> t);
+    }
+
+    /**
+     * Constructs a new DataProvider to request data asynchronously using
+     * callbacks for fetching and counting items in the back end.
+     *
+     * @param fetchCallback
+     *            function that returns a stage completing with a stream of
+     *            items from the back end for a query
+     * @param countCallback
+     *            function that returns a stage completing with the number of
+     *            items in the back end for a query
+     * @param identifierGetter
+     *            function that returns the identifier for a given item
+     */
+    public AsyncCallbackDataProvider(AsyncFetchCallback<T, F> fetchCallback,
+            AsyncCountCallback<T, F> countCallback,
+            ValueProvider<T, Object> identifierGetter) {
+        Objects.requireNonNull(fetchCallback, "Request function can't be null");
+        Objects.requireNonNull(countCallback, "Count callback can't be null");
+        Objects.requireNonNull(identifierGetter,
+                "Identifier getter function can't be null");
+        this.fetchCallback = fetchCallback;
+        this.countCallback = countCallback;
+        this.idGetter = identifierGetter;
+    }
+
+    /**
+     * Creates a new data provider which runs the given blocking callbacks
+     * using the given executor.
+     * <p>
+     * The items returned by the fetch callback are collected in the executor,
+     * so that e.g. a stream backed by an open database cursor is fully read
+     * before the callback returns. Any executor can be used, such as a thread
+     * pool sized for the back end connections or an executor starting a new
+     * virtual thread for each query. Serializability of the executor is up to
+     * the application.
+     *
+     * @param fetchCallback
+     *            function that returns a stream of items from the back end for
+     *            a query, not <code>null</code>
+     * @param countCallback
+     *            function that returns the number of items in the back end for
+     *            a query, not <code>null</code>
+     * @param executor
+     *            the executor used for running the callbacks, not
+     *            <code>null</code>
+     * @param <T>
+     *            the data item type
+     * @param <F>
+     *            the filter type
+     * @return a new asynchronous data provider
+     */
+    public static <T, F> AsyncCallbackDataProvider<T, F> fromBlockingCallbacks(
+            CallbackDataProvider.FetchCallback<T, F> fetchCallback,
+            CallbackDataProvider.CountCallback<T, F> countCallback,
+            Executor executor) {
+        Objects.requireNonNull(fetchCallback, "Request function can't be null");
+        Objects.requireNonNull(countCallback, "Count callback can't be null");
+        Objects.requireNonNull(executor, "Executor can't be null");
+        return new AsyncCallbackDataProvider<>(
+                query -> CompletableFuture.supplyAsync(
+                        () -> fetchCallback.fetch(query)
+                                .collect(Collectors.toList()).stream(),
+                        executor),
+                query -> CompletableFuture.supplyAsync(
+                        () -> countCallback.count(query), executor));
+    }
+
+    @Override
+    public CompletionStage<Stream<T>> fetchAsync(Query<T, F> query) {
+        return fetchCallback.fetch(mixInSortOrders(query));
+    }
+
+    @Override
+    public CompletionStage<Integer> sizeAsync(Query<T, F> query) {
+        return countCallback.count(mixInSortOrders(query));
+    }
+
+    @Override
+    protected Stream<T> fetchFromBackEnd(Query<T, F> query) {
+        return fetchCallback.fetch(query).toCompletableFuture().join();
+    }
+
+    @Override
+    protected int sizeInBackEnd(Query<T, F> query) {
+        return countCallback.count(query).toCompletableFuture().join()
+                .intValue();
+    }
+
+    @Override
+    public Object getId(T item) {
+        Object itemId = idGetter.apply(item);
+        assert itemId != null : "AsyncCallbackDataProvider got null as an id for item: "
+                + item;
+        return itemId;
+    }
+}
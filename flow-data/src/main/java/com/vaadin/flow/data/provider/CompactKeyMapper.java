@@ -0,0 +1,335 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.vaadin.flow.function.ValueProvider;
+
+/**
+ * A {@link DataKeyMapper} which uses a compact representation for the
+ * mappings.
+ * <p>
+ * Keys are consecutive integers which are sent to the client in base 36. The
+ * mapped identifiers, objects and keys are kept in flat arrays, and the
+ * entries are found by identifier and by key through open-addressed tables of
+ * array indexes. Compared to {@link KeyMapper}, no map entries or key strings
+ * need to be kept for each mapped object, which considerably reduces the
+ * memory used for components showing many items.
+ *
+ * @param <V>
+ *            the type of mapped objects
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class CompactKeyMapper<V> implements DataKeyMapper<V> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final String NULL_KEY = "null";
+
+    private ValueProvider<V, Object> identifierGetter;
+
+    private int lastKey = 0;
+
+    private int size = 0;
+
+    private Object[] ids;
+    private int[] idHashes;
+    private Object[] objects;
+    private int[] keys;
+
+    // Open-addressed tables of entry index + 1, 0 marks an empty slot
+    private int[] idTable;
+    private int[] keyTable;
+
+    /**
+     * Constructs a new mapper.
+     *
+     * @param identifierGetter
+     *            has to return a unique key for every bean, and the returned
+     *            key has to follow general {@code hashCode()} and
+     *            {@code equals()} contract, see {@link Object#hashCode()} for
+     *            details.
+     */
+    public CompactKeyMapper(ValueProvider<V, Object> identifierGetter) {
+        this.identifierGetter = identifierGetter;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new mapper with trivial {@code identifierGetter}
+     */
+    public CompactKeyMapper() {
+        this(v -> v);
+    }
+
+    @Override
+    public String key(V dataObject) {
+        if (dataObject == null) {
+            return NULL_KEY;
+        }
+
+        // If the object is already mapped, use existing key
+        Object id = identifierGetter.apply(dataObject);
+        int hash = hash(id);
+        int entry = findById(id, hash);
+        if (entry >= 0) {
+            return encode(keys[entry]);
+        }
+
+        // If the object is not yet mapped, map it
+        if (size == keys.length) {
+            resize(keys.length * 2);
+        }
+        entry = size++;
+        ids[entry] = id;
+        idHashes[entry] = hash;
+        objects[entry] = dataObject;
+        keys[entry] = ++lastKey;
+        insert(idTable, hash, entry);
+        insert(keyTable, hash(lastKey), entry);
+
+        return encode(lastKey);
+    }
+
+    @Override
+    public boolean has(V dataObject) {
+        Object id = identifierGetter.apply(dataObject);
+        return findById(id, hash(id)) >= 0;
+    }
+
+    @Override
+    public V get(String key) {
+        int entry = findByKey(key);
+        return entry < 0 ? null : getObject(entry);
+    }
+
+    @Override
+    public void remove(V dataObject) {
+        Object id = identifierGetter.apply(dataObject);
+        int entry = findById(id, hash(id));
+        if (entry >= 0) {
+            removeEntry(entry);
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        // Keys are not reused, so lastKey is not reset
+        size = 0;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Checks if the given key is mapped to an object.
+     *
+     * @param key
+     *            the key to check
+     * @return <code>true</code> if the key is currently mapped,
+     *         <code>false</code> otherwise
+     */
+    public boolean containsKey(String key) {
+        return findByKey(key) >= 0;
+    }
+
+    /**
+     * Gets the number of mapped objects.
+     *
+     * @return the number of mapped objects
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void refresh(V dataObject) {
+        Object id = identifierGetter.apply(dataObject);
+        int entry = findById(id, hash(id));
+        if (entry >= 0) {
+            objects[entry] = dataObject;
+        }
+    }
+
+    @Override
+    public void setIdentifierGetter(ValueProvider<V, Object> identifierGetter) {
+        if (this.identifierGetter != identifierGetter) {
+            this.identifierGetter = identifierGetter;
+            Arrays.fill(idTable, 0);
+            for (int entry = 0; entry < size; entry++) {
+                Object id = identifierGetter.apply(getObject(entry));
+                ids[entry] = id;
+                idHashes[entry] = hash(id);
+                insert(idTable, idHashes[entry], entry);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V getObject(int entry) {
+        return (V) objects[entry];
+    }
+
+    private static String encode(int key) {
+        return Integer.toString(key, Character.MAX_RADIX);
+    }
+
+    private static int decode(String key) {
+        if (key == null || key.isEmpty() || NULL_KEY.equals(key)
+                || !Character.isLetterOrDigit(key.charAt(0))) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(key, Character.MAX_RADIX);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int hash(Object id) {
+        return hash(Objects.hashCode(id));
+    }
+
+    private static int hash(int hashCode) {
+        int hash = hashCode * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private int findById(Object id, int hash) {
+        int mask = idTable.length - 1;
+        for (int slot = hash & mask; idTable[slot] != 0; slot = (slot + 1)
+                & mask) {
+            int entry = idTable[slot] - 1;
+            if (idHashes[entry] == hash && Objects.equals(ids[entry], id)) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private int findByKey(String key) {
+        int intKey = decode(key);
+        if (intKey <= 0) {
+            return -1;
+        }
+        int mask = keyTable.length - 1;
+        for (int slot = hash(intKey) & mask; keyTable[slot] != 0; slot = (slot
+                + 1) & mask) {
+            int entry = keyTable[slot] - 1;
+            if (keys[entry] == intKey) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private static void insert(int[] table, int hash, int entry) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry + 1;
+    }
+
+    private static int findSlot(int[] table, int hash, int entry) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != entry + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void removeEntry(int entry) {
+        deleteSlot(idTable, findSlot(idTable, idHashes[entry], entry), true);
+        deleteSlot(keyTable, findSlot(keyTable, hash(keys[entry]), entry),
+                false);
+
+        // Move the last entry into the freed position to keep entries dense
+        int last = size - 1;
+        if (entry != last) {
+            idTable[findSlot(idTable, idHashes[last], last)] = entry + 1;
+            keyTable[findSlot(keyTable, hash(keys[last]), last)] = entry + 1;
+            ids[entry] = ids[last];
+            idHashes[entry] = idHashes[last];
+            objects[entry] = objects[last];
+            keys[entry] = keys[last];
+        }
+        ids[last] = null;
+        objects[last] = null;
+        size = last;
+
+        if (keys.length > INITIAL_CAPACITY && size < keys.length / 4) {
+            resize(keys.length / 2);
+        }
+    }
+
+    /**
+     * Empties the given slot of a linear probing table, moving back any
+     * following entries which would otherwise no longer be found.
+     */
+    private void deleteSlot(int[] table, int slot, boolean idTable) {
+        int mask = table.length - 1;
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            int value = table[next];
+            if (value == 0) {
+                break;
+            }
+            int entry = value - 1;
+            int home = (idTable ? idHashes[entry] : hash(keys[entry])) & mask;
+            // Move the entry unless its home slot is between the hole and
+            // its current slot
+            boolean stays = hole <= next ? hole < home && home <= next
+                    : hole < home || home <= next;
+            if (!stays) {
+                table[hole] = value;
+                hole = next;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private void allocate(int capacity) {
+        ids = new Object[capacity];
+        idHashes = new int[capacity];
+        objects = new Object[capacity];
+        keys = new int[capacity];
+        idTable = new int[capacity * 2];
+        keyTable = new int[capacity * 2];
+    }
+
+    private void resize(int capacity) {
+        Object[] oldIds = ids;
+        int[] oldIdHashes = idHashes;
+        Object[] oldObjects = objects;
+        int[] oldKeys = keys;
+        allocate(capacity);
+        System.arraycopy(oldIds, 0, ids, 0, size);
+        System.arraycopy(oldIdHashes, 0, idHashes, 0, size);
+        System.arraycopy(oldObjects, 0, objects, 0, size);
+        System.arraycopy(oldKeys, 0, keys, 0, size);
+        for (int entry = 0; entry < size; entry++) {
+            insert(idTable, idHashes[entry], entry);
+            insert(keyTable, hash(keys[entry]), entry);
+        }
+    }
+}
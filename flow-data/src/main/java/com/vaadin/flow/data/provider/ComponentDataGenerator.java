@@ -76,12 +76,12 @@ public class ComponentDataGenerator<T>
 
         int nodeId;
         // If we have a component for the given item use that, else create new
-        // component and register it.
+        // or recycle a component and register it.
         if (oldRenderedComponent != null) {
             nodeId = oldRenderedComponent.getElement().getNode().getId();
         } else {
-            Component renderedComponent = createComponent(item);
-            registerRenderedComponent(itemKey, renderedComponent);
+            Component renderedComponent = createAndRegisterComponent(itemKey,
+                    item);
 
             nodeId = renderedComponent.getElement().getNode().getId();
         }
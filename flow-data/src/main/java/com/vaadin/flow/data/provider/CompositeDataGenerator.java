@@ -40,11 +40,20 @@ public class CompositeDataGenerator<T>
         implements DataGenerator<T>, HasDataGenerators<T> {
 
     private final Set<DataGenerator<T>> dataGenerators = new HashSet<>();
+    private final Set<DataGenerator<T>> inactiveDataGenerators = new HashSet<>();
 
     @Override
     public void generateData(T item, JsonObject jsonObject) {
-        dataGenerators
-                .forEach(generator -> generator.generateData(item, jsonObject));
+        if (inactiveDataGenerators.isEmpty()) {
+            dataGenerators.forEach(
+                    generator -> generator.generateData(item, jsonObject));
+        } else {
+            dataGenerators.forEach(generator -> {
+                if (!inactiveDataGenerators.contains(generator)) {
+                    generator.generateData(item, jsonObject);
+                }
+            });
+        }
     }
 
     @Override
@@ -69,6 +78,49 @@ public class CompositeDataGenerator<T>
         return () -> removeDataGenerator(generator);
     }
 
+    /**
+     * Sets whether the given data generator is used for generating data.
+     * <p>
+     * This can be used for not generating the properties that are not
+     * currently rendered on the client, e.g. for hidden columns. The data of a
+     * generator is destroyed when it is deactivated. When it is activated
+     * again, the items need to be refreshed for the client to receive the
+     * generated properties, e.g. using {@link DataCommunicator#reset()}.
+     *
+     * @param generator
+     *            a data generator added to this composite, not
+     *            <code>null</code>
+     * @param active
+     *            <code>true</code> to generate data using the generator,
+     *            <code>false</code> to skip it
+     * @since
+     */
+    public void setDataGeneratorActive(DataGenerator<T> generator,
+            boolean active) {
+        assert generator != null : "generator should not be null";
+        if (active) {
+            inactiveDataGenerators.remove(generator);
+        } else if (dataGenerators.contains(generator)
+                && inactiveDataGenerators.add(generator)) {
+            generator.destroyAllData();
+        }
+    }
+
+    /**
+     * Gets whether the given data generator is used for generating data.
+     *
+     * @param generator
+     *            the data generator to check
+     * @return <code>true</code> if the generator has been added to this
+     *         composite and is active, <code>false</code> otherwise
+     * @see #setDataGeneratorActive(DataGenerator, boolean)
+     * @since
+     */
+    public boolean isDataGeneratorActive(DataGenerator<T> generator) {
+        return dataGenerators.contains(generator)
+                && !inactiveDataGenerators.contains(generator);
+    }
+
     /**
      * Removes the DataGenerator from the list, destroying its data.
      * 
@@ -78,5 +130,6 @@ public class CompositeDataGenerator<T>
     private void removeDataGenerator(DataGenerator<T> generator) {
         generator.destroyAllData();
         dataGenerators.remove(generator);
+        inactiveDataGenerators.remove(generator);
     }
 }
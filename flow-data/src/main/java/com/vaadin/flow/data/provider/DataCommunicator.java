@@ -21,10 +21,15 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -32,6 +37,7 @@ import java.util.stream.Stream;
 
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.data.provider.ArrayUpdater.Update;
 import com.vaadin.flow.data.provider.DataChangeEvent.DataRefreshEvent;
 import com.vaadin.flow.dom.Element;
@@ -48,6 +54,7 @@ import elemental.json.Json;
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
 import elemental.json.JsonValue;
+import elemental.json.impl.JreJsonObject;
 
 /**
  * DataProvider base class. This class is the base for all DataProvider
@@ -61,12 +68,14 @@ import elemental.json.JsonValue;
  */
 public class DataCommunicator<T> implements Serializable {
     public static final int DEFAULT_PAGE_INCREASE_COUNT = 4;
+    private static final int MAX_PREFETCHED_RANGES = 4;
+    private static final String KEY_PROPERTY = "key";
     private final DataGenerator<T> dataGenerator;
     private final ArrayUpdater arrayUpdater;
     private final SerializableConsumer<JsonArray> dataUpdater;
     private final StateNode stateNode;
 
-    private DataKeyMapper<T> keyMapper = new KeyMapper<>();
+    private DataKeyMapper<T> keyMapper = new CompactKeyMapper<>();
 
     // The range of items that the client wants to have
     private Range requestedRange = Range.between(0, 0);
@@ -114,6 +123,23 @@ public class DataCommunicator<T> implements Serializable {
     private boolean sizeReset;
     private int pageSize;
 
+    private PrefetchStrategy prefetchStrategy;
+    private transient Executor prefetchExecutor;
+
+    // Items fetched ahead of time for the current query conditions, most
+    // recently fetched first
+    private transient LinkedList<PrefetchedItems<T>> prefetchedItems;
+    private transient Range pendingPrefetch;
+    private transient Boolean asyncFetchSupported;
+    // Incremented whenever previously fetched items may have become stale
+    private int queryGeneration;
+
+    // Item count and range of items being fetched from an asynchronous data
+    // provider for the next flush
+    private int fetchedCount = -1;
+    private transient boolean countPending;
+    private transient Range pendingFetch;
+
     private static class SizeVerifier<T> implements Consumer<T>, Serializable {
 
         private int size;
@@ -175,6 +201,7 @@ public class DataCommunicator<T> implements Serializable {
         requestedRange = Range.withLength(start, length);
 
         requestFlush();
+        prefetch();
     }
 
     /**
@@ -188,6 +215,7 @@ public class DataCommunicator<T> implements Serializable {
         resendEntireRange = true;
         dataGenerator.destroyAllData();
         updatedData.clear();
+        discardPrefetchedItems();
         requestFlush();
     }
 
@@ -202,6 +230,7 @@ public class DataCommunicator<T> implements Serializable {
                 "DataCommunicator can not refresh null object");
         getKeyMapper().refresh(data);
         dataGenerator.refreshData(data);
+        discardPrefetchedItems();
         updatedData.add(data);
         requestFlushUpdatedData();
     }
@@ -412,6 +441,52 @@ public class DataCommunicator<T> implements Serializable {
         return pageSize;
     }
 
+    /**
+     * Sets the strategy used for fetching items from the data provider before
+     * the client requests them.
+     * <p>
+     * Whenever the client requests a new range of items, the items in the
+     * range given by the strategy are fetched using the given executor
+     * without holding the session lock, and kept until the client requests
+     * them or the data changes. The data provider must thus support being
+     * queried from other threads. The time taken by the queries is reported
+     * to the strategy, so that e.g. more items can be prefetched from a slow
+     * data provider.
+     * <p>
+     * Items are fetched from an {@link AsyncBackEndDataProvider} using its
+     * asynchronous methods, in which case the executor is not used.
+     *
+     * @param prefetchStrategy
+     *            the strategy to use, or <code>null</code> to not prefetch
+     *            any items
+     * @param executor
+     *            the executor used for running the prefetch queries, not
+     *            <code>null</code> if a strategy is given
+     * @since
+     */
+    public void setPrefetchStrategy(PrefetchStrategy prefetchStrategy,
+            Executor executor) {
+        if (prefetchStrategy != null) {
+            Objects.requireNonNull(executor,
+                    "The executor cannot be null when prefetching is used");
+        }
+        this.prefetchStrategy = prefetchStrategy;
+        this.prefetchExecutor = prefetchStrategy == null ? null : executor;
+        discardPrefetchedItems();
+    }
+
+    /**
+     * Gets the strategy used for fetching items from the data provider before
+     * the client requests them.
+     *
+     * @return the prefetch strategy, or <code>null</code> if items are not
+     *         prefetched
+     * @since
+     */
+    public PrefetchStrategy getPrefetchStrategy() {
+        return prefetchStrategy;
+    }
+
     /**
      * Sets the size callback to be used and switches the component to exact row
      * count. The new count will be used after this roundtrip.
@@ -629,6 +704,8 @@ public class DataCommunicator<T> implements Serializable {
         assert definedSize : "This method should never be called when using undefined size";
         if (countCallback != null) {
             return countCallback.count(new Query(getFilter()));
+        } else if (fetchedCount >= 0) {
+            return fetchedCount;
         } else {
             return getDataProvider().size(new Query(getFilter()));
         }
@@ -672,12 +749,25 @@ public class DataCommunicator<T> implements Serializable {
     protected Stream<T> fetchFromProvider(int offset, int limit) {
         QueryTrace query = new QueryTrace(offset, limit, backEndSorting,
                 inMemorySorting, filter);
-        Stream<T> stream = getDataProvider().fetch(query);
+        return fetchFromProvider(getDataProvider(), query, limit);
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static <T> Stream<T> fetchFromProvider(
+            DataProvider<T, ?> dataProvider, QueryTrace query, int limit) {
+        return verifyFetchedItems(dataProvider, query, limit,
+                dataProvider.fetch(query));
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static <T> Stream<T> verifyFetchedItems(
+            DataProvider<T, ?> dataProvider, QueryTrace query, int limit,
+            Stream<T> stream) {
         if (stream.isParallel()) {
             LoggerFactory.getLogger(DataCommunicator.class)
                     .debug("Data provider {} has returned "
                             + "parallel stream on 'fetch' call",
-                            getDataProvider().getClass());
+                            dataProvider.getClass());
             stream = stream.collect(Collectors.toList()).stream();
             assert !stream.isParallel();
         }
@@ -700,7 +790,7 @@ public class DataCommunicator<T> implements Serializable {
         return stream;
     }
 
-    private String getInvalidContractMessage(String method) {
+    private static String getInvalidContractMessage(String method) {
         return String.format("The data provider hasn't ever called %s() "
                 + "method on the provided query. "
                 + "It means that the the data provider breaks the contract "
@@ -744,7 +834,9 @@ public class DataCommunicator<T> implements Serializable {
                     reset();
                     arrayUpdater.initialize();
                 }
-                flush();
+                if (!fetchAsynchronously()) {
+                    flush();
+                }
                 flushRequest = null;
             };
             stateNode.runWhenAttached(ui -> ui.getInternals().getStateTree()
@@ -752,6 +844,273 @@ public class DataCommunicator<T> implements Serializable {
         }
     }
 
+    /**
+     * Starts fetching the items given by the prefetch strategy, unless they
+     * have already been fetched or are being fetched.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private void prefetch() {
+        if (prefetchStrategy == null || prefetchExecutor == null
+                || !isAsyncFetchSupported()) {
+            return;
+        }
+        Range range = prefetchStrategy.getPrefetchRange(requestedRange,
+                pageSize);
+        if (definedSize && !resendEntireRange && !sizeReset) {
+            range = range.restrictTo(Range.withLength(0, assumedSize));
+        }
+        if (range.isEmpty()
+                || (pendingPrefetch != null && range.isSubsetOf(pendingPrefetch))
+                || getPrefetchedItems(range) != null) {
+            return;
+        }
+
+        int generation = queryGeneration;
+        pendingPrefetch = range;
+
+        CompletableFuture<PrefetchedItems<T>> future = fetchItemsAsync(range,
+                prefetchExecutor);
+        stateNode.runWhenAttached(ui -> future.whenComplete((items,
+                error) -> ui.access(
+                        () -> prefetchCompleted(generation, items, error))));
+    }
+
+    /**
+     * Fetches the items in the given range without blocking and measures the
+     * time taken by the query.
+     */
+    private CompletableFuture<PrefetchedItems<T>> fetchItemsAsync(Range range,
+            Executor executor) {
+        long start = System.nanoTime();
+        return fetchFromProviderAsync(range.getStart(), range.length(),
+                executor).thenApply(items -> new PrefetchedItems<>(range,
+                        items.collect(Collectors.toList()),
+                        System.nanoTime() - start));
+    }
+
+    /**
+     * Fetches a list of items from the DataProvider without blocking. Used for
+     * prefetching items and for fetching items from an
+     * {@link AsyncBackEndDataProvider}.
+     * <p>
+     * The query is created in the calling thread, after which the items are
+     * fetched using the asynchronous methods of an
+     * {@link AsyncBackEndDataProvider}, or by running the query with the given
+     * executor for other data providers. Subclasses that override
+     * {@link #fetchFromProvider(int, int)} should override this method
+     * accordingly, otherwise items are not prefetched.
+     *
+     * @param offset
+     *            the starting index of the range
+     * @param limit
+     *            the max number of results
+     * @param executor
+     *            the executor to run a blocking query with, or
+     *            <code>null</code> if the data provider is an
+     *            {@link AsyncBackEndDataProvider}
+     * @return a future completed with the items in the given range
+     * @since
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    protected CompletableFuture<Stream<T>> fetchFromProviderAsync(int offset,
+            int limit, Executor executor) {
+        DataProvider<T, ?> provider = getDataProvider();
+        QueryTrace query = new QueryTrace(offset, limit,
+                new ArrayList<>(backEndSorting), inMemorySorting, filter);
+
+        CompletableFuture<Stream<T>> stream;
+        if (provider instanceof AsyncBackEndDataProvider) {
+            stream = ((AsyncBackEndDataProvider) provider).fetchAsync(query)
+                    .toCompletableFuture();
+        } else {
+            stream = CompletableFuture
+                    .supplyAsync(() -> provider.fetch(query), executor);
+        }
+        return stream.thenApply(
+                items -> verifyFetchedItems(provider, query, limit, items));
+    }
+
+    /**
+     * Checks whether items can be fetched using
+     * {@link #fetchFromProviderAsync(int, int, Executor)}, i.e. that it is
+     * overridden by any subclass overriding
+     * {@link #fetchFromProvider(int, int)}. A warning is logged otherwise.
+     */
+    private boolean isAsyncFetchSupported() {
+        if (asyncFetchSupported == null) {
+            Class<?> syncFetch = getDeclaringClass("fetchFromProvider",
+                    int.class, int.class);
+            Class<?> asyncFetch = getDeclaringClass("fetchFromProviderAsync",
+                    int.class, int.class, Executor.class);
+            asyncFetchSupported = syncFetch.isAssignableFrom(asyncFetch);
+            if (!asyncFetchSupported) {
+                LoggerFactory.getLogger(DataCommunicator.class).warn(
+                        "{} overrides fetchFromProvider(int, int) but not "
+                                + "fetchFromProviderAsync(int, int, Executor). "
+                                + "Items are not prefetched or fetched "
+                                + "asynchronously.",
+                        getClass().getName());
+            }
+        }
+        return asyncFetchSupported;
+    }
+
+    private Class<?> getDeclaringClass(String methodName,
+            Class<?>... parameterTypes) {
+        for (Class<?> type = getClass(); type != DataCommunicator.class; type = type
+                .getSuperclass()) {
+            try {
+                type.getDeclaredMethod(methodName, parameterTypes);
+                return type;
+            } catch (NoSuchMethodException e) {
+                // Not overridden in this class
+            }
+        }
+        return DataCommunicator.class;
+    }
+
+    /**
+     * Starts fetching the item count and the items needed by the next flush
+     * from an asynchronous data provider, unless they are already available.
+     *
+     * @return <code>true</code> if the flush has to wait for the results,
+     *         <code>false</code> if it can proceed
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private boolean fetchAsynchronously() {
+        if (!(getDataProvider() instanceof AsyncBackEndDataProvider)
+                || !isAsyncFetchSupported()) {
+            return false;
+        }
+        AsyncBackEndDataProvider<T, Object> provider = (AsyncBackEndDataProvider<T, Object>) getDataProvider();
+        int generation = queryGeneration;
+
+        boolean sizeNeeded = definedSize && (resendEntireRange || sizeReset);
+        if (sizeNeeded && countCallback == null && fetchedCount < 0
+                && !countPending) {
+            countPending = true;
+            whenFetched(provider.sizeAsync(new Query<>(getFilter()))
+                    .toCompletableFuture(), (count, error) -> {
+                        if (generation == queryGeneration) {
+                            countPending = false;
+                            rethrow(error);
+                            fetchedCount = count.intValue();
+                        }
+                    });
+        }
+
+        // Items not yet active are needed, fetch the whole requested range
+        Range range = requestedRange;
+        if (definedSize && !sizeNeeded) {
+            range = range.restrictTo(Range.withLength(0, assumedSize));
+        }
+        Range active = Range.withLength(activeStart, activeKeyOrder.size());
+        boolean itemsNeeded = !range.isEmpty()
+                && (resendEntireRange || !range.isSubsetOf(active));
+        if (itemsNeeded && getPrefetchedItems(range) == null
+                && (pendingFetch == null || !range.isSubsetOf(pendingFetch))) {
+            pendingFetch = range;
+            whenFetched(fetchItemsAsync(range, null), (items, error) -> {
+                if (generation == queryGeneration) {
+                    pendingFetch = null;
+                    rethrow(error);
+                    storeFetchedItems(items);
+                }
+            });
+        }
+
+        return countPending
+                || (itemsNeeded && getPrefetchedItems(range) == null);
+    }
+
+    /**
+     * Runs the given handler once the future completes: immediately if it has
+     * already completed, otherwise while holding the session lock, after which
+     * a flush is requested.
+     */
+    private <V> void whenFetched(CompletableFuture<V> future,
+            BiConsumer<V, Throwable> handler) {
+        if (future.isDone()) {
+            V value = null;
+            Throwable error = null;
+            try {
+                value = future.join();
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            handler.accept(value, error);
+            return;
+        }
+        stateNode.runWhenAttached(
+                ui -> future.whenComplete((value, error) -> ui.access(() -> {
+                    handler.accept(value, error);
+                    requestFlush();
+                })));
+    }
+
+    private static void rethrow(Throwable error) {
+        if (error == null) {
+            return;
+        }
+        Throwable cause = error instanceof CompletionException
+                && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new CompletionException(cause);
+    }
+
+    private void prefetchCompleted(int generation, PrefetchedItems<T> items,
+            Throwable error) {
+        if (generation != queryGeneration) {
+            // The data has changed since the prefetch was started
+            return;
+        }
+        pendingPrefetch = null;
+        if (error != null) {
+            LoggerFactory.getLogger(DataCommunicator.class)
+                    .debug("Prefetching items failed", error);
+            return;
+        }
+        storeFetchedItems(items);
+    }
+
+    private void storeFetchedItems(PrefetchedItems<T> items) {
+        if (prefetchedItems == null) {
+            prefetchedItems = new LinkedList<>();
+        }
+        prefetchedItems.addFirst(items);
+        if (prefetchedItems.size() > MAX_PREFETCHED_RANGES) {
+            prefetchedItems.removeLast();
+        }
+        if (prefetchStrategy != null) {
+            prefetchStrategy.queryCompleted(items.items.size(),
+                    items.durationNanos);
+        }
+    }
+
+    private PrefetchedItems<T> getPrefetchedItems(Range range) {
+        if (prefetchedItems != null) {
+            for (PrefetchedItems<T> items : prefetchedItems) {
+                if (range.isSubsetOf(items.range)) {
+                    return items;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void discardPrefetchedItems() {
+        queryGeneration++;
+        prefetchedItems = null;
+        pendingPrefetch = null;
+        fetchedCount = -1;
+        countPending = false;
+        pendingFetch = null;
+    }
+
     private void requestFlushUpdatedData() {
         if (flushUpdatedDataRequest == null) {
             flushUpdatedDataRequest = context -> {
@@ -928,7 +1287,7 @@ public class DataCommunicator<T> implements Serializable {
                         previousActive.length());
             }
 
-            update.set(activeStart, getJsonItems(effectiveRequested));
+            setItems(update, effectiveRequested);
             updated = true;
         } else if (!previousActive.equals(effectiveRequested)) {
             /*
@@ -943,7 +1302,7 @@ public class DataCommunicator<T> implements Serializable {
 
             // Set requested items missing from previously active
             withMissing(effectiveRequested, previousActive,
-                    range -> update.set(range.getStart(), getJsonItems(range)));
+                    range -> setItems(update, range));
             updated = true;
         }
         return updated;
@@ -981,11 +1340,36 @@ public class DataCommunicator<T> implements Serializable {
         }
     }
 
+    private void setItems(Update update, Range range) {
+        if (update instanceof ArrayUpdater.ColumnarUpdate) {
+            ColumnWriter columns = new ColumnWriter();
+            getItems(range).forEach(item -> {
+                generateJson(item, columns);
+                columns.nextRow();
+            });
+            columns.fillRows();
+            ((ArrayUpdater.ColumnarUpdate) update).set(range.getStart(),
+                    columns.keys, columns.columns);
+        } else {
+            update.set(range.getStart(), getJsonItems(range));
+        }
+    }
+
+    private static void fillWithNulls(JsonArray column, int length) {
+        while (column.length() < length) {
+            column.set(column.length(), Json.createNull());
+        }
+    }
+
     private List<JsonValue> getJsonItems(Range range) {
+        return getItems(range).map(this::generateJson)
+                .collect(Collectors.toList());
+    }
+
+    private Stream<T> getItems(Range range) {
         return range.stream()
                 .mapToObj(index -> activeKeyOrder.get(index - activeStart))
-                .map(keyMapper::get).map(this::generateJson)
-                .collect(Collectors.toList());
+                .map(keyMapper::get);
     }
 
     private static final void withMissing(Range expected, Range actual,
@@ -1008,9 +1392,14 @@ public class DataCommunicator<T> implements Serializable {
             return Activation.empty();
         }
 
+        PrefetchedItems<T> prefetched = getPrefetchedItems(range);
+        long start = System.nanoTime();
+        Stream<T> items = prefetched != null ? prefetched.getItems(range)
+                : fetchFromProvider(range.getStart(), range.length());
+
         // XXX Explicitly refresh anything that is updated
         List<String> activeKeys = new ArrayList<>(range.length());
-        fetchFromProvider(range.getStart(), range.length()).forEach(bean -> {
+        items.forEach(bean -> {
             boolean mapperHasKey = keyMapper.has(bean);
             String key = keyMapper.key(bean);
             if (mapperHasKey) {
@@ -1021,17 +1410,119 @@ public class DataCommunicator<T> implements Serializable {
             }
             activeKeys.add(key);
         });
+        if (prefetched == null && prefetchStrategy != null) {
+            prefetchStrategy.queryCompleted(activeKeys.size(),
+                    System.nanoTime() - start);
+        }
         boolean needsSizeRecheck = activeKeys.size() < range.length();
         return new Activation(activeKeys, needsSizeRecheck);
     }
 
     private JsonValue generateJson(T item) {
         JsonObject json = Json.createObject();
-        json.put("key", getKeyMapper().key(item));
-        dataGenerator.generateData(item, json);
+        generateJson(item, json);
         return json;
     }
 
+    private void generateJson(T item, JsonObject json) {
+        json.put(KEY_PROPERTY, getKeyMapper().key(item));
+        dataGenerator.generateData(item, json);
+    }
+
+    /**
+     * JSON object for one item at a time which stores the properties put by
+     * the data generators directly in an array of values for each property,
+     * instead of creating an object for each item. A property which is not
+     * set for an item has a <code>null</code> value in its array.
+     */
+    private static class ColumnWriter extends JreJsonObject {
+        private final JsonArray keys = Json.createArray();
+        private final JsonObject columns = Json.createObject();
+        private int row;
+
+        private ColumnWriter() {
+            super(Json.instance());
+        }
+
+        private void nextRow() {
+            row++;
+        }
+
+        private void fillRows() {
+            for (String property : columns.keys()) {
+                fillWithNulls(columns.getArray(property), row);
+            }
+        }
+
+        private JsonArray getColumn(String key) {
+            return KEY_PROPERTY.equals(key) ? keys : columns.getArray(key);
+        }
+
+        @Override
+        public JsonValue get(String key) {
+            JsonArray column = getColumn(key);
+            // Values of the current row are always last in their arrays
+            return column != null && column.length() > row ? column.get(row)
+                    : null;
+        }
+
+        @Override
+        public boolean hasKey(String key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public String[] keys() {
+            return Stream
+                    .concat(Stream.of(KEY_PROPERTY),
+                            Stream.of(columns.keys()))
+                    .filter(this::hasKey).toArray(String[]::new);
+        }
+
+        @Override
+        public void put(String key, JsonValue value) {
+            JsonArray column = getColumn(key);
+            if (column == null) {
+                column = Json.createArray();
+                columns.put(key, column);
+            }
+            fillWithNulls(column, row);
+            column.set(row, value == null ? Json.createNull() : value);
+        }
+
+        @Override
+        public void remove(String key) {
+            if (hasKey(key)) {
+                getColumn(key).remove(row);
+            }
+        }
+    }
+
+    /**
+     * Items fetched from the data provider before the client requested them.
+     */
+    private static class PrefetchedItems<T> implements Serializable {
+        private final Range range;
+        private final List<T> items;
+        private final long durationNanos;
+
+        private PrefetchedItems(Range range, List<T> items,
+                long durationNanos) {
+            this.range = range;
+            this.items = items;
+            this.durationNanos = durationNanos;
+        }
+
+        private Stream<T> getItems(Range subRange) {
+            // Fewer items than requested are returned at the end of the data
+            int from = Math.min(items.size(),
+                    subRange.getStart() - range.getStart());
+            int to = Math.min(items.size(),
+                    subRange.getEnd() - range.getStart());
+            return items.subList(from, to).stream();
+        }
+    }
+
     private static class Activation implements Serializable {
         private final List<String> activeKeys;
         private final boolean sizeRecheckNeeded;
@@ -15,13 +15,18 @@
  */
 package com.vaadin.flow.data.provider;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 import com.vaadin.flow.function.SerializableComparator;
+import com.vaadin.flow.function.SerializableFunction;
 import com.vaadin.flow.function.SerializablePredicate;
 
 /**
@@ -41,6 +46,16 @@ public class ListDataProvider<T>
 
     private final Collection<T> backend;
 
+    private static final int MAX_CACHED_PROJECTIONS = 4;
+
+    private static final int PARALLEL_SORT_THRESHOLD = 100000;
+
+    private boolean projectionCacheEnabled;
+
+    // Filtered and sorted items keyed by query filter and in-memory sorting
+    private transient Map<List<Object>, Object[]> projections;
+    private transient long projectionGeneration;
+
     /**
      * Constructs a new ListDataProvider.
      * <p>
@@ -66,14 +81,65 @@ public class ListDataProvider<T>
         return backend;
     }
 
+    /**
+     * Sets whether the filtered and sorted items are cached between queries.
+     * <p>
+     * By default, each query filters and sorts the whole backing collection.
+     * When caching is enabled, the result of filtering and sorting is stored
+     * for the most recently used combinations of query filter and in-memory
+     * sorting, and queries are served by slicing the stored result. Large
+     * collections are sorted in parallel.
+     * <p>
+     * Cached results are looked up by the identity of the query filter and
+     * of the in-memory sorting, so only queries using the same filter and
+     * comparator instances share a result. The sorted items without a query
+     * filter are always cached, so a query with a filter that is not found
+     * in the cache, such as a filter created for each query by
+     * {@link #withConvertedFilter(SerializableFunction)}, only filters the
+     * already sorted items instead of sorting them again.
+     * <p>
+     * The cache is cleared by {@link #refreshAll()} and
+     * {@link #refreshItem(Object)}, so one of these methods must be called
+     * whenever the backing collection or the items in it are changed.
+     *
+     * @param projectionCacheEnabled
+     *            {@code true} to cache the filtered and sorted items,
+     *            {@code false} to filter and sort the items for each query
+     * @since
+     */
+    public void setProjectionCacheEnabled(boolean projectionCacheEnabled) {
+        this.projectionCacheEnabled = projectionCacheEnabled;
+        clearProjections();
+    }
+
+    /**
+     * Gets whether the filtered and sorted items are cached between queries.
+     *
+     * @return {@code true} if the filtered and sorted items are cached,
+     *         {@code false} otherwise
+     * @see #setProjectionCacheEnabled(boolean)
+     * @since
+     */
+    public boolean isProjectionCacheEnabled() {
+        return projectionCacheEnabled;
+    }
+
     @Override
     public Stream<T> fetch(Query<T, SerializablePredicate<T>> query) {
-        Stream<T> stream = getFilteredStream(query);
+        if (projectionCacheEnabled) {
+            Object[] projection = getProjection(
+                    query.getFilter().orElse(null),
+                    query.getInMemorySorting());
+            int from = Math.min(query.getOffset(), projection.length);
+            int to = (int) Math.min((long) from + query.getLimit(),
+                    projection.length);
+            return Arrays.stream(projection, from, to).map(this::cast);
+        }
 
-        Optional<Comparator<T>> comparing = Stream
-                .of(query.getInMemorySorting(), sortOrder)
-                .filter(Objects::nonNull)
-                .reduce((c1, c2) -> c1.thenComparing(c2));
+        Stream<T> stream = getFilteredStream(query.getFilter().orElse(null));
+
+        Optional<Comparator<T>> comparing = getComparator(
+                query.getInMemorySorting());
 
         if (comparing.isPresent()) {
             stream = stream.sorted(comparing.get());
@@ -84,11 +150,31 @@ public class ListDataProvider<T>
 
     @Override
     public int size(Query<T, SerializablePredicate<T>> query) {
-        return (int) getFilteredStream(query).count();
+        if (projectionCacheEnabled) {
+            return getProjection(query.getFilter().orElse(null), null).length;
+        }
+        return (int) getFilteredStream(query.getFilter().orElse(null)).count();
+    }
+
+    @Override
+    public void refreshAll() {
+        clearProjections();
+        super.refreshAll();
     }
 
-    private Stream<T> getFilteredStream(
-            Query<T, SerializablePredicate<T>> query) {
+    @Override
+    public void refreshItem(T item) {
+        clearProjections();
+        super.refreshItem(item);
+    }
+
+    @Override
+    public void refreshItem(T item, boolean refreshChildren) {
+        clearProjections();
+        super.refreshItem(item, refreshChildren);
+    }
+
+    private Stream<T> getFilteredStream(SerializablePredicate<T> queryFilter) {
         Stream<T> stream = backend.stream();
 
         // Apply our own filters first so that query filters never see the items
@@ -97,11 +183,96 @@ public class ListDataProvider<T>
             stream = stream.filter(filter);
         }
 
-        stream = query.getFilter().map(stream::filter).orElse(stream);
+        if (queryFilter != null) {
+            stream = stream.filter(queryFilter);
+        }
 
         return stream;
     }
 
+    private Optional<Comparator<T>> getComparator(
+            Comparator<T> inMemorySorting) {
+        return Stream.of(inMemorySorting, sortOrder).filter(Objects::nonNull)
+                .reduce((c1, c2) -> c1.thenComparing(c2));
+    }
+
+    /**
+     * Gets the items matching the given query filter in the order defined by
+     * the given in-memory sorting, using a cached result if available.
+     * Results with a query filter are filtered from the cached result without
+     * query filter, and results with a query sorting are sorted from a copy of
+     * the cached result without query sorting, so that the items only need to
+     * be sorted once for each sorting.
+     */
+    private Object[] getProjection(SerializablePredicate<T> queryFilter,
+            Comparator<T> inMemorySorting) {
+        List<Object> key = Arrays.asList(queryFilter, inMemorySorting);
+        long generation;
+        synchronized (this) {
+            if (projections == null) {
+                projections = new LinkedHashMap<List<Object>, Object[]>(16,
+                        0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(
+                            Map.Entry<List<Object>, Object[]> eldest) {
+                        return size() > MAX_CACHED_PROJECTIONS;
+                    }
+                };
+            }
+            Object[] projection = projections.get(key);
+            if (projection != null) {
+                return projection;
+            }
+            generation = projectionGeneration;
+        }
+
+        Object[] projection;
+        if (queryFilter != null) {
+            // Filtering keeps the order, so the sorted items can be reused
+            projection = Arrays
+                    .stream(getProjection(null, inMemorySorting))
+                    .filter(item -> queryFilter.test(cast(item))).toArray();
+        } else if (inMemorySorting == null) {
+            projection = getFilteredStream(null).toArray();
+            if (sortOrder != null) {
+                sort(projection, sortOrder);
+            }
+        } else {
+            projection = getProjection(null, null).clone();
+            sort(projection, getComparator(inMemorySorting).get());
+        }
+
+        synchronized (this) {
+            // Don't store results computed from data which has since changed
+            if (generation == projectionGeneration) {
+                projections.put(key, projection);
+            }
+        }
+        return projection;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void sort(Object[] items, Comparator<T> comparator) {
+        Comparator<Object> objectComparator = (Comparator<Object>) comparator;
+        if (items.length >= PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(items, objectComparator);
+        } else {
+            Arrays.sort(items, objectComparator);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T cast(Object item) {
+        return (T) item;
+    }
+
+    private synchronized void clearProjections() {
+        projectionGeneration++;
+        if (projections != null) {
+            projections.clear();
+        }
+    }
+
     @Override
     public SerializableComparator<T> getSortComparator() {
         return sortOrder;
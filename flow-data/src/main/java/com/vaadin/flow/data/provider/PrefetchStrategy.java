@@ -0,0 +1,59 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.io.Serializable;
+
+import com.vaadin.flow.internal.Range;
+
+/**
+ * Strategy used by a {@link DataCommunicator} for deciding which items to
+ * fetch from the data provider before the client requests them.
+ * <p>
+ * The methods are always called while the session is locked.
+ *
+ * @author Vaadin Ltd
+ * @since
+ *
+ * @see DataCommunicator#setPrefetchStrategy(PrefetchStrategy,
+ *      java.util.concurrent.Executor)
+ */
+public interface PrefetchStrategy extends Serializable {
+
+    /**
+     * Gets the range of items to fetch ahead of time when the client has
+     * requested the given range.
+     *
+     * @param requestedRange
+     *            the range of items requested by the client, not
+     *            <code>null</code>
+     * @param pageSize
+     *            the page size used by the data communicator
+     * @return the range of items to prefetch, or an empty range to not
+     *         prefetch any items
+     */
+    Range getPrefetchRange(Range requestedRange, int pageSize);
+
+    /**
+     * Informs the strategy about a completed query to the data provider.
+     *
+     * @param itemCount
+     *            the number of items returned by the query
+     * @param durationNanos
+     *            the time taken by the query in nanoseconds
+     */
+    void queryCompleted(int itemCount, long durationNanos);
+}
@@ -22,6 +22,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 
 import com.vaadin.flow.data.provider.CompositeDataGenerator;
@@ -155,6 +157,7 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         }
 
         if (getHierarchyMapper() != null) {
+            getHierarchyMapper().resetHierarchy();
             HierarchicalUpdate update = arrayUpdater
                     .startUpdate(getHierarchyMapper().getRootSize());
             update.enqueue("$connector.ensureHierarchy");
@@ -164,6 +167,7 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
 
     @Override
     protected void handleDataRefreshEvent(DataChangeEvent.DataRefreshEvent<T> event) {
+        mapper.refresh(event.getItem(), event.isRefreshChildren());
         if (event.isRefreshChildren()) {
             T item = event.getItem();
             if (isExpanded(item)) {
@@ -189,6 +193,18 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         return mapper.fetchRootItems(Range.withLength(offset, limit));
     }
 
+    /**
+     * Fetches the root items in the calling thread, since the hierarchy mapper
+     * keeps track of the fetched items and is not thread safe. Prefetched
+     * items are thus fetched ahead of time, but not in the background.
+     */
+    @Override
+    protected CompletableFuture<Stream<T>> fetchFromProviderAsync(int offset,
+            int limit, Executor executor) {
+        return CompletableFuture
+                .completedFuture(fetchFromProvider(offset, limit));
+    }
+
     public void setParentRequestedRange(int start, int length, T parentItem) {
         String parentKey = uniqueKeyProviderSupplier.get().apply(parentItem);
 
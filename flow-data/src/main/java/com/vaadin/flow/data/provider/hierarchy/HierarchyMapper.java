@@ -16,6 +16,7 @@
 package com.vaadin.flow.data.provider.hierarchy;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -39,6 +40,15 @@ import com.vaadin.flow.internal.Range;
  * Keeps track of the expanded nodes, and size of of the subtrees for each
  * expanded node.
  * <p>
+ * The flattened hierarchy of expanded nodes is cached as a tree where each
+ * expanded node keeps the sizes of the subtrees of its children in a binary
+ * indexed tree. Finding the index of an item and fetching a range of rows
+ * thus only needs a logarithmic number of steps per hierarchy level instead of
+ * going through the whole hierarchy. The cached hierarchy is updated
+ * incrementally when items are expanded or collapsed, and fetched again from
+ * the data provider when the filter or sorting changes or when
+ * {@link #resetHierarchy()} is called.
+ * <p>
  * This class is framework internal implementation details, and can be changed /
  * moved at any point. This means that you should not directly use this for
  * anything.
@@ -65,6 +75,11 @@ public class HierarchyMapper<T, F> implements Serializable {
 
     private Set<Object> expandedItemIds = new HashSet<>();
 
+    // Cached flattened hierarchy, built lazily from the data provider
+    private transient HierarchyNode<T> rootNode;
+    private transient Map<Object, HierarchyNode<T>> visibleNodes;
+    private transient boolean updatingHierarchy;
+
     /**
      * Constructs a new HierarchyMapper.
      *
@@ -81,7 +96,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      * @return the amount of available data
      */
     public int getTreeSize() {
-        return (int) getHierarchy(null).count();
+        return getRootNode().descendantCount;
     }
 
     /**
@@ -103,8 +118,9 @@ public class HierarchyMapper<T, F> implements Serializable {
      *
      */
     public Integer getParentIndex(T item) {
-        List<T> flatHierarchy = getHierarchy(null).collect(Collectors.toList());
-        return flatHierarchy.indexOf(getParentOfItem(item));
+        // Make sure the parents of visible items have been registered
+        getRootNode();
+        return getIndex(getParentOfItem(item));
     }
 
     /**
@@ -116,8 +132,12 @@ public class HierarchyMapper<T, F> implements Serializable {
      *
      */
     public Integer getIndex(T item) {
-        List<T> flatHierarchy = getHierarchy(null).collect(Collectors.toList());
-        return flatHierarchy.indexOf(item);
+        if (item == null) {
+            return -1;
+        }
+        getRootNode();
+        HierarchyNode<T> node = visibleNodes.get(getDataProvider().getId(item));
+        return node == null ? -1 : node.getIndex();
     }
 
     /**
@@ -158,8 +178,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public Range expand(T item, Integer position) {
         if (doExpand(item) && position != null) {
-            return Range.withLength(position + 1,
-                    (int) getHierarchy(item, false).count());
+            return Range.withLength(position + 1, countDescendants(item));
         }
 
         return Range.withLength(0, 0);
@@ -177,8 +196,15 @@ public class HierarchyMapper<T, F> implements Serializable {
     private boolean doExpand(T item) {
         boolean expanded = false;
         if (!isExpanded(item) && hasChildren(item)) {
-            expandedItemIds.add(getDataProvider().getId(item));
+            Object id = getDataProvider().getId(item);
+            expandedItemIds.add(id);
             expanded = true;
+            if (rootNode != null) {
+                HierarchyNode<T> node = visibleNodes.get(id);
+                if (node != null) {
+                    updateHierarchy(() -> fetchChildNodes(node));
+                }
+            }
         }
         return expanded;
     }
@@ -196,7 +222,7 @@ public class HierarchyMapper<T, F> implements Serializable {
             return false;
         }
         if (isExpanded(item)) {
-            expandedItemIds.remove(getDataProvider().getId(item));
+            removeChildNodes(getDataProvider().getId(item));
             return true;
         }
         return false;
@@ -217,13 +243,50 @@ public class HierarchyMapper<T, F> implements Serializable {
         if (isExpanded(item)) {
             if (position != null) {
                 removedRows = Range.withLength(position + 1,
-                        (int) getHierarchy(item, false).count());
+                        countDescendants(item));
             }
-            expandedItemIds.remove(getDataProvider().getId(item));
+            removeChildNodes(getDataProvider().getId(item));
         }
         return removedRows;
     }
 
+    /**
+     * Discards the cached flattened hierarchy. The hierarchy is fetched again
+     * from the data provider the next time it is needed. Should be called
+     * when the data of the data provider has changed.
+     */
+    public void resetHierarchy() {
+        rootNode = null;
+        visibleNodes = null;
+    }
+
+    /**
+     * Updates the cached flattened hierarchy after the given item has been
+     * refreshed in the data provider.
+     *
+     * @param item
+     *            the refreshed item, not {@code null}
+     * @param refreshChildren
+     *            {@code true} if the children of the item have changed as
+     *            well; {@code false} if not
+     */
+    public void refresh(T item, boolean refreshChildren) {
+        Objects.requireNonNull(item, "Can not refresh null item");
+        if (rootNode == null) {
+            return;
+        }
+        HierarchyNode<T> node = visibleNodes.get(getDataProvider().getId(item));
+        if (node == null) {
+            return;
+        }
+        node.item = item;
+        if (refreshChildren && node.children != null) {
+            updateHierarchy(() -> {
+                removeChildNodes(node);
+                fetchChildNodes(node);
+            });
+        }
+    }
 
     /**
      * Gets the current in-memory sorting.
@@ -243,6 +306,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public void setInMemorySorting(Comparator<T> inMemorySorting) {
         this.inMemorySorting = inMemorySorting;
+        resetHierarchy();
     }
 
     /**
@@ -263,6 +327,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public void setBackEndSorting(List<QuerySortOrder> backEndSorting) {
         this.backEndSorting = backEndSorting;
+        resetHierarchy();
     }
 
     /**
@@ -283,6 +348,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public void setFilter(Object filter) {
         this.filter = (F) filter;
+        resetHierarchy();
     }
 
     /**
@@ -317,7 +383,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      * @return the stream of items
      */
     public Stream<T> fetchHierarchyItems(Range range) {
-        return getHierarchy(null).skip(range.getStart()).limit(range.length());
+        return getRootNode().getDescendants(range).stream();
     }
 
     /**
@@ -331,6 +397,10 @@ public class HierarchyMapper<T, F> implements Serializable {
      * @return the stream of items
      */
     public Stream<T> fetchHierarchyItems(T parent, Range range) {
+        HierarchyNode<T> node = getVisibleNode(parent);
+        if (node != null) {
+            return node.getDescendants(range).stream();
+        }
         return getHierarchy(parent, false).skip(range.getStart())
                 .limit(range.length());
     }
@@ -441,7 +511,10 @@ public class HierarchyMapper<T, F> implements Serializable {
                 iterator.remove();
             }
         }
-        expandedItemIds.remove(id);
+        if (expandedItemIds.remove(id) && !updatingHierarchy) {
+            // Items have been collapsed outside of the cached hierarchy
+            resetHierarchy();
+        }
         invalidatedChildren.stream().map(getDataProvider()::getId)
                 .forEach(x -> {
                     removeChildren(x);
@@ -458,25 +531,127 @@ public class HierarchyMapper<T, F> implements Serializable {
      * @return optional index of given object
      */
     public Optional<Integer> getIndexOf(T target) {
-        if (target == null) {
-            return Optional.empty();
+        int index = getIndex(target);
+        return Optional.ofNullable(index < 0 ? null : index);
+    }
+
+    /**
+     * Gets the root of the cached flattened hierarchy, building it from the
+     * data provider if needed.
+     *
+     * @return the root node
+     */
+    private HierarchyNode<T> getRootNode() {
+        if (rootNode == null) {
+            HierarchyNode<T> root = new HierarchyNode<>(null, null, 0);
+            visibleNodes = new HashMap<>();
+            rootNode = root;
+            updateHierarchy(() -> fetchChildNodes(root));
         }
+        return rootNode;
+    }
+
+    /**
+     * Gets the node of the given item in the cached flattened hierarchy.
+     *
+     * @param item
+     *            the item, or {@code null} for the root
+     * @return the node, or {@code null} if the item is not visible
+     */
+    private HierarchyNode<T> getVisibleNode(T item) {
+        HierarchyNode<T> root = getRootNode();
+        if (item == null) {
+            return root;
+        }
+        return visibleNodes.get(getDataProvider().getId(item));
+    }
+
+    /**
+     * Counts the descendants of the given expanded item which are visible when
+     * the item itself is visible.
+     *
+     * @param item
+     *            the expanded item
+     * @return the number of visible descendants
+     */
+    private int countDescendants(T item) {
+        HierarchyNode<T> node = getVisibleNode(item);
+        if (node != null) {
+            return node.descendantCount;
+        }
+        return (int) getHierarchy(item, false).count();
+    }
+
+    private void updateHierarchy(Runnable update) {
+        boolean wasUpdating = updatingHierarchy;
+        updatingHierarchy = true;
+        try {
+            update.run();
+        } finally {
+            updatingHierarchy = wasUpdating;
+        }
+    }
 
-        final List<Object> collect = getHierarchy(null).map(provider::getId)
+    /**
+     * Fetches the children of the given node if it is expanded, recursively
+     * fetching the children of expanded children as well, and updates the
+     * sizes of the ancestors of the node.
+     *
+     * @param node
+     *            the node without children
+     */
+    private void fetchChildNodes(HierarchyNode<T> node) {
+        if (!isExpanded(node.item)) {
+            return;
+        }
+        List<T> childList = doFetchDirectChildren(node.item)
                 .collect(Collectors.toList());
-        int index = collect.indexOf(getDataProvider().getId(target));
-        return Optional.ofNullable(index < 0 ? null : index);
+        if (childList.isEmpty()) {
+            removeChildren(
+                    node.item == null ? null : getDataProvider().getId(node.item));
+            return;
+        }
+        registerChildren(node.item, childList);
+
+        List<HierarchyNode<T>> children = new ArrayList<>(childList.size());
+        for (T child : childList) {
+            HierarchyNode<T> childNode = new HierarchyNode<>(child, node,
+                    children.size());
+            children.add(childNode);
+            visibleNodes.put(getDataProvider().getId(child), childNode);
+            fetchChildNodes(childNode);
+        }
+        node.setChildren(children);
     }
 
     /**
-     * Gets the full hierarchy tree starting from given node.
+     * Collapses the node of the given item id, removing its descendants from
+     * the cached flattened hierarchy.
      *
-     * @param parent
-     *            the parent node to start from
-     * @return the flattened hierarchy as a stream
+     * @param id
+     *            the item id
      */
-    private Stream<T> getHierarchy(T parent) {
-        return getHierarchy(parent, true);
+    private void removeChildNodes(Object id) {
+        expandedItemIds.remove(id);
+        if (rootNode != null) {
+            HierarchyNode<T> node = visibleNodes.get(id);
+            if (node != null) {
+                removeChildNodes(node);
+            }
+        }
+    }
+
+    private void removeChildNodes(HierarchyNode<T> node) {
+        if (node.children == null) {
+            return;
+        }
+        Iterator<HierarchyNode<T>> iterator = node.children.iterator();
+        node.setChildren(null);
+        while (iterator.hasNext()) {
+            HierarchyNode<T> child = iterator.next();
+            visibleNodes.remove(getDataProvider().getId(child.item));
+            removeChildNodes(child);
+        }
     }
 
     /**
@@ -619,6 +794,7 @@ public class HierarchyMapper<T, F> implements Serializable {
         childMap.clear();
         parentIdMap.clear();
         expandedItemIds.clear();
+        resetHierarchy();
     }
 
     /**
@@ -629,4 +805,145 @@ public class HierarchyMapper<T, F> implements Serializable {
     public boolean hasExpandedItems() {
         return !expandedItemIds.isEmpty();
     }
+
+    /**
+     * A visible item in the cached flattened hierarchy. The number of rows
+     * taken by each child, i.e. the child itself and its visible descendants,
+     * is kept in a binary indexed tree so that the offset of a child and the
+     * child at a given offset can be found in logarithmic time.
+     *
+     * @param <T>
+     *            the data type
+     */
+    private static class HierarchyNode<T> implements Serializable {
+        private T item;
+        private final HierarchyNode<T> parent;
+        private final int indexInParent;
+
+        // null if the node is collapsed or has no children
+        private List<HierarchyNode<T>> children;
+        private int[] childRows;
+        private int descendantCount;
+
+        private HierarchyNode(T item, HierarchyNode<T> parent,
+                int indexInParent) {
+            this.item = item;
+            this.parent = parent;
+            this.indexInParent = indexInParent;
+        }
+
+        private void setChildren(List<HierarchyNode<T>> children) {
+            int oldCount = descendantCount;
+            this.children = children;
+            descendantCount = 0;
+            if (children == null) {
+                childRows = null;
+            } else {
+                childRows = new int[children.size() + 1];
+                for (int i = 1; i < childRows.length; i++) {
+                    int rows = 1 + children.get(i - 1).descendantCount;
+                    descendantCount += rows;
+                    childRows[i] += rows;
+                    int next = i + (i & -i);
+                    if (next < childRows.length) {
+                        childRows[next] += childRows[i];
+                    }
+                }
+            }
+            // The parent is not updated while its own children are fetched
+            if (parent != null && parent.childRows != null) {
+                parent.updateChildRows(indexInParent,
+                        descendantCount - oldCount);
+            }
+        }
+
+        private void updateChildRows(int childIndex, int delta) {
+            if (delta == 0) {
+                return;
+            }
+            for (int i = childIndex + 1; i < childRows.length; i += i & -i) {
+                childRows[i] += delta;
+            }
+            descendantCount += delta;
+            if (parent != null) {
+                parent.updateChildRows(indexInParent, delta);
+            }
+        }
+
+        /**
+         * Gets the number of rows before the given child, counted from the
+         * first child of this node.
+         */
+        private int getChildOffset(int childIndex) {
+            int offset = 0;
+            for (int i = childIndex; i > 0; i -= i & -i) {
+                offset += childRows[i];
+            }
+            return offset;
+        }
+
+        /**
+         * Gets the index of the child whose rows contain the given offset,
+         * counted from the first child of this node.
+         */
+        private int getChildAt(int offset) {
+            int childIndex = 0;
+            for (int bit = Integer.highestOneBit(
+                    childRows.length - 1); bit > 0; bit >>= 1) {
+                int next = childIndex + bit;
+                if (next < childRows.length && childRows[next] <= offset) {
+                    childIndex = next;
+                    offset -= childRows[next];
+                }
+            }
+            return childIndex;
+        }
+
+        /**
+         * Gets the index of this node in the flattened hierarchy.
+         */
+        private int getIndex() {
+            int index = 0;
+            HierarchyNode<T> node = this;
+            while (node.parent != null) {
+                index += node.parent.getChildOffset(node.indexInParent);
+                node = node.parent;
+                if (node.parent != null) {
+                    // The parent row itself
+                    index++;
+                }
+            }
+            return index;
+        }
+
+        /**
+         * Gets the visible descendants of this node in the given range,
+         * counted from the first child of this node.
+         */
+        private List<T> getDescendants(Range range) {
+            int start = Math.max(0, range.getStart());
+            int end = Math.min(descendantCount, range.getEnd());
+            List<T> descendants = new ArrayList<>(Math.max(0, end - start));
+            collectDescendants(start, end, descendants);
+            return descendants;
+        }
+
+        private void collectDescendants(int start, int end, List<T> target) {
+            if (children == null || start >= end) {
+                return;
+            }
+            int childIndex = getChildAt(start);
+            int offset = getChildOffset(childIndex);
+            while (childIndex < children.size() && offset < end) {
+                HierarchyNode<T> child = children.get(childIndex);
+                if (offset >= start) {
+                    target.add(child.item);
+                }
+                child.collectDescendants(Math.max(0, start - offset - 1),
+                        end - offset - 1, target);
+                offset += 1 + child.descendantCount;
+                childIndex++;
+            }
+        }
+    }
 }
@@ -54,6 +54,7 @@ public class ComponentRenderer<COMPONENT extends Component, SOURCE>
     private SerializableBiFunction<Component, SOURCE, Component> componentUpdateFunction;
     private SerializableBiConsumer<COMPONENT, SOURCE> itemConsumer;
     private String componentRendererTag = "flow-component-renderer";
+    private int recycledComponentPoolSize;
 
     /**
      * Creates a new ComponentRenderer that uses the componentSupplier to
@@ -157,6 +158,7 @@ public class ComponentRenderer<COMPONENT extends Component, SOURCE>
         ComponentRendering rendering = new ComponentRendering(
                 keyMapper == null ? null : keyMapper::key);
         rendering.setTemplateElement(contentTemplate);
+        rendering.setRecycledComponentPoolSize(recycledComponentPoolSize);
         /*
          * setupTemplateWhenAttached does some setup that will be needed by
          * generateData. To ensure the setup has completed before it is needed,
@@ -188,6 +190,45 @@ public class ComponentRenderer<COMPONENT extends Component, SOURCE>
         this.componentRendererTag = componentRendererTag;
     }
 
+    /**
+     * Sets the maximum number of rendered components that are kept for reuse
+     * when the items they represent are no longer shown, e.g. when the rows of
+     * a grid are scrolled out of view. The default is <code>0</code>, which
+     * disables recycling.
+     * <p>
+     * A recycled component is bound to a new item through
+     * {@link #updateComponent(Component, Object)}. Recycling is thus useful
+     * only together with an update function that updates and returns the
+     * existing component instance, see
+     * {@link #ComponentRenderer(SerializableFunction, SerializableBiFunction)}.
+     * Recycled components keep their state nodes, so reusing them doesn't
+     * cause attach and detach events or recreation of the client side DOM.
+     * <p>
+     * The pool size is applied to renderings created after calling this
+     * method.
+     *
+     * @param poolSize
+     *            the maximum number of recycled components for each rendering,
+     *            not negative
+     */
+    public void setRecycledComponentPoolSize(int poolSize) {
+        if (poolSize < 0) {
+            throw new IllegalArgumentException(
+                    "The pool size cannot be negative");
+        }
+        recycledComponentPoolSize = poolSize;
+    }
+
+    /**
+     * Gets the maximum number of rendered components that are kept for reuse.
+     *
+     * @return the maximum number of recycled components for each rendering
+     * @see #setRecycledComponentPoolSize(int)
+     */
+    public int getRecycledComponentPoolSize() {
+        return recycledComponentPoolSize;
+    }
+
     private void setupTemplateWhenAttached(UI ui, Element owner,
             ComponentRendering rendering, DataKeyMapper<SOURCE> keyMapper) {
         String appId = ui.getInternals().getAppId();
@@ -21,6 +21,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -72,6 +73,28 @@ public class BeanPropertySetTest {
         }
     }
 
+    static class PackagePrivateBean {
+        private String value;
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+
+    public static class FailingBean {
+        public String getValue() {
+            throw new IllegalStateException("Failing getter");
+        }
+
+        public void setValue(String value) {
+            throw new IllegalStateException("Failing setter");
+        }
+    }
+
     @Test
     public void testSerializeDeserialize_propertySet() throws Exception {
         PropertySet<Person> originalPropertySet = BeanPropertySet
@@ -283,4 +306,60 @@ public class BeanPropertySetTest {
                 "father.son", propertySet.getProperty("father.son.father").get()
                         .getParent().getName());
     }
+
+    @Test
+    public void getterAndSetter_primitiveProperty_valueBoxedAndUnboxed() {
+        PropertyDefinition<Person, ?> born = BeanPropertySet.get(Person.class)
+                .getProperty("born").get();
+        @SuppressWarnings("unchecked")
+        PropertyDefinition<Person, String> name = (PropertyDefinition<Person, String>) BeanPropertySet
+                .get(Person.class).getProperty("name").get();
+
+        Person person = new Person("Jon", 1980);
+        name.getSetter().get().accept(person, "Jane");
+
+        Assert.assertEquals(Integer.valueOf(1980),
+                born.getGetter().apply(person));
+        Assert.assertEquals("Jane", person.getName());
+        Assert.assertEquals("Jane", name.getGetter().apply(person));
+    }
+
+    @Test
+    public void getterAndSetter_nonPublicBeanType_accessedReflectively() {
+        @SuppressWarnings("unchecked")
+        PropertyDefinition<PackagePrivateBean, String> definition = (PropertyDefinition<PackagePrivateBean, String>) BeanPropertySet
+                .get(PackagePrivateBean.class).getProperty("value").get();
+
+        PackagePrivateBean bean = new PackagePrivateBean();
+        definition.getSetter().get().accept(bean, "foo");
+
+        Assert.assertEquals("foo", bean.getValue());
+        Assert.assertEquals("foo", definition.getGetter().apply(bean));
+    }
+
+    @Test
+    public void getterAndSetter_accessorThrows_exceptionWrapped() {
+        @SuppressWarnings("unchecked")
+        PropertyDefinition<FailingBean, String> definition = (PropertyDefinition<FailingBean, String>) BeanPropertySet
+                .get(FailingBean.class).getProperty("value").get();
+
+        try {
+            definition.getGetter().apply(new FailingBean());
+            Assert.fail("Exception should have been thrown");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(
+                    e.getCause() instanceof InvocationTargetException);
+            Assert.assertEquals("Failing getter",
+                    e.getCause().getCause().getMessage());
+        }
+        try {
+            definition.getSetter().get().accept(new FailingBean(), "foo");
+            Assert.fail("Exception should have been thrown");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(
+                    e.getCause() instanceof InvocationTargetException);
+            Assert.assertEquals("Failing setter",
+                    e.getCause().getCause().getMessage());
+        }
+    }
 }
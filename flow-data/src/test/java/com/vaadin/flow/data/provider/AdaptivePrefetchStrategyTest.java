@@ -0,0 +1,105 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.internal.Range;
+
+public class AdaptivePrefetchStrategyTest {
+
+    private static class TestStrategy extends AdaptivePrefetchStrategy {
+        private long time = TimeUnit.SECONDS.toNanos(10);
+
+        private TestStrategy(int maxPrefetchPages) {
+            super(maxPrefetchPages);
+        }
+
+        @Override
+        protected long getCurrentNanoTime() {
+            return time;
+        }
+
+        private Range request(int start, long afterMillis) {
+            time += TimeUnit.MILLISECONDS.toNanos(afterMillis);
+            return getPrefetchRange(Range.withLength(start, 50), 50);
+        }
+    }
+
+    private final TestStrategy strategy = new TestStrategy(8);
+
+    @Test
+    public void firstRequest_nextPagePrefetched() {
+        Assert.assertEquals(Range.withLength(50, 50), strategy.request(0, 0));
+    }
+
+    @Test
+    public void scrollingBackwards_previousPagePrefetched() {
+        strategy.request(500, 0);
+
+        Assert.assertEquals(Range.withLength(350, 50),
+                strategy.request(400, 2000));
+    }
+
+    @Test
+    public void scrollingBackwards_notBeforeFirstItem() {
+        strategy.request(100, 0);
+
+        Assert.assertEquals(Range.withLength(0, 20),
+                strategy.request(20, 2000));
+    }
+
+    @Test
+    public void fastScrollingWithSlowQueries_morePagesPrefetched() {
+        strategy.queryCompleted(50, TimeUnit.MILLISECONDS.toNanos(500));
+        strategy.request(0, 0);
+
+        // 1000 rows per second
+        Range range = strategy.request(100, 100);
+
+        Assert.assertEquals(1000, strategy.getVelocity(), 0.1);
+        // 1 page + 2 * 0.5 s * 1000 rows/s = 21 pages, limited to 8
+        Assert.assertEquals(Range.withLength(150, 8 * 50), range);
+    }
+
+    @Test
+    public void fastQueries_singlePagePrefetched() {
+        strategy.queryCompleted(50, TimeUnit.MICROSECONDS.toNanos(100));
+        strategy.request(0, 0);
+
+        Assert.assertEquals(Range.withLength(150, 100),
+                strategy.request(100, 100));
+    }
+
+    @Test
+    public void pauseInScrolling_velocityReset() {
+        strategy.queryCompleted(50, TimeUnit.MILLISECONDS.toNanos(500));
+        strategy.request(0, 0);
+        strategy.request(100, 100);
+
+        Assert.assertEquals(Range.withLength(250, 50),
+                strategy.request(200, 5000));
+        Assert.assertEquals(0, strategy.getVelocity(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroMaxPages_throws() {
+        new AdaptivePrefetchStrategy(0);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.function.SerializablePredicate;
+
+public class AsyncBackendDataProviderTest extends BackendDataProviderTest {
+
+    @Override
+    protected BackEndDataProvider<StrBean, SerializablePredicate<StrBean>> createDataProvider() {
+        StrBeanBackEndDataProvider backEnd = new StrBeanBackEndDataProvider(
+                data);
+        return dataProvider = AsyncCallbackDataProvider
+                .fromBlockingCallbacks(backEnd::fetch, backEnd::size,
+                        Runnable::run);
+    }
+
+    @Test
+    public void fetchAsync_defaultSortOrdersUsed() throws Exception {
+        getDataProvider().setSortOrder(
+                new QuerySortOrder("id", SortDirection.ASCENDING));
+        AsyncBackEndDataProvider<StrBean, SerializablePredicate<StrBean>> provider = (AsyncBackEndDataProvider<StrBean, SerializablePredicate<StrBean>>) getDataProvider();
+
+        List<StrBean> items = provider.fetchAsync(new Query<>())
+                .toCompletableFuture().get().collect(Collectors.toList());
+
+        Assert.assertEquals(data.stream()
+                .sorted(Comparator.comparing(StrBean::getId))
+                .collect(Collectors.toList()), items);
+        Assert.assertEquals(Integer.valueOf(data.size()),
+                provider.sizeAsync(new Query<>()).toCompletableFuture().get());
+    }
+
+    @Test
+    public void fromBlockingCallbacks_callbacksRunInExecutor()
+            throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Thread caller = Thread.currentThread();
+            AsyncCallbackDataProvider<StrBean, Void> provider = AsyncCallbackDataProvider
+                    .fromBlockingCallbacks(query -> {
+                        Assert.assertNotSame(caller, Thread.currentThread());
+                        return data.stream().skip(query.getOffset())
+                                .limit(query.getLimit());
+                    }, query -> {
+                        Assert.assertNotSame(caller, Thread.currentThread());
+                        return data.size();
+                    }, executor);
+
+            Assert.assertEquals(data.subList(10, 20),
+                    provider.fetchAsync(new Query<>(10, 10, null, null, null))
+                            .toCompletableFuture().get(10, TimeUnit.SECONDS)
+                            .collect(Collectors.toList()));
+            Assert.assertEquals(data.size(), provider.size(new Query<>()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
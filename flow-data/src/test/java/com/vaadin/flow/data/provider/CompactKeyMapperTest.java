@@ -0,0 +1,158 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactKeyMapperTest {
+
+    private final CompactKeyMapper<StrBean> mapper = new CompactKeyMapper<>();
+
+    @Test
+    public void key_sameObject_sameKey() {
+        StrBean bean = new StrBean("Foo", 1, 1);
+        String key = mapper.key(bean);
+
+        Assert.assertEquals("1", key);
+        Assert.assertEquals(key, mapper.key(bean));
+        Assert.assertSame(bean, mapper.get(key));
+        Assert.assertTrue(mapper.has(bean));
+        Assert.assertTrue(mapper.containsKey(key));
+        Assert.assertEquals("2", mapper.key(new StrBean("Bar", 2, 2)));
+    }
+
+    @Test
+    public void key_nullObject_nullKey() {
+        Assert.assertEquals("null", mapper.key(null));
+        Assert.assertNull(mapper.get("null"));
+        Assert.assertEquals(0, mapper.size());
+    }
+
+    @Test
+    public void get_invalidKey_null() {
+        mapper.key(new StrBean("Foo", 1, 1));
+
+        Assert.assertNull(mapper.get(null));
+        Assert.assertNull(mapper.get(""));
+        Assert.assertNull(mapper.get("-1"));
+        Assert.assertNull(mapper.get("+1"));
+        Assert.assertNull(mapper.get("not a key"));
+        Assert.assertNull(mapper.get("zzzzzzzzzz"));
+    }
+
+    @Test
+    public void remove_keysNotReused() {
+        StrBean bean = new StrBean("Foo", 1, 1);
+        String key = mapper.key(bean);
+
+        mapper.remove(bean);
+        Assert.assertFalse(mapper.has(bean));
+        Assert.assertNull(mapper.get(key));
+        Assert.assertNotEquals(key, mapper.key(bean));
+
+        String otherKey = mapper.key(bean);
+        mapper.removeAll();
+        Assert.assertNull(mapper.get(otherKey));
+        Assert.assertNotEquals(otherKey, mapper.key(bean));
+    }
+
+    @Test
+    public void refresh_sameIdentifier_objectUpdated() {
+        CompactKeyMapper<StrBean> idMapper = new CompactKeyMapper<>(
+                StrBean::getId);
+        String key = idMapper.key(new StrBean("Foo", 1, 1));
+        StrBean updated = new StrBean("Bar", 1, 1);
+
+        idMapper.refresh(updated);
+
+        Assert.assertSame(updated, idMapper.get(key));
+        Assert.assertEquals(key, idMapper.key(updated));
+    }
+
+    @Test
+    public void setIdentifierGetter_mappingsKept() {
+        StrBean bean = new StrBean("Foo", 1, 1);
+        String key = mapper.key(bean);
+
+        mapper.setIdentifierGetter(StrBean::getId);
+
+        Assert.assertTrue(mapper.has(new StrBean("Bar", 1, 1)));
+        Assert.assertEquals(key, mapper.key(new StrBean("Bar", 1, 1)));
+        Assert.assertSame(bean, mapper.get(key));
+    }
+
+    @Test
+    public void randomOperations_consistentWithMaps() {
+        CompactKeyMapper<Integer> intMapper = new CompactKeyMapper<>();
+        Map<Integer, String> objectKeys = new HashMap<>();
+        Set<String> usedKeys = new HashSet<>();
+        List<Integer> mapped = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20000; i++) {
+            Integer value = random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                intMapper.remove(value);
+                if (objectKeys.remove(value) != null) {
+                    mapped.remove(value);
+                }
+            } else {
+                String key = intMapper.key(value);
+                String expected = objectKeys.get(value);
+                if (expected == null) {
+                    Assert.assertTrue("Keys should not be reused",
+                            usedKeys.add(key));
+                    objectKeys.put(value, key);
+                    mapped.add(value);
+                } else {
+                    Assert.assertEquals(expected, key);
+                }
+            }
+            if (i % 5000 == 4999) {
+                Assert.assertEquals(objectKeys.size(), intMapper.size());
+                objectKeys.forEach((object, key) -> Assert.assertEquals(object,
+                        intMapper.get(key)));
+            }
+        }
+
+        for (Integer value : mapped) {
+            intMapper.remove(value);
+        }
+        Assert.assertEquals(0, intMapper.size());
+        usedKeys.forEach(key -> Assert.assertNull(intMapper.get(key)));
+    }
+
+    @Test
+    public void serializable() {
+        StrBean bean = new StrBean("Foo", 1, 1);
+        String key = mapper.key(bean);
+
+        CompactKeyMapper<StrBean> copy = SerializationUtils.clone(mapper);
+
+        Assert.assertEquals(bean, copy.get(key));
+        Assert.assertEquals(key, copy.key(bean));
+    }
+}
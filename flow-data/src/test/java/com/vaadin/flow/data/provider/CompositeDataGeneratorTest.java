@@ -196,4 +196,33 @@ public class CompositeDataGeneratorTest {
                 CoreMatchers.not(CoreMatchers.hasItem("item1")));
     }
 
+    @Test
+    public void setDataGeneratorActive_inactiveGeneratorSkipped() {
+        CompositeDataGenerator<String> composite = new CompositeDataGenerator<>();
+
+        MockDataGenerator mock1 = new MockDataGenerator("mock1", "value1");
+        MockDataGenerator mock2 = new MockDataGenerator("mock2", "value2");
+        composite.addDataGenerator(mock1);
+        composite.addDataGenerator(mock2);
+        composite.generateData("item1", Json.createObject());
+
+        composite.setDataGeneratorActive(mock2, false);
+        Assert.assertFalse(composite.isDataGeneratorActive(mock2));
+        Assert.assertTrue("Data of an inactive generator should be destroyed",
+                mock2.getProcessed().isEmpty());
+
+        JsonObject json = Json.createObject();
+        composite.generateData("item2", json);
+        Assert.assertEquals("value1", json.getString("mock1"));
+        Assert.assertFalse(json.hasKey("mock2"));
+        Assert.assertThat(mock2.getProcessed(),
+                CoreMatchers.not(CoreMatchers.hasItem("item2")));
+
+        composite.setDataGeneratorActive(mock2, true);
+        Assert.assertTrue(composite.isDataGeneratorActive(mock2));
+        json = Json.createObject();
+        composite.generateData("item3", json);
+        Assert.assertEquals("value2", json.getString("mock2"));
+    }
+
 }
@@ -16,12 +16,16 @@
 package com.vaadin.flow.data.provider;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -33,6 +37,7 @@ import com.vaadin.flow.component.UI;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.internal.Range;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
@@ -46,6 +51,9 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
 import elemental.json.JsonValue;
 
 public class DataCommunicatorTest {
@@ -761,6 +769,34 @@ public class DataCommunicatorTest {
                 dataCommunicator.getItem(2));
     }
 
+    @Test
+    public void fetchFromProvider_cachedListDataProviderWithConvertedFilter_itemsSortedOnce() {
+        ListDataProvider<Item> provider = new ListDataProvider<>(IntStream
+                .range(0, 100).mapToObj(Item::new).collect(Collectors.toList()));
+        provider.setProjectionCacheEnabled(true);
+        // The converted filter is a new instance for each query
+        dataCommunicator.setDataProvider(provider.withConvertedFilter(
+                (Integer min) -> item -> item.id >= min), 50);
+
+        AtomicInteger comparisons = new AtomicInteger();
+        dataCommunicator.setInMemorySorting((i1, i2) -> {
+            comparisons.incrementAndGet();
+            return Integer.compare(i2.id, i1.id);
+        });
+
+        List<Item> expected = IntStream.of(99, 98, 97).mapToObj(Item::new)
+                .collect(Collectors.toList());
+        Assert.assertEquals(expected, dataCommunicator.fetchFromProvider(0, 3)
+                .collect(Collectors.toList()));
+        int sortComparisons = comparisons.get();
+        Assert.assertTrue(sortComparisons > 0);
+
+        Assert.assertEquals(expected, dataCommunicator.fetchFromProvider(0, 3)
+                .collect(Collectors.toList()));
+        Assert.assertEquals("Cached sorted items should be reused",
+                sortComparisons, comparisons.get());
+    }
+
     @Test
     public void getItem_withUndefinedSizeAndCorrectIndex() {
         dataCommunicator.setRequestedRange(0, 50);
@@ -1061,6 +1097,335 @@ public class DataCommunicatorTest {
         return dataCommunicator.getPageSize() * 4;
     }
 
+    @Test
+    public void prefetchStrategy_prefetchedItemsUsedForNextRange() {
+        setUpUIRunningAccessImmediately();
+        List<Range> fetchedRanges = new ArrayList<>();
+        dataCommunicator.setDataProvider(
+                createRecordingDataProvider(fetchedRanges), null);
+        dataCommunicator.setPrefetchStrategy(new NextPageStrategy(),
+                Runnable::run);
+        // Initial roundtrip
+        fakeClientCommunication();
+        fetchedRanges.clear();
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        Assert.assertEquals(Range.withLength(0, 50), lastSet);
+        Assert.assertEquals(Arrays.asList(Range.withLength(50, 50),
+                Range.withLength(0, 50)), fetchedRanges);
+
+        fetchedRanges.clear();
+        dataCommunicator.setRequestedRange(50, 50);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(50, 50), lastSet);
+        Assert.assertEquals("Only the next page should be fetched",
+                Arrays.asList(Range.withLength(100, 50)), fetchedRanges);
+        Assert.assertEquals(new Item(50), dataCommunicator.getItem(50));
+    }
+
+    @Test
+    public void prefetchStrategy_dataChanged_prefetchedItemsDiscarded() {
+        setUpUIRunningAccessImmediately();
+        List<Range> fetchedRanges = new ArrayList<>();
+        AbstractDataProvider<Item, Object> dataProvider = createRecordingDataProvider(
+                fetchedRanges);
+        dataCommunicator.setDataProvider(dataProvider, null);
+        dataCommunicator.setPrefetchStrategy(new NextPageStrategy(),
+                Runnable::run);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        dataProvider.refreshAll();
+        fetchedRanges.clear();
+
+        dataCommunicator.setRequestedRange(50, 50);
+        fakeClientCommunication();
+
+        Assert.assertTrue(fetchedRanges.contains(Range.withLength(50, 50)));
+    }
+
+    @Test
+    public void prefetchStrategy_queryDurationsReported() {
+        setUpUIRunningAccessImmediately();
+        NextPageStrategy strategy = new NextPageStrategy();
+        dataCommunicator.setDataProvider(
+                createRecordingDataProvider(new ArrayList<>()), null);
+        dataCommunicator.setPrefetchStrategy(strategy, Runnable::run);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Assert.assertEquals(2, strategy.completedQueries);
+    }
+
+    @Test
+    public void prefetchStrategy_fetchFromProviderOverridden_itemsNotPrefetched() {
+        setUpUIRunningAccessImmediately();
+        dataCommunicator = new DataCommunicator<Item>(dataGenerator,
+                arrayUpdater, data -> {
+                }, element.getNode()) {
+            @Override
+            protected Stream<Item> fetchFromProvider(int offset, int limit) {
+                return super.fetchFromProvider(offset, limit)
+                        .map(item -> new Item(item.id + 1000));
+            }
+        };
+        dataCommunicator.setPageSize(pageSize);
+        List<Range> fetchedRanges = new ArrayList<>();
+        dataCommunicator.setDataProvider(
+                createRecordingDataProvider(fetchedRanges), null);
+        dataCommunicator.setPrefetchStrategy(new NextPageStrategy(),
+                Runnable::run);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        dataCommunicator.setRequestedRange(50, 50);
+        fakeClientCommunication();
+
+        Assert.assertFalse("Items should not be prefetched",
+                fetchedRanges.contains(Range.withLength(100, 50)));
+        Assert.assertEquals(new Item(1050), dataCommunicator.getItem(50));
+    }
+
+    @Test
+    public void prefetchStrategy_nullExecutor_throws() {
+        expectedException.expect(NullPointerException.class);
+        dataCommunicator.setPrefetchStrategy(new NextPageStrategy(), null);
+    }
+
+    @Test
+    public void asyncDataProvider_flushWaitsForFetchedItems() {
+        setUpUIRunningAccessImmediately();
+        CompletableFuture<Integer> count = new CompletableFuture<>();
+        List<CompletableFuture<Stream<Item>>> fetches = new ArrayList<>();
+        dataCommunicator.setDataProvider(
+                createAsyncDataProvider(fetches, count, false), null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        Assert.assertNull("Nothing should be sent before the query completes",
+                lastSet);
+        Assert.assertEquals(1, fetches.size());
+
+        count.complete(100);
+        fakeClientCommunication();
+        Assert.assertNull(lastSet);
+
+        fetches.get(0).complete(IntStream.range(0, 50).mapToObj(Item::new));
+        fakeClientCommunication();
+        Assert.assertEquals(Range.withLength(0, 50), lastSet);
+        Assert.assertEquals(new Item(10), dataCommunicator.getItem(10));
+        Assert.assertEquals(100, dataCommunicator.getItemCount());
+        Assert.assertEquals(1, fetches.size());
+    }
+
+    @Test
+    public void asyncDataProvider_completedStages_sentInSameRoundTrip() {
+        List<CompletableFuture<Stream<Item>>> fetches = new ArrayList<>();
+        dataCommunicator.setDataProvider(createAsyncDataProvider(fetches,
+                CompletableFuture.completedFuture(100), true), null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 50), lastSet);
+        Assert.assertEquals(1, fetches.size());
+    }
+
+    @Test
+    public void asyncDataProvider_dataChangedWhileFetching_itemsFetchedAgain() {
+        setUpUIRunningAccessImmediately();
+        List<CompletableFuture<Stream<Item>>> fetches = new ArrayList<>();
+        AsyncCallbackDataProvider<Item, Object> dataProvider = createAsyncDataProvider(
+                fetches, CompletableFuture.completedFuture(100), false);
+        dataCommunicator.setDataProvider(dataProvider, null);
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        dataProvider.refreshAll();
+        fetches.get(0).complete(IntStream.range(0, 50).mapToObj(Item::new));
+        fakeClientCommunication();
+
+        Assert.assertNull("Stale items should not be sent", lastSet);
+        Assert.assertEquals(2, fetches.size());
+    }
+
+    @Test
+    public void asyncDataProvider_fetchFails_exceptionThrown() {
+        dataCommunicator.setDataProvider(new AsyncCallbackDataProvider<>(
+                query -> {
+                    CompletableFuture<Stream<Item>> result = new CompletableFuture<>();
+                    result.completeExceptionally(
+                            new IllegalStateException("Back end failure"));
+                    return result;
+                }, query -> CompletableFuture.completedFuture(100)), null);
+        dataCommunicator.setRequestedRange(0, 50);
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Back end failure");
+        fakeClientCommunication();
+    }
+
+    private AsyncCallbackDataProvider<Item, Object> createAsyncDataProvider(
+            List<CompletableFuture<Stream<Item>>> fetches,
+            CompletableFuture<Integer> count, boolean completeFetches) {
+        return new AsyncCallbackDataProvider<>(query -> {
+            query.getOffset();
+            query.getLimit();
+            CompletableFuture<Stream<Item>> result = new CompletableFuture<>();
+            if (completeFetches) {
+                result.complete(IntStream
+                        .range(query.getOffset(),
+                                query.getOffset() + query.getLimit())
+                        .mapToObj(Item::new));
+            }
+            fetches.add(result);
+            return result;
+        }, query -> count);
+    }
+
+    @Test
+    public void columnarUpdate_itemsSetAsColumns() {
+        AtomicReference<JsonArray> sentKeys = new AtomicReference<>();
+        AtomicReference<JsonObject> sentColumns = new AtomicReference<>();
+        mockColumnarUpdate(sentKeys, sentColumns);
+        Mockito.doAnswer(invocation -> {
+            Item item = (Item) invocation.getArguments()[0];
+            JsonObject json = (JsonObject) invocation.getArguments()[1];
+            Assert.assertFalse(json.hasKey("value"));
+            json.put("value", item.value);
+            Assert.assertEquals(item.value, json.getString("value"));
+            if (item.id % 2 == 0) {
+                json.put("even", true);
+            }
+            return null;
+        }).when(dataGenerator).generateData(Mockito.any(), Mockito.any());
+        dataCommunicator.setDataProvider(createDataProvider(), null);
+
+        dataCommunicator.setRequestedRange(0, 10);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 10), lastSet);
+        JsonArray keys = sentKeys.get();
+        Assert.assertEquals(dataCommunicator.getKeyMapper().key(new Item(3)),
+                keys.getString(3));
+        JsonObject columns = sentColumns.get();
+        Assert.assertEquals(2, columns.keys().length);
+        Assert.assertEquals(10, columns.getArray("value").length());
+        Assert.assertEquals("Item 3", columns.getArray("value").getString(3));
+        JsonArray even = columns.getArray("even");
+        Assert.assertEquals(10, even.length());
+        Assert.assertTrue(even.getBoolean(0));
+        Assert.assertEquals(JsonType.NULL, even.get(9).getType());
+    }
+
+    @Test
+    public void columnarUpdate_inactiveDataGenerator_columnNotGenerated() {
+        AtomicReference<JsonObject> sentColumns = new AtomicReference<>();
+        mockColumnarUpdate(new AtomicReference<>(), sentColumns);
+        CompositeDataGenerator<Item> composite = new CompositeDataGenerator<>();
+        composite.addDataGenerator(
+                (item, json) -> json.put("value", item.value));
+        DataGenerator<Item> hidden = (item, json) -> json.put("id", item.id);
+        composite.addDataGenerator(hidden);
+        composite.setDataGeneratorActive(hidden, false);
+        dataCommunicator = new DataCommunicator<>(composite, arrayUpdater,
+                data -> {
+                }, element.getNode());
+        dataCommunicator.setDataProvider(createDataProvider(), null);
+
+        dataCommunicator.setRequestedRange(0, 10);
+        fakeClientCommunication();
+
+        JsonObject columns = sentColumns.get();
+        Assert.assertArrayEquals(new String[] { "value" }, columns.keys());
+        Assert.assertEquals("Item 3", columns.getArray("value").getString(3));
+    }
+
+    private void mockColumnarUpdate(AtomicReference<JsonArray> sentKeys,
+            AtomicReference<JsonObject> sentColumns) {
+        Mockito.when(arrayUpdater.startUpdate(Mockito.anyInt()))
+                .thenReturn(new ArrayUpdater.ColumnarUpdate() {
+                    @Override
+                    public void set(int start, JsonArray keys,
+                            JsonObject columns) {
+                        lastSet = Range.withLength(start, keys.length());
+                        sentKeys.set(keys);
+                        sentColumns.set(columns);
+                    }
+
+                    @Override
+                    public void set(int start, List<JsonValue> items) {
+                        Assert.fail("Items should be set as columns");
+                    }
+
+                    @Override
+                    public void clear(int start, int length) {
+                    }
+
+                    @Override
+                    public void commit(int updateId) {
+                    }
+                });
+    }
+
+    private static class NextPageStrategy implements PrefetchStrategy {
+        private int completedQueries;
+
+        @Override
+        public Range getPrefetchRange(Range requestedRange, int pageSize) {
+            return Range.withLength(requestedRange.getEnd(), pageSize);
+        }
+
+        @Override
+        public void queryCompleted(int itemCount, long durationNanos) {
+            completedQueries++;
+        }
+    }
+
+    private void setUpUIRunningAccessImmediately() {
+        ui = new MockUI() {
+            @Override
+            public Future<Void> access(Command command) {
+                command.execute();
+                return null;
+            }
+        };
+        element = new Element("div");
+        ui.getElement().appendChild(element);
+        dataCommunicator = new DataCommunicator<>(dataGenerator, arrayUpdater,
+                data -> {
+                }, element.getNode());
+        dataCommunicator.setPageSize(pageSize);
+    }
+
+    private AbstractDataProvider<Item, Object> createRecordingDataProvider(
+            List<Range> fetchedRanges) {
+        return new AbstractDataProvider<Item, Object>() {
+            @Override
+            public boolean isInMemory() {
+                return false;
+            }
+
+            @Override
+            public int size(Query<Item, Object> query) {
+                return 1000;
+            }
+
+            @Override
+            public Stream<Item> fetch(Query<Item, Object> query) {
+                fetchedRanges.add(Range.withLength(query.getOffset(),
+                        query.getLimit()));
+                return IntStream
+                        .range(query.getOffset(),
+                                query.getLimit() + query.getOffset())
+                        .mapToObj(Item::new);
+            }
+        };
+    }
+
     private void fakeClientCommunication() {
         ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
         ui.getInternals().getStateTree().collectChanges(ignore -> {
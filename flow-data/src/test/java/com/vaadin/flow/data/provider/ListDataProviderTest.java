@@ -15,6 +15,7 @@
  */
 package com.vaadin.flow.data.provider;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
@@ -239,6 +240,50 @@ public class ListDataProviderTest
         getDataProvider().setSortComparator(serializableComp);
     }
 
+    @Test
+    public void projectionCache_fetchSlicesSortedItems() {
+        ListDataProvider<StrBean> provider = new ListDataProvider<>(data);
+        provider.setProjectionCacheEnabled(true);
+        Comparator<StrBean> comparator = Comparator
+                .comparing(StrBean::getValue).thenComparing(StrBean::getId);
+
+        List<StrBean> expected = data.stream().filter(fooFilter)
+                .sorted(comparator).collect(Collectors.toList());
+
+        Assert.assertEquals(expected.size(),
+                provider.size(new Query<>(fooFilter)));
+        Assert.assertEquals(expected.subList(5, 15),
+                provider.fetch(new Query<>(5, 10, null, comparator, fooFilter))
+                        .collect(Collectors.toList()));
+        Assert.assertEquals(expected.subList(30, expected.size()),
+                provider.fetch(new Query<>(30, 10, null, comparator, fooFilter))
+                        .collect(Collectors.toList()));
+        Assert.assertEquals(0,
+                provider.fetch(new Query<>(100, 10, null, comparator, fooFilter))
+                        .count());
+    }
+
+    @Test
+    public void projectionCache_clearedOnRefresh() {
+        List<StrBean> items = new ArrayList<>(data);
+        ListDataProvider<StrBean> provider = new ListDataProvider<>(items);
+        provider.setProjectionCacheEnabled(true);
+
+        Assert.assertEquals(100, provider.size(new Query<>()));
+
+        StrBean added = new StrBean("Foo", 100, 0);
+        items.add(added);
+        Assert.assertEquals("Cached items should be used until refresh", 100,
+                provider.size(new Query<>()));
+
+        provider.refreshAll();
+        Assert.assertEquals(101, provider.size(new Query<>()));
+
+        items.remove(added);
+        provider.refreshItem(added);
+        Assert.assertEquals(100, provider.size(new Query<>()));
+    }
+
     @Test
     public void serializableWithListeners() {
         ListDataProvider<StrBean> provider = getDataProvider();
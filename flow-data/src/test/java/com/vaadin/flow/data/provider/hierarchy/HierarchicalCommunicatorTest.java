@@ -20,6 +20,7 @@ import static org.junit.Assert.assertFalse;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Assert;
@@ -32,10 +33,13 @@ import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.internal.UIInternals;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.data.provider.CompositeDataGenerator;
+import com.vaadin.flow.data.provider.PrefetchStrategy;
 import com.vaadin.flow.data.provider.hierarchy.HierarchicalArrayUpdater.HierarchicalUpdate;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.internal.Range;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.internal.StateTree;
 import com.vaadin.flow.internal.nodefeature.ComponentMapping;
@@ -203,6 +207,36 @@ public class HierarchicalCommunicatorTest {
                 enqueueFunctions.get(0));
     }
 
+    @Test
+    public void prefetchStrategy_rootItemsPrefetched() {
+        Mockito.when(ui.access(Mockito.any())).thenAnswer(invocation -> {
+            ((Command) invocation.getArguments()[0]).execute();
+            return null;
+        });
+        List<Integer> completedQueries = new ArrayList<>();
+        communicator.setPrefetchStrategy(new PrefetchStrategy() {
+            @Override
+            public Range getPrefetchRange(Range requestedRange, int pageSize) {
+                return Range.withLength(0, 50);
+            }
+
+            @Override
+            public void queryCompleted(int itemCount, long durationNanos) {
+                completedQueries.add(itemCount);
+            }
+        }, Runnable::run);
+
+        communicator.setRequestedRange(0, 1);
+
+        ArgumentCaptor<SerializableConsumer> attachCaptor = ArgumentCaptor
+                .forClass(SerializableConsumer.class);
+        Mockito.verify(stateNode, Mockito.atLeastOnce())
+                .runWhenAttached(attachCaptor.capture());
+        attachCaptor.getAllValues().forEach(consumer -> consumer.accept(ui));
+
+        Assert.assertEquals(Arrays.asList(1), completedQueries);
+    }
+
     @Tag("test")
     public static class TestComponent extends Component {
     }
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -224,6 +225,79 @@ public class HierarchyMapperWithDataTest {
         verifyFetchIsCorrect(expectedResult, range);
     }
 
+    @Test
+    public void expandAndCollapse_indexesMatchFlattenedHierarchy() {
+        expand(testData.get(0));
+        expand(testData.get(1));
+        Node lastRoot = roots.get(roots.size() - 1);
+        expand(lastRoot);
+        expand(testData.get(testData.indexOf(lastRoot) + 1));
+        verifyIndexes();
+
+        collapse(testData.get(0));
+        checkMapSize();
+        verifyIndexes();
+
+        // Expanded state of the hidden child is kept
+        expand(testData.get(0));
+        checkMapSize();
+        verifyIndexes();
+        assertEquals(Integer.valueOf(1),
+                mapper.getParentIndex(testData.get(2)));
+    }
+
+    @Test
+    public void getIndexOfHiddenItem_notFound() {
+        assertEquals(Optional.empty(), mapper.getIndexOf(testData.get(1)));
+        assertEquals(Integer.valueOf(-1), mapper.getIndex(testData.get(1)));
+        assertEquals(Integer.valueOf(-1), mapper.getIndex(null));
+    }
+
+    @Test
+    public void resetHierarchy_changedDataFetchedAgain() {
+        expand(testData.get(0));
+        Node newChild = new Node(1000, testData.get(0));
+        data.addItem(testData.get(0), newChild);
+
+        assertEquals(ROOT_COUNT + PARENT_COUNT, mapper.getTreeSize());
+
+        mapper.resetHierarchy();
+        assertEquals(ROOT_COUNT + PARENT_COUNT + 1, mapper.getTreeSize());
+        assertEquals(Integer.valueOf(PARENT_COUNT + 1),
+                mapper.getIndex(newChild));
+    }
+
+    @Test
+    public void refreshChildren_subtreeFetchedAgain() {
+        expand(testData.get(0));
+        expand(testData.get(1));
+        Node newLeaf = new Node(1000, testData.get(1));
+        data.addItem(testData.get(1), newLeaf);
+
+        mapper.refresh(testData.get(1), true);
+
+        assertEquals(ROOT_COUNT + PARENT_COUNT + LEAF_COUNT + 1,
+                mapper.getTreeSize());
+        assertEquals(Integer.valueOf(2 + LEAF_COUNT),
+                mapper.getIndex(newLeaf));
+        assertEquals(Integer.valueOf(3 + LEAF_COUNT),
+                mapper.getIndex(testData.get(2 + LEAF_COUNT)));
+    }
+
+    private void verifyIndexes() {
+        List<Node> flattened = mapper
+                .fetchHierarchyItems(Range.withLength(0, mapper.getTreeSize()))
+                .collect(Collectors.toList());
+        assertEquals(mapSize, flattened.size());
+        for (int i = 0; i < flattened.size(); i++) {
+            assertEquals(Optional.of(i), mapper.getIndexOf(flattened.get(i)));
+            assertEquals(flattened.subList(i, flattened.size()),
+                    mapper.fetchHierarchyItems(
+                            Range.between(i, flattened.size()))
+                            .collect(Collectors.toList()));
+        }
+    }
+
     private void expand(Node node) {
         insertRows(mapper.expand(node, mapper.getIndexOf(node).orElse(null)));
     }
@@ -77,6 +77,20 @@ public class HierarchyMapperWithNumerousDataTest {
         checkMapSize();
     }
 
+    @Test(timeout = 1000)
+    public void findIndexesOfExpandedRows() {
+        expand(testData.get(0));
+        for (int i = 0; i < PARENT_COUNT; i += 10) {
+            assertEquals(Integer.valueOf(i + 1),
+                    mapper.getIndex(testData.get(i + 1)));
+            assertEquals(Integer.valueOf(0),
+                    mapper.getParentIndex(testData.get(i + 1)));
+            assertEquals(testData.get(i + 1), mapper
+                    .fetchHierarchyItems(Range.withLength(i + 1, 1))
+                    .findFirst().get());
+        }
+    }
+
     private void expand(Node node) {
         insertRows(mapper.expand(node, mapper.getIndexOf(node).orElse(null)));
     }
@@ -213,4 +213,112 @@ public class ComponentRendererTest {
                 updatedComponent);
     }
 
+    @Test
+    public void recyclingEnabled_destroyedComponentReusedForNewItem() {
+        AtomicInteger createInvocations = new AtomicInteger();
+        ComponentRenderer<TestLabel, String> renderer = new ComponentRenderer<>(
+                item -> {
+                    createInvocations.incrementAndGet();
+                    return new TestLabel(item);
+                }, (component, item) -> {
+                    ((TestLabel) component).setText(item);
+                    return component;
+                });
+        renderer.setRecycledComponentPoolSize(1);
+        Element container = new Element("div");
+        ComponentDataGenerator<String> generator = createGenerator(renderer,
+                container);
+
+        int firstNodeId = generateNodeId(generator, "first");
+        Component first = container.getChild(0).getComponent().get();
+        generator.destroyData("first");
+
+        Assert.assertEquals("Recycled component should stay attached", 1,
+                container.getChildCount());
+
+        int secondNodeId = generateNodeId(generator, "second");
+
+        Assert.assertEquals(firstNodeId, secondNodeId);
+        Assert.assertEquals(1, createInvocations.get());
+        Assert.assertEquals(1, container.getChildCount());
+        Assert.assertEquals("second", first.getElement().getText());
+    }
+
+    @Test
+    public void recyclingEnabled_poolFull_destroyedComponentsRemoved() {
+        ComponentRenderer<TestLabel, String> renderer = new ComponentRenderer<>(
+                TestLabel::new, (component, item) -> component);
+        renderer.setRecycledComponentPoolSize(1);
+        Element container = new Element("div");
+        ComponentDataGenerator<String> generator = createGenerator(renderer,
+                container);
+
+        generateNodeId(generator, "first");
+        generateNodeId(generator, "second");
+        generator.destroyData("first");
+        generator.destroyData("second");
+
+        Assert.assertEquals(1, container.getChildCount());
+
+        generator.destroyAllData();
+
+        Assert.assertEquals(0, container.getChildCount());
+    }
+
+    @Test
+    public void recyclingEnabled_updateCreatesNewComponent_recycledComponentRemoved() {
+        ComponentRenderer<TestLabel, String> renderer = new ComponentRenderer<>(
+                item -> new TestLabel(item));
+        renderer.setRecycledComponentPoolSize(1);
+        Element container = new Element("div");
+        ComponentDataGenerator<String> generator = createGenerator(renderer,
+                container);
+
+        int firstNodeId = generateNodeId(generator, "first");
+        generator.destroyData("first");
+        int secondNodeId = generateNodeId(generator, "second");
+
+        Assert.assertNotEquals(firstNodeId, secondNodeId);
+        Assert.assertEquals(1, container.getChildCount());
+        Assert.assertEquals("second", container.getChild(0).getText());
+    }
+
+    @Test
+    public void recyclingDisabledByDefault_destroyedComponentRemoved() {
+        ComponentRenderer<TestLabel, String> renderer = new ComponentRenderer<>(
+                TestLabel::new, (component, item) -> component);
+        Element container = new Element("div");
+        ComponentDataGenerator<String> generator = createGenerator(renderer,
+                container);
+
+        int firstNodeId = generateNodeId(generator, "first");
+        generator.destroyData("first");
+
+        Assert.assertEquals(0, container.getChildCount());
+        Assert.assertNotEquals(firstNodeId, generateNodeId(generator, "second"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setRecycledComponentPoolSize_negative_throws() {
+        new ComponentRenderer<TestLabel, String>(item -> new TestLabel())
+                .setRecycledComponentPoolSize(-1);
+    }
+
+    private ComponentDataGenerator<String> createGenerator(
+            ComponentRenderer<TestLabel, String> renderer, Element container) {
+        ComponentDataGenerator<String> generator = (ComponentDataGenerator<String>) renderer
+                .render(new Element("div"), new KeyMapper<>());
+        generator.setContainer(container);
+        generator.setNodeIdPropertyName("nodeId");
+        // Attach so that the components get state node ids
+        new TestUI().getElement().appendChild(container);
+        return generator;
+    }
+
+    private int generateNodeId(ComponentDataGenerator<String> generator,
+            String item) {
+        JsonObject json = Json.createObject();
+        generator.generateData(item, json);
+        return (int) json.getNumber("nodeId");
+    }
 }
@@ -41,6 +41,7 @@ import org.apache.maven.project.MavenProject;
 import com.vaadin.flow.component.dependency.JavaScript;
 import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.component.dependency.NpmPackage;
+import com.vaadin.flow.component.polymertemplate.BundleParser;
 import com.vaadin.flow.server.Constants;
 import com.vaadin.flow.server.ExecutionFailedException;
 import com.vaadin.flow.server.frontend.FrontendTools;
@@ -60,6 +61,8 @@ import static com.vaadin.flow.server.Constants.CONNECT_JAVA_SOURCE_FOLDER_TOKEN;
 import static com.vaadin.flow.server.Constants.CONNECT_APPLICATION_PROPERTIES_TOKEN;
 import static com.vaadin.flow.server.Constants.CONNECT_OPEN_API_FILE_TOKEN;
 import static com.vaadin.flow.server.Constants.CONNECT_GENERATED_TS_DIR_TOKEN;
+import static com.vaadin.flow.server.Constants.STATISTICS_JSON_DEFAULT;
+import static com.vaadin.flow.server.Constants.TEMPLATE_INDEX_JSON;
 import static com.vaadin.flow.server.frontend.FrontendUtils.DEAULT_FLOW_RESOURCES_FOLDER;
 import static com.vaadin.flow.server.frontend.FrontendUtils.NODE_MODULES;
 import static com.vaadin.flow.server.frontend.FrontendUtils.TOKEN_FILE;
@@ -138,6 +141,7 @@ public class BuildFrontendMojo extends FlowModeAbstractMojo {
         if (generateBundle) {
             try {
                 runWebpack();
+                generateTemplateIndex();
             } catch (IllegalStateException exception) {
                 throw new MojoExecutionException(exception.getMessage(),
                         exception);
@@ -242,6 +246,33 @@ public class BuildFrontendMojo extends FlowModeAbstractMojo {
         }
     }
 
+    /**
+     * Generate the template index next to the stats file produced by webpack,
+     * so that templates can be looked up at runtime without parsing the
+     * complete stats file.
+     */
+    void generateTemplateIndex() {
+        File statsFile = new File(webpackOutputDirectory,
+                STATISTICS_JSON_DEFAULT);
+        if (!statsFile.exists()) {
+            getLog().warn(
+                    "Couldn't generate template index due to missing stats file.");
+            return;
+        }
+        try {
+            String json = FileUtils.readFileToString(statsFile,
+                    StandardCharsets.UTF_8.name());
+            JsonObject index = BundleParser.createTemplateIndex(
+                    BundleParser.parseJsonStatistics(json));
+            FileUtils.write(
+                    new File(statsFile.getParentFile(), TEMPLATE_INDEX_JSON),
+                    JsonUtil.stringify(index), StandardCharsets.UTF_8.name());
+        } catch (IOException e) {
+            throw new UncheckedIOException(
+                    "Unable to generate the template index", e);
+        }
+    }
+
     private void readDetailsAndThrowException(Process webpackLaunch) {
         String stderr = readFullyAndClose(
                 "Failed to read webpack process stderr",
@@ -439,6 +439,53 @@ public class BuildFrontendMojoTest {
         Assert.assertTrue(endpointClientApi.exists());
     }
 
+    @Test
+    public void generateTemplateIndex_statsFileExists_indexContainsTemplateSources()
+            throws Exception {
+        File webpackOutputDirectory = temporaryFolder.newFolder("webpack");
+        ReflectionUtils.setVariableValueInObject(mojo, "webpackOutputDirectory",
+                webpackOutputDirectory);
+        File statsFile = new File(webpackOutputDirectory,
+                Constants.STATISTICS_JSON_DEFAULT);
+        FileUtils.forceMkdir(statsFile.getParentFile());
+        FileUtils.fileWrite(statsFile, StandardCharsets.UTF_8.name(),
+                "{\"hash\": \"64bb80639ef116681818\", \"modules\": [{"
+                        + "\"name\": \"./src/hello-world.js\", "
+                        + "\"source\": \"import {html} from 'polymer'; "
+                        + "class HelloWorld { static get template() { "
+                        + "return html`<div>Hello</div>`; } }\"}, {"
+                        + "\"name\": \"./src/util.js\", "
+                        + "\"source\": \"export const answer = 42;\"}]}");
+
+        mojo.generateTemplateIndex();
+
+        File indexFile = new File(statsFile.getParentFile(),
+                Constants.TEMPLATE_INDEX_JSON);
+        Assert.assertTrue("Template index should have been generated",
+                indexFile.exists());
+        String index = FileUtils.fileRead(indexFile,
+                StandardCharsets.UTF_8.name());
+        Assert.assertTrue(index.contains("64bb80639ef116681818"));
+        Assert.assertTrue(index.contains("<div>Hello</div>"));
+        Assert.assertTrue(index.contains("./src/util.js"));
+        Assert.assertFalse(index.contains("polymer"));
+        Assert.assertFalse(index.contains("answer"));
+    }
+
+    @Test
+    public void generateTemplateIndex_noStatsFile_noIndexGenerated()
+            throws Exception {
+        File webpackOutputDirectory = temporaryFolder.newFolder("webpack");
+        ReflectionUtils.setVariableValueInObject(mojo, "webpackOutputDirectory",
+                webpackOutputDirectory);
+
+        mojo.generateTemplateIndex();
+
+        Assert.assertFalse(new File(webpackOutputDirectory,
+                Constants.VAADIN_CONFIGURATION + Constants.TEMPLATE_INDEX_JSON)
+                        .exists());
+    }
+
     static void assertContainsPackage(JsonObject dependencies,
             String... packages) {
         Arrays.asList(packages).forEach(dep -> Assert
@@ -50,7 +50,9 @@ import com.vaadin.flow.internal.AnnotationReader;
 import com.vaadin.flow.internal.ConstantPool;
 import com.vaadin.flow.internal.JsonCodec;
 import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.internal.StateTreeFootprint;
 import com.vaadin.flow.internal.UrlUtil;
+import com.vaadin.flow.internal.change.CompactChangeEncoder;
 import com.vaadin.flow.internal.nodefeature.LoadingIndicatorConfigurationMap;
 import com.vaadin.flow.internal.nodefeature.NodeFeature;
 import com.vaadin.flow.internal.nodefeature.PollConfigurationMap;
@@ -199,6 +201,10 @@ public class UIInternals implements Serializable {
 
     private boolean isFallbackChunkLoaded;
 
+    // Non-null if the client supports compact state changes, keeps track of
+    // the map keys already sent to the client
+    private CompactChangeEncoder compactChangeEncoder;
+
     /**
      * Creates a new instance for the given UI.
      *
@@ -233,6 +239,16 @@ public class UIInternals implements Serializable {
         return stateTree;
     }
 
+    /**
+     * Collects the memory footprint of the state tree of the related UI. The
+     * session of the UI must be locked.
+     *
+     * @return the footprint of the state tree, not <code>null</code>
+     */
+    public StateTreeFootprint getStateTreeFootprint() {
+        return StateTreeFootprint.collect(stateTree.getRootNode());
+    }
+
     /**
      * Gets the last processed server message id.
      * <p>
@@ -277,6 +293,52 @@ public class UIInternals implements Serializable {
         this.lastProcessedMessageHash = lastProcessedMessageHash;
     }
 
+    /**
+     * Checks whether the client has told that it can decode state changes in
+     * the compact format.
+     *
+     * @return <code>true</code> if the client supports compact state changes,
+     *         <code>false</code> otherwise
+     * @since
+     */
+    public boolean isCompactChangesSupported() {
+        return compactChangeEncoder != null;
+    }
+
+    /**
+     * Sets whether the client can decode state changes in the compact format.
+     * <p>
+     * Used internally for communication tracking.
+     *
+     * @param compactChangesSupported
+     *            <code>true</code> if the client supports compact state
+     *            changes, <code>false</code> otherwise
+     * @since
+     */
+    public void setCompactChangesSupported(boolean compactChangesSupported) {
+        if (!compactChangesSupported) {
+            compactChangeEncoder = null;
+        } else if (compactChangeEncoder == null) {
+            compactChangeEncoder = new CompactChangeEncoder();
+        }
+    }
+
+    /**
+     * Gets the encoder for state changes in the compact format. The same
+     * encoder is used for all messages to the client, since the client keeps
+     * track of the map keys it has already received.
+     * <p>
+     * Used internally for communication tracking.
+     *
+     * @return the compact change encoder, or <code>null</code> if the client
+     *         does not support compact state changes
+     * @see #isCompactChangesSupported()
+     * @since
+     */
+    public CompactChangeEncoder getCompactChangeEncoder() {
+        return compactChangeEncoder;
+    }
+
     /**
      * Gets the server sync id.
      * <p>
@@ -15,7 +15,9 @@
  */
 package com.vaadin.flow.component.polymertemplate;
 
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -56,6 +58,8 @@ public final class BundleParser {
     private static final String NAME = "name";
     private static final String CHUNKS = "chunks";
     private static final String MODULES = "modules";
+    private static final String HASH = "hash";
+    private static final String TEMPLATES = "templates";
 
     /**
      * Template pattern matches the template getter
@@ -135,6 +139,59 @@ public final class BundleParser {
         return getSourceFromObject(statistics, fileName);
     }
 
+    /**
+     * Creates a compact template index out of the statistics json generated by
+     * webpack.
+     * <p>
+     * The index lists every module found in the statistics in the same order
+     * as {@link #getSourceFromStatistics(String, JsonObject)} visits them, but
+     * only keeps the part of each module source that declares a template. The
+     * index is meant to be generated at build time so that templates can be
+     * looked up with {@link #getSourceFromTemplateIndex(String, JsonObject)}
+     * without loading the whole statistics json at runtime.
+     *
+     * @param statistics
+     *            statistics json as a JsonObject
+     * @return the template index json object
+     */
+    public static JsonObject createTemplateIndex(JsonObject statistics) {
+        JsonArray templates = Json.createArray();
+        collectTemplates(statistics, templates, new HashSet<>());
+
+        JsonObject index = Json.createObject();
+        if (validKey(statistics, HASH, STRING)) {
+            index.put(HASH, statistics.getString(HASH));
+        }
+        index.put(TEMPLATES, templates);
+        return index;
+    }
+
+    /**
+     * Get a module template source from a template index created with
+     * {@link #createTemplateIndex(JsonObject)}.
+     *
+     * @param fileName
+     *            name of the file to get from the index
+     * @param templateIndex
+     *            template index as a JsonObject
+     * @return the template source of the file, an empty string if the file
+     *         has no template or {@code null} if the file is not in the index
+     */
+    public static String getSourceFromTemplateIndex(String fileName,
+            JsonObject templateIndex) {
+        if (!validKey(templateIndex, TEMPLATES, ARRAY)) {
+            return null;
+        }
+        JsonArray templates = templateIndex.getArray(TEMPLATES);
+        for (int i = 0; i < templates.length(); i++) {
+            JsonObject template = templates.getObject(i);
+            if (nameMatches(template.getString(NAME), fileName)) {
+                return template.getString(SOURCE);
+            }
+        }
+        return null;
+    }
+
     /**
      * Get the template element for given statistics file object.
      *
@@ -239,39 +296,87 @@ public final class BundleParser {
             source = getSourceFromArray(module.getArray(CHUNKS), fileName);
         }
         if (source == null && validKey(module, NAME, STRING)
-                && validKey(module, SOURCE, STRING)) {
-            String name = module.getString(NAME);
-
-            // append `.js` extension if not yet as webpack does
-            fileName = fileName.replaceFirst("(\\.js|)$", ".js");
-
-            String alternativeFileName = fileName
-                    // Replace frontend part since webpack entry-point is
-                    // already in the frontend folder
-                    .replaceFirst("^(\\./)frontend/", "$1")
-                    // Replace the flow frontend protocol
-                    .replaceFirst("^frontend://", ".");
-
-            // For polymer templates inside add-ons we will not find the sources
-            // using ./ as the actual path contains
-            // "node_modules/@vaadin/flow-frontend/" instead of "./"
-            // "target/flow-frontend/" instead of "./"
-            if (name.contains(FLOW_NPM_PACKAGE_NAME) ||
-                    name.contains(DEAULT_FLOW_RESOURCES_FOLDER)) {
-                alternativeFileName = alternativeFileName.replaceFirst("\\./",
-                        "");
-            }
+                && validKey(module, SOURCE, STRING)
+                && nameMatches(module.getString(NAME), fileName)) {
+            source = module.getString(SOURCE);
+        }
+        return source;
+    }
+
+    private static boolean nameMatches(String name, String fileName) {
+        // append `.js` extension if not yet as webpack does
+        fileName = fileName.replaceFirst("(\\.js|)$", ".js");
+
+        String alternativeFileName = fileName
+                // Replace frontend part since webpack entry-point is
+                // already in the frontend folder
+                .replaceFirst("^(\\./)frontend/", "$1")
+                // Replace the flow frontend protocol
+                .replaceFirst("^frontend://", ".");
+
+        // For polymer templates inside add-ons we will not find the sources
+        // using ./ as the actual path contains
+        // "node_modules/@vaadin/flow-frontend/" instead of "./"
+        // "target/flow-frontend/" instead of "./"
+        if (name.contains(FLOW_NPM_PACKAGE_NAME) ||
+                name.contains(DEAULT_FLOW_RESOURCES_FOLDER)) {
+            alternativeFileName = alternativeFileName.replaceFirst("\\./",
+                    "");
+        }
+
+        // Remove query-string used by webpack modules like babel (e.g
+        // ?babel-target=es6)
+        name = name.replaceFirst("\\?.+$", "");
 
-            // Remove query-string used by webpack modules like babel (e.g
-            // ?babel-target=es6)
-            name = name.replaceFirst("\\?.+$", "");
+        // Do check on the original fileName and the alternative one
+        return name.endsWith(fileName) || name.endsWith(alternativeFileName);
+    }
+
+    // Collects the modules in the same order getSourceFromObject visits them,
+    // keeping the first module for each name
+    private static void collectTemplates(JsonObject module,
+            JsonArray templates, Set<String> names) {
+        if (validKey(module, MODULES, ARRAY)) {
+            collectTemplates(module.getArray(MODULES), templates, names);
+        }
+        if (validKey(module, CHUNKS, ARRAY)) {
+            collectTemplates(module.getArray(CHUNKS), templates, names);
+        }
+        if (validKey(module, NAME, STRING) && validKey(module, SOURCE, STRING)
+                && names.add(module.getString(NAME))) {
+            JsonObject template = Json.createObject();
+            template.put(NAME, module.getString(NAME));
+            template.put(SOURCE, extractTemplateSource(module.getString(SOURCE)));
+            templates.set(templates.length(), template);
+        }
+    }
 
-            // Do check on the original fileName and the alternative one
-            if (name.endsWith(fileName) || name.endsWith(alternativeFileName)) {
-                source = module.getString(SOURCE);
+    private static void collectTemplates(JsonArray objects,
+            JsonArray templates, Set<String> names) {
+        for (int i = 0; i < objects.length(); i++) {
+            if (objects.get(i).getType().equals(OBJECT)) {
+                collectTemplates((JsonObject) objects.get(i), templates, names);
             }
         }
-        return source;
+    }
+
+    // Reduces a module source to the parts parseTemplateElement looks for
+    private static String extractTemplateSource(String source) {
+        if (!source.contains(TEMPLATE_TAG_NAME)
+                && !source.contains("innerHTML")) {
+            return "";
+        }
+        String content = StringUtil.removeComments(source);
+        Matcher templateMatcher = TEMPLATE_PATTERN.matcher(content);
+        if (templateMatcher.find()) {
+            return templateMatcher.group();
+        }
+        StringBuilder builder = new StringBuilder();
+        Matcher noTemplateMatcher = NO_TEMPLATE_PATTERN.matcher(content);
+        while (noTemplateMatcher.find()) {
+            builder.append(noTemplateMatcher.group()).append('\n');
+        }
+        return builder.toString();
     }
 
     // Visits all elements of a JsonArray and returns the first element with a
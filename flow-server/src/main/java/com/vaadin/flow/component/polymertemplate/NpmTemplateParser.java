@@ -18,9 +18,9 @@ package com.vaadin.flow.component.polymertemplate;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
@@ -61,9 +61,11 @@ public class NpmTemplateParser implements TemplateParser {
 
     private static final TemplateParser INSTANCE = new NpmTemplateParser();
 
-    private final HashMap<String, String> cache = new HashMap<>();
+    private final ConcurrentHashMap<String, String> cache =
+            new ConcurrentHashMap<>();
     private final ReentrantLock lock = new ReentrantLock();
-    private JsonObject jsonStats;
+    private volatile JsonObject jsonStats;
+    private volatile JsonObject templateIndex;
 
     /**
      * The default constructor. Protected in order to prevent direct instantiation,
@@ -183,19 +185,33 @@ public class NpmTemplateParser implements TemplateParser {
         try {
             lock.lock();
             if (isStatsFileReadNeeded(service)) {
-                String content = FrontendUtils.getStatsContent(service);
-                if (content != null) {
-                    resetCache(content);
+                String index = null;
+                if (usesBundleFile(service.getDeploymentConfiguration())) {
+                    index = FrontendUtils.getTemplateIndexContent(service);
+                }
+                if (index != null) {
+                    resetIndex(index);
+                } else {
+                    String content = FrontendUtils.getStatsContent(service);
+                    if (content != null) {
+                        resetCache(content);
+                    }
                 }
             }
         } finally {
             lock.unlock();
         }
-        if (!cache.containsKey(url) && jsonStats != null) {
-            cache.put(url,
-                    BundleParser.getSourceFromStatistics(url, jsonStats));
+        JsonObject index = templateIndex;
+        if (index != null) {
+            return cache.computeIfAbsent(url,
+                    key -> BundleParser.getSourceFromTemplateIndex(key, index));
+        }
+        JsonObject stats = jsonStats;
+        if (stats != null) {
+            return cache.computeIfAbsent(url,
+                    key -> BundleParser.getSourceFromStatistics(key, stats));
         }
-        return cache.get(url);
+        return null;
     }
 
     /**
@@ -203,7 +219,8 @@ public class NpmTemplateParser implements TemplateParser {
      * <p>
      * Always load if jsonStats is null, never load again when we have a bundle
      * as it never changes, always load a new stats if the hash has changed and
-     * we do not have a bundle.
+     * we do not have a bundle. When we have a bundle, the template index
+     * generated by the build is used instead of stats.json if it is available.
      *
      * @param service
      *            the Vaadin service.
@@ -213,10 +230,10 @@ public class NpmTemplateParser implements TemplateParser {
     protected boolean isStatsFileReadNeeded(VaadinService service)
             throws IOException {
         DeploymentConfiguration config = service.getDeploymentConfiguration();
-        if (jsonStats == null) {
+        if (usesBundleFile(config)) {
+            return jsonStats == null && templateIndex == null;
+        } else if (jsonStats == null) {
             return true;
-        } else if (usesBundleFile(config)) {
-            return false;
         }
         return !jsonStats.get("hash").asString()
                 .equals(FrontendUtils.getStatsHash(service));
@@ -235,8 +252,15 @@ public class NpmTemplateParser implements TemplateParser {
     }
 
     private void resetCache(String fileContents) {
-        cache.clear();
+        templateIndex = null;
         jsonStats = BundleParser.parseJsonStatistics(fileContents);
+        cache.clear();
+    }
+
+    private void resetIndex(String fileContents) {
+        jsonStats = null;
+        templateIndex = BundleParser.parseJsonStatistics(fileContents);
+        cache.clear();
     }
 
     private Logger getLogger() {
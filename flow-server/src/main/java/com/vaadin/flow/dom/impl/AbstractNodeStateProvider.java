@@ -117,12 +117,14 @@ public abstract class AbstractNodeStateProvider
 
     @Override
     public void removeChild(StateNode node, Element child) {
-        ElementChildrenList childrenFeature = getChildrenFeature(node);
-        int pos = childrenFeature.indexOf(child.getNode());
+        Optional<ElementChildrenList> maybeList = node
+                .getFeatureIfInitialized(ElementChildrenList.class);
+        int pos = maybeList.map(list -> list.indexOf(child.getNode()))
+                .orElse(-1);
         if (pos == -1) {
             throw new IllegalArgumentException("Trying to detach an element from parent that does not have it.");
         }
-        childrenFeature.remove(pos);
+        maybeList.get().remove(pos);
     }
 
     @Override
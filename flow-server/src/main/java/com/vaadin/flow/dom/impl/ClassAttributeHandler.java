@@ -20,6 +20,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.nodefeature.ElementClassList;
 
 /**
  * Emulates the <code>class</code> attribute by delegating to
@@ -30,11 +31,17 @@ import com.vaadin.flow.dom.Element;
 public class ClassAttributeHandler extends CustomAttribute {
     @Override
     public boolean hasAttribute(Element element) {
+        if (isUninitialized(element, ElementClassList.class)) {
+            return false;
+        }
         return !element.getClassList().isEmpty();
     }
 
     @Override
     public String getAttribute(Element element) {
+        if (isUninitialized(element, ElementClassList.class)) {
+            return null;
+        }
         Set<String> classList = element.getClassList();
         if (classList.isEmpty()) {
             return null;
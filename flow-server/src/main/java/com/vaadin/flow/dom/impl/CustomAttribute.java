@@ -23,6 +23,8 @@ import java.util.Optional;
 import java.util.Set;
 
 import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.nodefeature.NodeFeature;
 
 /**
  * Callback for handling attributes with special semantics. This is used for
@@ -106,4 +108,23 @@ public abstract class CustomAttribute implements Serializable {
      *            <code>null</code>
      */
     public abstract void removeAttribute(Element element);
+
+    /**
+     * Checks whether the element supports the given feature but has not yet
+     * initialized it. Read-only operations can then report an empty value
+     * without allocating the feature.
+     *
+     * @param element
+     *            the element to check, not <code>null</code>
+     * @param featureType
+     *            the feature type to check, not <code>null</code>
+     * @return <code>true</code> if the feature is supported but not
+     *         initialized, otherwise <code>false</code>
+     */
+    protected static boolean isUninitialized(Element element,
+            Class<? extends NodeFeature> featureType) {
+        StateNode node = element.getNode();
+        return node.hasFeature(featureType)
+                && !node.getFeatureIfInitialized(featureType).isPresent();
+    }
 }
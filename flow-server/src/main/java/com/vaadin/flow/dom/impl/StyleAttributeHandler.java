@@ -27,6 +27,7 @@ import com.helger.css.writer.CSSWriterSettings;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.dom.Style;
 import com.vaadin.flow.dom.StyleUtil;
+import com.vaadin.flow.internal.nodefeature.ElementStylePropertyMap;
 
 /**
  * Emulates the <code>style</code> attribute by delegating to
@@ -39,15 +40,21 @@ public class StyleAttributeHandler extends CustomAttribute {
 
     @Override
     public boolean hasAttribute(Element element) {
+        if (isUninitialized(element, ElementStylePropertyMap.class)) {
+            return false;
+        }
         return element.getStyle().getNames().findAny().isPresent();
     }
 
     @Override
     public String getAttribute(Element element) {
-        if (!hasAttribute(element)) {
+        if (isUninitialized(element, ElementStylePropertyMap.class)) {
             return null;
         }
         Style style = element.getStyle();
+        if (!style.getNames().findAny().isPresent()) {
+            return null;
+        }
 
         return style.getNames().map(styleName -> {
             return StyleUtil.stylePropertyToAttribute(styleName) + ":"
@@ -286,6 +286,59 @@ public interface DeploymentConfiguration extends Serializable {
         return getBooleanProperty(InitParameters.SERVLET_PARAMETER_BROTLI, false);
     }
 
+    /**
+     * Checks whether state changes should be sent to the client in the compact
+     * format. Compact changes are only sent to clients that have told the
+     * server that they can decode them.
+     * <p>
+     * By default it is <code>false</code>.
+     *
+     * @return <code>true</code> to encode state changes in the compact format,
+     *         <code>false</code> to encode them as JSON objects
+     * @since
+     */
+    default boolean isCompactStateChanges() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_COMPACT_STATE_CHANGES, false);
+    }
+
+    /**
+     * Checks whether the state tree memory footprint report is enabled. When
+     * enabled, the footprint of all sessions is exposed through JMX and the
+     * footprint of a session can be requested with the
+     * <code>v-r=memoryFootprint</code> request.
+     * <p>
+     * By default it is <code>false</code>.
+     *
+     * @return <code>true</code> if the memory footprint report is enabled,
+     *         <code>false</code> otherwise
+     * @since
+     */
+    default boolean isMemoryFootprintReportEnabled() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_MEMORY_FOOTPRINT_REPORT,
+                false);
+    }
+
+    /**
+     * Returns the number of seconds between background sweeps that close and
+     * remove inactive UIs of all open sessions, regardless of whether the
+     * sessions receive any requests. A UI is inactive when its heartbeat has
+     * expired.
+     * <p>
+     * By default it is <code>-1</code>, which means that inactive UIs are only
+     * removed at the end of requests to their sessions.
+     *
+     * @return the sweep interval in seconds, or a non-positive number if
+     *         sweeping is disabled
+     * @since
+     */
+    default int getInactiveUISweepInterval() {
+        return getApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_INACTIVE_UI_SWEEP_INTERVAL,
+                -1, Integer::parseInt);
+    }
+
     default String getCompiledWebComponentsPath() {
         return getStringProperty(InitParameters.COMPILED_WEB_COMPONENTS_PATH,
                 "vaadin-web-components");
@@ -15,8 +15,11 @@
  */
 package com.vaadin.flow.internal;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import elemental.json.Json;
@@ -25,15 +28,27 @@ import elemental.json.JsonObject;
 /**
  * Keeps track of {@link ConstantPoolKey} values that have already been sent to
  * the client.
+ * <p>
+ * Known values are tracked by their structural hash (see
+ * {@link ConstantPoolKey#getHash()}) in an open addressing hash set of
+ * primitive longs owned by this pool, so the memory used grows only with the
+ * number of constants sent to this client.
  *
  * @author Vaadin Ltd
  * @since 1.0
  */
 public class ConstantPool implements Serializable {
 
-    private Set<String> knownValues = new HashSet<>();
+    private static final int INITIAL_CAPACITY = 16;
 
-    private Set<ConstantPoolKey> newKeys = new HashSet<>();
+    private transient long[] knownHashes = new long[INITIAL_CAPACITY];
+
+    private transient int knownCount;
+
+    // 0 is used as the empty slot marker in knownHashes
+    private transient boolean knowsZeroHash;
+
+    private Set<ConstantPoolKey> newKeys = new LinkedHashSet<>();
 
     /**
      * Gets the id of a given constant, registering the constant with this
@@ -48,13 +63,11 @@ public class ConstantPool implements Serializable {
     public String getConstantId(ConstantPoolKey constant) {
         assert constant != null;
 
-        String id = constant.getId();
-
-        if (knownValues.add(id)) {
+        if (addKnownHash(constant.getHash())) {
             newKeys.add(constant);
         }
 
-        return id;
+        return constant.getId();
     }
 
     /**
@@ -83,4 +96,58 @@ public class ConstantPool implements Serializable {
         return json;
     }
 
+    private boolean addKnownHash(long hash) {
+        if (hash == 0) {
+            boolean added = !knowsZeroHash;
+            knowsZeroHash = true;
+            return added;
+        }
+        int mask = knownHashes.length - 1;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (knownHashes[slot] != 0) {
+            if (knownHashes[slot] == hash) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        knownHashes[slot] = hash;
+        knownCount++;
+        // Keep the load factor at most 0.5
+        if (knownCount * 2 > knownHashes.length) {
+            long[] old = knownHashes;
+            knownHashes = new long[old.length * 2];
+            knownCount = 0;
+            for (long known : old) {
+                if (known != 0) {
+                    addKnownHash(known);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        stream.defaultWriteObject();
+
+        stream.writeBoolean(knowsZeroHash);
+        stream.writeInt(knownCount);
+        for (long known : knownHashes) {
+            if (known != 0) {
+                stream.writeLong(known);
+            }
+        }
+    }
+
+    private void readObject(ObjectInputStream stream)
+            throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+
+        knownHashes = new long[INITIAL_CAPACITY];
+        knowsZeroHash = stream.readBoolean();
+        int count = stream.readInt();
+        for (int i = 0; i < count; i++) {
+            addKnownHash(stream.readLong());
+        }
+    }
+
 }
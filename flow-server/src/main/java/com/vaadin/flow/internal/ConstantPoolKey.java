@@ -20,6 +20,7 @@ import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
+import elemental.json.JsonArray;
 import elemental.json.JsonObject;
 import elemental.json.JsonValue;
 
@@ -31,13 +32,24 @@ import elemental.json.JsonValue;
  * This is a way of deduplicating JSON values that are expected to be sent to
  * the same client multiple times, since all references to the same JSON
  * structure will be encoded as the same id.
+ * <p>
+ * The id is calculated from a structural hash of the JSON value the first time
+ * it is needed and cached in the key, so that structurally equal values get the
+ * same id without serializing the value.
  *
  * @author Vaadin Ltd
  * @since 1.0
  */
 public class ConstantPoolKey implements Serializable {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
     private final JsonValue json;
-    private final String id;
+
+    private transient long hash;
+
+    private transient volatile String id;
 
     /**
      * Creates a new constant pool key for the given JSON value. The value
@@ -50,8 +62,6 @@ public class ConstantPoolKey implements Serializable {
     public ConstantPoolKey(JsonValue json) {
         assert json != null;
         this.json = json;
-
-        id = calculateHash(json);
     }
 
     /**
@@ -60,7 +70,25 @@ public class ConstantPoolKey implements Serializable {
      * @return the id used to identify this value
      */
     public String getId() {
-        return id;
+        String result = id;
+        if (result == null) {
+            hash = calculateHash(json);
+            result = encodeId(hash);
+            id = result;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the structural hash of the referenced JSON constant. The id of the
+     * constant is an encoding of this hash, so two keys have the same hash
+     * exactly when they have the same id.
+     *
+     * @return the structural hash of this value
+     */
+    long getHash() {
+        getId();
+        return hash;
     }
 
     /**
@@ -73,31 +101,95 @@ public class ConstantPoolKey implements Serializable {
      *            <code>null</code>
      */
     public void export(JsonObject clientConstantPoolUpdate) {
-        assert id.equals(calculateHash(json)) : "Json value has been changed";
+        String id = getId();
+        assert id.equals(encodeId(calculateHash(json)))
+                : "Json value has been changed";
 
         clientConstantPoolUpdate.put(id, json);
     }
 
     /**
-     * Calculates the key of a JSON value by Base 64 encoding the first 64 bits
-     * of the SHA-256 digest of the JSON's string representation.
+     * Encodes a 64 bit hash as a Base 64 string to keep the id short. 64 bits
+     * base64 -> 11 ASCII chars.
+     */
+    private static String encodeId(long hash) {
+        ByteBuffer hashBytes = ByteBuffer.allocate(Long.BYTES).putLong(hash);
+        hashBytes.flip();
+
+        ByteBuffer base64Bytes = Base64.getEncoder().encode(hashBytes);
+
+        return StandardCharsets.US_ASCII.decode(base64Bytes).toString();
+    }
+
+    /**
+     * Calculates a 64 bit structural hash of a JSON value without serializing
+     * it. Structurally equal values (according to
+     * {@link JsonUtils#jsonEquals(JsonValue, JsonValue)}) get the same hash
+     * regardless of the order of object keys.
      *
      * @param json
      *            the JSON to get a hash of, not <code>null</code>
-     * @return the key uniquely identifying the given JSON value
+     * @return the hash of the given JSON value
      */
-    private static String calculateHash(JsonValue json) {
-        byte[] digest = MessageDigestUtil.sha256(json.toJson());
-
-        /*
-         * Only use first 64 bits to keep id string short (1 in 100 000 000
-         * collision risk with 500 000 items). 64 bits base64 -> 11 ASCII chars
-         */
-        ByteBuffer truncatedDigest = ByteBuffer.wrap(digest, 0, 8);
+    private static long calculateHash(JsonValue json) {
+        long hash;
+        switch (json.getType()) {
+        case NULL:
+            hash = 1;
+            break;
+        case BOOLEAN:
+            hash = json.asBoolean() ? 2 : 3;
+            break;
+        case NUMBER:
+            hash = 4 ^ Double.doubleToRawLongBits(json.asNumber());
+            break;
+        case STRING:
+            hash = 5 ^ hashString(json.asString());
+            break;
+        case OBJECT:
+            JsonObject object = (JsonObject) json;
+            hash = 6;
+            for (String key : object.keys()) {
+                // Sum of entry hashes makes the result independent of key order
+                hash += mix(hashString(key) * FNV_PRIME
+                        + calculateHash(object.get(key)));
+            }
+            break;
+        case ARRAY:
+            JsonArray array = (JsonArray) json;
+            hash = 7;
+            for (int i = 0; i < array.length(); i++) {
+                hash = (hash ^ calculateHash(array.get(i))) * FNV_PRIME;
+            }
+            break;
+        default:
+            throw new IllegalArgumentException(
+                    "Unsupported JsonType: " + json.getType());
+        }
+        return mix(hash);
+    }
 
-        ByteBuffer base64Bytes = Base64.getEncoder().encode(truncatedDigest);
+    private static long hashString(String string) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < string.length(); i++) {
+            hash ^= string.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
 
-        return StandardCharsets.US_ASCII.decode(base64Bytes).toString();
+    /**
+     * Final avalanche step of MurmurHash3 so that similar inputs produce
+     * unrelated hashes.
+     */
+    private static long mix(long hash) {
+        long mixed = hash;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xff51afd7ed558ccdL;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xc4ceb9fe1a85ec53L;
+        mixed ^= mixed >>> 33;
+        return mixed;
     }
 
 }
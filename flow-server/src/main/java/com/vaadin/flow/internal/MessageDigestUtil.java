@@ -44,7 +44,7 @@ public class MessageDigestUtil {
         return getSha256().digest(string.getBytes(StandardCharsets.UTF_16));
     }
 
-    private static MessageDigest getSha256() {
+    static MessageDigest getSha256() {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
             assert digest.getDigestLength() == 32;
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Map from node ids to state nodes using open addressing with primitive int
+ * keys, so that lookups don't allocate and registered nodes don't need any
+ * boxed key or map entry instances.
+ * <p>
+ * Node ids are always positive, so <code>0</code> is used to mark an empty
+ * slot.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+final class NodeIdMap implements Serializable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+
+    private StateNode[] values = new StateNode[INITIAL_CAPACITY];
+
+    private int size;
+
+    /**
+     * Gets the node registered for the given id.
+     *
+     * @param id
+     *            the node id
+     * @return the node with the given id, or <code>null</code> if there is no
+     *         such node
+     */
+    StateNode get(int id) {
+        if (id <= 0) {
+            return null;
+        }
+        int mask = keys.length - 1;
+        for (int slot = slot(id, mask); keys[slot] != 0; slot = (slot + 1)
+                & mask) {
+            if (keys[slot] == id) {
+                return values[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether a node is registered for the given id.
+     *
+     * @param id
+     *            the node id
+     * @return <code>true</code> if there is a node with the given id,
+     *         <code>false</code> otherwise
+     */
+    boolean containsKey(int id) {
+        return get(id) != null;
+    }
+
+    /**
+     * Registers a node for the given id, replacing any previous node with the
+     * same id.
+     *
+     * @param id
+     *            the node id, must be positive
+     * @param node
+     *            the node, not <code>null</code>
+     * @return the previous node with the same id, or <code>null</code> if
+     *         there was no such node
+     */
+    StateNode put(int id, StateNode node) {
+        assert id > 0 : "Node id must be positive";
+        assert node != null;
+
+        int mask = keys.length - 1;
+        int slot = slot(id, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == id) {
+                StateNode previous = values[slot];
+                values[slot] = node;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = id;
+        values[slot] = node;
+        size++;
+        // Keep the load factor at most 0.75
+        if (size * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the node registered for the given id.
+     *
+     * @param id
+     *            the node id
+     * @return the removed node, or <code>null</code> if there was no node with
+     *         the given id
+     */
+    StateNode remove(int id) {
+        if (id <= 0) {
+            return null;
+        }
+        int mask = keys.length - 1;
+        int slot = slot(id, mask);
+        while (keys[slot] != id) {
+            if (keys[slot] == 0) {
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+        StateNode removed = values[slot];
+        size--;
+
+        // Shift back following entries of the same probe sequence so that no
+        // tombstones are needed
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != 0) {
+            int home = slot(keys[next], mask);
+            // Move the entry unless its home slot is cyclically in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+        return removed;
+    }
+
+    /**
+     * Gets the number of registered nodes.
+     *
+     * @return the number of nodes
+     */
+    int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        StateNode[] oldValues = values;
+        keys = new int[capacity];
+        values = new StateNode[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            int id = oldKeys[i];
+            if (id != 0) {
+                int slot = slot(id, mask);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = id;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slot(int id, int mask) {
+        // Fibonacci hashing spreads the sequential ids over the whole table
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + Arrays.toString(
+                Arrays.stream(keys).filter(id -> id != 0).sorted().toArray());
+    }
+}
@@ -63,6 +63,10 @@ public class ResponseWriter implements Serializable {
         this.bufferSize = bufferSize;
     }
 
+    boolean isBrotliEnabled() {
+        return brotliEnabled;
+    }
+
     /**
      * Writes the contents and content type (if available) of the given
      * resourceUrl to the response.
@@ -150,7 +154,7 @@ public class ResponseWriter implements Serializable {
         }
     }
 
-    private URL getResource(HttpServletRequest request, String resource)
+    URL getResource(HttpServletRequest request, String resource)
             throws MalformedURLException {
         URL url = request.getServletContext().getResource(resource);
         if (url != null) {
@@ -185,7 +189,7 @@ public class ResponseWriter implements Serializable {
         return true;
     }
 
-    private void writeStream(ServletOutputStream outputStream,
+    void writeStream(ServletOutputStream outputStream,
             InputStream inputStream) throws IOException {
         final byte[] buffer = new byte[bufferSize];
         int bytes;
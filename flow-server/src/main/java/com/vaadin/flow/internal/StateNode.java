@@ -17,13 +17,13 @@
 package com.vaadin.flow.internal;
 
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -110,6 +110,12 @@ public class StateNode implements Serializable {
     private static class FeatureSet implements Serializable {
         private final Set<Class<? extends NodeFeature>> reportedFeatures;
 
+        /**
+         * The reported feature types, in the iteration order of
+         * {@link #mappings}.
+         */
+        private final Class<? extends NodeFeature>[] reportedFeatureTypes;
+
         /**
          * Maps from a node feature type to its index in the {@link #features}
          * array. This instance is cached per unique set of used node feature
@@ -117,6 +123,7 @@ public class StateNode implements Serializable {
          */
         private final Map<Class<? extends NodeFeature>, Integer> mappings = new HashMap<>();
 
+        @SuppressWarnings("unchecked")
         public FeatureSet(FeatureSetKey featureSetKey) {
             reportedFeatures = featureSetKey.reportedFeatures;
 
@@ -124,6 +131,10 @@ public class StateNode implements Serializable {
                     .sorted(NodeFeatureRegistry.PRIORITY_COMPARATOR)
                     .forEach(key -> mappings.put(key,
                             Integer.valueOf(mappings.size())));
+
+            reportedFeatureTypes = mappings.keySet().stream()
+                    .filter(reportedFeatures::contains)
+                    .toArray(Class[]::new);
         }
     }
 
@@ -152,6 +163,10 @@ public class StateNode implements Serializable {
 
     private NodeOwner owner = NullOwner.get();
 
+    // Links in the list of dirty nodes of the owner, managed by StateTree
+    transient StateNode previousDirtyNode;
+    transient StateNode nextDirtyNode;
+
     private StateNode parent;
 
     private int id = -1;
@@ -342,20 +357,28 @@ public class StateNode implements Serializable {
     }
 
     private void forEachChild(Consumer<StateNode> action) {
-        forEachFeature(n -> n.forEachChild(action));
-    }
-
-    private void forEachFeature(Consumer<NodeFeature> action) {
-        getInitializedFeatures().forEach(action::accept);
+        // Iterated directly instead of through forEachFeature to avoid
+        // allocating a capturing lambda for each visited node
+        if (features instanceof NodeFeature) {
+            ((NodeFeature) features).forEachChild(action);
+        } else if (features != null) {
+            for (NodeFeature feature : (NodeFeature[]) features) {
+                if (feature != null) {
+                    feature.forEachChild(action);
+                }
+            }
+        }
     }
 
-    private Stream<NodeFeature> getInitializedFeatures() {
-        if (features == null) {
-            return Stream.empty();
-        } else if (features instanceof NodeFeature) {
-            return Stream.of((NodeFeature) features);
-        } else {
-            return Stream.of((NodeFeature[]) features).filter(Objects::nonNull);
+    void forEachFeature(Consumer<NodeFeature> action) {
+        if (features instanceof NodeFeature) {
+            action.accept((NodeFeature) features);
+        } else if (features != null) {
+            for (NodeFeature feature : (NodeFeature[]) features) {
+                if (feature != null) {
+                    action.accept(feature);
+                }
+            }
         }
     }
 
@@ -388,6 +411,9 @@ public class StateNode implements Serializable {
      * tree.
      */
     private void reset() {
+        if (owner instanceof StateTree) {
+            ((StateTree) owner).removeFromDirtyNodes(this);
+        }
         owner = NullOwner.get();
         id = -1;
         wasAttached = false;
@@ -617,28 +643,60 @@ public class StateNode implements Serializable {
         if (isInactive()) {
             if (isInitialChanges) {
                 // send only required (reported) features updates
-                Stream<NodeFeature> initialFeatures = Stream
-                        .concat(featureSet.mappings.keySet().stream()
-                                .filter(this::isReportedFeature)
-                                .map(this::getFeature), getDisalowFeatures());
-                doCollectChanges(collector, initialFeatures);
-            } else {
-                doCollectChanges(collector, getDisalowFeatures());
+                for (Class<? extends NodeFeature> featureType : featureSet.reportedFeatureTypes) {
+                    collectChanges(getFeature(featureType), collector);
+                }
             }
+            collectDisallowFeatureChanges(collector);
         } else {
-            doCollectChanges(collector, getInitializedFeatures());
+            collectInitializedFeatureChanges(collector);
+        }
+        isInitialChanges = false;
+        if (changes != null && changes.isEmpty()) {
+            changes = null;
         }
     }
 
-    private void doCollectChanges(Consumer<NodeChange> collector,
-            Stream<NodeFeature> features) {
-        features.filter(this::hasChangeTracker).forEach(feature -> {
+    private void collectInitializedFeatureChanges(
+            Consumer<NodeChange> collector) {
+        if (changes == null) {
+            return;
+        }
+        if (features instanceof NodeFeature) {
+            collectChanges((NodeFeature) features, collector);
+        } else if (features != null) {
+            for (NodeFeature feature : (NodeFeature[]) features) {
+                if (feature != null) {
+                    collectChanges(feature, collector);
+                }
+            }
+        }
+    }
+
+    private void collectDisallowFeatureChanges(
+            Consumer<NodeChange> collector) {
+        if (changes == null) {
+            return;
+        }
+        if (features instanceof NodeFeature) {
+            NodeFeature feature = (NodeFeature) features;
+            if (!feature.allowsChanges()) {
+                collectChanges(feature, collector);
+            }
+        } else if (features != null) {
+            for (NodeFeature feature : (NodeFeature[]) features) {
+                if (feature != null && !feature.allowsChanges()) {
+                    collectChanges(feature, collector);
+                }
+            }
+        }
+    }
+
+    private void collectChanges(NodeFeature feature,
+            Consumer<NodeChange> collector) {
+        if (hasChangeTracker(feature)) {
             feature.collectChanges(collector);
             changes.remove(feature.getClass());
-        });
-        isInitialChanges = false;
-        if (changes != null && changes.isEmpty()) {
-            changes = null;
         }
     }
 
@@ -663,12 +721,13 @@ public class StateNode implements Serializable {
      *            visitor to apply
      */
     public void visitNodeTree(Consumer<StateNode> visitor) {
-        LinkedList<StateNode> stack = new LinkedList<>();
-        stack.add(this);
+        ArrayDeque<StateNode> stack = new ArrayDeque<>();
+        Consumer<StateNode> push = stack::addFirst;
+        stack.addFirst(this);
         while (!stack.isEmpty()) {
             StateNode node = stack.removeFirst();
             visitor.accept(node);
-            node.forEachChild(child -> stack.add(0, child));
+            node.forEachChild(push);
         }
     }
 
@@ -683,10 +742,11 @@ public class StateNode implements Serializable {
      */
     // package protected for testing
     void visitNodeTreeBottomUp(Consumer<StateNode> visitor) {
-        LinkedList<StateNode> stack = new LinkedList<>();
-        stack.add(this);
+        ArrayDeque<StateNode> stack = new ArrayDeque<>();
+        Consumer<StateNode> push = stack::addFirst;
+        stack.addFirst(this);
         // not done inside loop to please Sonarcube
-        forEachChild(stack::addFirst);
+        forEachChild(push);
         StateNode previousParent = this;
 
         while (!stack.isEmpty()) {
@@ -696,7 +756,7 @@ public class StateNode implements Serializable {
                 visitor.accept(stack.removeFirst());
                 previousParent = current.getParent();
             } else {
-                current.forEachChild(stack::addFirst);
+                current.forEachChild(push);
                 previousParent = current;
             }
         }
@@ -720,6 +780,7 @@ public class StateNode implements Serializable {
                                 + "node from its current state tree by calling "
                                 + "removeFromTree");
             } else {
+                ((StateTree) getOwner()).removeFromDirtyNodes(this);
                 id = -1;
             }
         }
@@ -917,7 +978,7 @@ public class StateNode implements Serializable {
      * @see NodeFeature#allowsChanges()
      */
     public void updateActiveState() {
-        setInactive(getDisalowFeatures().count() != 0);
+        setInactive(hasDisallowFeatures());
     }
 
     /**
@@ -934,9 +995,17 @@ public class StateNode implements Serializable {
         return getParent().isInactive();
     }
 
-    private Stream<NodeFeature> getDisalowFeatures() {
-        return getInitializedFeatures()
-                .filter(feature -> !feature.allowsChanges());
+    private boolean hasDisallowFeatures() {
+        if (features instanceof NodeFeature) {
+            return !((NodeFeature) features).allowsChanges();
+        } else if (features != null) {
+            for (NodeFeature feature : (NodeFeature[]) features) {
+                if (feature != null && !feature.allowsChanges()) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     private void setInactive(boolean inactive) {
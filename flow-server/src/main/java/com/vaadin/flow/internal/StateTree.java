@@ -16,14 +16,16 @@
 
 package com.vaadin.flow.internal;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -131,9 +133,12 @@ public class StateTree implements NodeOwner {
         void remove();
     }
 
-    private Set<StateNode> dirtyNodes = new LinkedHashSet<>();
+    // Intrusive list of dirty nodes linked through the nodes themselves, in
+    // the order the nodes were marked dirty
+    private transient StateNode firstDirtyNode;
+    private transient StateNode lastDirtyNode;
 
-    private final Map<Integer, StateNode> idToNode = new HashMap<>();
+    private final NodeIdMap idToNode = new NodeIdMap();
 
     private int nextId = 1;
 
@@ -207,7 +212,7 @@ public class StateTree implements NodeOwner {
     public void unregister(StateNode node) {
         assert node.getOwner() == this;
 
-        Integer id = node.getId();
+        int id = node.getId();
 
         StateNode removedNode = idToNode.remove(id);
 
@@ -257,16 +262,16 @@ public class StateTree implements NodeOwner {
      *            a consumer accepting node changes
      */
     public void collectChanges(Consumer<NodeChange> collector) {
-        Set<StateNode> allDirtyNodes = new LinkedHashSet<>();
-        boolean evaluateNewDirtyNodes = true;
-
-        // The updateActiveState method can create new dirty nodes, so they need
-        // to be collected as well
-        while (evaluateNewDirtyNodes) {
-            Set<StateNode> dirtyNodesSet = doCollectDirtyNodes(true);
-            dirtyNodesSet.forEach(StateNode::updateActiveState);
-            evaluateNewDirtyNodes = allDirtyNodes.addAll(dirtyNodesSet);
+        List<StateNode> allDirtyNodes = new ArrayList<>();
+
+        // The updateActiveState method can create new dirty nodes. They are
+        // appended to the end of the list, so they are also visited here.
+        for (StateNode node = firstDirtyNode; node != null;
+                node = node.nextDirtyNode) {
+            node.updateActiveState();
+            allDirtyNodes.add(node);
         }
+        clearDirtyNodes();
 
         // TODO fire preCollect events
 
@@ -278,7 +283,63 @@ public class StateTree implements NodeOwner {
         assert node.getOwner() == this;
         checkHasLock();
 
-        dirtyNodes.add(node);
+        if (!isInDirtyList(node)) {
+            appendDirtyNode(node);
+        }
+    }
+
+    /**
+     * Removes the given node from the nodes that have been marked as dirty.
+     * Used when a node is unlinked from this tree so that it can be marked as
+     * dirty in another tree.
+     *
+     * @param node
+     *            the node to remove
+     */
+    void removeFromDirtyNodes(StateNode node) {
+        if (!isInDirtyList(node)) {
+            return;
+        }
+        StateNode previous = node.previousDirtyNode;
+        StateNode next = node.nextDirtyNode;
+        if (previous == null) {
+            firstDirtyNode = next;
+        } else {
+            previous.nextDirtyNode = next;
+        }
+        if (next == null) {
+            lastDirtyNode = previous;
+        } else {
+            next.previousDirtyNode = previous;
+        }
+        node.previousDirtyNode = null;
+        node.nextDirtyNode = null;
+    }
+
+    private void appendDirtyNode(StateNode node) {
+        node.previousDirtyNode = lastDirtyNode;
+        if (lastDirtyNode == null) {
+            firstDirtyNode = node;
+        } else {
+            lastDirtyNode.nextDirtyNode = node;
+        }
+        lastDirtyNode = node;
+    }
+
+    private boolean isInDirtyList(StateNode node) {
+        return node.previousDirtyNode != null || firstDirtyNode == node;
+    }
+
+    private void clearDirtyNodes() {
+        StateNode node = firstDirtyNode;
+        while (node != null) {
+            StateNode next = node.nextDirtyNode;
+            node.previousDirtyNode = null;
+            node.nextDirtyNode = null;
+            node = next;
+        }
+        firstDirtyNode = null;
+        lastDirtyNode = null;
     }
 
     /**
@@ -287,7 +348,12 @@ public class StateTree implements NodeOwner {
      * @return a set of dirty nodes, in the order they were marked dirty
      */
     public Set<StateNode> collectDirtyNodes() {
-        return doCollectDirtyNodes(false);
+        Set<StateNode> nodes = new LinkedHashSet<>();
+        for (StateNode node = firstDirtyNode; node != null;
+                node = node.nextDirtyNode) {
+            nodes.add(node);
+        }
+        return Collections.unmodifiableSet(nodes);
     }
 
     /**
@@ -297,7 +363,7 @@ public class StateTree implements NodeOwner {
      * @return true if there are dirty nodes, false otherwise
      */
     public boolean hasDirtyNodes() {
-        return !dirtyNodes.isEmpty();
+        return firstDirtyNode != null;
     }
 
     /**
@@ -409,22 +475,19 @@ public class StateTree implements NodeOwner {
         }
     }
 
-    /**
-     * Gets all the nodes that have been marked as dirty.
-     * <p>
-     * If {@code reset} is {@code true} then dirty nodes collection is reset.
-     *
-     * @return a set of dirty nodes, in the order they were marked dirty
-     */
-    private Set<StateNode> doCollectDirtyNodes(boolean reset) {
-        if (reset) {
-            Set<StateNode> collectedNodes = dirtyNodes;
-            dirtyNodes = new LinkedHashSet<>();
-            return collectedNodes;
-        } else {
-            return Collections.unmodifiableSet(dirtyNodes);
-        }
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        stream.defaultWriteObject();
+        // Write the dirty nodes as an array rather than through the links to
+        // avoid deep recursion for long lists
+        stream.writeObject(collectDirtyNodes().toArray(new StateNode[0]));
+    }
 
+    private void readObject(ObjectInputStream stream)
+            throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        for (StateNode node : (StateNode[]) stream.readObject()) {
+            appendDirtyNode(node);
+        }
     }
 
     /**
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.internal.nodefeature.ComponentMapping;
+import com.vaadin.flow.internal.nodefeature.NodeFeature;
+import com.vaadin.flow.internal.nodefeature.NodeList;
+import com.vaadin.flow.internal.nodefeature.NodeMap;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+/**
+ * Accounting of the nodes retained by one or several state trees, used for
+ * finding out which views and components use most of the session memory.
+ * <p>
+ * Byte counts are rough estimates of the shallow size of the nodes, their
+ * features and the feature entries on a 64-bit JVM with compressed
+ * references. The stored values themselves (e.g. strings) are not included.
+ * Nodes that are not mapped to a component are accounted to the closest
+ * ancestor node that is.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class StateTreeFootprint implements Serializable {
+
+    /**
+     * Key used for nodes that don't have any ancestor mapped to a component.
+     */
+    public static final String NO_COMPONENT = "-";
+
+    private static final int NODE_BYTES = 64;
+    private static final int FEATURE_BYTES = 32;
+    private static final int MAP_ENTRY_BYTES = 48;
+    private static final int LIST_ENTRY_BYTES = 8;
+
+    private int nodeCount;
+    private int mapEntryCount;
+    private int listEntryCount;
+    private long estimatedBytes;
+
+    private final Map<String, Integer> featureCounts = new TreeMap<>();
+    private final Map<String, Integer> nodeCountsByComponent = new TreeMap<>();
+    private final Map<String, Long> estimatedBytesByComponent = new TreeMap<>();
+
+    /**
+     * Collects the footprint of the given node and all its descendants.
+     *
+     * @param node
+     *            the root of the tree to collect, not <code>null</code>
+     * @return the footprint of the tree
+     */
+    public static StateTreeFootprint collect(StateNode node) {
+        assert node != null;
+
+        StateTreeFootprint footprint = new StateTreeFootprint();
+        node.visitNodeTree(footprint::add);
+        return footprint;
+    }
+
+    private void add(StateNode node) {
+        long bytesBefore = estimatedBytes;
+        nodeCount++;
+        estimatedBytes += NODE_BYTES;
+        node.forEachFeature(this::addFeature);
+
+        String component = getComponentClassName(node);
+        nodeCountsByComponent.merge(component, 1, Integer::sum);
+        estimatedBytesByComponent.merge(component,
+                estimatedBytes - bytesBefore, Long::sum);
+    }
+
+    private void addFeature(NodeFeature feature) {
+        featureCounts.merge(feature.getClass().getName(), 1, Integer::sum);
+        estimatedBytes += FEATURE_BYTES;
+
+        int valueCount = feature.getValueCount();
+        if (feature instanceof NodeMap) {
+            mapEntryCount += valueCount;
+            estimatedBytes += (long) valueCount * MAP_ENTRY_BYTES;
+        } else if (feature instanceof NodeList) {
+            listEntryCount += valueCount;
+            estimatedBytes += (long) valueCount * LIST_ENTRY_BYTES;
+        }
+    }
+
+    private static String getComponentClassName(StateNode node) {
+        for (StateNode current = node; current != null; current = current
+                .getParent()) {
+            if (current.hasFeature(ComponentMapping.class)) {
+                Optional<Component> component = ComponentMapping
+                        .getComponent(current);
+                if (component.isPresent()) {
+                    return component.get().getClass().getName();
+                }
+            }
+        }
+        return NO_COMPONENT;
+    }
+
+    /**
+     * Adds the numbers of another footprint to this footprint.
+     *
+     * @param other
+     *            the footprint to add, not <code>null</code>
+     */
+    public void merge(StateTreeFootprint other) {
+        nodeCount += other.nodeCount;
+        mapEntryCount += other.mapEntryCount;
+        listEntryCount += other.listEntryCount;
+        estimatedBytes += other.estimatedBytes;
+        other.featureCounts
+                .forEach((key, count) -> featureCounts.merge(key, count,
+                        Integer::sum));
+        other.nodeCountsByComponent.forEach((key,
+                count) -> nodeCountsByComponent.merge(key, count,
+                        Integer::sum));
+        other.estimatedBytesByComponent.forEach((key,
+                bytes) -> estimatedBytesByComponent.merge(key, bytes,
+                        Long::sum));
+    }
+
+    /**
+     * Gets the number of nodes.
+     *
+     * @return the number of nodes
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Gets the total number of entries in all {@link NodeMap} features.
+     *
+     * @return the number of map entries
+     */
+    public int getMapEntryCount() {
+        return mapEntryCount;
+    }
+
+    /**
+     * Gets the total number of items in all {@link NodeList} features.
+     *
+     * @return the number of list items
+     */
+    public int getListEntryCount() {
+        return listEntryCount;
+    }
+
+    /**
+     * Gets the estimated number of bytes retained by the nodes.
+     *
+     * @return the estimated number of bytes
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Gets the number of initialized features by feature class name.
+     *
+     * @return an unmodifiable map from feature class name to feature count
+     */
+    public Map<String, Integer> getFeatureCounts() {
+        return Collections.unmodifiableMap(featureCounts);
+    }
+
+    /**
+     * Gets the number of nodes by the class name of the component that the
+     * nodes are accounted to.
+     *
+     * @return an unmodifiable map from component class name to node count
+     */
+    public Map<String, Integer> getNodeCountsByComponent() {
+        return Collections.unmodifiableMap(nodeCountsByComponent);
+    }
+
+    /**
+     * Gets the estimated number of bytes by the class name of the component
+     * that the nodes are accounted to.
+     *
+     * @return an unmodifiable map from component class name to estimated
+     *         bytes
+     */
+    public Map<String, Long> getEstimatedBytesByComponent() {
+        return Collections.unmodifiableMap(estimatedBytesByComponent);
+    }
+
+    /**
+     * Gets this footprint as JSON.
+     *
+     * @return a JSON object with the numbers of this footprint
+     */
+    public JsonObject toJson() {
+        JsonObject json = Json.createObject();
+        json.put("nodes", nodeCount);
+        json.put("mapEntries", mapEntryCount);
+        json.put("listEntries", listEntryCount);
+        json.put("estimatedBytes", estimatedBytes);
+        json.put("features", toJson(featureCounts));
+        json.put("nodesByComponent", toJson(nodeCountsByComponent));
+        json.put("estimatedBytesByComponent",
+                toJson(estimatedBytesByComponent));
+        return json;
+    }
+
+    private static JsonObject toJson(Map<String, ? extends Number> map) {
+        JsonObject json = Json.createObject();
+        map.forEach((key, value) -> json.put(key, value.doubleValue()));
+        return json;
+    }
+}
@@ -0,0 +1,473 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of static resources which do not change while the application is
+ * running, i.e. resources served in production mode.
+ * <p>
+ * A resource is indexed the first time it is served. The index keeps the
+ * resolved URL of the resource and its compressed variants together with
+ * their length, modification timestamp and an ETag computed from the content,
+ * so that later requests do not need to look up or open the resource to write
+ * the response headers. The content of small resources is kept in a bounded
+ * least recently used cache, while large resources available as files are
+ * written using {@link FileChannel#transferTo(long, long, WritableByteChannel)}.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class StaticResourceIndex implements Serializable {
+
+    /**
+     * Resources up to this size in bytes are kept in the content cache.
+     */
+    static final int MAX_CACHED_RESOURCE_SIZE = 64 * 1024;
+
+    private static final long DEFAULT_CACHE_SIZE = 16L * 1024 * 1024;
+
+    private static final String ENCODING_BROTLI = "br";
+    private static final String ENCODING_GZIP = "gzip";
+
+    private final ResponseWriter responseWriter;
+
+    private final Map<String, IndexedResource> resources = new ConcurrentHashMap<>();
+
+    private final ContentCache contentCache;
+
+    /**
+     * An indexed static resource along with its compressed variants.
+     */
+    public static final class IndexedResource implements Serializable {
+        private final URL url;
+        private final Variant identity;
+        private final Variant gzip;
+        private final Variant brotli;
+
+        private IndexedResource(URL url, Variant identity, Variant gzip,
+                Variant brotli) {
+            this.url = url;
+            this.identity = identity;
+            this.gzip = gzip;
+            this.brotli = brotli;
+        }
+
+        /**
+         * Gets the URL of the uncompressed resource.
+         *
+         * @return the resource URL, not <code>null</code>
+         */
+        public URL getUrl() {
+            return url;
+        }
+    }
+
+    /**
+     * One encoding variant of an indexed resource.
+     */
+    public static final class Variant implements Serializable {
+        private final String encoding;
+        private final URL url;
+        private final File file;
+        private final long length;
+        private final long lastModified;
+        private final String eTag;
+
+        private Variant(String encoding, URL url, File file, long length,
+                long lastModified, String eTag) {
+            this.encoding = encoding;
+            this.url = url;
+            this.file = file;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.eTag = eTag;
+        }
+
+        /**
+         * Gets the content encoding of this variant.
+         *
+         * @return the content encoding, or <code>null</code> for the
+         *         uncompressed resource
+         */
+        public String getEncoding() {
+            return encoding;
+        }
+
+        /**
+         * Gets the content length of this variant in bytes.
+         *
+         * @return the content length
+         */
+        public long getLength() {
+            return length;
+        }
+
+        /**
+         * Gets the modification timestamp of this variant without
+         * milliseconds.
+         *
+         * @return the modification timestamp, or -1 if it is not known
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Gets the strong ETag of this variant, including the surrounding
+         * quotes.
+         *
+         * @return the ETag, not <code>null</code>
+         */
+        public String getETag() {
+            return eTag;
+        }
+    }
+
+    /**
+     * Least recently used cache of resource contents, bounded by the total
+     * number of cached bytes.
+     */
+    private static class ContentCache implements Serializable {
+        private final long maxSize;
+        private final LinkedHashMap<Variant, byte[]> contents = new LinkedHashMap<>(
+                16, 0.75f, true);
+        private long size;
+
+        private ContentCache(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        private synchronized byte[] get(Variant variant) {
+            return contents.get(variant);
+        }
+
+        private synchronized void put(Variant variant, byte[] content) {
+            if (content.length > maxSize) {
+                return;
+            }
+            byte[] previous = contents.put(variant, content);
+            if (previous != null) {
+                size -= previous.length;
+            }
+            size += content.length;
+
+            Iterator<byte[]> iterator = contents.values().iterator();
+            while (size > maxSize && iterator.hasNext()) {
+                size -= iterator.next().length;
+                iterator.remove();
+            }
+        }
+
+        private synchronized long getSize() {
+            return size;
+        }
+    }
+
+    /**
+     * Creates a new index which writes responses using the given response
+     * writer.
+     *
+     * @param responseWriter
+     *            the response writer to use, not <code>null</code>
+     */
+    public StaticResourceIndex(ResponseWriter responseWriter) {
+        this(responseWriter, DEFAULT_CACHE_SIZE);
+    }
+
+    StaticResourceIndex(ResponseWriter responseWriter, long cacheSize) {
+        assert responseWriter != null;
+        this.responseWriter = responseWriter;
+        contentCache = new ContentCache(cacheSize);
+    }
+
+    /**
+     * Gets the indexed resource for the given file name.
+     *
+     * @param filenameWithPath
+     *            the name and path of the requested file
+     * @return the indexed resource, or <code>null</code> if the resource has
+     *         not been indexed
+     */
+    public IndexedResource get(String filenameWithPath) {
+        return resources.get(filenameWithPath);
+    }
+
+    /**
+     * Indexes the resource with the given file name and URL, unless it has
+     * already been indexed. Compressed variants of the resource are looked up
+     * in the same way as by {@link ResponseWriter}.
+     *
+     * @param filenameWithPath
+     *            the name and path of the requested file
+     * @param resourceUrl
+     *            the URL of the uncompressed resource
+     * @param request
+     *            the request used for looking up the compressed variants
+     * @return the indexed resource, or <code>null</code> if the resource
+     *         could not be read
+     */
+    public IndexedResource index(String filenameWithPath, URL resourceUrl,
+            HttpServletRequest request) {
+        IndexedResource resource = resources.get(filenameWithPath);
+        if (resource != null) {
+            return resource;
+        }
+        try {
+            Variant identity = createVariant(null, resourceUrl);
+            Variant gzip = findVariant(ENCODING_GZIP, filenameWithPath + ".gz",
+                    request);
+            Variant brotli = responseWriter.isBrotliEnabled()
+                    ? findVariant(ENCODING_BROTLI, filenameWithPath + ".br",
+                            request)
+                    : null;
+            resource = new IndexedResource(resourceUrl, identity, gzip, brotli);
+        } catch (IOException e) {
+            getLogger().debug("Unable to index static resource {}",
+                    filenameWithPath, e);
+            return null;
+        }
+        IndexedResource previous = resources.putIfAbsent(filenameWithPath,
+                resource);
+        return previous == null ? resource : previous;
+    }
+
+    /**
+     * Selects the variant of the resource to send based on the encodings
+     * accepted by the browser.
+     *
+     * @param resource
+     *            the indexed resource, not <code>null</code>
+     * @param request
+     *            the request for the resource
+     * @return the variant to send, not <code>null</code>
+     */
+    public Variant selectVariant(IndexedResource resource,
+            HttpServletRequest request) {
+        if (resource.brotli != null
+                && responseWriter.acceptsBrotliResource(request)) {
+            return resource.brotli;
+        }
+        if (resource.gzip != null
+                && responseWriter.acceptsGzippedResource(request)) {
+            return resource.gzip;
+        }
+        return resource.identity;
+    }
+
+    /**
+     * Checks whether the browser has the given variant of the resource based
+     * on the <code>If-None-Match</code> header of the request.
+     *
+     * @param request
+     *            the request for the resource
+     * @param variant
+     *            the variant that would be sent
+     * @return <code>true</code> if the request has an
+     *         <code>If-None-Match</code> header matching the ETag of the
+     *         variant, <code>false</code> otherwise
+     */
+    public static boolean matchesETag(HttpServletRequest request,
+            Variant variant) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if ("*".equals(tag)) {
+                return true;
+            }
+            // If-None-Match uses the weak comparison function
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(variant.eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the content type, content encoding, content length and the
+     * content of the given variant to the response.
+     *
+     * @param filenameWithPath
+     *            the name and path of the requested file
+     * @param variant
+     *            the variant to write, not <code>null</code>
+     * @param request
+     *            the request for the resource
+     * @param response
+     *            the response to write to
+     * @throws IOException
+     *             if the content could not be read
+     */
+    public void writeResponseContents(String filenameWithPath, Variant variant,
+            HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        responseWriter.writeContentType(filenameWithPath, request, response);
+        if (variant.encoding != null) {
+            response.setHeader("Content-Encoding", variant.encoding);
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+        response.setContentLengthLong(variant.length);
+
+        try {
+            writeContent(variant, response.getOutputStream());
+        } catch (IOException e) {
+            getLogger().debug("Error writing static file to user", e);
+        }
+    }
+
+    private void writeContent(Variant variant, ServletOutputStream out)
+            throws IOException {
+        if (variant.length <= MAX_CACHED_RESOURCE_SIZE) {
+            byte[] content = contentCache.get(variant);
+            if (content == null) {
+                content = readContent(variant.url);
+                contentCache.put(variant, content);
+            }
+            out.write(content);
+        } else if (variant.file != null) {
+            try (FileChannel channel = FileChannel.open(variant.file.toPath(),
+                    StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long position = 0;
+                while (position < variant.length) {
+                    position += channel.transferTo(position,
+                            variant.length - position, target);
+                }
+            }
+        } else {
+            URLConnection connection = variant.url.openConnection();
+            try (InputStream stream = connection.getInputStream()) {
+                responseWriter.writeStream(out, stream);
+            }
+        }
+    }
+
+    private Variant findVariant(String encoding, String filenameWithPath,
+            HttpServletRequest request) throws IOException {
+        URL url;
+        try {
+            url = responseWriter.getResource(request, filenameWithPath);
+        } catch (Exception e) {
+            getLogger().debug("Unexpected exception looking for {} resource {}",
+                    encoding, filenameWithPath, e);
+            return null;
+        }
+        if (url == null) {
+            return null;
+        }
+        return createVariant(encoding, url);
+    }
+
+    private Variant createVariant(String encoding, URL url)
+            throws IOException {
+        URLConnection connection = url.openConnection();
+        long lastModified = connection.getLastModified();
+        // Remove milliseconds to avoid comparison problems (milliseconds are
+        // not returned by the browser in the "If-Modified-Since" header).
+        lastModified = lastModified > 0 ? lastModified - lastModified % 1000
+                : -1L;
+
+        MessageDigest digest = MessageDigestUtil.getSha256();
+        ByteArrayOutputStream small = new ByteArrayOutputStream();
+        long length = 0;
+        try (InputStream stream = connection.getInputStream()) {
+            byte[] buffer = new byte[8 * 1024];
+            int bytes;
+            while ((bytes = stream.read(buffer)) >= 0) {
+                digest.update(buffer, 0, bytes);
+                if (length + bytes <= MAX_CACHED_RESOURCE_SIZE) {
+                    small.write(buffer, 0, bytes);
+                }
+                length += bytes;
+            }
+        }
+
+        String eTag = '"' + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(digest.digest()) + '"';
+        Variant variant = new Variant(encoding, url, getFile(url), length,
+                lastModified, eTag);
+        if (length <= MAX_CACHED_RESOURCE_SIZE) {
+            contentCache.put(variant, small.toByteArray());
+        }
+        return variant;
+    }
+
+    private static File getFile(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            File file = new File(url.toURI());
+            return file.isFile() ? file : null;
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static byte[] readContent(URL url) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream stream = url.openConnection().getInputStream()) {
+            byte[] buffer = new byte[8 * 1024];
+            int bytes;
+            while ((bytes = stream.read(buffer)) >= 0) {
+                out.write(buffer, 0, bytes);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    // Exposed for testing purposes
+    long getCachedContentSize() {
+        return contentCache.getSize();
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(StaticResourceIndex.class.getName());
+    }
+}
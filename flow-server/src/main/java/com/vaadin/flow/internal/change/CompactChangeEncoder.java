@@ -0,0 +1,250 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal.change;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.vaadin.flow.internal.ConstantPool;
+import com.vaadin.flow.internal.JsonCodec;
+import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.nodefeature.NodeFeatureRegistry;
+import com.vaadin.flow.internal.nodefeature.NodeList;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
+/**
+ * Encodes node changes in the compact change format instead of JSON objects
+ * with repeated string keys.
+ * <p>
+ * A compact change is a JSON array where the first item is a bit mask telling
+ * which of the keys in {@link JsonConstants#COMPACT_CHANGE_KEYS} are present,
+ * followed by the values of those keys. The change type is encoded as an index
+ * in {@link JsonConstants#COMPACT_CHANGE_TYPES}. Map keys (i.e. property and
+ * attribute names) are written as strings the first time they occur and as the
+ * index of that first occurrence after that.
+ * <p>
+ * An encoder keeps track of the map keys sent over one connection, so the same
+ * instance should be used for all messages to a client, in the order the
+ * client processes them. The client keeps a matching table, and both are
+ * {@link #reset() reset} when the client is resynchronized.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class CompactChangeEncoder implements Serializable {
+
+    private static final int NODE = keyIndex(JsonConstants.CHANGE_NODE);
+    private static final int TYPE = keyIndex(JsonConstants.CHANGE_TYPE);
+    private static final int FEATURE = keyIndex(JsonConstants.CHANGE_FEATURE);
+    private static final int FEATURE_TYPE = keyIndex(
+            JsonConstants.CHANGE_FEATURE_TYPE);
+    private static final int MAP_KEY = keyIndex(JsonConstants.CHANGE_MAP_KEY);
+    private static final int PUT_VALUE = keyIndex(
+            JsonConstants.CHANGE_PUT_VALUE);
+    private static final int PUT_NODE_VALUE = keyIndex(
+            JsonConstants.CHANGE_PUT_NODE_VALUE);
+    private static final int SPLICE_INDEX = keyIndex(
+            JsonConstants.CHANGE_SPLICE_INDEX);
+    private static final int SPLICE_REMOVE = keyIndex(
+            JsonConstants.CHANGE_SPLICE_REMOVE);
+    private static final int SPLICE_ADD = keyIndex(
+            JsonConstants.CHANGE_SPLICE_ADD);
+    private static final int SPLICE_ADD_NODES = keyIndex(
+            JsonConstants.CHANGE_SPLICE_ADD_NODES);
+
+    private final Map<String, Integer> mapKeys = new HashMap<>();
+
+    /**
+     * Serializes the given change in the compact format.
+     * <p>
+     * The built-in change types are encoded directly from the change. Other
+     * changes are first serialized using
+     * {@link NodeChange#toJson(ConstantPool)}.
+     *
+     * @param change
+     *            the change to serialize, not <code>null</code>
+     * @param constantPool
+     *            the constant pool to use for serializing constant pool
+     *            references
+     * @return a compact json representation of the change
+     */
+    public JsonArray encode(NodeChange change, ConstantPool constantPool) {
+        CompactChange compact = new CompactChange();
+        compact.put(NODE, Json.create(change.getNode().getId()));
+
+        Class<?> type = change.getClass();
+        if (type == NodeAttachChange.class) {
+            compact.putType(JsonConstants.CHANGE_TYPE_ATTACH);
+        } else if (type == NodeDetachChange.class) {
+            compact.putType(JsonConstants.CHANGE_TYPE_DETACH);
+        } else if (type == MapPutChange.class) {
+            MapPutChange put = (MapPutChange) change;
+            compact.putType(JsonConstants.CHANGE_TYPE_PUT);
+            compact.putFeature(put);
+            compact.put(MAP_KEY, encodeMapKey(put.getKey()));
+            Object value = put.getValue();
+            if (value instanceof StateNode) {
+                compact.put(PUT_NODE_VALUE,
+                        Json.create(((StateNode) value).getId()));
+            } else {
+                compact.put(PUT_VALUE,
+                        JsonCodec.encodeWithConstantPool(value, constantPool));
+            }
+        } else if (type == MapRemoveChange.class) {
+            MapRemoveChange remove = (MapRemoveChange) change;
+            compact.putType(JsonConstants.CHANGE_TYPE_REMOVE);
+            compact.putFeature(remove);
+            compact.put(MAP_KEY, encodeMapKey(remove.getKey()));
+        } else if (type == ListAddChange.class) {
+            ListAddChange<?> add = (ListAddChange<?>) change;
+            compact.putType(JsonConstants.CHANGE_TYPE_SPLICE);
+            compact.putFeature(add);
+            compact.put(SPLICE_INDEX, Json.create(add.getIndex()));
+            JsonArray items = Json.createArray();
+            for (Object item : add.getNewItems()) {
+                items.set(items.length(), add.isNodeValues()
+                        ? Json.create(((StateNode) item).getId())
+                        : JsonCodec.encodeWithConstantPool(item,
+                                constantPool));
+            }
+            compact.put(add.isNodeValues() ? SPLICE_ADD_NODES : SPLICE_ADD,
+                    items);
+        } else if (type == ListRemoveChange.class) {
+            ListRemoveChange<?> remove = (ListRemoveChange<?>) change;
+            compact.putType(JsonConstants.CHANGE_TYPE_SPLICE);
+            compact.putFeature(remove);
+            compact.put(SPLICE_INDEX, Json.create(remove.getIndex()));
+            compact.put(SPLICE_REMOVE, Json.create(1));
+        } else if (type == ListClearChange.class) {
+            compact.putType(JsonConstants.CHANGE_TYPE_CLEAR);
+            compact.putFeature((NodeFeatureChange) change);
+        } else if (type == EmptyChange.class) {
+            EmptyChange empty = (EmptyChange) change;
+            compact.putType(JsonConstants.CHANGE_TYPE_NOOP);
+            compact.putFeature(empty);
+            compact.put(FEATURE_TYPE, Json.create(
+                    NodeList.class.isAssignableFrom(empty.getFeature())));
+        } else {
+            return encode(change.toJson(constantPool));
+        }
+        return compact.toJson();
+    }
+
+    /**
+     * Converts the given change JSON into the compact format.
+     *
+     * @param change
+     *            the json representation of a change, not <code>null</code>
+     * @return a compact json representation of the change
+     */
+    public JsonArray encode(JsonObject change) {
+        CompactChange compact = new CompactChange();
+
+        List<String> keys = JsonConstants.COMPACT_CHANGE_KEYS;
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            if (change.hasKey(key)) {
+                compact.put(i, encodeValue(key, change.get(key)));
+            }
+        }
+        assert change.keys().length == Integer.bitCount(
+                compact.mask) : "Change has keys without a compact encoding: "
+                        + change.toJson();
+
+        return compact.toJson();
+    }
+
+    /**
+     * Forgets the map keys encoded so far, so that they are written as strings
+     * again the next time they occur. Used when the client is resynchronized
+     * and starts over with an empty table.
+     */
+    public void reset() {
+        mapKeys.clear();
+    }
+
+    private JsonValue encodeValue(String key, JsonValue value) {
+        if (JsonConstants.CHANGE_TYPE.equals(key)) {
+            return Json.create(getTypeIndex(value.asString()));
+        } else if (JsonConstants.CHANGE_MAP_KEY.equals(key)) {
+            return encodeMapKey(value.asString());
+        } else {
+            return value;
+        }
+    }
+
+    private JsonValue encodeMapKey(String mapKey) {
+        Integer index = mapKeys.get(mapKey);
+        if (index == null) {
+            mapKeys.put(mapKey, mapKeys.size());
+            return Json.create(mapKey);
+        }
+        return Json.create(index.intValue());
+    }
+
+    private static int getTypeIndex(String type) {
+        int index = JsonConstants.COMPACT_CHANGE_TYPES.indexOf(type);
+        if (index >= 0) {
+            return index;
+        }
+        throw new IllegalArgumentException("Unsupported change type: " + type);
+    }
+
+    private static int keyIndex(String key) {
+        return JsonConstants.COMPACT_CHANGE_KEYS.indexOf(key);
+    }
+
+    /**
+     * A compact change being built. Values must be put in the order of their
+     * keys in {@link JsonConstants#COMPACT_CHANGE_KEYS}.
+     */
+    private static class CompactChange {
+        private final JsonArray json = Json.createArray();
+        private int mask;
+
+        private CompactChange() {
+            // Placeholder for the mask of present keys
+            json.set(0, 0);
+        }
+
+        private void put(int keyIndex, JsonValue value) {
+            assert mask >> keyIndex == 0 : "Keys must be put in order";
+            mask |= 1 << keyIndex;
+            json.set(json.length(), value);
+        }
+
+        private void putType(String type) {
+            put(TYPE, Json.create(getTypeIndex(type)));
+        }
+
+        private void putFeature(NodeFeatureChange change) {
+            put(FEATURE, Json.create(
+                    NodeFeatureRegistry.getId(change.getFeature())));
+        }
+
+        private JsonArray toJson() {
+            json.set(0, mask);
+            return json;
+        }
+    }
+}
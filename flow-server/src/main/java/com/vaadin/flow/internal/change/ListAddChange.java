@@ -66,6 +66,16 @@ public class ListAddChange<T extends Serializable>
         this.nodeValues = nodeValues;
     }
 
+    /**
+     * Checks whether the added items are {@link StateNode}s.
+     *
+     * @return <code>true</code> if the values are state nodes,
+     *         <code>false</code> otherwise
+     */
+    boolean isNodeValues() {
+        return nodeValues;
+    }
+
     /**
      * Gets the added items.
      *
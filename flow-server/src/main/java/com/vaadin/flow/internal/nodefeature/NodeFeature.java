@@ -66,6 +66,17 @@ public abstract class NodeFeature implements Serializable {
      */
     public abstract void generateChangesFromEmpty();
 
+    /**
+     * Gets the number of values stored in this feature. Used for estimating
+     * the memory footprint of the state tree.
+     *
+     * @return the number of stored values, <code>0</code> for features that
+     *         don't store values in the state tree
+     */
+    public int getValueCount() {
+        return 0;
+    }
+
     /**
      * Attaches an object if it is a {@link StateNode}.
      *
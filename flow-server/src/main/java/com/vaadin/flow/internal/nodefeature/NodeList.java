@@ -28,7 +28,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.internal.change.AbstractListChange;
@@ -168,6 +167,11 @@ public abstract class NodeList<T extends Serializable> extends NodeFeature {
         return values.size();
     }
 
+    @Override
+    public int getValueCount() {
+        return values == null ? 0 : values.size();
+    }
+
     private void ensureValues() {
         if (values == null) {
             values = new ArrayList<>(1);
@@ -290,18 +294,30 @@ public abstract class NodeList<T extends Serializable> extends NodeFeature {
     public void collectChanges(Consumer<NodeChange> collector) {
         boolean hasRemoveAll = false;
 
+        List<AbstractListChange<T>> trackedChanges = getChangeTracker();
+        boolean hasRemoves = false;
+        for (AbstractListChange<T> change : trackedChanges) {
+            if (change instanceof ListRemoveChange<?>) {
+                hasRemoves = true;
+                break;
+            }
+        }
+
         // This map contains items wrapped by AbstractListChanges as keys and
         // index in the following allChanges list as a value (it allows to get
-        // AbstractListChange by the index)
-        Map<Object, Integer> indices = new IdentityHashMap<>();
+        // AbstractListChange by the index). Only needed for matching removed
+        // items with earlier additions.
+        Map<Object, Integer> indices = hasRemoves ? new IdentityHashMap<>()
+                : null;
 
         // This list contains all changes in the tracker. These changes will be
         // modified: each "remove" change following by a corresponding "add"
         // will be replaced by null and "add" will be adjusted. Indeces in
         // changes in between will be adjusted
-        List<AbstractListChange<T>> allChanges = new ArrayList<>();
+        List<AbstractListChange<T>> allChanges = new ArrayList<>(
+                trackedChanges.size());
         int index = 0;
-        for (AbstractListChange<T> change : getChangeTracker()) {
+        for (AbstractListChange<T> change : trackedChanges) {
             if (change instanceof ListRemoveChange<?>) {
                 // the remove change => find an appropriate "add" event, adjust
                 // it and adjust everything in between
@@ -309,16 +325,21 @@ public abstract class NodeList<T extends Serializable> extends NodeFeature {
                         allChanges);
             } else if (change instanceof ListAddChange<?>) {
                 allChanges.add(change);
-                int i = index;
-                // put all items into "indices" as keys and "index" as a value
-                // so that the "change" can be retrieved from the "allChanges"
-                // by the index
-                ((ListAddChange<T>) change).getNewItems()
-                        .forEach(item -> indices.put(item, i));
+                if (indices != null) {
+                    // put all items into "indices" as keys and "index" as a
+                    // value so that the "change" can be retrieved from the
+                    // "allChanges" by the index
+                    Integer i = Integer.valueOf(index);
+                    for (T item : ((ListAddChange<T>) change).getNewItems()) {
+                        indices.put(item, i);
+                    }
+                }
             } else if (change instanceof ListClearChange<?>) {
                 hasRemoveAll = true;
                 allChanges.clear();
-                indices.clear();
+                if (indices != null) {
+                    indices.clear();
+                }
                 index = 0;
                 allChanges.add(change);
             } else {
@@ -327,27 +348,24 @@ public abstract class NodeList<T extends Serializable> extends NodeFeature {
             index++;
         }
 
-        List<AbstractListChange<T>> changes;
+        boolean addClear = isRemoveAllCalled && !hasRemoveAll;
+        isRemoveAllCalled = false;
 
-        if (isRemoveAllCalled && !hasRemoveAll) {
-            changes = Stream
-                    .concat(Stream.of(new ListClearChange<>(this)),
-                            allChanges.stream())
-                    .filter(this::acceptChange).collect(Collectors.toList());
-        } else {
-            changes = allChanges.stream().filter(this::acceptChange)
-                    .collect(Collectors.toList());
+        boolean hasChanges = false;
+        if (addClear) {
+            collector.accept(new ListClearChange<>(this));
+            hasChanges = true;
+        }
+        for (AbstractListChange<T> change : allChanges) {
+            if (acceptChange(change)) {
+                collector.accept(change);
+                hasChanges = true;
+            }
         }
 
-        isRemoveAllCalled = false;
-
-        if (isPopulated) {
-            changes.forEach(collector);
-        } else {
-            if (changes.isEmpty()) {
+        if (!isPopulated) {
+            if (!hasChanges) {
                 collector.accept(new EmptyChange(this));
-            } else {
-                changes.forEach(collector);
             }
             isPopulated = true;
         }
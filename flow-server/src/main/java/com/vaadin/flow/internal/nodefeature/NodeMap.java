@@ -17,15 +17,19 @@
 package com.vaadin.flow.internal.nodefeature;
 
 import java.io.Serializable;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
-import java.util.stream.Stream;
 
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.internal.change.EmptyChange;
@@ -57,7 +61,7 @@ public abstract class NodeMap extends NodeFeature {
             return size() == 0;
         }
 
-        Stream<Serializable> streamValues();
+        void forEachChild(Consumer<StateNode> action);
 
         // Named set instead of put to avoid incompatibility with HashMap where
         // put returns the previous value
@@ -101,8 +105,10 @@ public abstract class NodeMap extends NodeFeature {
         }
 
         @Override
-        public Stream<Serializable> streamValues() {
-            return Stream.of(value);
+        public void forEachChild(Consumer<StateNode> action) {
+            if (value instanceof StateNode) {
+                action.accept((StateNode) value);
+            }
         }
 
         @Override
@@ -112,8 +118,149 @@ public abstract class NodeMap extends NodeFeature {
         }
     }
 
-    private static class HashMapValues extends HashMap<String, Serializable>
-            implements Values {
+    private static class ArrayValues implements Values {
+        /**
+         * Maximum number of values stored in parallel arrays before switching
+         * to a hash map. Linear search is faster than hashing for maps of
+         * this size and avoids allocating an entry per value.
+         */
+        private static final int MAX_SIZE = 8;
+
+        private final String[] keys = new String[MAX_SIZE];
+
+        private final Serializable[] values = new Serializable[MAX_SIZE];
+
+        private int size;
+
+        /**
+         * Number of structural modifications, used for making the key
+         * iterator fail-fast in the same way as the standard collections.
+         */
+        private int modCount;
+
+        private final class KeySet extends AbstractSet<String> {
+            @Override
+            public Iterator<String> iterator() {
+                return new KeyIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object key) {
+                return key instanceof String && indexOf((String) key) >= 0;
+            }
+        }
+
+        private final class KeyIterator implements Iterator<String> {
+            private final int expectedModCount = modCount;
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public String next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return keys[index++];
+            }
+        }
+
+        ArrayValues(Values previousValues) {
+            previousValues.keySet()
+                    .forEach(key -> set(key, previousValues.get(key)));
+        }
+
+        private int indexOf(String key) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Serializable get(String key) {
+            int index = indexOf(key);
+            return index < 0 ? null : values[index];
+        }
+
+        @Override
+        public Set<String> keySet() {
+            // Unmodifiable live view, avoids copying the keys for each call.
+            // Iterating it while the map is modified fails fast.
+            return new KeySet();
+        }
+
+        @Override
+        public boolean containsKey(String key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public void forEachChild(Consumer<StateNode> action) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] instanceof StateNode) {
+                    action.accept((StateNode) values[i]);
+                }
+            }
+        }
+
+        @Override
+        public void set(String key, Serializable value) {
+            int index = indexOf(key);
+            if (index < 0) {
+                assert size < MAX_SIZE;
+                index = size++;
+                keys[index] = key;
+                modCount++;
+            }
+            values[index] = value;
+        }
+
+        private boolean isFull() {
+            return size == MAX_SIZE;
+        }
+
+        private Serializable remove(String key) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return null;
+            }
+            Serializable oldValue = values[index];
+            modCount++;
+            size--;
+            System.arraycopy(keys, index + 1, keys, index, size - index);
+            System.arraycopy(values, index + 1, values, index, size - index);
+            keys[size] = null;
+            values[size] = null;
+            return oldValue;
+        }
+    }
+
+    /**
+     * Values stored in a linked hash map so that keys keep the insertion order
+     * of {@link ArrayValues} when a map grows beyond its maximum size.
+     */
+    private static class HashMapValues
+            extends LinkedHashMap<String, Serializable> implements Values {
 
         public HashMapValues(Values previousValues) {
             super(previousValues == null ? 0 : previousValues.size());
@@ -139,8 +286,12 @@ public abstract class NodeMap extends NodeFeature {
         }
 
         @Override
-        public Stream<Serializable> streamValues() {
-            return super.values().stream();
+        public void forEachChild(Consumer<StateNode> action) {
+            for (Serializable value : super.values()) {
+                if (value instanceof StateNode) {
+                    action.accept((StateNode) value);
+                }
+            }
         }
     }
 
@@ -197,12 +348,17 @@ public abstract class NodeMap extends NodeFeature {
             setUnChanged(key);
         }
 
-        // Optimize memory use when there's only one key
+        // Optimize memory use when there's only one key or only a few keys
         if (values == null) {
             values = new SingleValue(key, value);
         } else {
-            if (values instanceof SingleValue && !values.containsKey(key)) {
-                values = new HashMapValues(values);
+            if (!values.containsKey(key)) {
+                if (values instanceof SingleValue) {
+                    values = new ArrayValues(values);
+                } else if (values instanceof ArrayValues
+                        && ((ArrayValues) values).isFull()) {
+                    values = new HashMapValues(values);
+                }
             }
             values.set(key, value);
         }
@@ -303,7 +459,8 @@ public abstract class NodeMap extends NodeFeature {
     }
 
     /**
-     * Gets the defined keys.
+     * Gets the defined keys. The keys are iterated in the order they were
+     * added, regardless of how many keys the map contains.
      *
      * @return a set containing all the defined keys
      */
@@ -314,6 +471,11 @@ public abstract class NodeMap extends NodeFeature {
         return values.keySet();
     }
 
+    @Override
+    public int getValueCount() {
+        return values == null ? 0 : values.size();
+    }
+
     /**
      * Checks whether a value is stored for the given key.
      *
@@ -348,6 +510,13 @@ public abstract class NodeMap extends NodeFeature {
             if (values.containsKey(key)) {
                 values = null;
             }
+        } else if (values instanceof ArrayValues) {
+            ArrayValues arrayValues = (ArrayValues) values;
+            oldValue = arrayValues.remove(key);
+
+            if (arrayValues.isEmpty()) {
+                values = null;
+            }
         } else {
             assert values instanceof HashMapValues;
             HashMapValues hashMapValues = (HashMapValues) values;
@@ -458,8 +627,7 @@ public abstract class NodeMap extends NodeFeature {
         }
         assert !values.isEmpty();
 
-        values.streamValues().filter(v -> v instanceof StateNode)
-                .forEach(v -> action.accept((StateNode) v));
+        values.forEachChild(action);
     }
 
     /**
@@ -521,4 +689,9 @@ public abstract class NodeMap extends NodeFeature {
         return values instanceof SingleValue;
     }
 
+    // Exposed for testing purposes
+    boolean usesArrayValues() {
+        return values instanceof ArrayValues;
+    }
+
 }
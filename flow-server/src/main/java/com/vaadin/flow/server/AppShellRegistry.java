@@ -273,6 +273,29 @@ public class AppShellRegistry implements Serializable {
         }
     }
 
+    /**
+     * Checks whether the {@link AppShellConfigurator} overrides
+     * {@link AppShellConfigurator#configurePage(AppShellSettings)}. Settings
+     * made there may depend on the request, so the `index.html` document has
+     * to be modified separately for each request.
+     *
+     * @return <code>true</code> if the application shell configures the page
+     *         programmatically, <code>false</code> otherwise
+     * @since
+     */
+    public boolean isPageConfiguredPerRequest() {
+        if (appShellClass == null) {
+            return false;
+        }
+        try {
+            return appShellClass
+                    .getMethod("configurePage", AppShellSettings.class)
+                    .getDeclaringClass() != AppShellConfigurator.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Modifies PushConfiguration instance based on the {@link Push} annotation
      * on {@link AppShellConfigurator}.
@@ -47,6 +47,7 @@ import org.jsoup.nodes.DataNode;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.DocumentType;
 import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Entities;
 import org.jsoup.parser.Parser;
 import org.jsoup.parser.Tag;
 import org.jsoup.select.Elements;
@@ -122,6 +123,8 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
 
     private final PageBuilder pageBuilder;
 
+    private final BootstrapPageCache pageCache = new BootstrapPageCache();
+
     /**
      * Creates an instance of the handler with default {@link PageBuilder}.
      */
@@ -148,6 +151,18 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         return pageBuilder;
     }
 
+    /**
+     * Returns the cache of rendered bootstrap pages used in production mode
+     * when the default page builder is in use. The cache can be used for
+     * inspecting the hit rate of the cached pages.
+     *
+     * @return the bootstrap page cache
+     * @since
+     */
+    public BootstrapPageCache getPageCache() {
+        return pageCache;
+    }
+
     private static Logger getLogger() {
         return LoggerFactory.getLogger(BootstrapHandler.class.getName());
     }
@@ -434,9 +449,15 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         HandlerHelper.setResponseNoCacheHeaders(response::setHeader,
                 response::setDateHeader);
 
-        Document document = pageBuilder.getBootstrapPage(context);
+        String html;
+        if (pageBuilder instanceof BootstrapPageBuilder) {
+            html = ((BootstrapPageBuilder) pageBuilder)
+                    .getBootstrapPageHtml(context, pageCache);
+        } else {
+            html = pageBuilder.getBootstrapPage(context).outerHtml();
+        }
 
-        writeBootstrapPage(response, document.outerHtml());
+        writeBootstrapPage(response, html);
 
         return true;
     }
@@ -482,6 +503,102 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
          */
         @Override
         public Document getBootstrapPage(BootstrapContext context) {
+            String title = resolvePageTitle(context).orElse(null);
+            JsonObject initialUIDL = getInitialUidl(context.getUI());
+            Map<LoadMode, JsonArray> dependenciesToProcessOnServer = popDependenciesToProcessOnServer(
+                    initialUIDL);
+            return getBootstrapPage(context, title,
+                    dependenciesToProcessOnServer,
+                    getBootstrapScriptContents(initialUIDL, context));
+        }
+
+        /**
+         * Returns the HTML of the bootstrap page for the given context. In
+         * production mode the page is joined from a cached skeleton when
+         * possible, see {@link BootstrapPageCache}.
+         */
+        String getBootstrapPageHtml(BootstrapContext context,
+                BootstrapPageCache cache) {
+            if (!isCacheable(context)) {
+                cache.countBypass();
+                return getBootstrapPage(context).outerHtml();
+            }
+
+            Optional<String> title = resolvePageTitle(context);
+            JsonObject initialUIDL = getInitialUidl(context.getUI());
+            Map<LoadMode, JsonArray> dependenciesToProcessOnServer = popDependenciesToProcessOnServer(
+                    initialUIDL);
+            String bootstrapScript = getBootstrapScriptContents(initialUIDL,
+                    context);
+            boolean hasTitle = title.isPresent() && !title.get().isEmpty();
+            String escapedTitle = hasTitle
+                    ? Entities.escape(title.get(),
+                            new Document.OutputSettings())
+                    : "";
+
+            List<Serializable> key = getPageCacheKey(context, hasTitle,
+                    dependenciesToProcessOnServer);
+            BootstrapPageCache.Skeleton skeleton = cache.get(key);
+            if (skeleton == null) {
+                Document document = getBootstrapPage(context,
+                        hasTitle ? BootstrapPageCache.TITLE_MARKER : null,
+                        dependenciesToProcessOnServer,
+                        BootstrapPageCache.BOOTSTRAP_SCRIPT_MARKER);
+                String html = document.outerHtml();
+                skeleton = hasTitle
+                        ? cache.put(key, html,
+                                BootstrapPageCache.BOOTSTRAP_SCRIPT_MARKER,
+                                BootstrapPageCache.TITLE_MARKER)
+                        : cache.put(key, html,
+                                BootstrapPageCache.BOOTSTRAP_SCRIPT_MARKER);
+                if (skeleton == null) {
+                    return getBootstrapPage(context, title.orElse(null),
+                            dependenciesToProcessOnServer, bootstrapScript)
+                                    .outerHtml();
+                }
+            }
+            return skeleton.render(bootstrapScript, escapedTitle);
+        }
+
+        private boolean isCacheable(BootstrapContext context) {
+            return context.isProductionMode()
+                    && !context.getSession().getService()
+                            .hasBootstrapListeners()
+                    && context.getUI().getChildren().noneMatch(
+                            component -> component instanceof PageConfigurator);
+        }
+
+        /**
+         * Collects everything the page depends on apart from the title text
+         * and the bootstrap script: the navigation target holding the page
+         * configuration annotations, the locale, the relative paths used for
+         * resolving URLs, the push script and the dependencies of the UI.
+         */
+        private List<Serializable> getPageCacheKey(BootstrapContext context,
+                boolean hasTitle,
+                Map<LoadMode, JsonArray> dependenciesToProcessOnServer) {
+            StringBuilder dependencies = new StringBuilder();
+            dependenciesToProcessOnServer.forEach(
+                    (mode, array) -> dependencies.append(mode).append(':')
+                            .append(JsonUtil.stringify(array)).append('\n'));
+            String pushScript = context.getPushMode().isEnabled()
+                    ? getPushScript(context)
+                    : null;
+            return Arrays.asList(
+                    context.pageConfigurationHolder == null ? null
+                            : context.pageConfigurationHolder.getName(),
+                    context.getUI().getLocale().getLanguage(),
+                    getServiceUrl(context),
+                    context.getUI().getInternals().getContextRootRelativePath(),
+                    context.getAppId(),
+                    context.getUI().getInternals().getAppId(), pushScript,
+                    hasTitle, dependencies.toString());
+        }
+
+        private Document getBootstrapPage(BootstrapContext context,
+                String title,
+                Map<LoadMode, JsonArray> dependenciesToProcessOnServer,
+                String bootstrapScript) {
             DeploymentConfiguration config = context.getSession()
                     .getConfiguration();
 
@@ -495,7 +612,8 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
             html.appendElement("body");
 
             List<Element> dependenciesToInlineInBody = setupDocumentHead(head,
-                    context);
+                    context, title, dependenciesToProcessOnServer,
+                    bootstrapScript);
             dependenciesToInlineInBody.forEach(
                     dependency -> document.body().appendChild(dependency));
             setupDocumentBody(document);
@@ -616,14 +734,13 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         }
 
         private List<Element> setupDocumentHead(Element head,
-                BootstrapContext context) {
-            setupMetaAndTitle(head, context);
+                BootstrapContext context, String title,
+                Map<LoadMode, JsonArray> dependenciesToProcessOnServer,
+                String bootstrapScript) {
+            setupMetaAndTitle(head, context, title);
             setupCss(head, context);
 
-            JsonObject initialUIDL = getInitialUidl(context.getUI());
-            Map<LoadMode, JsonArray> dependenciesToProcessOnServer = popDependenciesToProcessOnServer(
-                    initialUIDL);
-            setupFrameworkLibraries(head, initialUIDL, context);
+            setupFrameworkLibraries(head, bootstrapScript, context);
             return applyUserDependencies(head, context,
                     dependenciesToProcessOnServer);
         }
@@ -722,7 +839,7 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         }
 
         private void setupFrameworkLibraries(Element head,
-                JsonObject initialUIDL, BootstrapContext context) {
+                String bootstrapScript, BootstrapContext context) {
 
             VaadinService service = context.getSession().getService();
             DeploymentConfiguration conf = service.getDeploymentConfiguration();
@@ -742,7 +859,7 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                         createJavaScriptElement(getPushScript(context)));
             }
 
-            head.appendChild(getBootstrapScript(initialUIDL, context));
+            head.appendChild(createInlineJavaScriptElement(bootstrapScript));
             head.appendChild(
                     createJavaScriptElement(getClientEngineUrl(context)));
         }
@@ -860,7 +977,8 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
             setupErrorDialogs(styles);
         }
 
-        private void setupMetaAndTitle(Element head, BootstrapContext context) {
+        private void setupMetaAndTitle(Element head, BootstrapContext context,
+                String title) {
             head.appendElement(META_TAG).attr("http-equiv", "Content-Type")
                     .attr(CONTENT_ATTRIBUTE,
                             ApplicationConstants.CONTENT_TYPE_TEXT_HTML_UTF_8);
@@ -880,11 +998,9 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                             .attr("name", name)
                             .attr(CONTENT_ATTRIBUTE, content));
 
-            resolvePageTitle(context).ifPresent(title -> {
-                if (!title.isEmpty()) {
-                    head.appendElement("title").appendText(title);
-                }
-            });
+            if (title != null && !title.isEmpty()) {
+                head.appendElement("title").appendText(title);
+            }
         }
 
         private void setupPwa(Document document, BootstrapContext context) {
@@ -975,10 +1091,10 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                     "You have to enable javascript in your browser to use this web site.");
         }
 
-        private Element getBootstrapScript(JsonValue initialUIDL,
+        private String getBootstrapScriptContents(JsonValue initialUIDL,
                 BootstrapContext context) {
-            return createInlineJavaScriptElement("//<![CDATA[\n"
-                    + getBootstrapJS(initialUIDL, context) + "//]]>");
+            return "//<![CDATA[\n" + getBootstrapJS(initialUIDL, context)
+                    + "//]]>";
         }
 
         private String getBootstrapJS() {
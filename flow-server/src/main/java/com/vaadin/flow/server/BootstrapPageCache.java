@@ -0,0 +1,254 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of rendered bootstrap pages used by {@link BootstrapHandler} in
+ * production mode.
+ * <p>
+ * Bootstrap pages for the same navigation target, locale, path depth and set
+ * of dependencies only differ in a few UI specific parts: the page title and
+ * the bootstrap script containing the initial UIDL and the application
+ * configuration. The page is rendered once with markers in place of these
+ * parts and stored as a skeleton of static fragments, so later requests only
+ * need to join the fragments with the values for the new UI.
+ * <p>
+ * Pages modified by {@link BootstrapListener}s or by a
+ * {@link PageConfigurator} are always rendered from scratch, since their
+ * contents may depend on the request.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class BootstrapPageCache implements Serializable {
+
+    static final String TITLE_MARKER = "__vaadin-bootstrap-title__";
+    static final String BOOTSTRAP_SCRIPT_MARKER = "__vaadin-bootstrap-script__";
+
+    private static final int DEFAULT_MAX_ENTRIES = 100;
+
+    private static final Skeleton UNCACHEABLE = new Skeleton(null, null);
+
+    private final Map<List<Serializable>, Skeleton> skeletons;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bypasses = new AtomicLong();
+
+    /**
+     * Creates a new cache holding a default number of page skeletons.
+     */
+    public BootstrapPageCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a new cache holding at most the given number of page skeletons.
+     *
+     * @param maxEntries
+     *            the maximum number of skeletons to keep, the least recently
+     *            used skeleton is discarded when the cache is full
+     */
+    public BootstrapPageCache(int maxEntries) {
+        skeletons = new LinkedHashMap<List<Serializable>, Skeleton>(16, 0.75f,
+                true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<List<Serializable>, Skeleton> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets the number of pages which were rendered from a cached skeleton.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of pages for which a skeleton had to be rendered.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of pages which could not use the cache, e.g. because
+     * bootstrap listeners are registered.
+     *
+     * @return the number of pages rendered without the cache
+     */
+    public long getBypassCount() {
+        return bypasses.get();
+    }
+
+    /**
+     * Gets the share of pages rendered from a cached skeleton out of all
+     * rendered pages.
+     *
+     * @return the hit rate between 0 and 1, or 0 if no pages have been
+     *         rendered
+     */
+    public double getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get() + bypasses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Gets the number of page skeletons in the cache.
+     *
+     * @return the number of cached skeletons
+     */
+    public synchronized int size() {
+        return skeletons.size();
+    }
+
+    /**
+     * Removes all page skeletons from the cache. The counters are not reset.
+     */
+    public synchronized void clear() {
+        skeletons.clear();
+    }
+
+    void countBypass() {
+        bypasses.incrementAndGet();
+    }
+
+    /**
+     * Gets the skeleton for the given key and counts the access.
+     *
+     * @return the skeleton, or <code>null</code> if the page must be rendered
+     *         without the cache
+     */
+    synchronized Skeleton get(List<Serializable> key) {
+        Skeleton skeleton = skeletons.get(key);
+        if (skeleton == null) {
+            return null;
+        } else if (skeleton.fragments == null) {
+            bypasses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return skeleton;
+    }
+
+    /**
+     * Splits the given page into a skeleton and stores it for the given key.
+     *
+     * @param key
+     *            the cache key
+     * @param html
+     *            the page rendered with the given markers in place of the UI
+     *            specific parts
+     * @param markers
+     *            the markers contained in the page
+     * @return the skeleton, or <code>null</code> if the page does not contain
+     *         each marker exactly once
+     */
+    synchronized Skeleton put(List<Serializable> key, String html,
+            String... markers) {
+        Skeleton skeleton = Skeleton.compile(html, markers);
+        if (skeleton == null) {
+            skeletons.put(key, UNCACHEABLE);
+            bypasses.incrementAndGet();
+        } else {
+            skeletons.put(key, skeleton);
+            misses.incrementAndGet();
+        }
+        return skeleton;
+    }
+
+    /**
+     * A rendered page split at the positions of the UI specific parts.
+     */
+    static final class Skeleton implements Serializable {
+        private final String[] fragments;
+        private final int[] markerOrder;
+
+        private Skeleton(String[] fragments, int[] markerOrder) {
+            this.fragments = fragments;
+            this.markerOrder = markerOrder;
+        }
+
+        private static Skeleton compile(String html, String... markers) {
+            Integer[] positions = new Integer[markers.length];
+            for (int i = 0; i < markers.length; i++) {
+                int index = html.indexOf(markers[i]);
+                if (index < 0 || html.indexOf(markers[i], index + 1) >= 0) {
+                    return null;
+                }
+                positions[i] = index;
+            }
+
+            Integer[] order = new Integer[markers.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingInt(i -> positions[i]));
+
+            String[] fragments = new String[markers.length + 1];
+            int[] markerOrder = new int[markers.length];
+            int start = 0;
+            for (int i = 0; i < order.length; i++) {
+                int marker = order[i];
+                fragments[i] = html.substring(start, positions[marker]);
+                markerOrder[i] = marker;
+                start = positions[marker] + markers[marker].length();
+            }
+            fragments[markers.length] = html.substring(start);
+            return new Skeleton(fragments, markerOrder);
+        }
+
+        /**
+         * Renders the page with the given values in place of the markers.
+         *
+         * @param values
+         *            the values in the same order as the markers given when
+         *            the skeleton was stored
+         * @return the rendered page
+         */
+        String render(String... values) {
+            int length = 0;
+            for (String fragment : fragments) {
+                length += fragment.length();
+            }
+            for (String value : values) {
+                length += value.length();
+            }
+
+            StringBuilder builder = new StringBuilder(length);
+            for (int i = 0; i < markerOrder.length; i++) {
+                builder.append(fragments[i]).append(values[markerOrder[i]]);
+            }
+            return builder.append(fragments[markerOrder.length]).toString();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * Seekable source for data held in a byte array.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+class ByteArrayStreamSource implements SeekableStreamSource {
+
+    private final byte[] data;
+
+    ByteArrayStreamSource(byte[] data) {
+        this.data = Objects.requireNonNull(data, "Data cannot be null");
+    }
+
+    @Override
+    public long getLength() {
+        return data.length;
+    }
+
+    @Override
+    public void write(OutputStream stream, long start, long length)
+            throws IOException {
+        stream.write(data, Math.toIntExact(start), Math.toIntExact(length));
+    }
+}
@@ -224,6 +224,12 @@ public final class Constants implements Serializable {
     public static final String STATISTICS_JSON_DEFAULT = Constants.VAADIN_CONFIGURATION
             + "stats.json";
 
+    /**
+     * Name of the template index json file which is generated next to the
+     * WebPack profile statistics json file by the production build.
+     */
+    public static final String TEMPLATE_INDEX_JSON = "template-index.json";
+
     /**
      * Name of the <code>npm</code> main file.
      */
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Seekable source for the contents of a file, written using
+ * {@link FileChannel#transferTo(long, long, WritableByteChannel)}.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+class FileStreamSource implements SeekableStreamSource {
+
+    private final File file;
+
+    FileStreamSource(File file) {
+        this.file = Objects.requireNonNull(file, "File cannot be null");
+    }
+
+    @Override
+    public long getLength() {
+        return file.length();
+    }
+
+    @Override
+    public long getLastModified() {
+        long lastModified = file.lastModified();
+        return lastModified == 0L ? -1L : lastModified;
+    }
+
+    @Override
+    public void write(OutputStream stream, long start, long length)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(stream);
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                long transferred = channel.transferTo(position,
+                        end - position, target);
+                if (transferred <= 0) {
+                    throw new IOException("Unexpected end of file " + file);
+                }
+                position += transferred;
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically closes and removes inactive UIs of all open sessions of a
+ * service, so that UIs of e.g. closed browser tabs do not stay in memory
+ * until the next request to the same session or until the session expires.
+ * <p>
+ * The sweeper is enabled with the
+ * {@link InitParameters#SERVLET_PARAMETER_INACTIVE_UI_SWEEP_INTERVAL}
+ * parameter. A UI is inactive when {@link VaadinService#isUIActive(com.vaadin.flow.component.UI)}
+ * returns <code>false</code>, i.e. when its heartbeat has expired. Sessions
+ * that are locked by other threads are skipped and visited again during a
+ * later sweep, and each sweep visits at most a fixed number of sessions, so
+ * the sweeper never blocks request handling threads.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class InactiveUISweeper implements InactiveUISweeperMXBean, Serializable {
+
+    static final int MAX_SESSIONS_PER_SWEEP = 1000;
+
+    private final VaadinService service;
+
+    private transient ScheduledExecutorService executor;
+
+    private transient ObjectName objectName;
+
+    private transient int nextSessionIndex;
+
+    private final AtomicLong sweepCount = new AtomicLong();
+
+    private final AtomicLong reclaimedUICount = new AtomicLong();
+
+    private final AtomicLong skippedSessionCount = new AtomicLong();
+
+    /**
+     * Creates a sweeper for the open sessions of the given service.
+     *
+     * @param service
+     *            the service to sweep, not <code>null</code>
+     */
+    public InactiveUISweeper(VaadinService service) {
+        this.service = service;
+    }
+
+    /**
+     * Starts sweeping in a background thread with the given interval, and
+     * registers the sweeper with the platform MBean server. The sweeper is
+     * stopped when the service is destroyed.
+     *
+     * @param intervalSeconds
+     *            the number of seconds between sweeps, positive
+     */
+    public synchronized void start(int intervalSeconds) {
+        if (intervalSeconds <= 0) {
+            throw new IllegalArgumentException(
+                    "The sweep interval must be positive");
+        }
+        if (executor != null) {
+            throw new IllegalStateException("The sweeper is already started");
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable,
+                    "Inactive UI sweeper for " + service.getServiceName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::sweepSafely, intervalSeconds,
+                intervalSeconds, TimeUnit.SECONDS);
+        register();
+        service.addServiceDestroyListener(event -> stop());
+    }
+
+    /**
+     * Stops sweeping and unregisters the sweeper from the platform MBean
+     * server.
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        unregister();
+    }
+
+    /**
+     * Visits the next batch of tracked sessions and closes and removes their
+     * inactive UIs. Sessions that are currently locked are skipped.
+     *
+     * @return the number of UIs removed during this sweep
+     */
+    public synchronized int sweep() {
+        List<VaadinSession> snapshot = service.getOpenSessions();
+
+        int reclaimed = 0;
+        int size = snapshot.size();
+        int count = Math.min(size, MAX_SESSIONS_PER_SWEEP);
+        int start = size == 0 ? 0 : nextSessionIndex % size;
+        for (int i = 0; i < count; i++) {
+            reclaimed += sweep(snapshot.get((start + i) % size));
+        }
+        nextSessionIndex = start + count;
+
+        sweepCount.incrementAndGet();
+        reclaimedUICount.addAndGet(reclaimed);
+        if (reclaimed > 0) {
+            getLogger().debug("Removed {} inactive UIs from {} sessions",
+                    reclaimed, count);
+        }
+        return reclaimed;
+    }
+
+    private int sweep(VaadinSession session) {
+        Lock lock = session.getLockInstance();
+        if (lock == null || !lock.tryLock()) {
+            skippedSessionCount.incrementAndGet();
+            return 0;
+        }
+        try {
+            return service.removeInactiveUIs(session);
+        } finally {
+            // Runs pending access tasks like any other lock holder would
+            session.unlock();
+        }
+    }
+
+    private void sweepSafely() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            // An exception would cancel all the following sweeps
+            getLogger().error("Sweeping inactive UIs failed", e);
+        }
+    }
+
+    private void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            // The service name is not unique across deployments
+            ObjectName name = new ObjectName(
+                    "com.vaadin.flow:type=InactiveUISweeper,name="
+                            + ObjectName.quote(service.getServiceName())
+                            + ",id=" + Integer.toHexString(
+                                    System.identityHashCode(this)));
+            server.registerMBean(this, name);
+            objectName = name;
+        } catch (InstanceAlreadyExistsException e) {
+            getLogger().info(
+                    "An inactive UI sweeper is already registered for {}, "
+                            + "the sweeper is not available through JMX",
+                    service.getServiceName());
+        } catch (JMException e) {
+            getLogger().warn(
+                    "Unable to register the inactive UI sweeper for {}",
+                    service.getServiceName(), e);
+        }
+    }
+
+    private void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .unregisterMBean(objectName);
+        } catch (JMException e) {
+            getLogger().debug("Unable to unregister {}", objectName, e);
+        }
+        objectName = null;
+    }
+
+    @Override
+    public int getSessionCount() {
+        return service.getOpenSessions().size();
+    }
+
+    @Override
+    public long getSweepCount() {
+        return sweepCount.get();
+    }
+
+    @Override
+    public long getReclaimedUICount() {
+        return reclaimedUICount.get();
+    }
+
+    @Override
+    public long getSkippedSessionCount() {
+        return skippedSessionCount.get();
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(InactiveUISweeper.class);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+/**
+ * Management interface for monitoring the {@link InactiveUISweeper} of a
+ * {@link VaadinService} through JMX.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public interface InactiveUISweeperMXBean {
+
+    /**
+     * Gets the number of sessions currently tracked by the sweeper.
+     *
+     * @return the number of tracked sessions
+     */
+    int getSessionCount();
+
+    /**
+     * Gets the number of completed sweeps.
+     *
+     * @return the number of sweeps
+     */
+    long getSweepCount();
+
+    /**
+     * Gets the total number of inactive UIs that have been closed and removed
+     * from their sessions by the sweeper.
+     *
+     * @return the number of reclaimed UIs
+     */
+    long getReclaimedUICount();
+
+    /**
+     * Gets the total number of times a session was skipped because it was
+     * locked by another thread.
+     *
+     * @return the number of skipped sessions
+     */
+    long getSkippedSessionCount();
+}
@@ -71,6 +71,34 @@ public class InitParameters implements Serializable {
      */
     public static final String SERVLET_PARAMETER_BROTLI = "brotli";
 
+    /**
+     * Configuration name for the parameter that determines whether state
+     * changes should be sent to the client in the compact format instead of
+     * verbose JSON objects.
+     *
+     * @since
+     */
+    public static final String SERVLET_PARAMETER_COMPACT_STATE_CHANGES = "compactStateChanges";
+
+    /**
+     * Configuration name for the parameter that determines whether the state
+     * tree memory footprint of sessions can be inspected through JMX and
+     * through a debug request that reports the footprint of the requesting
+     * session.
+     *
+     * @since
+     */
+    public static final String SERVLET_PARAMETER_MEMORY_FOOTPRINT_REPORT = "memoryFootprintReport";
+
+    /**
+     * Configuration name for the parameter that determines the interval in
+     * seconds between background sweeps that close inactive UIs of all
+     * sessions. Sweeping is disabled if the interval is not positive.
+     *
+     * @since
+     */
+    public static final String SERVLET_PARAMETER_INACTIVE_UI_SWEEP_INTERVAL = "inactiveUISweepInterval";
+
     /**
      * Configuration name for the WebPack profile statistics json file to use to
      * determine template contents.
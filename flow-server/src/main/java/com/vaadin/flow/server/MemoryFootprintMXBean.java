@@ -0,0 +1,83 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.Map;
+
+/**
+ * Management interface for monitoring the state tree memory footprint of all
+ * sessions of a {@link VaadinService} through JMX.
+ * <p>
+ * The attributes are computed from a report that is collected at most once
+ * every few seconds, since collecting it requires locking each session in
+ * turn and walking through all state trees.
+ *
+ * @see MemoryFootprintReport
+ * @author Vaadin Ltd
+ * @since
+ */
+public interface MemoryFootprintMXBean {
+
+    /**
+     * Gets the number of sessions included in the report.
+     *
+     * @return the number of sessions
+     */
+    int getSessionCount();
+
+    /**
+     * Gets the number of UIs included in the report.
+     *
+     * @return the number of UIs
+     */
+    int getUICount();
+
+    /**
+     * Gets the total number of state nodes in all sessions.
+     *
+     * @return the number of nodes
+     */
+    int getNodeCount();
+
+    /**
+     * Gets the estimated number of bytes retained by the state nodes of all
+     * sessions.
+     *
+     * @return the estimated number of bytes
+     */
+    long getEstimatedBytes();
+
+    /**
+     * Gets the estimated number of bytes by route target class name.
+     *
+     * @return a map from route target class name to estimated bytes
+     */
+    Map<String, Long> getEstimatedBytesByRoute();
+
+    /**
+     * Gets the number of UIs by route target class name.
+     *
+     * @return a map from route target class name to UI count
+     */
+    Map<String, Integer> getUICountsByRoute();
+
+    /**
+     * Gets the full report as JSON.
+     *
+     * @return the report as a JSON string
+     */
+    String getReport();
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects {@link MemoryFootprintReport memory footprint reports} of all open
+ * sessions of a service and exposes them through JMX.
+ * <p>
+ * The monitor is enabled with the
+ * {@link InitParameters#SERVLET_PARAMETER_MEMORY_FOOTPRINT_REPORT} parameter.
+ * Sessions that are locked by other threads for longer than a short timeout
+ * are left out of the report rather than blocking the caller.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class MemoryFootprintMonitor
+        implements MemoryFootprintMXBean, Serializable {
+
+    private static final long MAX_REPORT_AGE_MILLIS = 5000;
+
+    private static final long LOCK_TIMEOUT_MILLIS = 100;
+
+    private final VaadinService service;
+
+    private transient MemoryFootprintReport report;
+
+    private transient long reportTimestamp;
+
+    private transient ObjectName objectName;
+
+    /**
+     * Creates a monitor for the open sessions of the given service.
+     *
+     * @param service
+     *            the service to monitor, not <code>null</code>
+     */
+    public MemoryFootprintMonitor(VaadinService service) {
+        this.service = service;
+    }
+
+    /**
+     * Registers this monitor with the platform MBean server, named after the
+     * monitored service. The monitor is unregistered when the service is
+     * destroyed.
+     */
+    public void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            // The service name is not unique across deployments
+            ObjectName name = new ObjectName(
+                    "com.vaadin.flow:type=MemoryFootprint,name="
+                            + ObjectName.quote(service.getServiceName())
+                            + ",id=" + Integer.toHexString(
+                                    System.identityHashCode(this)));
+            server.registerMBean(this, name);
+            objectName = name;
+            service.addServiceDestroyListener(event -> unregister());
+        } catch (InstanceAlreadyExistsException e) {
+            getLogger().info(
+                    "A memory footprint monitor is already registered for {}, "
+                            + "the monitor is not available through JMX",
+                    service.getServiceName());
+        } catch (JMException e) {
+            getLogger().warn(
+                    "Unable to register the memory footprint monitor for {}",
+                    service.getServiceName(), e);
+        }
+    }
+
+    private void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .unregisterMBean(objectName);
+        } catch (JMException e) {
+            getLogger().debug("Unable to unregister {}", objectName, e);
+        }
+        objectName = null;
+    }
+
+    /**
+     * Collects a new report of all open sessions.
+     *
+     * @return a new report, not <code>null</code>
+     */
+    public MemoryFootprintReport collectReport() {
+        MemoryFootprintReport newReport = new MemoryFootprintReport();
+        for (VaadinSession session : service.getOpenSessions()) {
+            Lock lock = session.getLockInstance();
+            if (lock == null || !tryLock(lock)) {
+                continue;
+            }
+            try {
+                if (session.getState() == VaadinSessionState.OPEN) {
+                    newReport.addSession(session);
+                }
+            } finally {
+                // Runs pending access tasks like any other lock holder would
+                session.unlock();
+            }
+        }
+        return newReport;
+    }
+
+    private static boolean tryLock(Lock lock) {
+        try {
+            return lock.tryLock(LOCK_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private synchronized MemoryFootprintReport getCachedReport() {
+        long now = System.currentTimeMillis();
+        if (report == null || now - reportTimestamp > MAX_REPORT_AGE_MILLIS) {
+            report = collectReport();
+            reportTimestamp = now;
+        }
+        return report;
+    }
+
+    @Override
+    public int getSessionCount() {
+        return getCachedReport().getSessionCount();
+    }
+
+    @Override
+    public int getUICount() {
+        return getCachedReport().getUICount();
+    }
+
+    @Override
+    public int getNodeCount() {
+        return getCachedReport().getTotal().getNodeCount();
+    }
+
+    @Override
+    public long getEstimatedBytes() {
+        return getCachedReport().getTotal().getEstimatedBytes();
+    }
+
+    @Override
+    public Map<String, Long> getEstimatedBytesByRoute() {
+        Map<String, Long> bytes = new TreeMap<>();
+        getCachedReport().getFootprintsByRoute().forEach((route,
+                footprint) -> bytes.put(route, footprint.getEstimatedBytes()));
+        return bytes;
+    }
+
+    @Override
+    public Map<String, Integer> getUICountsByRoute() {
+        return new TreeMap<>(getCachedReport().getUICountsByRoute());
+    }
+
+    @Override
+    public String getReport() {
+        return getCachedReport().toJson().toJson();
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(MemoryFootprintMonitor.class);
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.vaadin.flow.component.HasElement;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.internal.StateTreeFootprint;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+/**
+ * Report of the state tree memory footprint of UIs grouped by the route
+ * target class of each UI, for capacity planning per route.
+ *
+ * @see VaadinSession#getMemoryFootprintReport()
+ * @author Vaadin Ltd
+ * @since
+ */
+public class MemoryFootprintReport implements Serializable {
+
+    /**
+     * Key used for UIs that don't show any route target.
+     */
+    public static final String NO_ROUTE = "-";
+
+    private final Map<String, StateTreeFootprint> footprintsByRoute = new TreeMap<>();
+    private final Map<String, Integer> uiCountsByRoute = new TreeMap<>();
+    private final StateTreeFootprint total = new StateTreeFootprint();
+    private int sessionCount;
+
+    /**
+     * Adds the state tree footprint of the given UI to this report. The
+     * session of the UI must be locked.
+     *
+     * @param ui
+     *            the UI to add, not <code>null</code>
+     */
+    public void addUI(UI ui) {
+        StateTreeFootprint footprint = ui.getInternals()
+                .getStateTreeFootprint();
+        String route = getRoute(ui);
+
+        footprintsByRoute
+                .computeIfAbsent(route, key -> new StateTreeFootprint())
+                .merge(footprint);
+        uiCountsByRoute.merge(route, 1, Integer::sum);
+        total.merge(footprint);
+    }
+
+    /**
+     * Adds the state tree footprints of all UIs of the given session to this
+     * report. The session must be locked.
+     *
+     * @param session
+     *            the session to add, not <code>null</code>
+     */
+    public void addSession(VaadinSession session) {
+        session.checkHasLock();
+        session.getUIs().forEach(this::addUI);
+        sessionCount++;
+    }
+
+    /**
+     * Adds all numbers of another report to this report.
+     *
+     * @param other
+     *            the report to add, not <code>null</code>
+     */
+    public void merge(MemoryFootprintReport other) {
+        other.footprintsByRoute.forEach((route, footprint) -> footprintsByRoute
+                .computeIfAbsent(route, key -> new StateTreeFootprint())
+                .merge(footprint));
+        other.uiCountsByRoute.forEach(
+                (route, count) -> uiCountsByRoute.merge(route, count,
+                        Integer::sum));
+        total.merge(other.total);
+        sessionCount += other.sessionCount;
+    }
+
+    private static String getRoute(UI ui) {
+        List<HasElement> chain = ui.getInternals()
+                .getActiveRouterTargetsChain();
+        if (chain.isEmpty()) {
+            return NO_ROUTE;
+        }
+        return chain.get(0).getClass().getName();
+    }
+
+    /**
+     * Gets the number of sessions included in this report.
+     *
+     * @return the number of sessions
+     */
+    public int getSessionCount() {
+        return sessionCount;
+    }
+
+    /**
+     * Gets the number of UIs included in this report.
+     *
+     * @return the number of UIs
+     */
+    public int getUICount() {
+        return uiCountsByRoute.values().stream().mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    /**
+     * Gets the combined footprint of all UIs in this report.
+     *
+     * @return the combined footprint
+     */
+    public StateTreeFootprint getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the combined footprint of the UIs by route target class name.
+     *
+     * @return an unmodifiable map from route target class name to footprint
+     */
+    public Map<String, StateTreeFootprint> getFootprintsByRoute() {
+        return Collections.unmodifiableMap(footprintsByRoute);
+    }
+
+    /**
+     * Gets the number of UIs by route target class name.
+     *
+     * @return an unmodifiable map from route target class name to UI count
+     */
+    public Map<String, Integer> getUICountsByRoute() {
+        return Collections.unmodifiableMap(uiCountsByRoute);
+    }
+
+    /**
+     * Gets this report as JSON.
+     *
+     * @return a JSON object with the numbers of this report
+     */
+    public JsonObject toJson() {
+        JsonObject json = Json.createObject();
+        json.put("sessions", sessionCount);
+        json.put("uis", getUICount());
+        json.put("total", total.toJson());
+
+        JsonObject routes = Json.createObject();
+        footprintsByRoute.forEach((route, footprint) -> {
+            JsonObject routeJson = footprint.toJson();
+            routeJson.put("uis", uiCountsByRoute.get(route));
+            routes.put(route, routeJson);
+        });
+        json.put("routes", routes);
+        return json;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+/**
+ * Source of data for a {@link StreamResource} which knows the length of its
+ * data and can write any part of it. This allows serving partial content for
+ * HTTP range requests, e.g. for resuming downloads or seeking in media files.
+ * <p>
+ * Unlike {@link StreamResourceWriter} and {@link InputStreamFactory}, methods
+ * of this interface are not called under the session lock.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public interface SeekableStreamSource extends Serializable {
+
+    /**
+     * Gets the length of the data in bytes.
+     *
+     * @return the length of the data
+     */
+    long getLength();
+
+    /**
+     * Gets the time when the data was last modified, in milliseconds since
+     * the epoch.
+     *
+     * @return the modification time, or -1 if not known
+     */
+    default long getLastModified() {
+        return -1L;
+    }
+
+    /**
+     * Writes a part of the data to the given stream.
+     *
+     * @param stream
+     *            the stream to write to
+     * @param start
+     *            the position of the first byte to write
+     * @param length
+     *            the number of bytes to write
+     * @throws IOException
+     *             if an IO error occurred
+     */
+    void write(OutputStream stream, long start, long length)
+            throws IOException;
+
+    /**
+     * Creates a source for the contents of the given file.
+     *
+     * @param file
+     *            the file to read, not <code>null</code>
+     * @return a source for the file contents
+     */
+    static SeekableStreamSource ofFile(File file) {
+        return new FileStreamSource(file);
+    }
+
+    /**
+     * Creates a source for the given bytes. The array is not copied.
+     *
+     * @param data
+     *            the data, not <code>null</code>
+     * @return a source for the data
+     */
+    static SeekableStreamSource ofBytes(byte[] data) {
+        return new ByteArrayStreamSource(data);
+    }
+}
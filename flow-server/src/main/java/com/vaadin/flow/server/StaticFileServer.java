@@ -32,6 +32,9 @@ import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.internal.ResponseWriter;
+import com.vaadin.flow.internal.StaticResourceIndex;
+import com.vaadin.flow.internal.StaticResourceIndex.IndexedResource;
+import com.vaadin.flow.internal.StaticResourceIndex.Variant;
 
 import static com.vaadin.flow.server.Constants.VAADIN_BUILD_FILES_PATH;
 import static com.vaadin.flow.server.Constants.VAADIN_MAPPING;
@@ -59,6 +62,7 @@ public class StaticFileServer implements StaticFileHandler {
             .compile("(/|\\\\)\\.\\.(/|\\\\)", Pattern.CASE_INSENSITIVE);
 
     private final ResponseWriter responseWriter;
+    private final StaticResourceIndex resourceIndex;
     private final VaadinServletService servletService;
     private DeploymentConfiguration deploymentConfiguration;
 
@@ -72,6 +76,11 @@ public class StaticFileServer implements StaticFileHandler {
         this.servletService = servletService;
         deploymentConfiguration = servletService.getDeploymentConfiguration();
         responseWriter = new ResponseWriter(deploymentConfiguration);
+        // Resources do not change in production mode, so their location,
+        // metadata and small contents can be kept between requests
+        resourceIndex = deploymentConfiguration.isProductionMode()
+                ? new StaticResourceIndex(responseWriter)
+                : null;
     }
 
     @Override
@@ -92,6 +101,10 @@ public class StaticFileServer implements StaticFileHandler {
             // We rather serve 404 than let it fall through
             return true;
         }
+        if (resourceIndex != null
+                && resourceIndex.get(requestFilename) != null) {
+            return true;
+        }
         resource = servletService.getStaticResource(requestFilename);
 
         if (resource == null && shouldFixIncorrectWebjarPaths()
@@ -115,8 +128,11 @@ public class StaticFileServer implements StaticFileHandler {
             return true;
         }
 
-        URL resourceUrl = null;
-        if (isAllowedVAADINBuildUrl(filenameWithPath)) {
+        IndexedResource indexedResource = resourceIndex == null ? null
+                : resourceIndex.get(filenameWithPath);
+        URL resourceUrl = indexedResource == null ? null
+                : indexedResource.getUrl();
+        if (resourceUrl == null && isAllowedVAADINBuildUrl(filenameWithPath)) {
             resourceUrl = servletService.getClassLoader()
                     .getResource("META-INF" + filenameWithPath);
         }
@@ -141,6 +157,16 @@ public class StaticFileServer implements StaticFileHandler {
         // Intentionally writing cache headers also for 304 responses
         writeCacheHeaders(filenameWithPath, response);
 
+        if (resourceIndex != null && indexedResource == null) {
+            indexedResource = resourceIndex.index(filenameWithPath,
+                    resourceUrl, request);
+        }
+        if (indexedResource != null) {
+            serveIndexedResource(filenameWithPath, indexedResource, request,
+                    response);
+            return true;
+        }
+
         long timestamp = writeModificationTimestamp(resourceUrl, request,
                 response);
         if (browserHasNewestVersion(request, timestamp)) {
@@ -154,6 +180,30 @@ public class StaticFileServer implements StaticFileHandler {
         return true;
     }
 
+    private void serveIndexedResource(String filenameWithPath,
+            IndexedResource resource, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Variant variant = resourceIndex.selectVariant(resource, request);
+
+        response.setHeader("ETag", variant.getETag());
+        long timestamp = variant.getLastModified();
+        if (timestamp != -1L) {
+            response.setDateHeader("Last-Modified", timestamp);
+        }
+
+        // If-None-Match takes precedence over If-Modified-Since
+        boolean browserHasNewestVersion = request
+                .getHeader("If-None-Match") != null
+                        ? StaticResourceIndex.matchesETag(request, variant)
+                        : browserHasNewestVersion(request, timestamp);
+        if (browserHasNewestVersion) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        resourceIndex.writeResponseContents(filenameWithPath, variant,
+                request, response);
+    }
+
     // When referring to webjar resources from application stylesheets (loaded
     // using @StyleSheet) using relative paths, the paths will be different in
     // development mode and in production mode. The reason is that in production
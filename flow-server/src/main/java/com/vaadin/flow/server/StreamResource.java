@@ -48,8 +48,16 @@ public class StreamResource extends AbstractStreamResource {
 
     private final StreamResourceWriter writer;
 
+    private SeekableStreamSource source;
+
     private ContentTypeResolver resolver = DEFAULT_RESOLVER;
 
+    private long contentLength = -1L;
+
+    private long lastModified = -1L;
+
+    private String eTag;
+
     private static class DefaultResolver implements ContentTypeResolver {
 
         @Override
@@ -111,6 +119,21 @@ public class StreamResource extends AbstractStreamResource {
         }
     }
 
+    private static class SourceWriter implements StreamResourceWriter {
+
+        private final SeekableStreamSource source;
+
+        private SourceWriter(SeekableStreamSource source) {
+            this.source = source;
+        }
+
+        @Override
+        public void accept(OutputStream stream, VaadinSession session)
+                throws IOException {
+            source.write(stream, 0, source.getLength());
+        }
+    }
+
     /**
      * Creates {@link StreamResource} instance using mandatory parameters
      * {@code name} as a resource file name and output stream {@code writer} as
@@ -158,6 +181,27 @@ public class StreamResource extends AbstractStreamResource {
         assert name != null;
     }
 
+    /**
+     * Creates {@link StreamResource} instance using mandatory parameters
+     * {@code name} as a resource file name and a seekable {@code source} of
+     * data.
+     * <p>
+     * The length and modification time of the resource are taken from the
+     * source. Such a resource supports HTTP range requests, so that browsers
+     * can resume downloads and seek in media files without loading the whole
+     * resource.
+     *
+     * @param name
+     *            resource file name. May not be null.
+     * @param source
+     *            seekable source of the data. May not be null.
+     */
+    public StreamResource(String name, SeekableStreamSource source) {
+        this(name, new SourceWriter(source));
+        assert source != null;
+        this.source = source;
+    }
+
     /**
      * Returns the stream resource writer.
      * <p>
@@ -217,6 +261,114 @@ public class StreamResource extends AbstractStreamResource {
         return resolver;
     }
 
+    /**
+     * Gets the seekable source of the data, if this resource was created
+     * with one.
+     *
+     * @return an optional seekable source, or an empty optional if the data
+     *         is produced by a writer
+     */
+    public Optional<SeekableStreamSource> getSource() {
+        return Optional.ofNullable(source);
+    }
+
+    /**
+     * Sets the length of the resource data in bytes. The length is sent in
+     * the "Content-Length" header, so it must match the number of bytes
+     * written by the writer.
+     * <p>
+     * By default the length of a seekable source is used, otherwise the length
+     * is not known.
+     *
+     * @param contentLength
+     *            the length in bytes, or a negative value if not known
+     * @return this resource
+     */
+    public StreamResource setContentLength(long contentLength) {
+        this.contentLength = contentLength;
+        return this;
+    }
+
+    /**
+     * Gets the length of the resource data in bytes.
+     *
+     * @return the length in bytes, or -1 if not known
+     */
+    public long getContentLength() {
+        if (contentLength >= 0) {
+            return contentLength;
+        }
+        return source == null ? -1L : source.getLength();
+    }
+
+    /**
+     * Sets the time when the resource data was last modified. The time is sent
+     * in the "Last-Modified" header and used for answering conditional
+     * requests.
+     * <p>
+     * By default the modification time of a seekable source is used,
+     * otherwise the modification time is not known.
+     *
+     * @param lastModified
+     *            the modification time in milliseconds since the epoch, or a
+     *            negative value if not known
+     * @return this resource
+     */
+    public StreamResource setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+        return this;
+    }
+
+    /**
+     * Gets the time when the resource data was last modified.
+     *
+     * @return the modification time in milliseconds since the epoch, or -1 if
+     *         not known
+     */
+    public long getLastModified() {
+        if (lastModified >= 0) {
+            return lastModified;
+        }
+        return source == null ? -1L : source.getLastModified();
+    }
+
+    /**
+     * Sets the entity tag identifying the current version of the resource
+     * data. The tag is sent in the "ETag" header and used for answering
+     * conditional requests. It should be a quoted string, e.g.
+     * <code>"v1"</code>.
+     * <p>
+     * By default a tag is derived from the length and modification time of a
+     * seekable source when the modification time is known, otherwise there is
+     * no tag.
+     *
+     * @param eTag
+     *            the entity tag, or <code>null</code> to use the default
+     * @return this resource
+     */
+    public StreamResource setETag(String eTag) {
+        this.eTag = eTag;
+        return this;
+    }
+
+    /**
+     * Gets the entity tag identifying the current version of the resource
+     * data.
+     *
+     * @return the entity tag, or <code>null</code> if there is none
+     */
+    public String getETag() {
+        if (eTag != null) {
+            return eTag;
+        }
+        long modified = getLastModified();
+        if (source == null || modified < 0) {
+            return null;
+        }
+        return '"' + Long.toHexString(getContentLength()) + '-'
+                + Long.toHexString(modified) + '"';
+    }
+
     @Override
     public String getName() {
         return fileName;
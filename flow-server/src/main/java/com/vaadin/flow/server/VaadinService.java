@@ -39,6 +39,7 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Future;
@@ -67,6 +68,7 @@ import com.vaadin.flow.server.communication.HeartbeatHandler;
 import com.vaadin.flow.server.communication.IndexHtmlRequestListener;
 import com.vaadin.flow.server.communication.IndexHtmlResponse;
 import com.vaadin.flow.server.communication.JavaScriptBootstrapHandler;
+import com.vaadin.flow.server.communication.MemoryFootprintHandler;
 import com.vaadin.flow.server.communication.PwaHandler;
 import com.vaadin.flow.server.communication.SessionRequestHandler;
 import com.vaadin.flow.server.communication.StreamRequestHandler;
@@ -189,6 +191,14 @@ public abstract class VaadinService implements Serializable {
 
     private VaadinContext vaadinContext;
 
+    /*
+     * Open sessions of this service, including sessions restored from
+     * serialization. Weakly referenced so that sessions which are dropped
+     * without a destroy event are not kept in memory.
+     */
+    private final transient Set<VaadinSession> openSessions = Collections
+            .synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
     /**
      * Creates a new vaadin service based on a deployment configuration.
      *
@@ -290,6 +300,13 @@ public abstract class VaadinService implements Serializable {
         if (getDeploymentConfiguration().isPnpmEnabled()) {
             UsageStatistics.markAsUsed("flow/pnpm",null);
         }
+        if (configuration.isMemoryFootprintReportEnabled()) {
+            new MemoryFootprintMonitor(this).register();
+        }
+        int sweepInterval = configuration.getInactiveUISweepInterval();
+        if (sweepInterval > 0) {
+            new InactiveUISweeper(this).start(sweepInterval);
+        }
 
         initialized = true;
     }
@@ -344,6 +361,9 @@ public abstract class VaadinService implements Serializable {
         handlers.add(new UidlRequestHandler());
         handlers.add(new UnsupportedBrowserHandler());
         handlers.add(new StreamRequestHandler());
+        if (getDeploymentConfiguration().isMemoryFootprintReportEnabled()) {
+            handlers.add(new MemoryFootprintHandler());
+        }
         PwaRegistry pwaRegistry = getPwaRegistry();
         if (pwaRegistry != null
                 && pwaRegistry.getPwaConfiguration().isEnabled()) {
@@ -624,6 +644,30 @@ public abstract class VaadinService implements Serializable {
                 listener -> listener.modifyIndexHtmlResponse(response));
     }
 
+    /**
+     * Checks whether any {@link BootstrapListener} has been registered for
+     * this service.
+     *
+     * @return <code>true</code> if there are listeners modifying the
+     *         bootstrap page, <code>false</code> otherwise
+     * @since
+     */
+    public boolean hasBootstrapListeners() {
+        return bootstrapListeners.iterator().hasNext();
+    }
+
+    /**
+     * Checks whether any {@link IndexHtmlRequestListener} has been registered
+     * for this service.
+     *
+     * @return <code>true</code> if there are listeners modifying the Index
+     *         HTML response, <code>false</code> otherwise
+     * @since
+     */
+    public boolean hasIndexHtmlRequestListeners() {
+        return indexHtmlRequestListeners.iterator().hasNext();
+    }
+
     /**
      * Handles destruction of the given session. Internally ensures proper
      * locking is done.
@@ -671,6 +715,7 @@ public abstract class VaadinService implements Serializable {
             }
 
             session.setState(VaadinSessionState.CLOSED);
+            openSessions.remove(session);
         });
     }
 
@@ -934,6 +979,7 @@ public abstract class VaadinService implements Serializable {
             setLocale(request, session);
         }
 
+        trackOpenSession(session);
         onVaadinSessionStarted(request, session);
 
         return session;
@@ -1296,22 +1342,77 @@ public abstract class VaadinService implements Serializable {
         }
     }
 
+    /**
+     * Gets a snapshot of the open sessions of this service. The sessions are
+     * tracked from their initialization, or from when they are first loaded
+     * after being restored from serialization, until they are destroyed.
+     *
+     * @return a list of the open sessions, not <code>null</code>
+     * @see InactiveUISweeper
+     * @see MemoryFootprintMonitor
+     */
+    List<VaadinSession> getOpenSessions() {
+        synchronized (openSessions) {
+            return new ArrayList<>(openSessions);
+        }
+    }
+
+    /**
+     * Starts tracking the given session as open, unless it is already
+     * tracked. The session must be locked by the current thread.
+     */
+    private void trackOpenSession(VaadinSession session) {
+        // Checked under the session lock to avoid a global monitor per request
+        if (!session.trackedByService) {
+            session.trackedByService = true;
+            openSessions.add(session);
+        }
+    }
+
+    /**
+     * Closes inactive UIs in the given session and removes closed UIs from
+     * the session, unless the session itself is inactive. Used for sweeping
+     * sessions in the background, between requests.
+     *
+     * @param session
+     *            the session to sweep, locked by the current thread
+     * @return the number of UIs removed from the session
+     * @see InactiveUISweeper
+     */
+    int removeInactiveUIs(VaadinSession session) {
+        assert session.hasLock();
+        if (!isSessionActive(session)) {
+            /*
+             * Closing the session requires access to the underlying HTTP
+             * session, so it is left to the next request or to the expiration
+             * of the HTTP session.
+             */
+            return 0;
+        }
+        closeInactiveUIs(session);
+        return removeClosedUIs(session);
+    }
+
     /**
      * Removes those UIs from the given session for which {@link UI#isClosing()
      * isClosing} yields true.
      *
      * @param session
+     * @return the number of removed UIs
      */
-    private void removeClosedUIs(final VaadinSession session) {
+    private int removeClosedUIs(final VaadinSession session) {
         List<UI> uis = new ArrayList<>(session.getUIs());
+        int removed = 0;
         for (final UI ui : uis) {
             if (ui.isClosing()) {
                 ui.accessSynchronously(() -> {
                     getLogger().debug("Removing closed UI {}", ui.getUIId());
                     session.removeUI(ui);
                 });
+                removed++;
             }
         }
+        return removed;
     }
 
     /**
@@ -1934,6 +2035,40 @@ public abstract class VaadinService implements Serializable {
         return true;
     }
 
+    /**
+     * Verifies that the given CSRF token (aka double submit cookie) is valid
+     * for the given session. The token of a session never changes, so this
+     * check can be done without locking the session.
+     * <p>
+     * The token of the session is used, so a token returned by an overridden
+     * {@link UI#getCsrfToken()} is not taken into account. Use
+     * {@link #isCsrfTokenValid(UI, String)} to verify the token for a
+     * specific UI.
+     *
+     * @param session
+     *            the session for which the check should be done
+     * @param requestToken
+     *            the CSRF token provided in the request
+     * @return <code>true</code> if the token is valid or if the protection is
+     *         disabled; <code>false</code> if protection is enabled and the
+     *         token is invalid
+     * @see #isCsrfTokenValid(UI, String)
+     * @since
+     */
+    public static boolean isCsrfTokenValid(VaadinSession session,
+            String requestToken) {
+
+        if (session.getService().getDeploymentConfiguration()
+                .isXsrfProtectionEnabled()) {
+            String sessionToken = session.getCsrfToken();
+
+            if (sessionToken == null || !sessionToken.equals(requestToken)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Implementation for {@link VaadinSession#access(Command)}. This method is
      * implemented here instead of in {@link VaadinSession} to enable overriding
@@ -2136,6 +2271,8 @@ public abstract class VaadinService implements Serializable {
             return null;
         }
         vaadinSession.refreshTransients(wrappedSession, this);
+        // Sessions restored from serialization are not initialized again
+        trackOpenSession(vaadinSession);
         return vaadinSession;
     }
 
@@ -112,6 +112,12 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
 
     private transient Lock lock;
 
+    /*
+     * Whether the service tracks this session as open. Not serialized, so that
+     * a session restored from serialization is tracked again when loaded.
+     */
+    transient boolean trackedByService;
+
     /*
      * Pending tasks can't be serialized and the queue should be empty when the
      * session is serialized as long as it doesn't happen while some other
@@ -489,6 +495,20 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
         return Collections.unmodifiableCollection(uIs.values());
     }
 
+    /**
+     * Collects a report of the state tree memory footprint of all UIs in this
+     * session, grouped by the route target of each UI. The session must be
+     * locked.
+     *
+     * @return the memory footprint report of this session, not
+     *         <code>null</code>
+     */
+    public MemoryFootprintReport getMemoryFootprintReport() {
+        MemoryFootprintReport report = new MemoryFootprintReport();
+        report.addSession(this);
+        return report;
+    }
+
     /**
      * Returns a UI with the given id.
      * <p>
@@ -18,9 +18,11 @@ package com.vaadin.flow.server.communication;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Serializable;
 import java.io.StringReader;
+import java.io.Writer;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -35,7 +37,7 @@ import com.vaadin.flow.component.UI;
 import com.vaadin.flow.internal.UsageStatistics;
 import com.vaadin.flow.shared.communication.PushConstants;
 
-import elemental.json.JsonObject;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * A {@link PushConnection} implementation using the Atmosphere push support
@@ -190,12 +192,20 @@ public class AtmospherePushConnection implements PushConnection {
                 state = State.RESPONSE_PENDING;
             }
         } else {
+            // Stream the message into a pooled buffer instead of building the
+            // whole message as a JSON object tree
+            ResponseBuffer buffer = ResponseBuffer.acquire();
             try {
-                JsonObject response = new UidlWriter().createUidl(getUI(),
-                        async);
-                sendMessage("for(;;);[" + response.toJson() + "]");
+                Writer writer = new OutputStreamWriter(buffer, UTF_8);
+                writer.write("for(;;);[");
+                new UidlWriter().writeUidl(getUI(), async, false, writer);
+                writer.write("]");
+                writer.flush();
+                sendMessage(buffer.toUtf8String());
             } catch (Exception e) {
                 throw new RuntimeException("Push failed", e);
+            } finally {
+                buffer.release();
             }
         }
     }
@@ -209,7 +219,10 @@ public class AtmospherePushConnection implements PushConnection {
      */
     protected void sendMessage(String message) {
         assert (isConnected());
-        // "Broadcast" the changes to the single client only
+        // "Broadcast" the changes to the single client only. The message is
+        // serialized while the session is locked, but the broadcaster writes
+        // it to the connection from its own threads, so a slow client does not
+        // hold the session lock while the message is transmitted.
         outgoingMessage = getResource().getBroadcaster().broadcast(message,
                 getResource());
     }
@@ -53,12 +53,20 @@ public class IndexHtmlRequestHandler extends JavaScriptBootstrapHandler {
 
     private transient IndexHtmlResponse indexHtmlResponse;
 
+    private transient volatile IndexHtmlTemplate indexHtmlTemplate;
+    private transient volatile boolean indexHtmlTemplateUnsupported;
+
     @Override
     public boolean synchronizedHandleRequest(VaadinSession session,
             VaadinRequest request, VaadinResponse response) throws IOException {
+        IndexHtmlTemplate template = getIndexHtmlTemplate(session, request);
+        if (template != null) {
+            return writeIndexHtml(template, session, request, response);
+        }
+
         Document indexDocument = getIndexHtmlDocument(request);
 
-        prependBaseHref(request, indexDocument);
+        setBaseHref(indexDocument, getServiceUrl(request));
 
         JsonObject initialJson = Json.createObject();
 
@@ -75,14 +83,101 @@ public class IndexHtmlRequestHandler extends JavaScriptBootstrapHandler {
             indexHtmlResponse = new IndexHtmlResponse(request, response, indexDocument);
         }
 
-        addInitialFlow(initialJson, indexDocument, session);
+        addInitialScript(indexDocument, getInitialScript(initialJson, session));
 
-        configureErrorDialogStyles(indexDocument);
+        response.setContentType(CONTENT_TYPE_TEXT_HTML_UTF_8);
 
-        showWebpackErrors(indexDocument);
+        modifyIndexHtml(indexDocument, session, request);
+
+        // modify the page based on registered IndexHtmlRequestListener:s
+        request.getService().modifyIndexHtmlResponse(indexHtmlResponse);
+
+        try {
+            response.getOutputStream()
+                    .write(indexDocument.html().getBytes(UTF_8));
+        } catch (IOException e) {
+            getLogger().error("Error writing 'index.html' to response", e);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean writeIndexHtml(IndexHtmlTemplate template,
+            VaadinSession session, VaadinRequest request,
+            VaadinResponse response) {
+        JsonObject initialJson = Json.createObject();
+
+        if (request.getService().getBootstrapInitialPredicate()
+                .includeInitialUidl(request)) {
+            includeInitialUidl(initialJson, session, request, response);
+
+            // App might be using classic server-routing, which is true
+            // unless we detect a call to JavaScriptBootstrapUI.connectClient
+            session.setAttribute(SERVER_ROUTING, Boolean.TRUE);
+        }
 
         response.setContentType(CONTENT_TYPE_TEXT_HTML_UTF_8);
 
+        try {
+            template.write(response.getOutputStream(), getServiceUrl(request),
+                    getInitialScript(initialJson, session));
+        } catch (IOException e) {
+            getLogger().error("Error writing 'index.html' to response", e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the precompiled template of the page, compiling it on first use.
+     * The template is only used in production mode when the page is the same
+     * for every request apart from the base href and the initial script, i.e.
+     * when there are no {@link com.vaadin.flow.server.IndexHtmlRequestListener
+     * IndexHtmlRequestListener}s and the app shell does not configure the page
+     * programmatically.
+     */
+    private IndexHtmlTemplate getIndexHtmlTemplate(VaadinSession session,
+            VaadinRequest request) throws IOException {
+        if (indexHtmlTemplateUnsupported) {
+            return null;
+        }
+        IndexHtmlTemplate template = indexHtmlTemplate;
+        if (template != null) {
+            return template;
+        }
+
+        AppShellRegistry registry = AppShellRegistry
+                .getInstance(session.getService().getContext());
+        if (!session.getConfiguration().isProductionMode()
+                || session.getService().hasIndexHtmlRequestListeners()
+                || registry.isPageConfiguredPerRequest()) {
+            indexHtmlTemplateUnsupported = true;
+            return null;
+        }
+
+        Document indexDocument = getIndexHtmlDocument(request);
+        setBaseHref(indexDocument, IndexHtmlTemplate.BASE_HREF_MARKER);
+        addInitialScript(indexDocument,
+                IndexHtmlTemplate.INITIAL_SCRIPT_MARKER);
+        modifyIndexHtml(indexDocument, session, request);
+
+        template = IndexHtmlTemplate.compile(indexDocument);
+        if (template == null) {
+            getLogger().debug("The 'index.html' page cannot be precompiled, "
+                    + "it is rendered for each request instead");
+            indexHtmlTemplateUnsupported = true;
+        } else {
+            indexHtmlTemplate = template;
+        }
+        return template;
+    }
+
+    private void modifyIndexHtml(Document indexDocument,
+            VaadinSession session, VaadinRequest request) {
+        configureErrorDialogStyles(indexDocument);
+
+        showWebpackErrors(indexDocument);
+
         VaadinContext context = session.getService().getContext();
         AppShellRegistry registry = AppShellRegistry.getInstance(context);
 
@@ -97,32 +192,23 @@ public class IndexHtmlRequestHandler extends JavaScriptBootstrapHandler {
         // modify the page based on the @Meta, @ViewPort, @BodySize and @Inline annotations
         // and on the AppShellConfigurator
         registry.modifyIndexHtml(indexDocument, request);
-
-        // modify the page based on registered IndexHtmlRequestListener:s
-        request.getService().modifyIndexHtmlResponse(indexHtmlResponse);
-
-        try {
-            response.getOutputStream()
-                    .write(indexDocument.html().getBytes(UTF_8));
-        } catch (IOException e) {
-            getLogger().error("Error writing 'index.html' to response", e);
-            return false;
-        }
-        return true;
     }
 
-    private void addInitialFlow(JsonObject initialJson, Document indexDocument,
-                                VaadinSession session) {
+    private static String getInitialScript(JsonObject initialJson,
+            VaadinSession session) {
         String csrfToken = session.getCsrfToken();
         if (csrfToken != null) {
             initialJson.put(CSRF_TOKEN, csrfToken);
         }
+        return "window.Vaadin = {TypeScript: "
+                + JsonUtil.stringify(initialJson) + "};";
+    }
 
+    private static void addInitialScript(Document indexDocument,
+            String script) {
         Element elm = new Element("script");
         elm.attr("initial", "");
-        elm.appendChild(new DataNode(
-                "window.Vaadin = {TypeScript: " + JsonUtil.stringify(initialJson) + "};"
-        ));
+        elm.appendChild(new DataNode(script));
         indexDocument.head().insertChildren(0, elm);
     }
 
@@ -153,10 +239,9 @@ public class IndexHtmlRequestHandler extends JavaScriptBootstrapHandler {
         setupErrorDialogs(styles);
     }
 
-    private static void prependBaseHref(VaadinRequest request,
-            Document indexDocument) {
+    private static void setBaseHref(Document indexDocument,
+            String baseHref) {
         Elements base = indexDocument.head().getElementsByTag("base");
-        String baseHref = getServiceUrl(request);
         if (base.isEmpty()) {
             indexDocument.head().prependElement("base").attr("href", baseHref);
         } else {
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+import org.jsoup.nodes.Document;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A rendered <code>index.html</code> page split into static byte chunks
+ * around the parts which differ between requests: the <code>href</code> of
+ * the <code>base</code> element and the contents of the initial script.
+ * <p>
+ * The page is rendered once from a document where these parts have been
+ * replaced by the {@link #BASE_HREF_MARKER} and
+ * {@link #INITIAL_SCRIPT_MARKER} markers, so serving a request only needs to
+ * write the chunks and the request specific values without parsing or
+ * rendering the page again.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+class IndexHtmlTemplate implements Serializable {
+
+    /**
+     * Marker used as the <code>href</code> value of the <code>base</code>
+     * element when rendering the template.
+     */
+    static final String BASE_HREF_MARKER = "__vaadin-index-html-base-href__";
+
+    /**
+     * Marker used as the contents of the initial script when rendering the
+     * template.
+     */
+    static final String INITIAL_SCRIPT_MARKER = "__vaadin-index-html-initial-script__";
+
+    private final byte[] head;
+    private final byte[] middle;
+    private final byte[] tail;
+    private final boolean baseHrefFirst;
+
+    private IndexHtmlTemplate(byte[] head, byte[] middle, byte[] tail,
+            boolean baseHrefFirst) {
+        this.head = head;
+        this.middle = middle;
+        this.tail = tail;
+        this.baseHrefFirst = baseHrefFirst;
+    }
+
+    /**
+     * Renders the given document into a template.
+     *
+     * @param document
+     *            the document containing both markers
+     * @return the template, or <code>null</code> if the rendered document
+     *         does not contain each marker exactly once
+     */
+    static IndexHtmlTemplate compile(Document document) {
+        String html = document.html();
+        int baseHref = indexOfSingle(html, BASE_HREF_MARKER);
+        int initialScript = indexOfSingle(html, INITIAL_SCRIPT_MARKER);
+        if (baseHref < 0 || initialScript < 0) {
+            return null;
+        }
+        boolean baseHrefFirst = baseHref < initialScript;
+        int first = Math.min(baseHref, initialScript);
+        int second = Math.max(baseHref, initialScript);
+        int firstEnd = first + (baseHrefFirst ? BASE_HREF_MARKER
+                : INITIAL_SCRIPT_MARKER).length();
+        int secondEnd = second + (baseHrefFirst ? INITIAL_SCRIPT_MARKER
+                : BASE_HREF_MARKER).length();
+
+        return new IndexHtmlTemplate(html.substring(0, first).getBytes(UTF_8),
+                html.substring(firstEnd, second).getBytes(UTF_8),
+                html.substring(secondEnd).getBytes(UTF_8), baseHrefFirst);
+    }
+
+    /**
+     * Writes the page with the given request specific values.
+     *
+     * @param outputStream
+     *            the stream to write to
+     * @param baseHref
+     *            the <code>href</code> of the <code>base</code> element, not
+     *            escaped
+     * @param initialScript
+     *            the contents of the initial script
+     * @throws IOException
+     *             if writing fails
+     */
+    void write(OutputStream outputStream, String baseHref,
+            String initialScript) throws IOException {
+        byte[] baseHrefBytes = escapeAttribute(baseHref).getBytes(UTF_8);
+        byte[] initialScriptBytes = initialScript.getBytes(UTF_8);
+
+        outputStream.write(head);
+        outputStream.write(baseHrefFirst ? baseHrefBytes : initialScriptBytes);
+        outputStream.write(middle);
+        outputStream.write(baseHrefFirst ? initialScriptBytes : baseHrefBytes);
+        outputStream.write(tail);
+    }
+
+    private static int indexOfSingle(String html, String marker) {
+        int index = html.indexOf(marker);
+        if (index < 0 || html.indexOf(marker, index + 1) >= 0) {
+            return -1;
+        }
+        return index;
+    }
+
+    private static String escapeAttribute(String value) {
+        if (value.indexOf('&') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\u00A0') < 0) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(value.length() + 16);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '&') {
+                builder.append("&amp;");
+            } else if (c == '"') {
+                builder.append("&quot;");
+            } else if (c == '\u00A0') {
+                builder.append("&nbsp;");
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+
+import com.vaadin.flow.server.MemoryFootprintReport;
+import com.vaadin.flow.server.SynchronizedRequestHandler;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.JsonConstants;
+
+/**
+ * Handles requests for the state tree memory footprint report of the session
+ * of the request, as in <code>?v-r=memoryFootprint</code>. Only the
+ * requesting session is reported so that the endpoint doesn't expose any
+ * information about other users.
+ * <p>
+ * The handler is only used when the
+ * {@link com.vaadin.flow.server.InitParameters#SERVLET_PARAMETER_MEMORY_FOOTPRINT_REPORT}
+ * parameter is enabled.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class MemoryFootprintHandler extends SynchronizedRequestHandler {
+
+    /**
+     * The value of the {@link ApplicationConstants#REQUEST_TYPE_PARAMETER}
+     * parameter for memory footprint requests.
+     */
+    public static final String REQUEST_TYPE_MEMORY_FOOTPRINT = "memoryFootprint";
+
+    @Override
+    protected boolean canHandleRequest(VaadinRequest request) {
+        return REQUEST_TYPE_MEMORY_FOOTPRINT.equals(request
+                .getParameter(ApplicationConstants.REQUEST_TYPE_PARAMETER));
+    }
+
+    @Override
+    public boolean synchronizedHandleRequest(VaadinSession session,
+            VaadinRequest request, VaadinResponse response) throws IOException {
+        MemoryFootprintReport report = session.getMemoryFootprintReport();
+
+        byte[] json = report.toJson().toJson()
+                .getBytes(StandardCharsets.UTF_8);
+        response.setContentType(JsonConstants.JSON_CONTENT_TYPE);
+        response.setHeader("Cache-Control", "no-cache");
+        response.setStatus(HttpURLConnection.HTTP_OK);
+        response.setContentLength(json.length);
+        try (OutputStream out = response.getOutputStream()) {
+            out.write(json);
+        }
+        return true;
+    }
+}
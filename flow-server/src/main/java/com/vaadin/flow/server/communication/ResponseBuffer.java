@@ -0,0 +1,88 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Byte buffer for UTF-8 encoded messages which is reused between responses
+ * and pushes. A small number of buffers is pooled so that each message does
+ * not have to grow a new buffer from scratch. Buffers that have grown beyond
+ * {@link #MAX_POOLED_SIZE} are not pooled to avoid keeping a large amount of
+ * memory around after an exceptionally large message.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+class ResponseBuffer extends ByteArrayOutputStream {
+    private static final int INITIAL_SIZE = 8 * 1024;
+    private static final int MAX_POOLED_SIZE = 512 * 1024;
+    private static final int POOL_SIZE = 32;
+
+    private static final BlockingQueue<ResponseBuffer> POOL = new ArrayBlockingQueue<>(
+            POOL_SIZE);
+
+    private ResponseBuffer() {
+        super(INITIAL_SIZE);
+    }
+
+    /**
+     * Gets an empty buffer from the pool, or creates a new one if the pool is
+     * empty.
+     *
+     * @return an empty buffer, not <code>null</code>
+     */
+    static ResponseBuffer acquire() {
+        ResponseBuffer buffer = POOL.poll();
+        return buffer != null ? buffer : new ResponseBuffer();
+    }
+
+    /**
+     * Returns this buffer to the pool. The buffer must not be used after
+     * releasing it.
+     */
+    void release() {
+        if (buf.length <= MAX_POOLED_SIZE) {
+            reset();
+            POOL.offer(this);
+        }
+    }
+
+    /**
+     * Replaces the contents of this buffer with the given string.
+     *
+     * @param json
+     *            the string to encode into this buffer
+     */
+    void replaceWith(String json) {
+        reset();
+        byte[] bytes = json.getBytes(UTF_8);
+        write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Decodes the contents of this buffer.
+     *
+     * @return the contents of this buffer as a string
+     */
+    String toUtf8String() {
+        return new String(buf, 0, count, UTF_8);
+    }
+}
@@ -38,6 +38,7 @@ import com.vaadin.flow.internal.MessageDigestUtil;
 import com.vaadin.flow.server.ErrorEvent;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.communication.rpc.AttachExistingElementRpcHandler;
 import com.vaadin.flow.server.communication.rpc.AttachTemplateChildRpcHandler;
 import com.vaadin.flow.server.communication.rpc.EventRpcHandler;
@@ -75,6 +76,7 @@ public class ServerRpcHandler implements Serializable {
         private final int syncId;
         private final JsonObject json;
         private final boolean resynchronize;
+        private final boolean compactChangesSupported;
         private final int clientToServerMessageId;
 
         /**
@@ -115,6 +117,11 @@ public class ServerRpcHandler implements Serializable {
                 resynchronize = false;
             }
 
+            compactChangesSupported = json
+                    .hasKey(ApplicationConstants.COMPACT_CHANGES_SUPPORTED)
+                    && json.getBoolean(
+                            ApplicationConstants.COMPACT_CHANGES_SUPPORTED);
+
             if (json.hasKey(ApplicationConstants.CLIENT_TO_SERVER_ID)) {
                 clientToServerMessageId = (int) json
                         .getNumber(ApplicationConstants.CLIENT_TO_SERVER_ID);
@@ -163,6 +170,17 @@ public class ServerRpcHandler implements Serializable {
             return resynchronize;
         }
 
+        /**
+         * Checks if the client can decode state changes in the compact format.
+         *
+         * @return true if the client supports compact state changes, false
+         *         otherwise
+         * @since
+         */
+        public boolean isCompactChangesSupported() {
+            return compactChangesSupported;
+        }
+
         /**
          * Gets the id of the client to server message.
          *
@@ -188,6 +206,64 @@ public class ServerRpcHandler implements Serializable {
 
     }
 
+    /**
+     * An RPC message received from the client, parsed and hashed so that it
+     * can be processed later.
+     * <p>
+     * Parsing does not access any session or UI state, so it can be done
+     * before locking the session.
+     *
+     * @author Vaadin Ltd
+     * @since
+     */
+    public static class ParsedMessage implements Serializable {
+
+        private final RpcRequest rpcRequest;
+        private final byte[] messageHash;
+        private final String messageStart;
+
+        private ParsedMessage(String message, VaadinRequest request) {
+            rpcRequest = new RpcRequest(message, request);
+
+            String hashMessage = message;
+            if (hashMessage.length() > 64 * 1024) {
+                hashMessage = message.substring(0, 64 * 1024);
+            }
+            messageHash = MessageDigestUtil.sha256(hashMessage);
+
+            messageStart = message.length() > 1000 ? message.substring(0, 1000)
+                    : message;
+        }
+
+        /**
+         * Gets the parsed RPC request.
+         *
+         * @return the RPC request
+         */
+        public RpcRequest getRpcRequest() {
+            return rpcRequest;
+        }
+
+        /**
+         * Checks whether the CSRF token of the message matches the token of
+         * the given session. The token of a session never changes, so this
+         * check can be done without locking the session to reject invalid
+         * messages early. The token is still verified against the token of
+         * the receiving UI by
+         * {@link ServerRpcHandler#handleRpc(UI, ParsedMessage)}.
+         *
+         * @param session
+         *            the session the message was sent to
+         * @return <code>true</code> if the token is valid or CSRF protection
+         *         is disabled, <code>false</code> otherwise
+         * @see VaadinService#isCsrfTokenValid(VaadinSession, String)
+         */
+        public boolean isCsrfTokenValid(VaadinSession session) {
+            return VaadinService.isCsrfTokenValid(session,
+                    rpcRequest.getCsrfToken());
+        }
+    }
+
     private static final int MAX_BUFFER_SIZE = 64 * 1024;
 
     /**
@@ -242,14 +318,61 @@ public class ServerRpcHandler implements Serializable {
             throws IOException, InvalidUIDLSecurityKeyException {
         ui.getSession().setLastRequestTimestamp(System.currentTimeMillis());
 
+        ParsedMessage message = parseMessage(reader, request);
+        if (message != null) {
+            handleRpc(ui, message);
+        }
+    }
+
+    /**
+     * Reads and parses JSON containing zero or more serialized RPC calls
+     * without executing them. This does not access any session state, so it
+     * can be used before locking the session.
+     *
+     * @param reader
+     *            The {@link Reader} used to read the JSON.
+     * @param request
+     *            The request through which the RPC was received
+     * @return the parsed message, or <code>null</code> if the message is
+     *         empty
+     * @throws IOException
+     *             If reading the message fails.
+     * @since
+     */
+    public ParsedMessage parseMessage(Reader reader, VaadinRequest request)
+            throws IOException {
         String changeMessage = getMessage(reader);
 
         if (changeMessage == null || changeMessage.equals("")) {
             // The client sometimes sends empty messages, this is probably a bug
-            return;
+            return null;
         }
 
-        RpcRequest rpcRequest = new RpcRequest(changeMessage, request);
+        return new ParsedMessage(changeMessage, request);
+    }
+
+    /**
+     * Executes the RPC calls of a message parsed with
+     * {@link #parseMessage(Reader, VaadinRequest)}. The session of the UI
+     * must be locked.
+     * <p>
+     * The CSRF token of the message is verified against the token of the UI,
+     * see {@link VaadinService#isCsrfTokenValid(UI, String)}.
+     *
+     * @param ui
+     *            The {@link UI} receiving the calls. Cannot be null.
+     * @param message
+     *            the parsed message, not <code>null</code>
+     * @throws InvalidUIDLSecurityKeyException
+     *             If the received security key does not match the one stored in
+     *             the session.
+     * @since
+     */
+    public void handleRpc(UI ui, ParsedMessage message)
+            throws InvalidUIDLSecurityKeyException {
+        ui.getSession().setLastRequestTimestamp(System.currentTimeMillis());
+
+        RpcRequest rpcRequest = message.getRpcRequest();
 
         // Security: double cookie submission pattern unless disabled by
         // property
@@ -257,11 +380,11 @@ public class ServerRpcHandler implements Serializable {
             throw new InvalidUIDLSecurityKeyException();
         }
 
-        String hashMessage = changeMessage;
-        if (hashMessage.length() > 64 * 1024) {
-            hashMessage = changeMessage.substring(0, 64 * 1024);
+        if (rpcRequest.isCompactChangesSupported()) {
+            ui.getInternals().setCompactChangesSupported(true);
         }
-        byte[] messageHash = MessageDigestUtil.sha256(hashMessage);
+
+        byte[] messageHash = message.messageHash;
 
         int expectedId = ui.getInternals().getLastProcessedClientToServerId()
                 + 1;
@@ -300,10 +423,7 @@ public class ServerRpcHandler implements Serializable {
                  * implementing the resync that would thus hide most symptoms of
                  * the actual root cause bugs.
                  */
-                String messageStart = changeMessage;
-                if (messageStart.length() > 1000) {
-                    messageStart = messageStart.substring(0, 1000);
-                }
+                String messageStart = message.messageStart;
                 throw new UnsupportedOperationException(
                         "Unexpected message id from the client."
                                 + " Expected sync id: " + expectedId + ", got "
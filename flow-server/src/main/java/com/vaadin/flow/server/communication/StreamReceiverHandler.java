@@ -19,14 +19,20 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.Part;
 import java.io.BufferedWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.fileupload.FileItemIterator;
 import org.apache.commons.fileupload.FileItemStream;
@@ -36,6 +42,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.internal.Pair;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.server.ErrorEvent;
@@ -64,7 +71,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  */
 public class StreamReceiverHandler implements Serializable {
 
-    private static final int MAX_UPLOAD_BUFFER_SIZE = 4 * 1024;
+    private static final int MAX_UPLOAD_BUFFER_SIZE = 32 * 1024;
 
     /* Minimum interval which will be used for streaming progress events. */
     public static final int DEFAULT_STREAMING_PROGRESS_EVENT_INTERVAL_MS = 500;
@@ -92,6 +99,54 @@ public class StreamReceiverHandler implements Serializable {
         OK, ERROR
     }
 
+    /**
+     * Delivers the progress events of one upload to its stream variable
+     * without blocking the upload thread on the session lock. At most one
+     * delivery is queued at a time and it always delivers the latest event,
+     * so events produced while the session is busy are coalesced.
+     */
+    private static class ProgressEventDispatcher implements Serializable {
+        private final VaadinSession session;
+        private final UI ui;
+        private final StreamVariable streamVariable;
+        private final AtomicReference<StreamingProgressEventImpl> pendingEvent = new AtomicReference<>();
+
+        private ProgressEventDispatcher(VaadinSession session, UI ui,
+                StreamVariable streamVariable) {
+            this.session = session;
+            this.ui = ui;
+            this.streamVariable = streamVariable;
+        }
+
+        private void dispatch(StreamingProgressEventImpl event) {
+            if (pendingEvent.getAndSet(event) != null) {
+                // A queued delivery will pick up the new event
+                return;
+            }
+            if (ui == null) {
+                session.access(this::flush);
+                return;
+            }
+            try {
+                ui.access(this::flush);
+            } catch (UIDetachedException e) {
+                pendingEvent.set(null);
+                getLogger().debug("Dropping upload progress event", e);
+            }
+        }
+
+        /**
+         * Delivers the pending event, if any. Must be called while holding
+         * the session lock.
+         */
+        private void flush() {
+            StreamingProgressEventImpl event = pendingEvent.getAndSet(null);
+            if (event != null) {
+                streamVariable.onProgress(event);
+            }
+        }
+    }
+
     /**
      * Handle reception of incoming stream from the client.
      *
@@ -437,7 +492,9 @@ public class StreamReceiverHandler implements Serializable {
         }
 
         OutputStream out = null;
-        long totalBytes = 0;
+        UploadProgress upload = new UploadProgress(filename, type,
+                contentLength);
+        ProgressEventDispatcher progress = null;
         StreamingStartEventImpl startedEvent = new StreamingStartEventImpl(
                 filename, type, contentLength);
         boolean success = false;
@@ -462,34 +519,28 @@ public class StreamReceiverHandler implements Serializable {
                 throw new NoInputStreamException();
             }
 
-            final byte[] buffer = new byte[MAX_UPLOAD_BUFFER_SIZE];
-            long lastStreamingEvent = 0;
-            int bytesReadToBuffer;
-            do {
-                bytesReadToBuffer = in.read(buffer);
-                if (bytesReadToBuffer > 0) {
-                    out.write(buffer, 0, bytesReadToBuffer);
-                    totalBytes += bytesReadToBuffer;
-                }
-                if (listenProgress) {
-                    StreamingProgressEventImpl progressEvent = new StreamingProgressEventImpl(
-                            filename, type, contentLength, totalBytes);
-
-                    lastStreamingEvent = updateProgress(session, streamVariable,
-                            progressEvent, lastStreamingEvent,
-                            bytesReadToBuffer);
-                }
-                if (streamVariable.isInterrupted()) {
-                    throw new UploadInterruptedException();
-                }
-            } while (bytesReadToBuffer > 0);
+            if (listenProgress) {
+                progress = new ProgressEventDispatcher(session,
+                        UI.getCurrent(), streamVariable);
+            }
+            if (out instanceof FileOutputStream) {
+                transferToFile(in, (FileOutputStream) out, streamVariable,
+                        progress, upload);
+            } else {
+                copyToStream(in, out, streamVariable, progress, upload);
+            }
 
             // upload successful
             out.close();
             StreamVariable.StreamingEndEvent event = new StreamingEndEventImpl(
-                    filename, type, totalBytes);
+                    filename, type, upload.totalBytes);
             session.lock();
             try {
+                if (progress != null) {
+                    // Deliver the final progress event before the end event
+                    progress.pendingEvent.set(upload.createEvent());
+                    progress.flush();
+                }
                 streamVariable.streamingFinished(event);
             } finally {
                 session.unlock();
@@ -499,9 +550,10 @@ public class StreamReceiverHandler implements Serializable {
             // Download interrupted by application code
             tryToCloseStream(out);
             StreamVariable.StreamingErrorEvent event = new StreamingErrorEventImpl(
-                    filename, type, contentLength, totalBytes, e);
+                    filename, type, contentLength, upload.totalBytes, e);
             session.lock();
             try {
+                flushProgress(progress);
                 streamVariable.streamingFailed(event);
             } finally {
                 session.unlock();
@@ -512,8 +564,9 @@ public class StreamReceiverHandler implements Serializable {
             tryToCloseStream(out);
             session.lock();
             try {
+                flushProgress(progress);
                 StreamVariable.StreamingErrorEvent event = new StreamingErrorEventImpl(
-                        filename, type, contentLength, totalBytes, e);
+                        filename, type, contentLength, upload.totalBytes, e);
                 streamVariable.streamingFailed(event);
                 // throw exception for terminal to be handled (to be passed to
                 // terminalErrorHandler)
@@ -526,23 +579,125 @@ public class StreamReceiverHandler implements Serializable {
                 success ? UploadStatus.OK : UploadStatus.ERROR);
     }
 
-    private long updateProgress(VaadinSession session,
-            StreamVariable streamVariable,
-            StreamingProgressEventImpl progressEvent, long lastStreamingEvent,
-            int bytesReadToBuffer) {
-        long now = System.currentTimeMillis();
-        // to avoid excessive session locking and event storms,
-        // events are sent in intervals, or at the end of the file.
-        if (lastStreamingEvent + getProgressEventInterval() <= now
-                || bytesReadToBuffer <= 0) {
-            session.lock();
-            try {
-                streamVariable.onProgress(progressEvent);
-            } finally {
-                session.unlock();
+    private void copyToStream(InputStream in, OutputStream out,
+            StreamVariable streamVariable, ProgressEventDispatcher progress,
+            UploadProgress upload)
+            throws IOException, UploadInterruptedException {
+        final byte[] buffer = new byte[MAX_UPLOAD_BUFFER_SIZE];
+        int bytesReadToBuffer;
+        do {
+            bytesReadToBuffer = in.read(buffer);
+            if (bytesReadToBuffer > 0) {
+                out.write(buffer, 0, bytesReadToBuffer);
+                upload.totalBytes += bytesReadToBuffer;
+                updateProgress(progress, upload);
+            }
+            if (streamVariable.isInterrupted()) {
+                throw new UploadInterruptedException();
             }
+        } while (bytesReadToBuffer > 0);
+    }
+
+    private void transferToFile(InputStream in, FileOutputStream out,
+            StreamVariable streamVariable, ProgressEventDispatcher progress,
+            UploadProgress upload)
+            throws IOException, UploadInterruptedException {
+        // Let the file channel read directly from the request instead of
+        // copying through an intermediate buffer
+        FileChannel target = out.getChannel();
+        EndAwareChannel source = new EndAwareChannel(in);
+        long start = target.position();
+        do {
+            long transferred = target.transferFrom(source,
+                    start + upload.totalBytes, MAX_UPLOAD_BUFFER_SIZE);
+            if (transferred > 0) {
+                upload.totalBytes += transferred;
+                updateProgress(progress, upload);
+            }
+            if (streamVariable.isInterrupted()) {
+                throw new UploadInterruptedException();
+            }
+        } while (!source.endOfStream);
+        target.position(start + upload.totalBytes);
+    }
+
+    /**
+     * Channel reading from an input stream which remembers when the end of
+     * the stream has been reached, so that the stream is not read again after
+     * that.
+     */
+    private static class EndAwareChannel implements ReadableByteChannel {
+        private final ReadableByteChannel delegate;
+        private boolean endOfStream;
+
+        private EndAwareChannel(InputStream in) {
+            delegate = Channels.newChannel(in);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (endOfStream) {
+                return -1;
+            }
+            int bytes = delegate.read(dst);
+            if (bytes < 0) {
+                endOfStream = true;
+            }
+            return bytes;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private static void flushProgress(ProgressEventDispatcher progress) {
+        if (progress != null) {
+            progress.flush();
+        }
+    }
+
+    private void updateProgress(ProgressEventDispatcher progress,
+            UploadProgress upload) {
+        if (progress == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        // to avoid excessive session locking and event storms, events are
+        // sent in intervals. The final event is sent when the upload ends.
+        if (upload.lastProgressEvent + getProgressEventInterval() <= now) {
+            upload.lastProgressEvent = now;
+            progress.dispatch(upload.createEvent());
+        }
+    }
+
+    /**
+     * State of an upload in progress.
+     */
+    private static class UploadProgress implements Serializable {
+        private final String filename;
+        private final String type;
+        private final long contentLength;
+        private long totalBytes;
+        private long lastProgressEvent;
+
+        private UploadProgress(String filename, String type,
+                long contentLength) {
+            this.filename = filename;
+            this.type = type;
+            this.contentLength = contentLength;
+        }
+
+        private StreamingProgressEventImpl createEvent() {
+            return new StreamingProgressEventImpl(filename, type,
+                    contentLength, totalBytes);
         }
-        return now;
     }
 
     /**
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Serializable;
 
+import com.vaadin.flow.server.SeekableStreamSource;
 import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.server.StreamResourceWriter;
 import com.vaadin.flow.server.VaadinRequest;
@@ -31,6 +32,10 @@ import com.vaadin.flow.server.VaadinSession;
 
 /**
  * Handles {@link StreamResource} instances registered in {@link VaadinSession}.
+ * <p>
+ * Conditional requests are answered with "304 Not Modified" when the resource
+ * declares an entity tag or a modification time. Resources backed by a
+ * {@link SeekableStreamSource} also support single range requests.
  *
  * @author Vaadin Ltd
  * @since 1.0
@@ -38,6 +43,8 @@ import com.vaadin.flow.server.VaadinSession;
  */
 public class StreamResourceHandler implements Serializable {
 
+    private static final long[] UNSATISFIABLE_RANGE = new long[0];
+
     /**
      * Handle sending for a stream resource request.
      *
@@ -58,6 +65,10 @@ public class StreamResourceHandler implements Serializable {
             throws IOException {
 
         StreamResourceWriter writer;
+        SeekableStreamSource source;
+        long length;
+        long lastModified;
+        String eTag;
         session.lock();
         try {
             ServletContext context = ((VaadinServletRequest) request)
@@ -70,6 +81,10 @@ public class StreamResourceHandler implements Serializable {
                 throw new IOException(
                         "Stream resource produces null input stream");
             }
+            source = streamResource.getSource().orElse(null);
+            length = streamResource.getContentLength();
+            lastModified = toSeconds(streamResource.getLastModified());
+            eTag = streamResource.getETag();
         } catch (Exception exception) {
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             throw exception;
@@ -77,12 +92,161 @@ public class StreamResourceHandler implements Serializable {
         } finally {
             session.unlock();
         }
+
+        if (eTag != null) {
+            response.setHeader("ETag", eTag);
+        }
+        if (lastModified >= 0) {
+            response.setDateHeader("Last-Modified", lastModified);
+        }
+        if (isNotModified(request, eTag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        if (source != null) {
+            response.setHeader("Accept-Ranges", "bytes");
+            long[] range = getRange(request, length, eTag, lastModified);
+            if (range == UNSATISFIABLE_RANGE) {
+                response.setStatus(
+                        HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader("Content-Range", "bytes */" + length);
+                return;
+            }
+            if (range != null) {
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + range[0] + "-"
+                        + range[1] + "/" + length);
+                start = range[0];
+                length = range[1] - range[0] + 1;
+            }
+        }
+        if (length >= 0) {
+            response.setHeader("Content-Length", Long.toString(length));
+        }
+
         try (OutputStream outputStream = response.getOutputStream()) {
-            writer.accept(outputStream, session);
+            if (source != null) {
+                source.write(outputStream, start, length);
+            } else {
+                writer.accept(outputStream, session);
+            }
         } catch (Exception exception) {
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             throw exception;
         }
     }
 
+    private static long toSeconds(long timestamp) {
+        // HTTP dates do not have milliseconds
+        return timestamp < 0 ? -1L : timestamp - timestamp % 1000;
+    }
+
+    private static boolean isNotModified(VaadinRequest request, String eTag,
+            long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            // If-None-Match takes precedence over If-Modified-Since and uses
+            // the weak comparison function
+            return eTag != null && (ifNoneMatch.trim().equals("*")
+                    || containsTag(ifNoneMatch, weak(eTag)));
+        }
+        return lastModified >= 0
+                && getDateHeader(request, "If-Modified-Since") >= lastModified;
+    }
+
+    /**
+     * Gets the single range requested by the <code>Range</code> header as an
+     * array of first and last byte positions.
+     *
+     * @return the requested range, <code>null</code> if the whole resource
+     *         should be sent or {@link #UNSATISFIABLE_RANGE}
+     */
+    private static long[] getRange(VaadinRequest request, long length,
+            String eTag, long lastModified) {
+        String rangeHeader = request.getHeader("Range");
+        if (rangeHeader == null || !"GET".equals(request.getMethod())
+                || !isIfRangeSatisfied(request, eTag, lastModified)) {
+            return null;
+        }
+        rangeHeader = rangeHeader.trim();
+        if (!rangeHeader.startsWith("bytes=")
+                || rangeHeader.indexOf(',') != -1) {
+            // Unsupported unit or multiple ranges: send everything
+            return null;
+        }
+        String spec = rangeHeader.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash == -1) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffixLength = Long.parseLong(last);
+                if (suffixLength <= 0 || length == 0) {
+                    return UNSATISFIABLE_RANGE;
+                }
+                start = Math.max(0, length - suffixLength);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                if (!last.isEmpty() && Long.parseLong(last) < start) {
+                    // Invalid range: ignore the header
+                    return null;
+                }
+                if (start >= length) {
+                    return UNSATISFIABLE_RANGE;
+                }
+                end = last.isEmpty() ? length - 1
+                        : Math.min(Long.parseLong(last), length - 1);
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isIfRangeSatisfied(VaadinRequest request,
+            String eTag, long lastModified) {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // Strong comparison: weak tags never match
+            return eTag != null && !eTag.startsWith("W/")
+                    && ifRange.equals(eTag);
+        }
+        return lastModified >= 0
+                && getDateHeader(request, "If-Range") == lastModified;
+    }
+
+    private static boolean containsTag(String tags, String tag) {
+        for (String candidate : tags.split(",")) {
+            if (weak(candidate.trim()).equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String weak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static long getDateHeader(VaadinRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1L;
+        }
+    }
+
 }
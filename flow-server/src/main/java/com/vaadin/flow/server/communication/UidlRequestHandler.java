@@ -16,9 +16,10 @@
 
 package com.vaadin.flow.server.communication;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.StringWriter;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -37,6 +38,7 @@ import com.vaadin.flow.server.VaadinResponse;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.communication.ServerRpcHandler.InvalidUIDLSecurityKeyException;
+import com.vaadin.flow.server.communication.ServerRpcHandler.ParsedMessage;
 import com.vaadin.flow.server.communication.ServerRpcHandler.ResynchronizationRequiredException;
 import com.vaadin.flow.shared.JsonConstants;
 
@@ -59,6 +61,15 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  * Uses {@link ServerRpcHandler} to execute client-to-server RPC invocations and
  * {@link UidlWriter} to write state changes and client RPC calls back to the
  * client.
+ * <p>
+ * The request body is read, parsed, hashed and checked for a valid CSRF token
+ * before the session is locked, so that slow clients or large messages do not
+ * block other requests to the same session. Only executing the invocations and
+ * writing the response is done while holding the session lock. Subclasses
+ * overriding
+ * {@link #synchronizedHandleRequest(VaadinSession, VaadinRequest, VaadinResponse)}
+ * are handled like any {@link SynchronizedRequestHandler} instead, i.e. the
+ * overridden method is called for each request while holding the session lock.
  *
  * @author Vaadin Ltd
  * @since 1.0
@@ -67,7 +78,9 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         implements SessionExpiredHandler {
 
 
-    private ServerRpcHandler rpcHandler;
+    private volatile ServerRpcHandler rpcHandler;
+
+    private final boolean synchronizedHandlingOverridden = isSynchronizedHandlingOverridden();
 
     public static final Pattern HASH_PATTERN = Pattern.compile("window.location.hash ?= ?'(.*?)'");
     public static final Pattern URL_PATTERN = Pattern.compile("^(.*)#(.+)$");
@@ -96,66 +109,161 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         return new ServerRpcHandler();
     }
 
+    @Override
+    public boolean handleRequest(VaadinSession session, VaadinRequest request,
+            VaadinResponse response) throws IOException {
+        if (synchronizedHandlingOverridden) {
+            return super.handleRequest(session, request, response);
+        }
+        if (!canHandleRequest(request)) {
+            return false;
+        }
+
+        ParsedMessage message;
+        try {
+            message = getRpcHandler().parseMessage(request.getReader(),
+                    request);
+        } catch (JsonException e) {
+            getLogger().error("Error parsing JSON from request", e);
+            // Refresh on client side
+            writeRefresh(response);
+            return true;
+        }
+        if (message != null && !message.isCsrfTokenValid(session)) {
+            getLogger().warn("Invalid security key received from {}",
+                    request.getRemoteHost());
+            // Refresh on client side
+            writeRefresh(response);
+            return true;
+        }
+
+        ResponseBuffer buffer = ResponseBuffer.acquire();
+        try {
+            session.lock();
+            try {
+                createResponse(session, request, message, false, buffer);
+            } finally {
+                session.unlock();
+            }
+
+            // Write the response only after releasing the lock so that a slow
+            // client does not block other requests and access tasks
+            commitJsonResponse(response, buffer);
+        } finally {
+            buffer.release();
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Reads and handles the message of the request while holding the session
+     * lock. This is only used for requests handled by
+     * {@link #handleRequest(VaadinSession, VaadinRequest, VaadinResponse)} if
+     * a subclass overrides this method, since the message is otherwise read
+     * and verified before locking the session.
+     */
     @Override
     public boolean synchronizedHandleRequest(VaadinSession session,
             VaadinRequest request, VaadinResponse response) throws IOException {
+        ResponseBuffer buffer = ResponseBuffer.acquire();
+        try {
+            createResponse(session, request, null, true, buffer);
+            commitJsonResponse(response, buffer);
+        } finally {
+            buffer.release();
+        }
+        return true;
+    }
+
+    private boolean isSynchronizedHandlingOverridden() {
+        try {
+            return getClass()
+                    .getMethod("synchronizedHandleRequest", VaadinSession.class,
+                            VaadinRequest.class, VaadinResponse.class)
+                    .getDeclaringClass() != UidlRequestHandler.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Handles the RPC invocations of the request and writes the UTF-8 encoded
+     * response into the given buffer while the session is locked.
+     */
+    private void createResponse(VaadinSession session, VaadinRequest request,
+            ParsedMessage parsedMessage, boolean readMessage,
+            ResponseBuffer buffer) throws IOException {
         UI uI = session.getService().findUI(request);
         if (uI == null) {
             // This should not happen but it will if the UI has been closed. We
             // really don't want to see it in the server logs though
-            commitJsonResponse(response,
-                    VaadinService.createUINotFoundJSON(false));
-            return true;
+            buffer.replaceWith(VaadinService.createUINotFoundJSON(false));
+            return;
         }
 
-        StringWriter stringWriter = new StringWriter();
+        Writer writer = new OutputStreamWriter(buffer, UTF_8);
 
         try {
-            getRpcHandler(session).handleRpc(uI, request.getReader(), request);
-            writeUidl(uI, stringWriter, false);
+            if (readMessage) {
+                getRpcHandler().handleRpc(uI, request.getReader(), request);
+            } else if (parsedMessage != null) {
+                getRpcHandler().handleRpc(uI, parsedMessage);
+            } else {
+                session.setLastRequestTimestamp(System.currentTimeMillis());
+            }
+            writeUidl(uI, writer, false);
         } catch (JsonException e) {
             getLogger().error("Error writing JSON to response", e);
-            // Refresh on client side
-            writeRefresh(response);
-            return true;
+            // Refresh on client side. Anything still buffered in the writer
+            // is dropped together with it.
+            buffer.replaceWith(createRefreshJson());
+            return;
         } catch (InvalidUIDLSecurityKeyException e) {
             getLogger().warn("Invalid security key received from {}",
                     request.getRemoteHost());
             // Refresh on client side
-            writeRefresh(response);
-            return true;
+            buffer.replaceWith(createRefreshJson());
+            return;
         } catch (ResynchronizationRequiredException e) { // NOSONAR
             // Resync on the client side
-            writeUidl(uI, stringWriter, true);
-        } finally {
-            stringWriter.close();
+            writeUidl(uI, writer, true);
         }
+        writer.flush();
+    }
 
-        commitJsonResponse(response, stringWriter.toString());
-        return true;
+    private static String createRefreshJson() {
+        return VaadinService.createCriticalNotificationJSON(null, null, null,
+                null);
     }
 
     private void writeRefresh(VaadinResponse response) throws IOException {
-        String json = VaadinService.createCriticalNotificationJSON(null, null,
-                null, null);
-        commitJsonResponse(response, json);
+        commitJsonResponse(response, createRefreshJson());
     }
 
     void writeUidl(UI ui, Writer writer, boolean resync)
             throws IOException {
-        JsonObject uidl = createUidl(ui, resync);
-
+        // some dirt to prevent cross site scripting
+        writer.write("for(;;);[");
         if (ui instanceof JavaScriptBootstrapUI) {
+            // The MPR hash fragment fix needs to rewrite the whole response,
+            // so it cannot be streamed
+            JsonObject uidl = createUidl(ui, resync);
             removeOffendingMprHashFragment(uidl);
+            writer.write(uidl.toJson());
+        } else {
+            createUidlWriter().writeUidl(ui, false, resync, writer);
         }
-
-        // some dirt to prevent cross site scripting
-        String responseString = "for(;;);[" + uidl.toJson() + "]";
-        writer.write(responseString);
+        writer.write("]");
     }
 
     JsonObject createUidl(UI ui, boolean resync) {
-        return new UidlWriter().createUidl(ui, false, resync);
+        return createUidlWriter().createUidl(ui, false, resync);
+    }
+
+    UidlWriter createUidlWriter() {
+        return new UidlWriter();
     }
 
     private static final Logger getLogger() {
@@ -183,12 +291,18 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         return true;
     }
 
-    private ServerRpcHandler getRpcHandler(VaadinSession session) {
-        session.checkHasLock();
-        if (rpcHandler == null) {
-            rpcHandler = createRpcHandler();
+    private ServerRpcHandler getRpcHandler() {
+        ServerRpcHandler handler = rpcHandler;
+        if (handler == null) {
+            synchronized (this) {
+                handler = rpcHandler;
+                if (handler == null) {
+                    handler = createRpcHandler();
+                    rpcHandler = handler;
+                }
+            }
         }
-        return rpcHandler;
+        return handler;
     }
 
     /**
@@ -205,14 +319,8 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
      */
     public static void commitJsonResponse(VaadinResponse response, String json)
             throws IOException {
-        response.setContentType(JsonConstants.JSON_CONTENT_TYPE);
-
-        // Ensure that the browser does not cache UIDL responses.
-        // iOS 6 Safari requires this (#9732)
-        response.setHeader("Cache-Control", "no-cache");
-
         byte[] b = json.getBytes(UTF_8);
-        response.setContentLength(b.length);
+        setJsonResponseHeaders(response, b.length);
 
         OutputStream outputStream = response.getOutputStream();
         outputStream.write(b);
@@ -220,6 +328,39 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         outputStream.flush();
     }
 
+    /**
+     * Commit the JSON response that has already been encoded as UTF-8 into the
+     * given buffer. The buffer contents are written to the response as is,
+     * without making an intermediate copy.
+     *
+     * @param response
+     *            The response to write to
+     * @param json
+     *            The buffer containing the UTF-8 encoded JSON to write
+     * @throws IOException
+     *             If there was an exception while writing to the output
+     */
+    public static void commitJsonResponse(VaadinResponse response,
+            ByteArrayOutputStream json) throws IOException {
+        setJsonResponseHeaders(response, json.size());
+
+        OutputStream outputStream = response.getOutputStream();
+        json.writeTo(outputStream);
+        // NOTE GateIn requires the buffers to be flushed to work
+        outputStream.flush();
+    }
+
+    private static void setJsonResponseHeaders(VaadinResponse response,
+            int contentLength) {
+        response.setContentType(JsonConstants.JSON_CONTENT_TYPE);
+
+        // Ensure that the browser does not cache UIDL responses.
+        // iOS 6 Safari requires this (#9732)
+        response.setHeader("Cache-Control", "no-cache");
+
+        response.setContentLength(contentLength);
+    }
+
     private void removeOffendingMprHashFragment(JsonObject uidl) {
         if (!uidl.hasKey(EXECUTE)) {
             return;
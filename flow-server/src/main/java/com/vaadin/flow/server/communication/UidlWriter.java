@@ -19,6 +19,8 @@ package com.vaadin.flow.server.communication;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
@@ -43,10 +45,12 @@ import com.vaadin.flow.component.internal.DependencyList;
 import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
 import com.vaadin.flow.component.internal.UIInternals;
 import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.internal.ConstantPool;
 import com.vaadin.flow.internal.JsonCodec;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.internal.change.CompactChangeEncoder;
 import com.vaadin.flow.internal.change.NodeAttachChange;
 import com.vaadin.flow.internal.change.NodeChange;
 import com.vaadin.flow.internal.nodefeature.ComponentMapping;
@@ -66,6 +70,7 @@ import elemental.json.Json;
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
 import elemental.json.JsonValue;
+import elemental.json.impl.JsonUtil;
 
 /**
  * Serializes pending server-side changes to UI state to JSON. This includes
@@ -118,6 +123,115 @@ public class UidlWriter implements Serializable {
 
     }
 
+    /**
+     * Receives the parts of a UIDL response in the order they are produced.
+     * Allows the same response logic to either build a {@link JsonObject} or
+     * write the response directly to a stream.
+     */
+    private interface UidlOutput {
+
+        void put(String key, JsonValue value) throws IOException;
+
+        void startChanges(String key);
+
+        void addChange(JsonValue change) throws IOException;
+
+        void endChanges() throws IOException;
+    }
+
+    /**
+     * Collects a UIDL response into a {@link JsonObject}.
+     */
+    private static class JsonObjectOutput implements UidlOutput {
+        private final JsonObject response = Json.createObject();
+        private final JsonArray stateChanges = Json.createArray();
+        private String changesKey;
+
+        @Override
+        public void put(String key, JsonValue value) {
+            response.put(key, value);
+        }
+
+        @Override
+        public void startChanges(String key) {
+            changesKey = key;
+        }
+
+        @Override
+        public void addChange(JsonValue change) {
+            stateChanges.set(stateChanges.length(), change);
+        }
+
+        @Override
+        public void endChanges() {
+            if (stateChanges.length() != 0) {
+                response.put(changesKey, stateChanges);
+            }
+        }
+    }
+
+    /**
+     * Writes a UIDL response as a JSON object directly to a {@link Writer},
+     * without keeping the serialized changes in memory.
+     */
+    private static class StreamingOutput implements UidlOutput {
+        private final Writer writer;
+        private boolean hasKeys;
+        private String changesKey;
+        private boolean hasChanges;
+
+        private StreamingOutput(Writer writer) {
+            this.writer = writer;
+        }
+
+        private void start() throws IOException {
+            writer.write('{');
+        }
+
+        private void end() throws IOException {
+            writer.write('}');
+        }
+
+        private void writeKey(String key) throws IOException {
+            if (hasKeys) {
+                writer.write(',');
+            }
+            hasKeys = true;
+            writer.write(JsonUtil.quote(key));
+            writer.write(':');
+        }
+
+        @Override
+        public void put(String key, JsonValue value) throws IOException {
+            writeKey(key);
+            writer.write(value.toJson());
+        }
+
+        @Override
+        public void startChanges(String key) {
+            changesKey = key;
+        }
+
+        @Override
+        public void addChange(JsonValue change) throws IOException {
+            if (hasChanges) {
+                writer.write(',');
+            } else {
+                writeKey(changesKey);
+                writer.write('[');
+                hasChanges = true;
+            }
+            writer.write(change.toJson());
+        }
+
+        @Override
+        public void endChanges() throws IOException {
+            if (hasChanges) {
+                writer.write(']');
+            }
+        }
+    }
+
     /**
      * Creates a JSON object containing all pending changes to the given UI.
      *
@@ -131,8 +245,49 @@ public class UidlWriter implements Serializable {
      * @return JSON object containing the UIDL response
      */
     public JsonObject createUidl(UI ui, boolean async, boolean resync) {
-        JsonObject response = Json.createObject();
+        JsonObjectOutput output = new JsonObjectOutput();
+        try {
+            collectUidl(ui, async, resync, output);
+        } catch (IOException e) {
+            // Never thrown when collecting into a JSON object
+            throw new UncheckedIOException(e);
+        }
+        return output.response;
+    }
+
+    /**
+     * Writes a JSON object containing all pending changes to the given UI
+     * directly to the given writer.
+     * <p>
+     * The produced JSON is equivalent to the result of
+     * {@link #createUidl(UI, boolean, boolean)}, but state changes are
+     * serialized one at a time as they are collected from the state tree
+     * instead of first being gathered into an in-memory JSON structure.
+     *
+     * @param ui
+     *            The {@link UI} whose changes to write
+     * @param async
+     *            True if this message is sent by the server asynchronously,
+     *            false if it is a response to a client message
+     * @param resync
+     *            True iff the client should be asked to resynchronize
+     * @param writer
+     *            the writer to write the UIDL response to, not
+     *            <code>null</code>
+     * @throws IOException
+     *             if writing to the writer fails
+     */
+    public void writeUidl(UI ui, boolean async, boolean resync, Writer writer)
+            throws IOException {
+        StreamingOutput output = new StreamingOutput(
+                Objects.requireNonNull(writer));
+        output.start();
+        collectUidl(ui, async, resync, output);
+        output.end();
+    }
 
+    private void collectUidl(UI ui, boolean async, boolean resync,
+            UidlOutput output) throws IOException {
         UIInternals uiInternals = ui.getInternals();
 
         VaadinSession session = ui.getSession();
@@ -149,14 +304,15 @@ public class UidlWriter implements Serializable {
                 ? uiInternals.getServerSyncId()
                 : -1;
 
-        response.put(ApplicationConstants.SERVER_SYNC_ID, syncId);
+        output.put(ApplicationConstants.SERVER_SYNC_ID, Json.create(syncId));
         if (resync) {
-            response.put(ApplicationConstants.RESYNCHRONIZE_ID, true);
+            output.put(ApplicationConstants.RESYNCHRONIZE_ID,
+                    Json.create(true));
         }
         int nextClientToServerMessageId = uiInternals
                 .getLastProcessedClientToServerId() + 1;
-        response.put(ApplicationConstants.CLIENT_TO_SERVER_ID,
-                nextClientToServerMessageId);
+        output.put(ApplicationConstants.CLIENT_TO_SERVER_ID,
+                Json.create(nextClientToServerMessageId));
 
         SystemMessages messages = ui.getSession().getService()
                 .getSystemMessages(ui.getLocale(), null);
@@ -164,36 +320,30 @@ public class UidlWriter implements Serializable {
         JsonObject meta = new MetadataWriter().createMetadata(ui, false, async,
                 messages);
         if (meta.keys().length > 0) {
-            response.put("meta", meta);
+            output.put("meta", meta);
         }
 
-        JsonArray stateChanges = Json.createArray();
+        encodeChanges(ui, resync, output);
 
-        encodeChanges(ui, stateChanges);
-
-        populateDependencies(response, uiInternals.getDependencyList(),
+        populateDependencies(output, uiInternals.getDependencyList(),
                 new ResolveContext(service, session.getBrowser()));
 
         if (uiInternals.getConstantPool().hasNewConstants()) {
-            response.put("constants",
+            output.put("constants",
                     uiInternals.getConstantPool().dumpConstants());
         }
-        if (stateChanges.length() != 0) {
-            response.put("changes", stateChanges);
-        }
 
         List<PendingJavaScriptInvocation> executeJavaScriptList = uiInternals
                 .dumpPendingJavaScriptInvocations();
         if (!executeJavaScriptList.isEmpty()) {
-            response.put(JsonConstants.UIDL_KEY_EXECUTE,
+            output.put(JsonConstants.UIDL_KEY_EXECUTE,
                     encodeExecuteJavaScriptList(executeJavaScriptList));
         }
         if (ui.getSession().getService().getDeploymentConfiguration()
                 .isRequestTiming()) {
-            response.put("timings", createPerformanceData(ui));
+            output.put("timings", createPerformanceData(ui));
         }
         uiInternals.incrementServerId();
-        return response;
     }
 
     /**
@@ -210,8 +360,9 @@ public class UidlWriter implements Serializable {
         return createUidl(ui, async, false);
     }
 
-    private static void populateDependencies(JsonObject response,
-            DependencyList dependencyList, ResolveContext context) {
+    private static void populateDependencies(UidlOutput output,
+            DependencyList dependencyList, ResolveContext context)
+            throws IOException {
         Collection<Dependency> pendingSendToClient = dependencyList
                 .getPendingSendToClient();
 
@@ -222,9 +373,10 @@ public class UidlWriter implements Serializable {
         }
 
         if (!pendingSendToClient.isEmpty()) {
-            groupDependenciesByLoadMode(pendingSendToClient, context)
-                    .forEach((loadMode, dependencies) -> response
-                            .put(loadMode.name(), dependencies));
+            for (Map.Entry<LoadMode, JsonArray> entry : groupDependenciesByLoadMode(
+                    pendingSendToClient, context).entrySet()) {
+                output.put(entry.getKey().name(), entry.getValue());
+            }
         }
         dependencyList.clearPendingSendToClient();
     }
@@ -378,28 +530,58 @@ public class UidlWriter implements Serializable {
      *
      * @param ui
      *            the UI
-     * @param stateChanges
-     *            a JSON array to put state changes into
+     * @param resync
+     *            whether the client is resynchronized
+     * @param output
+     *            the output to write state changes to
      * @see StateTree#runExecutionsBeforeClientResponse()
      */
-    private void encodeChanges(UI ui, JsonArray stateChanges) {
+    private void encodeChanges(UI ui, boolean resync, UidlOutput output)
+            throws IOException {
         UIInternals uiInternals = ui.getInternals();
         StateTree stateTree = uiInternals.getStateTree();
 
         stateTree.runExecutionsBeforeClientResponse();
 
-        Set<Class<? extends Component>> componentsWithDependencies = new LinkedHashSet<>();
-        stateTree.collectChanges(change -> {
-            if (attachesComponent(change)) {
-                ComponentMapping.getComponent(change.getNode())
-                        .ifPresent(component -> addComponentHierarchy(ui,
-                                componentsWithDependencies, component));
+        ConstantPool constantPool = uiInternals.getConstantPool();
+        CompactChangeEncoder compactEncoder;
+        // Only clients that have announced support can decode compact changes
+        if (uiInternals.isCompactChangesSupported()
+                && ui.getSession().getService().getDeploymentConfiguration()
+                        .isCompactStateChanges()) {
+            compactEncoder = uiInternals.getCompactChangeEncoder();
+            if (resync) {
+                // The client starts over with an empty table of map keys
+                compactEncoder.reset();
             }
+            output.startChanges(JsonConstants.UIDL_KEY_COMPACT_CHANGES);
+        } else {
+            compactEncoder = null;
+            output.startChanges("changes");
+        }
 
-            // Encode the actual change
-            stateChanges.set(stateChanges.length(),
-                    change.toJson(uiInternals.getConstantPool()));
-        });
+        Set<Class<? extends Component>> componentsWithDependencies = new LinkedHashSet<>();
+        try {
+            stateTree.collectChanges(change -> {
+                if (attachesComponent(change)) {
+                    ComponentMapping.getComponent(change.getNode())
+                            .ifPresent(component -> addComponentHierarchy(ui,
+                                    componentsWithDependencies, component));
+                }
+
+                // Encode the actual change
+                try {
+                    output.addChange(compactEncoder != null
+                            ? compactEncoder.encode(change, constantPool)
+                            : change.toJson(constantPool));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        output.endChanges();
 
         componentsWithDependencies
                 .forEach(uiInternals::addComponentDependencies);
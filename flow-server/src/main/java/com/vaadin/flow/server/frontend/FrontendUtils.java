@@ -53,6 +53,7 @@ import elemental.json.JsonObject;
 
 import static com.vaadin.flow.server.InitParameters.SERVLET_PARAMETER_STATISTICS_JSON;
 import static com.vaadin.flow.server.Constants.STATISTICS_JSON_DEFAULT;
+import static com.vaadin.flow.server.Constants.TEMPLATE_INDEX_JSON;
 import static com.vaadin.flow.server.Constants.VAADIN_MAPPING;
 import static com.vaadin.flow.server.Constants.VAADIN_SERVLET_RESOURCES;
 import static java.lang.String.format;
@@ -427,6 +428,41 @@ public class FrontendUtils {
                 : null;
     }
 
+    /**
+     * Gets the content of the template index generated by the production build
+     * next to the <code>stats.json</code> file.
+     * <p>
+     * The template index is only read from the classpath, so {@code null} is
+     * returned when the statistics are served by webpack or from an external
+     * URL.
+     *
+     * @param service
+     *            the vaadin service
+     * @return the content of the template index file as a string, null if not
+     *         found.
+     * @throws IOException
+     *             on error when reading file
+     */
+    public static String getTemplateIndexContent(VaadinService service)
+            throws IOException {
+        DeploymentConfiguration config = service.getDeploymentConfiguration();
+        if ((!config.isProductionMode() && config.enableDevServer())
+                || config.isStatsExternal()) {
+            return null;
+        }
+        String index = config
+                .getStringProperty(SERVLET_PARAMETER_STATISTICS_JSON,
+                        VAADIN_SERVLET_RESOURCES + STATISTICS_JSON_DEFAULT)
+                // Remove absolute
+                .replaceFirst("^/", "")
+                .replaceFirst("[^/]*$", TEMPLATE_INDEX_JSON);
+        InputStream content = service.getClassLoader()
+                .getResourceAsStream(index);
+        return content != null
+                ? IOUtils.toString(content, StandardCharsets.UTF_8)
+                : null;
+    }
+
     /**
      * Gets the content of the <code>frontend/index.html</code> file which is
      * served by webpack-dev-server in dev-mode and read from classpath in
@@ -128,6 +128,12 @@ public class ApplicationConstants implements Serializable {
      */
     public static final String RESYNCHRONIZE_ID = "resynchronize";
 
+    /**
+     * The name of the parameter used by the client to tell that it can decode
+     * state changes in the compact format.
+     */
+    public static final String COMPACT_CHANGES_SUPPORTED = "compactChanges";
+
     /**
      * Content type to use for text/html responses (should always be UTF-8).
      */
@@ -16,6 +16,9 @@
 package com.vaadin.flow.shared;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import com.vaadin.flow.component.page.Page;
 import com.vaadin.flow.dom.DebouncePhase;
@@ -124,6 +127,34 @@ public class JsonConstants implements Serializable {
      */
     public static final String CHANGE_PUT_NODE_VALUE = "nodeValue";
 
+    /**
+     * Key used for state changes encoded in the compact format in UIDL
+     * messages.
+     */
+    public static final String UIDL_KEY_COMPACT_CHANGES = "compactChanges";
+
+    /**
+     * The keys of a change in the order their values are written in the
+     * compact change format. A compact change is a JSON array where the first
+     * item is a bit mask telling which of these keys are present, followed by
+     * the values of the present keys in this order.
+     */
+    public static final List<String> COMPACT_CHANGE_KEYS = Collections
+            .unmodifiableList(Arrays.asList(CHANGE_NODE, CHANGE_TYPE,
+                    CHANGE_FEATURE, CHANGE_FEATURE_TYPE, CHANGE_MAP_KEY,
+                    CHANGE_PUT_VALUE, CHANGE_PUT_NODE_VALUE,
+                    CHANGE_SPLICE_INDEX, CHANGE_SPLICE_REMOVE,
+                    CHANGE_SPLICE_ADD, CHANGE_SPLICE_ADD_NODES));
+
+    /**
+     * The change types in the compact change format, where the type of a change
+     * is encoded as the index in this list.
+     */
+    public static final List<String> COMPACT_CHANGE_TYPES = Collections
+            .unmodifiableList(Arrays.asList(CHANGE_TYPE_NOOP,
+                    CHANGE_TYPE_ATTACH, CHANGE_TYPE_DETACH, CHANGE_TYPE_SPLICE,
+                    CHANGE_TYPE_PUT, CHANGE_TYPE_REMOVE, CHANGE_TYPE_CLEAR));
+
     /**
      * Key holding the type in of messages sent from the client.
      */
@@ -11,6 +11,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import elemental.json.Json;
+import elemental.json.JsonArray;
 import elemental.json.JsonObject;
 import static com.vaadin.flow.server.Constants.VAADIN_SERVLET_RESOURCES;
 
@@ -85,4 +86,42 @@ public class BundleParserTest {
                 "nats://server:port", natsElement.attr("placeholder"));
 
     }
+
+    @Test
+    public void createTemplateIndex_templatesParseAsFromStatistics() {
+        JsonObject index = BundleParser.createTemplateIndex(stats);
+
+        Assert.assertEquals(stats.getString("hash"), index.getString("hash"));
+        JsonArray templates = index.getArray("templates");
+        Assert.assertTrue("Index should contain modules",
+                templates.length() > 0);
+        for (int i = 0; i < templates.length(); i++) {
+            String name = templates.getObject(i).getString("name");
+            String statsSource = BundleParser.getSourceFromStatistics(name,
+                    stats);
+            String indexSource = BundleParser.getSourceFromTemplateIndex(name,
+                    index);
+            Assert.assertNotNull("Source expected in index for " + name,
+                    indexSource);
+            Assert.assertEquals("Template differs for " + name,
+                    BundleParser.parseTemplateElement(name, statsSource)
+                            .outerHtml(),
+                    BundleParser.parseTemplateElement(name, indexSource)
+                            .outerHtml());
+        }
+        Assert.assertTrue("Index should be smaller than the statistics",
+                index.toJson().length() < stats.toJson().length());
+    }
+
+    @Test
+    public void createTemplateIndex_frontendPrefix_sourcesShouldBeFound() {
+        JsonObject index = BundleParser.createTemplateIndex(stats);
+
+        Assert.assertNotNull("Source expected in template index",
+                BundleParser.getSourceFromTemplateIndex(
+                        "./frontend/src/hello-world.js", index));
+        Assert.assertNull("Source not expected in template index",
+                BundleParser.getSourceFromTemplateIndex("./src/missing.js",
+                        index));
+    }
 }
@@ -316,6 +316,26 @@ public class NpmTemplateParserTest {
                         "Tag name doesn't match the JS module name")));
     }
 
+    @Test
+    public void productionMode_templateIndexExists_templateReadFromIndex() {
+        Mockito.when(configuration.isProductionMode()).thenReturn(true);
+        Mockito.when(configuration.getStringProperty(Mockito.anyString(),
+                Mockito.anyString()))
+                .thenReturn(VAADIN_SERVLET_RESOURCES + "config/index/stats.json");
+
+        // There is no stats.json next to the index, so the template can only
+        // be found from the index
+        TemplateParser instance = new NpmTemplateParser();
+        TemplateParser.TemplateData templateContent = instance
+                .getTemplateContent(HelloWorld.class, "hello-world", service);
+
+        Element greeting = templateContent.getTemplateElement()
+                .getElementById("greeting");
+        Assert.assertNotNull("Template should have been read from the index",
+                greeting);
+        Assert.assertEquals("Hello from the template index", greeting.text());
+    }
+
     @Tag("likeable-element")
     @JsModule("./frontend/LikeableElement.js")
     public class Likeable extends PolymerTemplate<TemplateModel> {
@@ -37,6 +37,8 @@ import com.vaadin.flow.internal.NullOwner;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.internal.nodefeature.ComponentMapping;
 import com.vaadin.flow.internal.nodefeature.ElementAttributeMap;
+import com.vaadin.flow.internal.nodefeature.ElementChildrenList;
+import com.vaadin.flow.internal.nodefeature.ElementClassList;
 import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
 import com.vaadin.flow.internal.nodefeature.ElementListenersTest;
 import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
@@ -2090,7 +2092,7 @@ public class ElementTest extends AbstractNodeTest {
         div.setAttribute("pin", "");
 
         Assert.assertEquals(
-                "<div pin foo=\"bar\" style=\"width:20px\" class=\"cls\"></div>",
+                "<div foo=\"bar\" pin style=\"width:20px\" class=\"cls\"></div>",
                 div.getOuterHTML());
     }
 
@@ -2338,6 +2340,46 @@ public class ElementTest extends AbstractNodeTest {
                         .isPresent());
     }
 
+    @Test
+    public void readClassAndStyleAttributes_noFeatureInitialized() {
+        Element element = ElementFactory.createDiv();
+
+        element.getAttribute("class");
+        element.hasAttribute("class");
+        element.getAttribute("style");
+        element.hasAttribute("style");
+        element.getAttributeNames().collect(Collectors.toList());
+
+        Assert.assertFalse(
+                "reading the class attribute shouldn't initialize a class list feature",
+                element.getNode()
+                        .getFeatureIfInitialized(ElementClassList.class)
+                        .isPresent());
+        Assert.assertFalse(
+                "reading the style attribute shouldn't initialize a style feature",
+                element.getNode()
+                        .getFeatureIfInitialized(ElementStylePropertyMap.class)
+                        .isPresent());
+    }
+
+    @Test
+    public void removeMissingChild_noFeatureInitialized() {
+        Element element = ElementFactory.createDiv();
+
+        try {
+            element.removeChild(ElementFactory.createDiv());
+            Assert.fail("Removing a missing child should throw");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+
+        Assert.assertFalse(
+                "removing a missing child shouldn't initialize a children feature",
+                element.getNode()
+                        .getFeatureIfInitialized(ElementChildrenList.class)
+                        .isPresent());
+    }
+
     @Test
     public void virtualChildren_areIdentifiedAsSuch() {
         Element parent = ElementFactory.createDiv();
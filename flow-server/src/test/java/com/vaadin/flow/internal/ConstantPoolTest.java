@@ -15,13 +15,12 @@
  */
 package com.vaadin.flow.internal;
 
+import org.apache.commons.lang3.SerializationUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
-import com.vaadin.flow.internal.ConstantPool;
-import com.vaadin.flow.internal.ConstantPoolKey;
-
 import elemental.json.Json;
+import elemental.json.JsonArray;
 import elemental.json.JsonObject;
 
 public class ConstantPoolTest {
@@ -74,4 +73,78 @@ public class ConstantPoolTest {
         Assert.assertNotEquals(constantId, otherId);
         Assert.assertTrue(constantPool.hasNewConstants());
     }
+
+    @Test
+    public void sameStructure_differentKeyOrder_sameId() {
+        JsonObject first = Json.createObject();
+        first.put("foo", 1);
+        first.put("bar", Json.createArray());
+        JsonObject second = Json.createObject();
+        second.put("bar", Json.createArray());
+        second.put("foo", 1);
+
+        String constantId = constantPool
+                .getConstantId(new ConstantPoolKey(first));
+        constantPool.dumpConstants();
+
+        String otherId = constantPool
+                .getConstantId(new ConstantPoolKey(second));
+
+        Assert.assertEquals(constantId, otherId);
+        Assert.assertFalse(constantPool.hasNewConstants());
+    }
+
+    @Test
+    public void similarValues_differentIds() {
+        JsonArray first = Json.createArray();
+        first.set(0, "a");
+        first.set(1, "b");
+        JsonArray second = Json.createArray();
+        second.set(0, "b");
+        second.set(1, "a");
+
+        Assert.assertNotEquals(new ConstantPoolKey(first).getId(),
+                new ConstantPoolKey(second).getId());
+        Assert.assertNotEquals(
+                new ConstantPoolKey(Json.create("1")).getId(),
+                new ConstantPoolKey(Json.create(1)).getId());
+    }
+
+    @Test
+    public void serializeAndDeserialize_knownValuesArePreserved() {
+        ConstantPoolKey reference = new ConstantPoolKey(Json.createObject());
+        String constantId = constantPool.getConstantId(reference);
+        constantPool.dumpConstants();
+
+        ConstantPool deserialized = SerializationUtils.roundtrip(constantPool);
+
+        Assert.assertEquals(constantId, deserialized
+                .getConstantId(new ConstantPoolKey(Json.createObject())));
+        Assert.assertFalse(deserialized.hasNewConstants());
+
+        deserialized.getConstantId(new ConstantPoolKey(Json.createArray()));
+        Assert.assertTrue(deserialized.hasNewConstants());
+    }
+
+    @Test
+    public void manyValues_onlyNewValuesReported() {
+        for (int i = 0; i < 1000; i++) {
+            constantPool.getConstantId(new ConstantPoolKey(Json.create(i)));
+        }
+        Assert.assertEquals(1000, constantPool.dumpConstants().keys().length);
+
+        for (int i = 0; i < 1000; i++) {
+            constantPool.getConstantId(new ConstantPoolKey(Json.create(i)));
+        }
+        Assert.assertFalse(constantPool.hasNewConstants());
+
+        ConstantPool deserialized = SerializationUtils.roundtrip(constantPool);
+        for (int i = 0; i < 1000; i++) {
+            deserialized.getConstantId(new ConstantPoolKey(Json.create(i)));
+        }
+        Assert.assertFalse(deserialized.hasNewConstants());
+
+        deserialized.getConstantId(new ConstantPoolKey(Json.create(1000)));
+        Assert.assertEquals(1, deserialized.dumpConstants().keys().length);
+    }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NodeIdMapTest {
+
+    private NodeIdMap map = new NodeIdMap();
+
+    @Test
+    public void emptyMap_noNodes() {
+        Assert.assertEquals(0, map.size());
+        Assert.assertNull(map.get(1));
+        Assert.assertNull(map.get(0));
+        Assert.assertNull(map.get(-1));
+        Assert.assertNull(map.remove(1));
+    }
+
+    @Test
+    public void putGetRemove() {
+        StateNode node = StateNodeTest.createEmptyNode();
+        StateNode other = StateNodeTest.createEmptyNode();
+
+        Assert.assertNull(map.put(3, node));
+        Assert.assertSame(node, map.get(3));
+        Assert.assertTrue(map.containsKey(3));
+        Assert.assertFalse(map.containsKey(4));
+
+        Assert.assertSame(node, map.put(3, other));
+        Assert.assertSame(other, map.get(3));
+        Assert.assertEquals(1, map.size());
+
+        Assert.assertSame(other, map.remove(3));
+        Assert.assertNull(map.get(3));
+        Assert.assertEquals(0, map.size());
+    }
+
+    @Test
+    public void randomOperations_sameResultAsHashMap() {
+        Map<Integer, StateNode> expected = new HashMap<>();
+        StateNode[] nodes = new StateNode[500];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = StateNodeTest.createEmptyNode();
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            int id = 1 + random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                Assert.assertSame(expected.remove(id), map.remove(id));
+            } else {
+                StateNode node = nodes[random.nextInt(nodes.length)];
+                Assert.assertSame(expected.put(id, node), map.put(id, node));
+            }
+        }
+
+        Assert.assertEquals(expected.size(), map.size());
+        for (int id = 1; id <= 2000; id++) {
+            Assert.assertSame(expected.get(id), map.get(id));
+        }
+    }
+
+    @Test
+    public void serializeAndDeserialize_nodesArePreserved() {
+        for (int id = 1; id <= 100; id++) {
+            map.put(id, StateNodeTest.createEmptyNode());
+        }
+
+        NodeIdMap deserialized = SerializationUtils.roundtrip(map);
+
+        Assert.assertEquals(100, deserialized.size());
+        for (int id = 1; id <= 100; id++) {
+            Assert.assertNotNull(deserialized.get(id));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.nodefeature.ElementAttributeMap;
+import com.vaadin.flow.internal.nodefeature.ElementChildrenList;
+import com.vaadin.tests.util.MockUI;
+
+import elemental.json.JsonObject;
+
+public class StateTreeFootprintTest {
+
+    @Tag("div")
+    public static class TestComponent extends Component {
+        public TestComponent() {
+            for (int i = 0; i < 3; i++) {
+                Element child = new Element("span");
+                child.setAttribute("class", "item");
+                child.setAttribute("title", "Item " + i);
+                getElement().appendChild(child);
+            }
+        }
+    }
+
+    private UI ui;
+
+    @Before
+    public void setup() {
+        ui = new MockUI();
+    }
+
+    @Test
+    public void emptyUI_nodesAccountedToUI() {
+        StateTreeFootprint footprint = ui.getInternals()
+                .getStateTreeFootprint();
+
+        Assert.assertTrue(footprint.getNodeCount() > 0);
+        Assert.assertTrue(footprint.getEstimatedBytes() > 0);
+        Assert.assertEquals(Integer.valueOf(footprint.getNodeCount()),
+                footprint.getNodeCountsByComponent()
+                        .get(MockUI.class.getName()));
+    }
+
+    @Test
+    public void componentWithChildren_nodesAccountedToComponent() {
+        int emptyUINodeCount = ui.getInternals().getStateTreeFootprint()
+                .getNodeCount();
+        ui.add(new TestComponent());
+
+        StateTreeFootprint footprint = ui.getInternals()
+                .getStateTreeFootprint();
+
+        Assert.assertEquals(emptyUINodeCount + 4, footprint.getNodeCount());
+        Assert.assertEquals(Integer.valueOf(4), footprint
+                .getNodeCountsByComponent().get(TestComponent.class.getName()));
+        Assert.assertEquals(footprint.getEstimatedBytes(),
+                footprint.getEstimatedBytesByComponent().values().stream()
+                        .mapToLong(Long::longValue).sum());
+
+        // Two attributes for each span
+        Assert.assertTrue(footprint.getMapEntryCount() >= 6);
+        Assert.assertEquals(Integer.valueOf(3), footprint.getFeatureCounts()
+                .get(ElementAttributeMap.class.getName()));
+        // The UI and the component have children
+        Assert.assertEquals(Integer.valueOf(2), footprint.getFeatureCounts()
+                .get(ElementChildrenList.class.getName()));
+        // One child for the UI and three for the component
+        Assert.assertTrue(footprint.getListEntryCount() >= 4);
+    }
+
+    @Test
+    public void merge_numbersAreAdded() {
+        ui.add(new TestComponent());
+        StateTreeFootprint footprint = ui.getInternals()
+                .getStateTreeFootprint();
+        StateTreeFootprint merged = new StateTreeFootprint();
+
+        merged.merge(footprint);
+        merged.merge(footprint);
+
+        Assert.assertEquals(2 * footprint.getNodeCount(),
+                merged.getNodeCount());
+        Assert.assertEquals(2 * footprint.getEstimatedBytes(),
+                merged.getEstimatedBytes());
+        Assert.assertEquals(Integer.valueOf(8), merged
+                .getNodeCountsByComponent().get(TestComponent.class.getName()));
+    }
+
+    @Test
+    public void toJson_containsNumbers() {
+        ui.add(new TestComponent());
+        StateTreeFootprint footprint = ui.getInternals()
+                .getStateTreeFootprint();
+
+        JsonObject json = footprint.toJson();
+
+        Assert.assertEquals(footprint.getNodeCount(), json.getNumber("nodes"),
+                0);
+        Assert.assertEquals(4, json.getObject("nodesByComponent")
+                .getNumber(TestComponent.class.getName()), 0);
+        Assert.assertTrue(json.hasKey("estimatedBytes"));
+        Assert.assertTrue(json.hasKey("features"));
+    }
+}
@@ -316,6 +316,82 @@ public class StateTreeTest {
         Assert.assertNotNull(d1);
     }
 
+    @Test
+    public void serializedTree_dirtyNodesAndIdsArePreserved() {
+        StateNode node1 = StateNodeTest.createEmptyNode("node1");
+        StateNode node2 = StateNodeTest.createEmptyNode("node2");
+        StateNodeTest.setParent(node1, tree.getRootNode());
+        StateNodeTest.setParent(node2, tree.getRootNode());
+
+        StateTree deserialized = SerializationUtils.roundtrip(tree);
+
+        List<StateNode> dirtyNodes = new ArrayList<>(
+                deserialized.collectDirtyNodes());
+        Assert.assertEquals(3, dirtyNodes.size());
+        Assert.assertSame(deserialized.getRootNode(), dirtyNodes.get(0));
+        Assert.assertSame(dirtyNodes.get(1),
+                deserialized.getNodeById(node1.getId()));
+        Assert.assertSame(dirtyNodes.get(2),
+                deserialized.getNodeById(node2.getId()));
+    }
+
+    @Test
+    public void markAsDirty_sameNodeMarkedTwice_collectedOnce() {
+        tree.collectChanges(change -> {
+        });
+        StateNode node = StateNodeTest.createEmptyNode();
+        StateNodeTest.setParent(node, tree.getRootNode());
+        tree.collectChanges(change -> {
+        });
+
+        node.markAsDirty();
+        tree.getRootNode().markAsDirty();
+        node.markAsDirty();
+
+        Assert.assertArrayEquals(
+                new Object[] { node, tree.getRootNode() },
+                tree.collectDirtyNodes().toArray());
+
+        tree.collectChanges(change -> {
+        });
+        Assert.assertFalse(tree.hasDirtyNodes());
+    }
+
+    @Test
+    public void removeFromTree_dirtyNodeIsNoLongerCollected() {
+        StateNode node1 = StateNodeTest.createEmptyNode("node1");
+        StateNode node2 = StateNodeTest.createEmptyNode("node2");
+        StateNodeTest.setParent(node1, tree.getRootNode());
+        StateNodeTest.setParent(node2, tree.getRootNode());
+
+        node1.removeFromTree();
+
+        Assert.assertArrayEquals(
+                new Object[] { tree.getRootNode(), node2 },
+                tree.collectDirtyNodes().toArray());
+    }
+
+    @Test
+    public void getNodeById_manyNodesAttachedAndDetached() {
+        List<StateNode> nodes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            StateNode node = StateNodeTest.createEmptyNode();
+            StateNodeTest.setParent(node, tree.getRootNode());
+            nodes.add(node);
+        }
+        for (int i = 0; i < nodes.size(); i += 2) {
+            StateNodeTest.setParent(nodes.get(i), null);
+        }
+
+        for (int i = 0; i < nodes.size(); i++) {
+            StateNode node = nodes.get(i);
+            Assert.assertSame(i % 2 == 0 ? null : node,
+                    tree.getNodeById(node.getId()));
+        }
+        Assert.assertNull(tree.getNodeById(-1));
+        Assert.assertNull(tree.getNodeById(Integer.MAX_VALUE));
+    }
+
     @Test
     public void reattachedNodeRetainsId() throws InterruptedException {
         StateNode child = new StateNode(ElementChildrenList.class);
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.internal.StaticResourceIndex.IndexedResource;
+import com.vaadin.flow.internal.StaticResourceIndex.Variant;
+
+public class StaticResourceIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private ByteArrayOutputStream output;
+    private ResponseWriter responseWriter;
+
+    @Before
+    public void setUp() throws IOException {
+        request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getServletContext())
+                .thenReturn(Mockito.mock(ServletContext.class));
+
+        output = new ByteArrayOutputStream();
+        response = Mockito.mock(HttpServletResponse.class);
+        Mockito.when(response.getOutputStream())
+                .thenReturn(new ServletOutputStream() {
+                    @Override
+                    public void write(int b) {
+                        output.write(b);
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                    }
+                });
+
+        responseWriter = new ResponseWriter(
+                Mockito.mock(DeploymentConfiguration.class));
+    }
+
+    @Test
+    public void largeFile_writtenFromFile() throws IOException {
+        byte[] data = createData(
+                StaticResourceIndex.MAX_CACHED_RESOURCE_SIZE * 3 + 17);
+        File file = temporaryFolder.newFile("large.js");
+        Files.write(file.toPath(), data);
+
+        StaticResourceIndex index = new StaticResourceIndex(responseWriter);
+        IndexedResource resource = index.index("/large.js",
+                file.toURI().toURL(), request);
+        Variant variant = index.selectVariant(resource, request);
+
+        Assert.assertEquals(data.length, variant.getLength());
+        Assert.assertEquals(0, index.getCachedContentSize());
+
+        index.writeResponseContents("/large.js", variant, request, response);
+
+        Assert.assertArrayEquals(data, output.toByteArray());
+        Mockito.verify(response).setContentLengthLong(data.length);
+    }
+
+    @Test
+    public void smallFiles_cacheBoundedBySize() throws IOException {
+        StaticResourceIndex index = new StaticResourceIndex(responseWriter,
+                250);
+        for (int i = 0; i < 10; i++) {
+            File file = temporaryFolder.newFile("small" + i + ".js");
+            Files.write(file.toPath(), createData(100));
+            index.index("/small" + i + ".js", file.toURI().toURL(), request);
+        }
+        Assert.assertEquals(200, index.getCachedContentSize());
+
+        // Evicted content is read again when needed
+        IndexedResource first = index.get("/small0.js");
+        byte[] expected = Files
+                .readAllBytes(new File(first.getUrl().getFile()).toPath());
+        index.writeResponseContents("/small0.js",
+                index.selectVariant(first, request), request, response);
+        Assert.assertArrayEquals(expected, output.toByteArray());
+    }
+
+    @Test
+    public void indexTwice_sameResource() throws IOException {
+        File file = temporaryFolder.newFile("file.js");
+        Files.write(file.toPath(), createData(10));
+
+        StaticResourceIndex index = new StaticResourceIndex(responseWriter);
+        IndexedResource resource = index.index("/file.js",
+                file.toURI().toURL(), request);
+
+        Assert.assertSame(resource, index.get("/file.js"));
+        Assert.assertSame(resource,
+                index.index("/file.js", file.toURI().toURL(), request));
+        Assert.assertNull(index.get("/other.js"));
+    }
+
+    @Test
+    public void matchesETag() throws IOException {
+        File file = temporaryFolder.newFile("file.js");
+        Files.write(file.toPath(), createData(10));
+        StaticResourceIndex index = new StaticResourceIndex(responseWriter);
+        Variant variant = index.selectVariant(
+                index.index("/file.js", file.toURI().toURL(), request),
+                request);
+        String eTag = variant.getETag();
+
+        assertMatches(false, null, variant);
+        assertMatches(true, eTag, variant);
+        assertMatches(true, "W/" + eTag, variant);
+        assertMatches(true, "\"foo\", " + eTag, variant);
+        assertMatches(true, "*", variant);
+        assertMatches(false, "\"foo\"", variant);
+        assertMatches(false, eTag.replace("\"", ""), variant);
+    }
+
+    private void assertMatches(boolean expected, String ifNoneMatch,
+            Variant variant) {
+        Mockito.when(request.getHeader("If-None-Match"))
+                .thenReturn(ifNoneMatch);
+        Assert.assertEquals(expected,
+                StaticResourceIndex.matchesETag(request, variant));
+    }
+
+    private static byte[] createData(int length) {
+        byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+}
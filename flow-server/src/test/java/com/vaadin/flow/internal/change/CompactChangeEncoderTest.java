@@ -0,0 +1,140 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal.change;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.internal.ConstantPool;
+import com.vaadin.flow.internal.JsonUtils;
+import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.StateNodeTest;
+import com.vaadin.flow.internal.nodefeature.AbstractNodeFeatureTest;
+import com.vaadin.flow.internal.nodefeature.ElementChildrenList;
+import com.vaadin.flow.internal.nodefeature.ElementClassList;
+import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
+import com.vaadin.flow.internal.nodefeature.NodeFeatureRegistry;
+import com.vaadin.flow.internal.nodefeature.NodeList;
+import com.vaadin.flow.internal.nodefeature.NodeMap;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.JsonArray;
+
+public class CompactChangeEncoderTest {
+    private NodeMap feature = AbstractNodeFeatureTest
+            .createFeature(ElementPropertyMap.class);
+
+    private CompactChangeEncoder encoder = new CompactChangeEncoder();
+
+    @Test
+    public void putChange_valuesInKeyOrder() {
+        MapPutChange change = new MapPutChange(feature, "some", "string");
+
+        JsonArray json = encoder.encode(change, null);
+
+        int expectedMask = maskOf(JsonConstants.CHANGE_NODE,
+                JsonConstants.CHANGE_TYPE, JsonConstants.CHANGE_FEATURE,
+                JsonConstants.CHANGE_MAP_KEY, JsonConstants.CHANGE_PUT_VALUE);
+
+        Assert.assertEquals(6, json.length());
+        Assert.assertEquals(expectedMask, (int) json.getNumber(0));
+        Assert.assertEquals(change.getNode().getId(), (int) json.getNumber(1));
+        Assert.assertEquals(JsonConstants.CHANGE_TYPE_PUT,
+                JsonConstants.COMPACT_CHANGE_TYPES.get((int) json.getNumber(2)));
+        Assert.assertEquals(NodeFeatureRegistry.getId(feature.getClass()),
+                (int) json.getNumber(3));
+        Assert.assertEquals("some", json.getString(4));
+        Assert.assertEquals("string", json.getString(5));
+    }
+
+    @Test
+    public void repeatedMapKey_encodedAsIndex() {
+        encoder.encode(new MapPutChange(feature, "first", "value"), null);
+        encoder.encode(new MapPutChange(feature, "second", "value"), null);
+
+        JsonArray json = encoder
+                .encode(new MapRemoveChange(feature, "second"), null);
+
+        Assert.assertEquals(1, (int) json.getNumber(4));
+    }
+
+    @Test
+    public void compactChange_smallerThanJsonObject() {
+        MapPutChange change = new MapPutChange(feature, "some", "string");
+
+        Assert.assertTrue(encoder.encode(change, null).toJson()
+                .length() < change.toJson(null).toJson().length() / 2);
+    }
+
+    @Test
+    public void encodeChange_sameAsEncodedJson() {
+        StateNode child = StateNodeTest.createEmptyNode("child");
+        NodeList<StateNode> children = AbstractNodeFeatureTest
+                .createFeature(ElementChildrenList.class);
+        NodeList<String> classList = AbstractNodeFeatureTest
+                .createFeature(ElementClassList.class);
+        List<NodeChange> changes = Arrays.asList(
+                new NodeAttachChange(child), new NodeDetachChange(child),
+                new MapPutChange(feature, "some", "string"),
+                new MapPutChange(feature, "node", child),
+                new MapRemoveChange(feature, "some"),
+                new ListAddChange<>(children, true, 0,
+                        Arrays.asList(child)),
+                new ListAddChange<>(classList, false, 1,
+                        Arrays.asList("foo", "bar")),
+                new ListRemoveChange<>(classList, 2, "baz"),
+                new ListClearChange<>(classList), new EmptyChange(feature),
+                new EmptyChange(classList));
+        ConstantPool constantPool = new ConstantPool();
+
+        CompactChangeEncoder jsonEncoder = new CompactChangeEncoder();
+        for (NodeChange change : changes) {
+            JsonArray expected = jsonEncoder
+                    .encode(change.toJson(constantPool));
+            JsonArray actual = encoder.encode(change, constantPool);
+            Assert.assertTrue(
+                    "Unexpected encoding of " + change.getClass().getName()
+                            + ": " + actual.toJson(),
+                    JsonUtils.jsonEquals(expected, actual));
+        }
+    }
+
+    @Test
+    public void reset_mapKeysWrittenAsStringsAgain() {
+        encoder.encode(new MapPutChange(feature, "first", "value"), null);
+
+        encoder.reset();
+        JsonArray json = encoder
+                .encode(new MapRemoveChange(feature, "first"), null);
+
+        Assert.assertEquals("first", json.getString(4));
+    }
+
+    private static int maskOf(String... keys) {
+        int mask = 0;
+        for (String key : keys) {
+            for (int i = 0; i < JsonConstants.COMPACT_CHANGE_KEYS.size(); i++) {
+                if (JsonConstants.COMPACT_CHANGE_KEYS.get(i).equals(key)) {
+                    mask |= 1 << i;
+                }
+            }
+        }
+        return mask;
+    }
+}
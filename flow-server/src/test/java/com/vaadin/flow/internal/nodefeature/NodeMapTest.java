@@ -18,7 +18,10 @@ package com.vaadin.flow.internal.nodefeature;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -392,6 +395,88 @@ public class NodeMapTest
         Assert.assertTrue(nodeMap.usesSingleMap());
     }
 
+    @Test
+    public void put_fewValues_useArrayValues() {
+        nodeMap.put("foo", "bar");
+        nodeMap.put("bar", "baz");
+
+        Assert.assertTrue(nodeMap.usesArrayValues());
+        Assert.assertEquals("bar", nodeMap.get("foo"));
+        Assert.assertEquals("baz", nodeMap.get("bar"));
+        Assert.assertEquals(2, nodeMap.getValueCount());
+    }
+
+    @Test
+    public void put_manyValues_switchToHashMapAndKeepValues() {
+        for (int i = 0; i < 20; i++) {
+            nodeMap.put("key" + i, "value" + i);
+        }
+
+        Assert.assertFalse(nodeMap.usesSingleMap());
+        Assert.assertFalse(nodeMap.usesArrayValues());
+        Assert.assertEquals(20, nodeMap.getValueCount());
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals("value" + i, nodeMap.get("key" + i));
+        }
+    }
+
+    @Test
+    public void removeFromArrayValues_remainingValuesKept() {
+        nodeMap.put("a", "1");
+        nodeMap.put("b", "2");
+        nodeMap.put("c", "3");
+
+        Assert.assertEquals("2", nodeMap.remove("b"));
+        Assert.assertNull(nodeMap.remove("b"));
+
+        Assert.assertTrue(nodeMap.usesArrayValues());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("a", "c")),
+                nodeMap.keySet());
+        Assert.assertEquals("1", nodeMap.get("a"));
+        Assert.assertEquals("3", nodeMap.get("c"));
+
+        nodeMap.remove("a");
+        nodeMap.remove("c");
+        Assert.assertEquals(0, nodeMap.getValueCount());
+        Assert.assertFalse(nodeMap.contains("a"));
+    }
+
+    @Test
+    public void keySet_growBeyondArrayValues_insertionOrderKept() {
+        List<String> expected = new ArrayList<>();
+        for (int i = 20; i > 0; i--) {
+            String key = "key" + i;
+            nodeMap.put(key, "value");
+            expected.add(key);
+
+            Assert.assertEquals(expected, new ArrayList<>(nodeMap.keySet()));
+        }
+        Assert.assertFalse(nodeMap.usesArrayValues());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void keySet_removeWhileIteratingArrayValues_throws() {
+        nodeMap.put("a", "1");
+        nodeMap.put("b", "2");
+        nodeMap.put("c", "3");
+        Assert.assertTrue(nodeMap.usesArrayValues());
+
+        for (String key : nodeMap.keySet()) {
+            nodeMap.remove(key);
+        }
+    }
+
+    @Test
+    public void arrayValues_serializable() {
+        nodeMap.put("a", "1");
+        nodeMap.put("b", "2");
+
+        ElementStylePropertyMap copy = SerializationUtils.roundtrip(nodeMap);
+
+        Assert.assertEquals("1", copy.get("a"));
+        Assert.assertEquals("2", copy.get("b"));
+    }
+
     @Test
     public void streamSingleNullValue() {
         nodeMap.put("foo", null);
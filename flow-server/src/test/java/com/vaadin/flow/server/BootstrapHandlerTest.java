@@ -1216,6 +1216,89 @@ public class BootstrapHandlerTest {
                 secondInit.getUI(), uiReference.get());
     }
 
+    @Test
+    public void productionMode_pageCache_onlyUiSpecificPartsDiffer() {
+        mocks.setProductionMode(true);
+        BootstrapPageCache cache = new BootstrapPageCache();
+
+        BootstrapContext first = createContextForNewUI();
+        first.getUI().getInternals().setTitle("Tom & Jerry");
+        String firstHtml = pageBuilder.getBootstrapPageHtml(first, cache);
+
+        BootstrapContext second = createContextForNewUI();
+        second.getUI().getInternals().setTitle("<b>");
+        String secondHtml = pageBuilder.getBootstrapPageHtml(second, cache);
+
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(0, cache.getBypassCount());
+        Assert.assertEquals(0.5, cache.getHitRate(), 0);
+        Assert.assertEquals(1, cache.size());
+
+        Assert.assertTrue(firstHtml.contains("<title>Tom &amp; Jerry</title>"));
+        Assert.assertTrue(secondHtml.contains("<title>&lt;b&gt;</title>"));
+        Assert.assertTrue(secondHtml.contains("//<![CDATA["));
+        Assert.assertTrue(secondHtml.contains("mode = true"));
+        Assert.assertFalse(secondHtml
+                .contains(BootstrapPageCache.BOOTSTRAP_SCRIPT_MARKER));
+
+        BootstrapContext third = createContextForNewUI();
+        third.getUI().getInternals().setTitle("<b>");
+        String rendered = pageBuilder.getBootstrapPage(third).outerHtml();
+
+        Assert.assertEquals(removeBootstrapScript(rendered),
+                removeBootstrapScript(secondHtml));
+    }
+
+    @Test
+    public void productionMode_pageCache_differentTitlePresence_separateEntries() {
+        mocks.setProductionMode(true);
+        BootstrapPageCache cache = new BootstrapPageCache();
+
+        BootstrapContext withTitle = createContextForNewUI();
+        withTitle.getUI().getInternals().setTitle("title");
+        pageBuilder.getBootstrapPageHtml(withTitle, cache);
+
+        String withoutTitle = pageBuilder
+                .getBootstrapPageHtml(createContextForNewUI(), cache);
+
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(2, cache.size());
+        Assert.assertFalse(withoutTitle.contains("<title>"));
+    }
+
+    @Test
+    public void pageCache_bootstrapListenerOrDevelopmentMode_pageNotCached() {
+        BootstrapPageCache cache = new BootstrapPageCache();
+        pageBuilder.getBootstrapPageHtml(createContextForNewUI(), cache);
+
+        mocks.setProductionMode(true);
+        service.addBootstrapListener(evt -> evt.getDocument().body()
+                .appendElement("div").attr("id", "listener"));
+        String html = pageBuilder
+                .getBootstrapPageHtml(createContextForNewUI(), cache);
+
+        Assert.assertTrue(html.contains("id=\"listener\""));
+        Assert.assertEquals(2, cache.getBypassCount());
+        Assert.assertEquals(0, cache.getMissCount());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    private BootstrapContext createContextForNewUI() {
+        TestUI ui = new TestUI();
+        ui.getInternals().setSession(session);
+        VaadinRequest vaadinRequest = createVaadinRequest();
+        ui.doInit(vaadinRequest, 0);
+        ui.getRouter().initializeUI(ui, vaadinRequest);
+        ui.getInternals().setContextRoot(contextRootRelativePath(vaadinRequest));
+        return new BootstrapContext(vaadinRequest, null, session, ui,
+                this::contextRootRelativePath);
+    }
+
+    private static String removeBootstrapScript(String html) {
+        return html.replaceAll("(?s)//<!\\[CDATA\\[.*?//\\]\\]>", "");
+    }
+
     private void bootstrapPage_productionModeTest(boolean productionMode) {
         mocks.setProductionMode(productionMode);
         TestUI anotherUI = new TestUI();
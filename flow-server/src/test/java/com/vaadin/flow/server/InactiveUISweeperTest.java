@@ -0,0 +1,216 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.tests.util.MockDeploymentConfiguration;
+import com.vaadin.tests.util.MockUI;
+
+public class InactiveUISweeperTest {
+
+    private MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+    private MockVaadinServletService service;
+    private MockVaadinSession session;
+
+    @Before
+    public void setup() {
+        configuration.setHeartbeatInterval(10);
+        service = Mockito.spy(new MockVaadinServletService(configuration));
+        Mockito.doReturn("ROOT").when(service).getMainDivId(
+                Mockito.any(VaadinSession.class),
+                Mockito.any(VaadinRequest.class));
+        session = new MockVaadinSession(service) {
+            private final WrappedSession wrappedSession = Mockito
+                    .mock(WrappedSession.class);
+
+            @Override
+            public WrappedSession getSession() {
+                return wrappedSession;
+            }
+        };
+    }
+
+    @Test
+    public void removeInactiveUIs_expiredHeartbeat_uiClosedAndRemoved()
+            throws Exception {
+        UI inactive = addUI(1, System.currentTimeMillis() - 60000);
+        UI active = addUI(2, System.currentTimeMillis());
+
+        int removed = session
+                .runWithLock(() -> service.removeInactiveUIs(session));
+
+        Assert.assertEquals(1, removed);
+        Assert.assertTrue(inactive.isClosing());
+        Assert.assertFalse(active.isClosing());
+        Assert.assertArrayEquals(new Object[] { active },
+                session.runWithLock(() -> session.getUIs().toArray()));
+    }
+
+    @Test
+    public void removeInactiveUIs_closedSession_nothingRemoved()
+            throws Exception {
+        UI inactive = addUI(1, System.currentTimeMillis() - 60000);
+        session.runWithLock(() -> {
+            session.setState(VaadinSessionState.CLOSING);
+            return null;
+        });
+
+        int removed = session
+                .runWithLock(() -> service.removeInactiveUIs(session));
+
+        Assert.assertEquals(0, removed);
+        Assert.assertFalse(inactive.isClosing());
+    }
+
+    @Test
+    public void sweep_trackedSession_inactiveUIsReclaimed() throws Exception {
+        InactiveUISweeper sweeper = createSweeper();
+        addUI(1, System.currentTimeMillis() - 60000);
+        addUI(2, System.currentTimeMillis() - 60000);
+
+        Assert.assertEquals(2, sweeper.sweep());
+        Assert.assertEquals(0, sweeper.sweep());
+
+        Assert.assertTrue(
+                session.runWithLock(() -> session.getUIs().isEmpty()));
+        Assert.assertEquals(2, sweeper.getSweepCount());
+        Assert.assertEquals(2, sweeper.getReclaimedUICount());
+        Assert.assertEquals(1, sweeper.getSessionCount());
+    }
+
+    @Test
+    public void sweep_sessionLockedByOtherThread_sessionSkipped()
+            throws Exception {
+        InactiveUISweeper sweeper = createSweeper();
+        addUI(1, System.currentTimeMillis() - 60000);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch swept = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            session.getLockInstance().lock();
+            try {
+                locked.countDown();
+                swept.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                session.getLockInstance().unlock();
+            }
+        });
+        thread.start();
+        locked.await(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(0, sweeper.sweep());
+        Assert.assertEquals(1, sweeper.getSkippedSessionCount());
+
+        swept.countDown();
+        thread.join(10000);
+
+        Assert.assertEquals(1, sweeper.sweep());
+    }
+
+    @Test
+    public void sweep_destroyedSession_notTracked() {
+        InactiveUISweeper sweeper = createSweeper();
+
+        service.fireSessionDestroy(session);
+
+        Assert.assertEquals(0, sweeper.getSessionCount());
+        Assert.assertTrue(service.getOpenSessions().isEmpty());
+    }
+
+    @Test
+    public void loadSession_restoredSession_trackedOnce() {
+        InactiveUISweeper sweeper = new InactiveUISweeper(service);
+        Assert.assertEquals(0, sweeper.getSessionCount());
+
+        // A session read from the HTTP session without being initialized
+        loadSession();
+        loadSession();
+
+        Assert.assertEquals(1, sweeper.getSessionCount());
+        Assert.assertEquals(Collections.singletonList(session),
+                service.getOpenSessions());
+    }
+
+    @Test
+    public void start_twoServicesWithSameName_bothRegistered()
+            throws Exception {
+        InactiveUISweeper sweeper = new InactiveUISweeper(service);
+        InactiveUISweeper other = new InactiveUISweeper(
+                new MockVaadinServletService(configuration));
+        sweeper.start(3600);
+        other.start(3600);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            Assert.assertEquals(2, server.queryNames(
+                    new ObjectName("com.vaadin.flow:type=InactiveUISweeper,*"),
+                    null).size());
+        } finally {
+            sweeper.stop();
+            other.stop();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void start_nonPositiveInterval_throws() {
+        new InactiveUISweeper(service).start(0);
+    }
+
+    private InactiveUISweeper createSweeper() {
+        InactiveUISweeper sweeper = new InactiveUISweeper(service);
+        loadSession();
+        return sweeper;
+    }
+
+    private void loadSession() {
+        WrappedSession wrappedSession = session.getSession();
+        Mockito.doReturn(session.getLockInstance()).when(service)
+                .getSessionLock(wrappedSession);
+        Mockito.doReturn(session).when(service)
+                .readFromHttpSession(wrappedSession);
+
+        session.getLockInstance().lock();
+        try {
+            Assert.assertSame(session, service.loadSession(wrappedSession));
+        } finally {
+            session.getLockInstance().unlock();
+        }
+    }
+
+    private UI addUI(int uiId, long lastHeartbeat) throws Exception {
+        return session.runWithLock(() -> {
+            UI ui = new MockUI(session);
+            ui.doInit(Mockito.mock(VaadinRequest.class), uiId);
+            ui.getInternals().setLastHeartbeatTimestamp(lastHeartbeat);
+            session.addUI(ui);
+            return ui;
+        });
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.tests.util.MockDeploymentConfiguration;
+import com.vaadin.tests.util.MockUI;
+
+public class MemoryFootprintMonitorTest {
+
+    private MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+    private MockVaadinServletService service;
+    private MockVaadinSession session;
+
+    @Before
+    public void setup() {
+        service = Mockito.spy(new MockVaadinServletService(configuration));
+        Mockito.doReturn("ROOT").when(service).getMainDivId(
+                Mockito.any(VaadinSession.class),
+                Mockito.any(VaadinRequest.class));
+        session = new MockVaadinSession(service) {
+            private final WrappedSession wrappedSession = Mockito
+                    .mock(WrappedSession.class);
+
+            @Override
+            public WrappedSession getSession() {
+                return wrappedSession;
+            }
+        };
+    }
+
+    @Test
+    public void collectReport_restoredSession_reported() throws Exception {
+        MemoryFootprintMonitor monitor = new MemoryFootprintMonitor(service);
+        session.runWithLock(() -> {
+            UI ui = new MockUI(session);
+            ui.doInit(Mockito.mock(VaadinRequest.class), 1);
+            session.addUI(ui);
+            return ui;
+        });
+
+        Assert.assertEquals(0, monitor.collectReport().getSessionCount());
+
+        loadSession();
+
+        MemoryFootprintReport report = monitor.collectReport();
+        Assert.assertEquals(1, report.getSessionCount());
+        Assert.assertEquals(1, report.getUICount());
+    }
+
+    @Test
+    public void collectReport_pendingAccessTasksRunWhenUnlocking() {
+        MemoryFootprintMonitor monitor = new MemoryFootprintMonitor(service);
+        loadSession();
+
+        // Queue a task while the lock is held, and release the lock without
+        // running the queue
+        AtomicBoolean ran = new AtomicBoolean();
+        session.getLockInstance().lock();
+        try {
+            session.access(() -> ran.set(true));
+        } finally {
+            session.getLockInstance().unlock();
+        }
+        Assert.assertFalse(ran.get());
+
+        monitor.collectReport();
+
+        Assert.assertTrue(ran.get());
+    }
+
+    @Test
+    public void register_twoServicesWithSameName_bothRegistered()
+            throws Exception {
+        MemoryFootprintMonitor monitor = new MemoryFootprintMonitor(service);
+        MockVaadinServletService otherService = new MockVaadinServletService(
+                configuration);
+        MemoryFootprintMonitor other = new MemoryFootprintMonitor(
+                otherService);
+        monitor.register();
+        other.register();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            Assert.assertEquals(2, server.queryNames(
+                    new ObjectName("com.vaadin.flow:type=MemoryFootprint,*"),
+                    null).size());
+        } finally {
+            service.destroy();
+            otherService.destroy();
+        }
+    }
+
+    private void loadSession() {
+        WrappedSession wrappedSession = session.getSession();
+        Mockito.doReturn(session.getLockInstance()).when(service)
+                .getSessionLock(wrappedSession);
+        Mockito.doReturn(session).when(service)
+                .readFromHttpSession(wrappedSession);
+
+        session.getLockInstance().lock();
+        try {
+            Assert.assertSame(session, service.loadSession(wrappedSession));
+        } finally {
+            session.getLockInstance().unlock();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.tests.util.MockUI;
+
+import elemental.json.JsonObject;
+
+public class MemoryFootprintReportTest {
+
+    @Test
+    public void addUI_groupedByRoute() {
+        UI ui1 = new MockUI();
+        UI ui2 = new MockUI();
+        ui2.getElement().appendChild(new Element("div"));
+
+        MemoryFootprintReport report = new MemoryFootprintReport();
+        report.addUI(ui1);
+        report.addUI(ui2);
+
+        Assert.assertEquals(2, report.getUICount());
+        Assert.assertEquals(Integer.valueOf(2), report.getUICountsByRoute()
+                .get(MemoryFootprintReport.NO_ROUTE));
+        int nodeCount = ui1.getInternals().getStateTreeFootprint()
+                .getNodeCount()
+                + ui2.getInternals().getStateTreeFootprint().getNodeCount();
+        Assert.assertEquals(nodeCount, report.getTotal().getNodeCount());
+        Assert.assertEquals(nodeCount, report.getFootprintsByRoute()
+                .get(MemoryFootprintReport.NO_ROUTE).getNodeCount());
+    }
+
+    @Test
+    public void merge_numbersAreAdded() {
+        MemoryFootprintReport report = new MemoryFootprintReport();
+        report.addUI(new MockUI());
+        MemoryFootprintReport merged = new MemoryFootprintReport();
+
+        merged.merge(report);
+        merged.merge(report);
+
+        Assert.assertEquals(2, merged.getUICount());
+        Assert.assertEquals(2 * report.getTotal().getNodeCount(),
+                merged.getTotal().getNodeCount());
+    }
+
+    @Test
+    public void toJson_containsRoutes() {
+        MemoryFootprintReport report = new MemoryFootprintReport();
+        report.addUI(new MockUI());
+
+        JsonObject json = report.toJson();
+
+        Assert.assertEquals(1, json.getNumber("uis"), 0);
+        Assert.assertEquals(report.getTotal().getNodeCount(),
+                json.getObject("total").getNumber("nodes"), 0);
+        Assert.assertEquals(1, json.getObject("routes")
+                .getObject(MemoryFootprintReport.NO_ROUTE).getNumber("uis"),
+                0);
+    }
+}
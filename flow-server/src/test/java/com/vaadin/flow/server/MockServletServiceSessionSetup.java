@@ -115,6 +115,18 @@ public class MockServletServiceSessionSetup {
             super.modifyIndexHtmlResponse(response);
         }
 
+        @Override
+        public boolean hasBootstrapListeners() {
+            return !bootstrapListeners.isEmpty()
+                    || super.hasBootstrapListeners();
+        }
+
+        @Override
+        public boolean hasIndexHtmlRequestListeners() {
+            return !indexHtmlRequestListeners.isEmpty()
+                    || super.hasIndexHtmlRequestListeners();
+        }
+
         @Override
         public VaadinContext getContext() {
             if (context != null) {
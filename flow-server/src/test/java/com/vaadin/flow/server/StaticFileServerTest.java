@@ -687,6 +687,133 @@ public class StaticFileServerTest implements Serializable {
                 responseCode.get());
     }
 
+    @Test
+    public void productionMode_serveStaticResourceTwice_resourceLookedUpOnce()
+            throws IOException {
+        setupRequestURI("", "/some", "/file.js");
+        byte[] fileData = "function() {eval('foo');};"
+                .getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData));
+
+        for (int i = 0; i < 2; i++) {
+            CapturingServletOutputStream out = new CapturingServletOutputStream();
+            Mockito.when(response.getOutputStream()).thenReturn(out);
+
+            Assert.assertTrue(fileServer.serveStaticResource(request, response));
+            Assert.assertArrayEquals(fileData, out.getOutput());
+            Assert.assertEquals(fileData.length, responseContentLength.get());
+        }
+
+        Mockito.verify(servletService, Mockito.times(1))
+                .getStaticResource("/some/file.js");
+        Assert.assertTrue(fileServer.isStaticResourceRequest(request));
+    }
+
+    @Test
+    public void productionMode_serveStaticResource_eTagWritten()
+            throws IOException {
+        setupRequestURI("", "/some", "/file.js");
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        "foo".getBytes(StandardCharsets.UTF_8)));
+        Mockito.when(response.getOutputStream())
+                .thenReturn(new CapturingServletOutputStream());
+
+        fileServer.serveStaticResource(request, response);
+        String eTag = headers.get("ETag");
+        Assert.assertNotNull(eTag);
+        Assert.assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+
+        Mockito.when(servletService.getStaticResource("/some/other.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/other.js",
+                        "bar".getBytes(StandardCharsets.UTF_8)));
+        setupRequestURI("", "/some", "/other.js");
+        fileServer.serveStaticResource(request, response);
+
+        Assert.assertNotEquals(eTag, headers.get("ETag"));
+    }
+
+    @Test
+    public void productionMode_ifNoneMatchMatches_notModified()
+            throws IOException {
+        setupRequestURI("", "/some", "/file.js");
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        "foo".getBytes(StandardCharsets.UTF_8)));
+        Mockito.when(response.getOutputStream())
+                .thenReturn(new CapturingServletOutputStream());
+        fileServer.serveStaticResource(request, response);
+        String eTag = headers.get("ETag");
+
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+        Mockito.when(request.getHeader("If-None-Match"))
+                .thenReturn("\"other\", W/" + eTag);
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED,
+                responseCode.get());
+        Assert.assertEquals(0, out.getOutput().length);
+    }
+
+    @Test
+    public void productionMode_ifNoneMatchDoesNotMatch_ifModifiedSinceIgnored()
+            throws IOException {
+        setupRequestURI("", "/some", "/file.js");
+        byte[] fileData = "foo".getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData, 123000L));
+        Mockito.when(request.getDateHeader("If-Modified-Since"))
+                .thenReturn(123000L);
+        Mockito.when(request.getHeader("If-None-Match"))
+                .thenReturn("\"other\"");
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertArrayEquals(fileData, out.getOutput());
+        Assert.assertEquals(Long.valueOf(123000L),
+                dateHeaders.get("Last-Modified"));
+    }
+
+    @Test
+    public void productionMode_gzipAccepted_gzippedVariantServed()
+            throws IOException {
+        setupRequestURI("", "/some", "/file.js");
+        byte[] fileData = "foo".getBytes(StandardCharsets.UTF_8);
+        byte[] gzipData = "gzipped foo".getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData));
+        Mockito.when(servletContext.getResource("/some/file.js.gz"))
+                .thenReturn(createFileURLWithDataAndLength(
+                        "/some/file.js.gz", gzipData));
+        Mockito.when(request.getHeader("Accept-Encoding"))
+                .thenReturn("gzip, deflate");
+
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertArrayEquals(gzipData, out.getOutput());
+        Assert.assertEquals("gzip", headers.get("Content-Encoding"));
+        Assert.assertEquals("Accept-Encoding", headers.get("Vary"));
+        String gzipETag = headers.get("ETag");
+
+        headers.clear();
+        Mockito.when(request.getHeader("Accept-Encoding")).thenReturn(null);
+        out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertArrayEquals(fileData, out.getOutput());
+        Assert.assertNull(headers.get("Content-Encoding"));
+        Assert.assertNotEquals(gzipETag, headers.get("ETag"));
+    }
+
     @Test
     public void serveStaticResourceFromWebjarWithIncorrectPath()
             throws IOException {
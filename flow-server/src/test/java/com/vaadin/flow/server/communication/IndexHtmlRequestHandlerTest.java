@@ -570,6 +570,94 @@ public class IndexHtmlRequestHandlerTest {
         assertEquals(1, bodyInlineElements.size());
     }
 
+    @Test
+    public void productionMode_pageServedFromTemplate_sameAsRenderedPage()
+            throws IOException {
+        deploymentConfiguration.setProductionMode(true);
+
+        indexHtmlRequestHandler.synchronizedHandleRequest(session,
+                createVaadinRequest("/some/path"), response);
+        String fromTemplate = responseOutput
+                .toString(StandardCharsets.UTF_8.name());
+        responseOutput.reset();
+
+        indexHtmlRequestHandler.synchronizedHandleRequest(session,
+                createVaadinRequest("/"), response);
+        String rootFromTemplate = responseOutput
+                .toString(StandardCharsets.UTF_8.name());
+        responseOutput.reset();
+
+        // a listener forces the page to be rendered for the request
+        service.addIndexHtmlRequestListener(evt -> {
+        });
+        new IndexHtmlRequestHandler().synchronizedHandleRequest(session,
+                createVaadinRequest("/some/path"), response);
+        String rendered = responseOutput
+                .toString(StandardCharsets.UTF_8.name());
+
+        assertEquals(rendered, fromTemplate);
+        Assert.assertTrue(fromTemplate.contains("<base href=\"./..\""));
+        Assert.assertTrue(rootFromTemplate.contains("<base href=\".\""));
+        Assert.assertTrue(fromTemplate.contains("index.html template content"));
+        Assert.assertTrue(fromTemplate.contains(".v-system-error"));
+        Assert.assertFalse(fromTemplate
+                .contains(IndexHtmlTemplate.BASE_HREF_MARKER));
+        Assert.assertFalse(fromTemplate
+                .contains(IndexHtmlTemplate.INITIAL_SCRIPT_MARKER));
+    }
+
+    @Test
+    public void productionMode_includeInitialUidl_initialUidlAddedToTemplate()
+            throws IOException {
+        deploymentConfiguration.setProductionMode(true);
+        deploymentConfiguration.setEagerServerLoad(true);
+
+        indexHtmlRequestHandler.synchronizedHandleRequest(session,
+                createVaadinRequest("/"), response);
+        Document document = Jsoup.parse(
+                responseOutput.toString(StandardCharsets.UTF_8.name()));
+
+        Elements scripts = document.head().getElementsByTag("script");
+        Assert.assertEquals(1, scripts.size());
+        Assert.assertEquals("", scripts.get(0).attr("initial"));
+        Assert.assertTrue(
+                scripts.get(0).toString().contains("Could not navigate"));
+        Mockito.verify(session).setAttribute(SERVER_ROUTING, Boolean.TRUE);
+    }
+
+    @Test
+    public void productionMode_appShellWithConfigurator_pageConfiguredForEachRequest()
+            throws IOException {
+        deploymentConfiguration.setProductionMode(true);
+        AppShellRegistry registry = new AppShellRegistry();
+        registry.setShell(MyAppShellWithConfigurator.class);
+        mocks.setAppShellRegistry(registry);
+        Assert.assertTrue(registry.isPageConfiguredPerRequest());
+
+        for (int i = 0; i < 2; i++) {
+            responseOutput.reset();
+            indexHtmlRequestHandler.synchronizedHandleRequest(session,
+                    createVaadinRequest("/"), response);
+            Document document = Jsoup.parse(
+                    responseOutput.toString(StandardCharsets.UTF_8.name()));
+            assertEquals("my-title", document.head().getElementsByTag("title")
+                    .get(0).childNode(0).toString());
+        }
+    }
+
+    @Test
+    public void isPageConfiguredPerRequest_onlyForConfigurePageOverride() {
+        AppShellRegistry registry = new AppShellRegistry();
+        Assert.assertFalse(registry.isPageConfiguredPerRequest());
+
+        registry.setShell(AppShellWithPWA.class);
+        Assert.assertFalse(registry.isPageConfiguredPerRequest());
+
+        registry = new AppShellRegistry();
+        registry.setShell(MyAppShellWithConfigurator.class);
+        Assert.assertTrue(registry.isPageConfiguredPerRequest());
+    }
+
     @After
     public void tearDown() throws Exception {
         session.unlock();
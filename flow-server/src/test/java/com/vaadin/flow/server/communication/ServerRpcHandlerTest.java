@@ -126,4 +126,99 @@ public class ServerRpcHandlerTest {
 
         handler.handleRpc(ui, Mockito.mock(Reader.class), request);
     }
+
+    @Test
+    public void parseMessage_emptyMessage_returnsNull() throws IOException {
+        Assert.assertNull(
+                serverRpcHandler.parseMessage(new StringReader(""), request));
+    }
+
+    @Test
+    public void handleRpc_parsedMessage_duplicateMessage_doNotThrow()
+            throws InvalidUIDLSecurityKeyException, IOException {
+        String msg = "{\"" + ApplicationConstants.CLIENT_TO_SERVER_ID + "\":1}";
+        ServerRpcHandler.ParsedMessage message = serverRpcHandler
+                .parseMessage(new StringReader(msg), request);
+
+        ui = new UI();
+        ui.getInternals().setSession(session);
+        ui.getInternals().setLastProcessedClientToServerId(1,
+                MessageDigestUtil.sha256(msg));
+
+        serverRpcHandler.handleRpc(ui, message);
+        Mockito.verify(session).setLastRequestTimestamp(Mockito.anyLong());
+    }
+
+    @Test
+    public void handleRpc_compactChangesSupported_supportStoredInUI()
+            throws InvalidUIDLSecurityKeyException, IOException {
+        ui = new UI();
+        ui.getInternals().setSession(session);
+        Assert.assertFalse(ui.getInternals().isCompactChangesSupported());
+
+        serverRpcHandler.handleRpc(ui, serverRpcHandler.parseMessage(
+                new StringReader("{\"rpc\":[], \"clientId\":0, \""
+                        + ApplicationConstants.COMPACT_CHANGES_SUPPORTED
+                        + "\":true}"),
+                request));
+
+        Assert.assertTrue(ui.getInternals().isCompactChangesSupported());
+    }
+
+    @Test
+    public void parsedMessage_isCsrfTokenValid_comparesSessionToken()
+            throws IOException {
+        ServerRpcHandler.ParsedMessage message = serverRpcHandler
+                .parseMessage(new StringReader(
+                        "{\"csrfToken\": \"token\", \"rpc\":[], \"clientId\":1}"),
+                        request);
+        Mockito.when(service.getDeploymentConfiguration()
+                .isXsrfProtectionEnabled()).thenReturn(true);
+
+        Mockito.when(session.getCsrfToken()).thenReturn("token");
+        Assert.assertTrue(message.isCsrfTokenValid(session));
+
+        Mockito.when(session.getCsrfToken()).thenReturn("other");
+        Assert.assertFalse(message.isCsrfTokenValid(session));
+    }
+
+    @Test
+    public void handleRpc_parsedMessage_csrfTokenOfUIUsed()
+            throws InvalidUIDLSecurityKeyException, IOException {
+        ServerRpcHandler.ParsedMessage message = serverRpcHandler
+                .parseMessage(new StringReader(
+                        "{\"csrfToken\": \"ui-token\", \"rpc\":[], \"clientId\":0}"),
+                        request);
+        Mockito.when(service.getDeploymentConfiguration()
+                .isXsrfProtectionEnabled()).thenReturn(true);
+        Mockito.when(session.getCsrfToken()).thenReturn("token");
+
+        ui = new UI() {
+            @Override
+            public String getCsrfToken() {
+                return "ui-token";
+            }
+        };
+        ui.getInternals().setSession(session);
+        serverRpcHandler.handleRpc(ui, message);
+
+        Assert.assertEquals(0,
+                ui.getInternals().getLastProcessedClientToServerId());
+    }
+
+    @Test(expected = InvalidUIDLSecurityKeyException.class)
+    public void handleRpc_parsedMessage_invalidCsrfToken_throws()
+            throws InvalidUIDLSecurityKeyException, IOException {
+        ServerRpcHandler.ParsedMessage message = serverRpcHandler
+                .parseMessage(new StringReader(
+                        "{\"csrfToken\": \"token\", \"rpc\":[], \"clientId\":0}"),
+                        request);
+        Mockito.when(service.getDeploymentConfiguration()
+                .isXsrfProtectionEnabled()).thenReturn(true);
+        Mockito.when(session.getCsrfToken()).thenReturn("other");
+
+        ui = new UI();
+        ui.getInternals().setSession(session);
+        serverRpcHandler.handleRpc(ui, message);
+    }
 }
@@ -8,9 +8,13 @@ import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.Part;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -21,6 +25,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -29,6 +34,7 @@ import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.internal.UIInternals;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.server.ErrorHandler;
 import com.vaadin.flow.server.MockServletConfig;
 import com.vaadin.flow.server.StreamReceiver;
@@ -394,4 +400,70 @@ public class StreamReceiverHandlerTest {
                 ApplicationConstants.CONTENT_TYPE_TEXT_HTML_UTF_8);
         Mockito.verify(response, Mockito.times(0)).setStatus(Mockito.anyInt());
     }
+
+    @Test
+    public void listenProgress_sessionBusy_progressCoalescedAndDeliveredBeforeEnd()
+            throws IOException {
+        outputStream = new ByteArrayOutputStream();
+        when(streamVariable.listenProgress()).thenReturn(true);
+        List<Command> queuedCommands = new ArrayList<>();
+        // UI is locked by another thread, so access only queues the command
+        Mockito.doAnswer(invocation -> {
+            queuedCommands.add((Command) invocation.getArguments()[0]);
+            return null;
+        }).when(ui).access(Mockito.any(Command.class));
+
+        handler.handleRequest(session, request, response, streamReceiver,
+                String.valueOf(uiId), expectedSecurityKey);
+
+        Assert.assertEquals(1, queuedCommands.size());
+        InOrder inOrder = Mockito.inOrder(streamVariable);
+        ArgumentCaptor<StreamVariable.StreamingProgressEvent> progressCaptor = ArgumentCaptor
+                .forClass(StreamVariable.StreamingProgressEvent.class);
+        inOrder.verify(streamVariable).onProgress(progressCaptor.capture());
+        inOrder.verify(streamVariable).streamingFinished(Mockito.any());
+        Assert.assertEquals(6, progressCaptor.getValue().getBytesReceived());
+
+        // The queued delivery has nothing left to deliver
+        queuedCommands.get(0).execute();
+        verify(streamVariable, Mockito.times(1)).onProgress(Mockito.any());
+    }
+
+    @Test
+    public void listenProgress_uiAvailable_progressDeliveredThroughUiAccess()
+            throws IOException {
+        outputStream = new ByteArrayOutputStream();
+        when(streamVariable.listenProgress()).thenReturn(true);
+        Mockito.doAnswer(invocation -> {
+            ((Command) invocation.getArguments()[0]).execute();
+            return null;
+        }).when(ui).access(Mockito.any(Command.class));
+
+        handler.handleRequest(session, request, response, streamReceiver,
+                String.valueOf(uiId), expectedSecurityKey);
+
+        verify(ui).access(Mockito.any(Command.class));
+        // One event while streaming and the final one at the end
+        verify(streamVariable, Mockito.times(2)).onProgress(Mockito.any());
+        verify(streamVariable).streamingFinished(Mockito.any());
+    }
+
+    @Test
+    public void fileOutputStream_contentTransferredToFile() throws IOException {
+        File file = File.createTempFile("upload", ".txt");
+        file.deleteOnExit();
+        outputStream = new FileOutputStream(file);
+
+        handler.handleRequest(session, request, response, streamReceiver,
+                String.valueOf(uiId), expectedSecurityKey);
+
+        ArgumentCaptor<StreamVariable.StreamingEndEvent> endEventArgumentCaptor = ArgumentCaptor
+                .forClass(StreamVariable.StreamingEndEvent.class);
+        verify(streamVariable)
+                .streamingFinished(endEventArgumentCaptor.capture());
+        Assert.assertEquals(6,
+                endEventArgumentCaptor.getValue().getContentLength());
+        Assert.assertEquals("foobar", new String(
+                Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    }
 }
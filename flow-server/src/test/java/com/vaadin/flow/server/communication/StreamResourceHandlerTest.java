@@ -21,21 +21,31 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletResponse;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
 
+import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mockito;
 
 import com.vaadin.flow.server.InputStreamFactory;
 import com.vaadin.flow.server.MockServletConfig;
 import com.vaadin.flow.server.MockVaadinSession;
+import com.vaadin.flow.server.SeekableStreamSource;
 import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.server.StreamResourceWriter;
+import com.vaadin.flow.server.VaadinResponse;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinServlet;
 import com.vaadin.flow.server.VaadinServletRequest;
-import com.vaadin.flow.server.VaadinServletResponse;
 import com.vaadin.tests.util.AlwaysLockedVaadinSession;
 
 public class StreamResourceHandlerTest {
@@ -43,10 +53,17 @@ public class StreamResourceHandlerTest {
     private StreamResourceHandler handler = new StreamResourceHandler();
     private MockVaadinSession session;
     private VaadinServletRequest request;
-    private VaadinServletResponse response;
+    private VaadinResponse response;
+
+    private Map<String, String> headers = new HashMap<>();
+    private int status = HttpServletResponse.SC_OK;
+    private ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     @Before
-    public void setUp() throws ServletException {
+    public void setUp() throws ServletException, IOException {
         ServletConfig servletConfig = new MockServletConfig();
         VaadinServlet servlet = new VaadinServlet();
         servlet.init(servletConfig);
@@ -56,7 +73,19 @@ public class StreamResourceHandlerTest {
         request = Mockito.mock(VaadinServletRequest.class);
         ServletContext context = Mockito.mock(ServletContext.class);
         Mockito.when(request.getServletContext()).thenReturn(context);
-        response = Mockito.mock(VaadinServletResponse.class);
+        response = Mockito.mock(VaadinResponse.class);
+        Mockito.doAnswer(invocation -> headers.put(
+                (String) invocation.getArguments()[0],
+                (String) invocation.getArguments()[1])).when(response)
+                .setHeader(Mockito.anyString(), Mockito.anyString());
+        Mockito.doAnswer(invocation -> {
+            status = (int) invocation.getArguments()[0];
+            return null;
+        }).when(response).setStatus(Mockito.anyInt());
+        Mockito.when(request.getMethod()).thenReturn("GET");
+        Mockito.when(request.getDateHeader(Mockito.anyString()))
+                .thenReturn(-1L);
+        Mockito.when(response.getOutputStream()).thenReturn(output);
     }
 
     @Test
@@ -110,4 +139,174 @@ public class StreamResourceHandlerTest {
         Mockito.verify(response)
                 .setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
     }
+
+    @Test
+    public void seekableSource_noRange_wholeContentWithLength()
+            throws IOException {
+        StreamResource res = new StreamResource("data.bin",
+                SeekableStreamSource.ofBytes(bytes("0123456789")));
+
+        handler.handleRequest(session, request, response, res);
+
+        Assert.assertEquals(HttpServletResponse.SC_OK, status);
+        Assert.assertEquals("0123456789", outputString());
+        Assert.assertEquals("10", headers.get("Content-Length"));
+        Assert.assertEquals("bytes", headers.get("Accept-Ranges"));
+    }
+
+    @Test
+    public void seekableSource_range_partialContent() throws IOException {
+        assertRange("bytes=2-5", "2345", "bytes 2-5/10");
+        assertRange("bytes=7-", "789", "bytes 7-9/10");
+        assertRange("bytes=-3", "789", "bytes 7-9/10");
+        assertRange("bytes=8-100", "89", "bytes 8-9/10");
+    }
+
+    @Test
+    public void seekableSource_unsatisfiableRange_416() throws IOException {
+        Mockito.when(request.getHeader("Range")).thenReturn("bytes=10-");
+        StreamResource res = new StreamResource("data.bin",
+                SeekableStreamSource.ofBytes(bytes("0123456789")));
+
+        handler.handleRequest(session, request, response, res);
+
+        Assert.assertEquals(
+                HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE,
+                status);
+        Assert.assertEquals("bytes */10", headers.get("Content-Range"));
+        Assert.assertEquals(0, output.size());
+    }
+
+    @Test
+    public void seekableSource_multipleOrInvalidRanges_wholeContent()
+            throws IOException {
+        for (String range : new String[] { "bytes=0-1,4-5", "bytes=5-2",
+                "items=0-1", "bytes=a-b" }) {
+            output.reset();
+            Mockito.when(request.getHeader("Range")).thenReturn(range);
+            StreamResource res = new StreamResource("data.bin",
+                    SeekableStreamSource.ofBytes(bytes("0123456789")));
+
+            handler.handleRequest(session, request, response, res);
+
+            Assert.assertEquals(range, HttpServletResponse.SC_OK, status);
+            Assert.assertEquals(range, "0123456789", outputString());
+        }
+    }
+
+    @Test
+    public void fileSource_eTagAndLastModified_ifNoneMatch_notModified()
+            throws IOException {
+        File file = temporaryFolder.newFile("video.mp4");
+        Files.write(file.toPath(), bytes("0123456789"));
+        StreamResource res = new StreamResource("video.mp4",
+                SeekableStreamSource.ofFile(file));
+
+        handler.handleRequest(session, request, response, res);
+        String eTag = headers.get("ETag");
+        Assert.assertNotNull(eTag);
+        Mockito.verify(response).setDateHeader("Last-Modified",
+                file.lastModified() - file.lastModified() % 1000);
+
+        output.reset();
+        Mockito.when(request.getHeader("If-None-Match"))
+                .thenReturn("W/" + eTag);
+        handler.handleRequest(session, request, response, res);
+
+        Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED, status);
+        Assert.assertEquals(0, output.size());
+    }
+
+    @Test
+    public void fileSource_ifRangeMismatch_wholeContent() throws IOException {
+        File file = temporaryFolder.newFile("video.mp4");
+        Files.write(file.toPath(), bytes("0123456789"));
+        StreamResource res = new StreamResource("video.mp4",
+                SeekableStreamSource.ofFile(file));
+        Mockito.when(request.getHeader("Range")).thenReturn("bytes=2-3");
+
+        Mockito.when(request.getHeader("If-Range")).thenReturn("\"old\"");
+        handler.handleRequest(session, request, response, res);
+        Assert.assertEquals(HttpServletResponse.SC_OK, status);
+        Assert.assertEquals("0123456789", outputString());
+
+        output.reset();
+        Mockito.when(request.getHeader("If-Range")).thenReturn(res.getETag());
+        handler.handleRequest(session, request, response, res);
+        Assert.assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, status);
+        Assert.assertEquals("23", outputString());
+    }
+
+    @Test
+    public void writer_declaredETag_ifNoneMatch_writerNotCalled()
+            throws IOException {
+        StreamResource res = new StreamResource("readme.md",
+                (StreamResourceWriter) (stream, session) -> Assert
+                        .fail("Writer should not be called"));
+        res.setETag("\"v1\"");
+        Mockito.when(request.getHeader("If-None-Match")).thenReturn("\"v1\"");
+
+        handler.handleRequest(session, request, response, res);
+
+        Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED, status);
+        Assert.assertEquals("\"v1\"", headers.get("ETag"));
+    }
+
+    @Test
+    public void writer_declaredLastModified_ifModifiedSince_notModified()
+            throws IOException {
+        StreamResource res = new StreamResource("readme.md",
+                (StreamResourceWriter) (stream, session) -> Assert
+                        .fail("Writer should not be called"));
+        res.setLastModified(123456L);
+        Mockito.when(request.getDateHeader("If-Modified-Since"))
+                .thenReturn(123000L);
+
+        handler.handleRequest(session, request, response, res);
+
+        Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED, status);
+    }
+
+    @Test
+    public void writer_rangeIgnored_wholeContent() throws IOException {
+        StreamResource res = new StreamResource("readme.md",
+                (StreamResourceWriter) (stream, session) -> stream
+                        .write(bytes("0123456789")));
+        res.setContentLength(10);
+        Mockito.when(request.getHeader("Range")).thenReturn("bytes=2-3");
+
+        handler.handleRequest(session, request, response, res);
+
+        Assert.assertEquals(HttpServletResponse.SC_OK, status);
+        Assert.assertEquals("0123456789", outputString());
+        Assert.assertEquals("10", headers.get("Content-Length"));
+        Assert.assertNull(headers.get("Accept-Ranges"));
+    }
+
+    private void assertRange(String range, String expectedContent,
+            String expectedContentRange) throws IOException {
+        output.reset();
+        Mockito.when(request.getHeader("Range")).thenReturn(range);
+        StreamResource res = new StreamResource("data.bin",
+                SeekableStreamSource.ofBytes(bytes("0123456789")));
+
+        handler.handleRequest(session, request, response, res);
+
+        Assert.assertEquals(range, HttpServletResponse.SC_PARTIAL_CONTENT,
+                status);
+        Assert.assertEquals(range, expectedContent, outputString());
+        Assert.assertEquals(range, expectedContentRange,
+                headers.get("Content-Range"));
+        Assert.assertEquals(range,
+                String.valueOf(expectedContent.length()),
+                headers.get("Content-Length"));
+    }
+
+    private String outputString() {
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
 }
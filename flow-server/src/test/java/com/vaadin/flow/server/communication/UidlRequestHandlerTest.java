@@ -17,17 +17,24 @@
 
 package com.vaadin.flow.server.communication;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Properties;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 import com.vaadin.flow.component.internal.JavaScriptBootstrapUI;
+import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.server.DefaultDeploymentConfiguration;
 import com.vaadin.flow.server.HandlerHelper.RequestType;
 import com.vaadin.flow.server.VaadinRequest;
@@ -43,6 +50,7 @@ import elemental.json.impl.JsonUtil;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -104,7 +112,7 @@ public class UidlRequestHandlerTest {
         Assert.assertTrue("Result should be true", result);
 
         String responseContent = CommunicationUtil
-                .getStringWhenWriteString(outputStream);
+                .getStringWhenWriteBytesOffsetLength(outputStream);
 
         // response shouldn't contain async
         Assert.assertEquals("Invalid response",
@@ -112,6 +120,105 @@ public class UidlRequestHandlerTest {
                 responseContent);
     }
 
+    @Test
+    public void synchronizedHandleRequest_consecutiveRequests_responseBufferReusedWithoutLeftovers()
+            throws IOException {
+        VaadinService service = mock(VaadinService.class);
+        VaadinSession session = mock(VaadinSession.class);
+        when(session.getService()).thenReturn(service);
+        when(service.findUI(request)).thenReturn(null);
+
+        for (int i = 0; i < 3; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            when(response.getOutputStream()).thenReturn(out);
+
+            handler.synchronizedHandleRequest(session, request, response);
+
+            Assert.assertEquals("Invalid response",
+                    "for(;;);[{\"meta\":{\"sessionExpired\":true}}]",
+                    new String(out.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void handleRequest_messageReadBeforeLockingAndResponseWrittenAfterUnlocking()
+            throws IOException {
+        VaadinSession session = mockSessionForUidlRequest(
+                "{\"csrfToken\": \"token\", \"rpc\":[], \"clientId\":1}");
+
+        boolean result = handler.handleRequest(session, request, response);
+        Assert.assertTrue("Result should be true", result);
+
+        InOrder inOrder = Mockito.inOrder(request, session, outputStream);
+        inOrder.verify(request).getReader();
+        inOrder.verify(session).lock();
+        inOrder.verify(session).unlock();
+        inOrder.verify(outputStream).write(Mockito.any(byte[].class),
+                Mockito.anyInt(), Mockito.anyInt());
+        Mockito.verify(session.getService()).findUI(request);
+    }
+
+    @Test
+    public void handleRequest_invalidCsrfToken_refreshWithoutLockingSession()
+            throws IOException {
+        VaadinSession session = mockSessionForUidlRequest(
+                "{\"csrfToken\": \"wrong\", \"rpc\":[], \"clientId\":1}");
+
+        boolean result = handler.handleRequest(session, request, response);
+        Assert.assertTrue("Result should be true", result);
+
+        Mockito.verify(session, Mockito.never()).lock();
+        Mockito.verify(session.getService(), Mockito.never()).findUI(request);
+        Assert.assertTrue(CommunicationUtil
+                .getStringWhenWriteString(outputStream).contains("\"meta\""));
+    }
+
+    @Test
+    public void handleRequest_synchronizedHandleRequestOverridden_calledWithLock()
+            throws IOException {
+        VaadinSession session = mockSessionForUidlRequest(
+                "{\"csrfToken\": \"token\", \"rpc\":[], \"clientId\":1}");
+        handler = new UidlRequestHandler() {
+            @Override
+            public boolean synchronizedHandleRequest(VaadinSession session,
+                    VaadinRequest request, VaadinResponse response)
+                    throws IOException {
+                session.getAttribute("handled");
+                return super.synchronizedHandleRequest(session, request,
+                        response);
+            }
+        };
+
+        boolean result = handler.handleRequest(session, request, response);
+        Assert.assertTrue("Result should be true", result);
+
+        InOrder inOrder = Mockito.inOrder(session);
+        inOrder.verify(session).lock();
+        inOrder.verify(session).getAttribute("handled");
+        inOrder.verify(session).unlock();
+        Mockito.verify(request, Mockito.never()).getReader();
+    }
+
+    private VaadinSession mockSessionForUidlRequest(String message)
+            throws IOException {
+        VaadinService service = mock(VaadinService.class);
+        VaadinSession session = mock(VaadinSession.class);
+        DeploymentConfiguration configuration = mock(
+                DeploymentConfiguration.class);
+        when(configuration.isXsrfProtectionEnabled()).thenReturn(true);
+        when(service.getDeploymentConfiguration()).thenReturn(configuration);
+        when(session.getService()).thenReturn(service);
+        when(session.getCsrfToken()).thenReturn("token");
+
+        when(request.getService()).thenReturn(service);
+        when(request
+                .getParameter(ApplicationConstants.REQUEST_TYPE_PARAMETER))
+                .thenReturn(RequestType.UIDL.getIdentifier());
+        when(request.getReader())
+                .thenReturn(new BufferedReader(new StringReader(message)));
+        return session;
+    }
+
     @Test
     public void should_not_modifyUidl_when_MPR_nonJavaScriptBootstrapUI() throws Exception {
         JavaScriptBootstrapUI ui = null;
@@ -120,7 +227,12 @@ public class UidlRequestHandlerTest {
         StringWriter writer = new StringWriter();
 
         JsonObject uidl = generateUidl(true, true);
-        doReturn(uidl).when(handler).createUidl(ui, false);
+        UidlWriter uidlWriter = mock(UidlWriter.class);
+        doAnswer(invocation -> {
+            ((Writer) invocation.getArguments()[3]).write(uidl.toJson());
+            return null;
+        }).when(uidlWriter).writeUidl(ui, false, false, writer);
+        doReturn(uidlWriter).when(handler).createUidlWriter();
 
         handler.writeUidl(ui, writer, false);
 
@@ -129,15 +241,16 @@ public class UidlRequestHandlerTest {
         assertTrue(out.startsWith("for(;;);[{"));
         assertTrue(out.endsWith("}]"));
 
-        uidl = JsonUtil.parse(out.substring(9, out.length() - 1));
-        String v7Uidl = uidl.getArray("execute").getArray(2).getString(1);
+        JsonObject written = JsonUtil
+                .parse(out.substring(9, out.length() - 1));
+        String v7Uidl = written.getArray("execute").getArray(2).getString(1);
 
         assertTrue(v7Uidl.contains("http://localhost:9998/#!away"));
         assertTrue(v7Uidl.contains("window.location.hash = '!away';"));
 
         assertEquals(
                 "setTimeout(() => window.history.pushState(null, '', $0))",
-                uidl.getArray("execute").getArray(1).getString(1));
+                written.getArray("execute").getArray(1).getString(1));
     }
 
     @Test
@@ -17,6 +17,7 @@ package com.vaadin.flow.server.communication;
 
 import javax.servlet.http.HttpServletRequest;
 
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -43,16 +44,20 @@ import com.vaadin.flow.router.ParentLayout;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.router.RouteConfiguration;
 import com.vaadin.flow.router.RouterLayout;
+import com.vaadin.flow.server.InitParameters;
 import com.vaadin.flow.server.MockServletServiceSessionSetup;
 import com.vaadin.flow.server.VaadinServletRequest;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.JsonConstants;
 import com.vaadin.flow.shared.ui.Dependency;
 import com.vaadin.flow.shared.ui.LoadMode;
 
 import elemental.json.Json;
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
+import elemental.json.JsonType;
+import elemental.json.impl.JsonUtil;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.Is.is;
@@ -283,6 +288,101 @@ public class UidlWriterTest {
                 response.getBoolean(ApplicationConstants.RESYNCHRONIZE_ID));
     }
 
+    @Test
+    public void writeUidl_streamedResponseContainsChangesAndDependencies()
+            throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        UidlWriter uidlWriter = new UidlWriter();
+
+        ui.add(new ActualComponent());
+
+        StringWriter writer = new StringWriter();
+        uidlWriter.writeUidl(ui, false, false, writer);
+        JsonObject response = JsonUtil.parse(writer.toString());
+
+        assertTrue("Response should contain state changes",
+                response.getArray("changes").length() > 0);
+        assertEquals(4, getDependenciesMap(response).size());
+        assertEquals(ui.getInternals().getServerSyncId() - 1, (int) response
+                .getNumber(ApplicationConstants.SERVER_SYNC_ID));
+
+        // Nothing has changed, so the next response has no changes
+        writer = new StringWriter();
+        uidlWriter.writeUidl(ui, false, false, writer);
+        response = JsonUtil.parse(writer.toString());
+
+        assertFalse(response.hasKey("changes"));
+        assertTrue(response.hasKey(ApplicationConstants.CLIENT_TO_SERVER_ID));
+    }
+
+    @Test
+    public void compactStateChanges_changesEncodedInCompactFormat()
+            throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        mocks.getDeploymentConfiguration().setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_COMPACT_STATE_CHANGES,
+                "true");
+        ui.getInternals().setCompactChangesSupported(true);
+        UidlWriter uidlWriter = new UidlWriter();
+
+        ui.add(new ActualComponent());
+
+        JsonObject response = uidlWriter.createUidl(ui, false);
+
+        assertFalse(response.hasKey("changes"));
+        JsonArray changes = response
+                .getArray(JsonConstants.UIDL_KEY_COMPACT_CHANGES);
+        assertTrue(changes.length() > 0);
+        for (int i = 0; i < changes.length(); i++) {
+            assertEquals(JsonType.ARRAY, changes.get(i).getType());
+        }
+    }
+
+    @Test
+    public void compactStateChanges_mapKeysKeptUntilResync() throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        mocks.getDeploymentConfiguration().setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_COMPACT_STATE_CHANGES,
+                "true");
+        ui.getInternals().setCompactChangesSupported(true);
+        UidlWriter uidlWriter = new UidlWriter();
+        uidlWriter.createUidl(ui, false);
+
+        ui.getElement().setAttribute("foo", "bar");
+        JsonArray change = uidlWriter.createUidl(ui, false)
+                .getArray(JsonConstants.UIDL_KEY_COMPACT_CHANGES).getArray(0);
+        assertEquals("foo", change.getString(4));
+
+        ui.getElement().setAttribute("foo", "baz");
+        change = uidlWriter.createUidl(ui, false)
+                .getArray(JsonConstants.UIDL_KEY_COMPACT_CHANGES).getArray(0);
+        assertEquals("Key sent in an earlier message should be an index",
+                JsonType.NUMBER, change.get(4).getType());
+
+        ui.getElement().setAttribute("foo", "qux");
+        change = uidlWriter.createUidl(ui, false, true)
+                .getArray(JsonConstants.UIDL_KEY_COMPACT_CHANGES).getArray(0);
+        assertEquals("Keys should be sent again after resync", "foo",
+                change.getString(4));
+    }
+
+    @Test
+    public void compactStateChanges_clientWithoutSupport_changesEncodedAsObjects()
+            throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        mocks.getDeploymentConfiguration().setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_COMPACT_STATE_CHANGES,
+                "true");
+        UidlWriter uidlWriter = new UidlWriter();
+
+        ui.add(new ActualComponent());
+
+        JsonObject response = uidlWriter.createUidl(ui, false);
+
+        assertFalse(response.hasKey(JsonConstants.UIDL_KEY_COMPACT_CHANGES));
+        assertTrue(response.getArray("changes").length() > 0);
+    }
+
     private void assertInlineDependencies(List<JsonObject> inlineDependencies) {
         assertThat("Should have an inline dependency", inlineDependencies,
                 hasSize(1));
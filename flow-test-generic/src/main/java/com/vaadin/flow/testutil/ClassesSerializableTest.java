@@ -67,6 +67,7 @@ public abstract class ClassesSerializableTest extends ClassFinder {
                 // Various utils with inner classes
                 ".*\\.demo\\..*", "com\\.vaadin\\..*Util(s)?(\\$\\w+)?$",
 
+                "com\\.vaadin\\.flow\\.data\\.binder\\.BeanPropertySet\\$PropertyAccessor",
                 "com\\.vaadin\\.flow\\.data\\.provider\\.InMemoryDataProviderHelpers",
                 "com\\.vaadin\\.flow\\.dom\\.ElementConstants",
                 "com\\.vaadin\\.flow\\.component\\.board\\.internal\\.FunctionCaller",
@@ -101,6 +102,8 @@ public abstract class ClassesSerializableTest extends ClassFinder {
                 "com\\.vaadin\\.flow\\.server\\.communication\\.ServerRpcHandler\\$LazyInvocationHandlers",
                 "com\\.vaadin\\.flow\\.server\\.VaadinServletRequest",
                 "com\\.vaadin\\.flow\\.server\\.VaadinServletResponse",
+                "com\\.vaadin\\.flow\\.server\\.MemoryFootprintMXBean",
+                "com\\.vaadin\\.flow\\.server\\.InactiveUISweeperMXBean",
                 "com\\.vaadin\\.flow\\.server\\.startup\\.AnnotationValidator",
                 "com\\.vaadin\\.flow\\.server\\.startup\\.ApplicationRouteRegistry\\$RouteRegistryServletContextListener",
                 "com\\.vaadin\\.flow\\.server\\.startup\\.ClassLoaderAwareServletContainerInitializer",
@@ -113,6 +116,9 @@ public abstract class ClassesSerializableTest extends ClassFinder {
                 "com\\.vaadin\\.flow\\.server\\.BootstrapPageResponse",
                 "com\\.vaadin\\.flow\\.server\\.InlineTargets",
                 "com\\.vaadin\\.flow\\.server\\.communication\\.IndexHtmlResponse",
+                "com\\.vaadin\\.flow\\.server\\.communication\\.ResponseBuffer",
+                "com\\.vaadin\\.flow\\.server\\.communication\\.UidlWriter\\$(UidlOutput|JsonObjectOutput|StreamingOutput)",
+                "com\\.vaadin\\.flow\\.server\\.communication\\.StreamReceiverHandler\\$EndAwareChannel",
                 "com\\.vaadin\\.flow\\.server\\.communication\\.PushHandler(\\$.*)?",
                 "com\\.vaadin\\.flow\\.server\\.communication\\.PushRequestHandler(\\$.*)?",
                 "com\\.vaadin\\.flow\\.server\\.communication\\.JavaScriptBootstrapHandler(\\$.*)?",
@@ -140,6 +146,8 @@ public abstract class ClassesSerializableTest extends ClassFinder {
                 "com\\.vaadin\\.flow\\.component\\.polymertemplate\\.TemplateParser(\\$.*)?",
                 "com\\.vaadin\\.flow\\.component\\.littemplate\\.LitTemplateInitializer(\\$.*)?",
                 "com\\.vaadin\\.flow\\.dom\\.impl\\.ThemeListImpl\\$ThemeListIterator",
+                "com\\.vaadin\\.flow\\.internal\\.nodefeature\\.NodeMap\\$ArrayValues\\$(KeySet|KeyIterator)",
+                "com\\.vaadin\\.flow\\.internal\\.change\\.CompactChangeEncoder\\$CompactChange",
                 "com\\.vaadin\\.flow\\.templatemodel\\.PropertyMapBuilder(\\$.*)?",
                 "com\\.vaadin\\.flow\\.internal\\.ReflectionCache",
                 "com\\.vaadin\\.flow\\.component\\.internal\\.ComponentMetaData(\\$.*)?",